@@ -0,0 +1,140 @@
+package org.marly.mavigo.client.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small in-memory cache with a per-entry TTL, LRU eviction and an optional weight budget.
+ * <p>
+ * Expired entries are kept for {@code staleRetention} after their expiry so that callers can
+ * still fall back on them (see {@link #getStale(Object)}), then dropped lazily. All operations
+ * are synchronized; the cache is meant for a few thousand entries, not for hot-path sharding.
+ *
+ * @param <K> key type, must implement {@code equals}/{@code hashCode}
+ * @param <V> value type, should be immutable
+ */
+public class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Duration staleRetention;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalWeight;
+    private long evictionCount;
+
+    public TtlLruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher,
+            Duration staleRetention, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight > 0 ? maxWeight : Long.MAX_VALUE;
+        this.weigher = weigher != null ? weigher : value -> 1L;
+        this.staleRetention = staleRetention != null ? staleRetention : Duration.ZERO;
+        this.clock = clock != null ? clock : Clock.systemUTC();
+    }
+
+    public TtlLruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher, Clock clock) {
+        this(maxEntries, maxWeight, weigher, Duration.ZERO, clock);
+    }
+
+    public TtlLruCache(int maxEntries, Clock clock) {
+        this(maxEntries, 0, null, Duration.ZERO, clock);
+    }
+
+    /**
+     * @return the cached value if present and not expired, {@code null} otherwise
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Instant now = clock.instant();
+        if (now.isBefore(entry.expiresAt())) {
+            return entry.value();
+        }
+        if (!now.isBefore(entry.expiresAt().plus(staleRetention))) {
+            remove(key);
+        }
+        return null;
+    }
+
+    /**
+     * @return the cached value even if expired, as long as it is still within the stale retention window
+     */
+    public synchronized V getStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(entry.expiresAt().plus(staleRetention))) {
+            remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value, Duration ttl) {
+        if (key == null || value == null || ttl == null || ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        long weight = Math.max(1L, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            return;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, clock.instant().plus(ttl), weight));
+        if (previous != null) {
+            totalWeight -= previous.weight();
+        }
+        totalWeight += weight;
+        evictIfNeeded();
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        totalWeight -= removed.weight();
+        return removed.value();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            totalWeight -= eldest.getValue().weight();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private record Entry<V>(V value, Instant expiresAt, long weight) {
+    }
+}
@@ -0,0 +1,140 @@
+package org.marly.mavigo.client.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer meters shared by every outbound HTTP client (PRIM, BAN, Nominatim, Google Tasks).
+ * <p>
+ * Each call is timed with a percentile histogram and tagged by {@code client}, {@code host},
+ * {@code endpoint} and {@code outcome}; the response body size is recorded alongside it.
+ * Endpoints are reduced to their last meaningful path segment ({@code /journeys},
+ * {@code /search}, {@code /tasks}) so identifiers in the path never become tag values.
+ */
+public final class OutboundCallMetrics {
+
+    public static final String METRIC_REQUESTS = "outbound.http.requests";
+    public static final String METRIC_RESPONSE_SIZE = "outbound.http.response.size";
+    public static final String METRIC_RETRIES = "outbound.http.retries";
+
+    public static final String OUTCOME_IO_ERROR = "IO_ERROR";
+
+    private static final Duration MIN_EXPECTED_LATENCY = Duration.ofMillis(5);
+    private static final Duration MAX_EXPECTED_LATENCY = Duration.ofSeconds(30);
+    private static final double MAX_EXPECTED_BYTES = 10 * 1024 * 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    public OutboundCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records one completed call.
+     *
+     * @param bytes response body size, or a negative value when unknown
+     */
+    public void recordCall(String client, URI uri, String outcome, long durationNanos, long bytes) {
+        String host = hostOf(uri);
+        String endpoint = endpointOf(uri != null ? uri.getPath() : null);
+        Timer.builder(METRIC_REQUESTS)
+                .description("Outbound HTTP call latency")
+                .tag("client", client)
+                .tag("host", host)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LATENCY)
+                .maximumExpectedValue(MAX_EXPECTED_LATENCY)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(durationNanos));
+        if (bytes >= 0) {
+            DistributionSummary.builder(METRIC_RESPONSE_SIZE)
+                    .description("Outbound HTTP response body size")
+                    .baseUnit("bytes")
+                    .tag("client", client)
+                    .tag("host", host)
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_EXPECTED_BYTES)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    /**
+     * Counts a call re-issued by the client itself, e.g. the PRIM {@code no_origin} fallback.
+     */
+    public void recordRetry(String client, String endpoint, String reason) {
+        Counter.builder(METRIC_RETRIES)
+                .description("Outbound HTTP calls retried by the client")
+                .tag("client", client)
+                .tag("endpoint", endpointOf(endpoint))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public static String outcomeOf(int status) {
+        if (status >= 100 && status < 200) {
+            return "INFORMATIONAL";
+        }
+        if (status < 300) {
+            return "SUCCESS";
+        }
+        if (status < 400) {
+            return "REDIRECTION";
+        }
+        if (status < 500) {
+            return "CLIENT_ERROR";
+        }
+        return status < 600 ? "SERVER_ERROR" : "UNKNOWN";
+    }
+
+    /**
+     * Reduces a request path to its last segment that does not look like an identifier:
+     * {@code /v2/navitia/coverage/sandbox/coord/2.35;48.85/places_nearby} becomes
+     * {@code /places_nearby} and {@code /tasks/v1/lists/MTIz/tasks/dGFz} becomes {@code /tasks}.
+     */
+    static String endpointOf(String path) {
+        if (path == null || path.isBlank()) {
+            return "/";
+        }
+        String[] segments = path.split("/");
+        for (int i = segments.length - 1; i >= 0; i--) {
+            String segment = segments[i];
+            if (!segment.isEmpty() && !looksLikeIdentifier(segment)) {
+                return "/" + segment.toLowerCase(Locale.ROOT);
+            }
+        }
+        return "/";
+    }
+
+    private static boolean looksLikeIdentifier(String segment) {
+        if (segment.length() > 24) {
+            return true;
+        }
+        boolean upper = false;
+        boolean lower = false;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (Character.isDigit(c) || c == ':' || c == ';' || c == '@' || c == '=' || c == '%' || c == ',') {
+                return true;
+            }
+            upper |= Character.isUpperCase(c);
+            lower |= Character.isLowerCase(c);
+        }
+        // Mixed-case segments are opaque ids (Google Tasks base64 list and task ids)
+        return upper && lower;
+    }
+
+    private static String hostOf(URI uri) {
+        return uri != null && uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "none";
+    }
+}
@@ -0,0 +1,50 @@
+package org.marly.mavigo.client.http;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ExchangeFilterFunction} feeding {@link OutboundCallMetrics} for {@code WebClient}
+ * calls. As with {@link OutboundMetricsExecHandler}, the call is recorded once the response
+ * body has been consumed, with the number of bytes that went through.
+ */
+public class OutboundMetricsExchangeFilter implements ExchangeFilterFunction {
+
+    private final String client;
+    private final OutboundCallMetrics metrics;
+
+    public OutboundMetricsExchangeFilter(String client, OutboundCallMetrics metrics) {
+        this.client = client;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        long start = System.nanoTime();
+        return next.exchange(request)
+                .doOnError(e -> metrics.recordCall(client, request.url(), OutboundCallMetrics.OUTCOME_IO_ERROR,
+                        System.nanoTime() - start, -1))
+                .map(response -> {
+                    String outcome = OutboundCallMetrics.outcomeOf(response.statusCode().value());
+                    AtomicLong bytes = new AtomicLong();
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return response.mutate()
+                            .body(body -> body
+                                    .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                    .doFinally(signal -> {
+                                        if (recorded.compareAndSet(false, true)) {
+                                            metrics.recordCall(client, request.url(), outcome,
+                                                    System.nanoTime() - start, bytes.get());
+                                        }
+                                    }))
+                            .build();
+                });
+    }
+}
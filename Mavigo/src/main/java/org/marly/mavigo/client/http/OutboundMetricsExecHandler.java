@@ -0,0 +1,165 @@
+package org.marly.mavigo.client.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * Apache HttpClient 5 exec-chain handler feeding {@link OutboundCallMetrics}.
+ * <p>
+ * Installed first in the chain, it sees the call as the caller does: redirects and protocol
+ * retries are included in the timing and the body is counted after gzip decoding. The call is
+ * recorded when the response content stream is closed, so the timer also covers reading the
+ * body (e.g. the streaming {@code /journeys} parser).
+ */
+public class OutboundMetricsExecHandler implements ExecChainHandler {
+
+    public static final String NAME = "outbound-metrics";
+
+    private final String client;
+    private final OutboundCallMetrics metrics;
+
+    public OutboundMetricsExecHandler(String client, OutboundCallMetrics metrics) {
+        this.client = client;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        long start = System.nanoTime();
+        URI uri = uriOf(request);
+        ClassicHttpResponse response;
+        try {
+            response = chain.proceed(request, scope);
+        } catch (IOException | HttpException | RuntimeException e) {
+            metrics.recordCall(client, uri, OutboundCallMetrics.OUTCOME_IO_ERROR, System.nanoTime() - start, -1);
+            throw e;
+        }
+
+        String outcome = OutboundCallMetrics.outcomeOf(response.getCode());
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            metrics.recordCall(client, uri, outcome, System.nanoTime() - start, 0);
+        } else {
+            response.setEntity(new MeteredEntity(entity, uri, outcome, start));
+        }
+        return response;
+    }
+
+    private static URI uriOf(ClassicHttpRequest request) {
+        try {
+            return request.getUri();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private final class MeteredEntity extends HttpEntityWrapper {
+
+        private final URI uri;
+        private final String outcome;
+        private final long start;
+        private CountingInputStream content;
+        private boolean recorded;
+
+        MeteredEntity(HttpEntity entity, URI uri, String outcome, long start) {
+            super(entity);
+            this.uri = uri;
+            this.outcome = outcome;
+            this.start = start;
+        }
+
+        @Override
+        public synchronized InputStream getContent() throws IOException {
+            if (content == null) {
+                InputStream delegate = super.getContent();
+                if (delegate == null) {
+                    record(0);
+                    return null;
+                }
+                content = new CountingInputStream(delegate, this);
+            }
+            return content;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            // Keeps EntityUtils.consume() closing the stream, which is what records the call
+            return !recorded || super.isStreaming();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                record(content != null ? content.count : 0);
+            }
+        }
+
+        synchronized void record(long read) {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            long bytes = Math.max(read, getContentLength());
+            metrics.recordCall(client, uri, outcome, System.nanoTime() - start, bytes);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final MeteredEntity owner;
+        private long count;
+
+        CountingInputStream(InputStream in, MeteredEntity owner) {
+            super(in);
+            this.owner = owner;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                owner.record(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.marly.mavigo.client.http;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for one named pooled HTTP client (PRIM, geocoding, ...).
+ *
+ * @param name                     client name, used as the metrics tag
+ * @param connectTimeout           TCP/TLS connect timeout
+ * @param readTimeout              socket read timeout for a single response
+ * @param connectionRequestTimeout max time spent waiting for a free pooled connection
+ * @param maxTotal                 max connections across all hosts
+ * @param maxPerRoute              default max connections per host
+ * @param maxPerHost               per-host overrides of {@code maxPerRoute}, keyed by base URL
+ * @param idleEviction             idle connections older than this are closed
+ * @param timeToLive               max lifetime of a pooled connection
+ */
+public record PooledHttpClientSettings(
+        String name,
+        Duration connectTimeout,
+        Duration readTimeout,
+        Duration connectionRequestTimeout,
+        int maxTotal,
+        int maxPerRoute,
+        Map<String, Integer> maxPerHost,
+        Duration idleEviction,
+        Duration timeToLive) {
+
+    public PooledHttpClientSettings {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Client name cannot be null or empty");
+        }
+        if (maxTotal <= 0 || maxPerRoute <= 0) {
+            throw new IllegalArgumentException("Pool sizes must be positive");
+        }
+        maxPerHost = maxPerHost != null ? Map.copyOf(maxPerHost) : Map.of();
+    }
+}
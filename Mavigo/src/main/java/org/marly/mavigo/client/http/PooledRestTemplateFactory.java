@@ -0,0 +1,143 @@
+package org.marly.mavigo.client.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Builds {@link RestTemplate} instances backed by a pooled, keep-alive Apache HttpClient 5.
+ * <p>
+ * Connections to PRIM and the geocoders are reused across calls instead of paying a
+ * new TCP + TLS handshake per request. Responses are transparently decompressed when the
+ * server honours {@code Accept-Encoding: gzip}. When a {@link MeterRegistry} is available every
+ * call is also timed by an {@link OutboundMetricsExecHandler} tagged with the pool name.
+ */
+public final class PooledRestTemplateFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledRestTemplateFactory.class);
+
+    private PooledRestTemplateFactory() {
+    }
+
+    public static RestTemplate create(PooledHttpClientSettings settings, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = createConnectionManager(settings);
+
+        if (meterRegistry != null) {
+            new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, settings.name())
+                    .bindTo(meterRegistry);
+        }
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(toTimeout(settings.connectionRequestTimeout()))
+                .setResponseTimeout(toTimeout(settings.readTimeout()))
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(settings.idleEviction()));
+        if (meterRegistry != null) {
+            builder.addExecInterceptorFirst(OutboundMetricsExecHandler.NAME,
+                    new OutboundMetricsExecHandler(settings.name(), new OutboundCallMetrics(meterRegistry)));
+        }
+        CloseableHttpClient httpClient = builder.build();
+
+        LOGGER.info("HTTP pool '{}' created (maxTotal={}, maxPerRoute={}, perHost={})",
+                settings.name(), settings.maxTotal(), settings.maxPerRoute(), settings.maxPerHost());
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    static PoolingHttpClientConnectionManager createConnectionManager(PooledHttpClientSettings settings) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(toTimeout(settings.connectTimeout()))
+                .setSocketTimeout(toTimeout(settings.readTimeout()))
+                .setTimeToLive(toTimeValue(settings.timeToLive()))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+
+        settings.maxPerHost().forEach((baseUrl, limit) -> {
+            HttpRoute route = toRoute(baseUrl);
+            if (route != null && limit != null && limit > 0) {
+                connectionManager.setMaxPerRoute(route, limit);
+            }
+        });
+        return connectionManager;
+    }
+
+    /**
+     * Parses a per-host limit list of the form {@code https://a.example=4,https://b.example=1}.
+     * Malformed entries are skipped.
+     */
+    public static Map<String, Integer> parseHostLimits(String value) {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return limits;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String host = entry.substring(0, separator).trim();
+            String limit = entry.substring(separator + 1).trim();
+            try {
+                limits.put(host, Integer.parseInt(limit));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring invalid HTTP pool limit '{}'", entry);
+            }
+        }
+        return limits;
+    }
+
+    static HttpRoute toRoute(String baseUrl) {
+        try {
+            URI uri = URI.create(baseUrl.contains("://") ? baseUrl : "https://" + baseUrl);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "https";
+            boolean secure = "https".equals(scheme);
+            int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+            return new HttpRoute(new HttpHost(scheme, uri.getHost(), port), null, secure);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring invalid HTTP pool host '{}'", baseUrl);
+            return null;
+        }
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return duration != null ? Timeout.ofMilliseconds(duration.toMillis()) : Timeout.DISABLED;
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return duration != null ? TimeValue.ofMilliseconds(duration.toMillis()) : TimeValue.NEG_ONE_MILLISECOND;
+    }
+}
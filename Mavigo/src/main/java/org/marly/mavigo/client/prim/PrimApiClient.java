@@ -1,5 +1,6 @@
 package org.marly.mavigo.client.prim;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
@@ -32,4 +33,29 @@ public interface PrimApiClient {
     List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName);
 
     List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request);
+
+    /**
+     * Calcule plusieurs trajets indépendants. Un échec n'interrompt pas les autres requêtes : il est
+     * rapporté dans le {@link PrimJourneyBatchResult} correspondant.
+     * <p>
+     * L'implémentation par défaut est séquentielle ; le client configuré exécute les requêtes en
+     * parallèle.
+     *
+     * @param requests Requêtes de trajet
+     * @return Un résultat par requête, dans l'ordre des requêtes
+     */
+    default List<PrimJourneyBatchResult> calculateJourneyPlansBatch(List<PrimJourneyRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        List<PrimJourneyBatchResult> results = new ArrayList<>(requests.size());
+        for (PrimJourneyRequest request : requests) {
+            try {
+                results.add(PrimJourneyBatchResult.success(request, calculateJourneyPlans(request)));
+            } catch (RuntimeException e) {
+                results.add(PrimJourneyBatchResult.failure(request, e));
+            }
+        }
+        return results;
+    }
 }
@@ -1,26 +1,210 @@
 package org.marly.mavigo.client.prim;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.marly.mavigo.client.http.OutboundCallMetrics;
+import org.marly.mavigo.client.http.PooledHttpClientSettings;
+import org.marly.mavigo.client.http.PooledRestTemplateFactory;
+import org.marly.mavigo.client.prim.batch.ConcurrentBatchPrimApiClient;
+import org.marly.mavigo.client.prim.cache.CachingPrimApiClient;
+import org.marly.mavigo.client.prim.cache.CoalescingPrimApiClient;
+import org.marly.mavigo.client.prim.quota.PrimQuotaScheduler;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.QuotaLimitedPrimApiClient;
+import org.marly.mavigo.client.prim.resilience.CircuitBreakingPrimApiClient;
+import org.marly.mavigo.client.prim.resilience.HedgingPrimApiClient;
+import org.marly.mavigo.client.prim.resilience.PrimCircuitBreaker;
+import org.marly.mavigo.client.prim.resilience.PrimHedgeBudget;
+import org.marly.mavigo.client.prim.resilience.PrimLatencyTracker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Wires the PRIM client stack. Only the outermost decorator, {@code primApiClient}, is a
+ * candidate for injection by type; inner layers are reachable by qualifier only.
+ */
 @Configuration
 public class PrimApiClientConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.setRequestFactory(clientHttpRequestFactory());
-        return restTemplate;
+    public RestTemplate primRestTemplate(
+            @Value("${prim.http.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${prim.http.read-timeout:10s}") Duration readTimeout,
+            @Value("${prim.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${prim.http.max-total:20}") int maxTotal,
+            @Value("${prim.http.max-per-route:20}") int maxPerRoute,
+            @Value("${prim.http.idle-eviction:30s}") Duration idleEviction,
+            @Value("${prim.http.time-to-live:5m}") Duration timeToLive,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        PooledHttpClientSettings settings = new PooledHttpClientSettings(
+                "prim",
+                connectTimeout,
+                readTimeout,
+                connectionRequestTimeout,
+                maxTotal,
+                maxPerRoute,
+                Map.of(),
+                idleEviction,
+                timeToLive);
+        return PooledRestTemplateFactory.create(settings, meterRegistry.getIfAvailable());
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(10000);
-        return factory;
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primHttpApiClient(
+            @Qualifier("primRestTemplate") RestTemplate restTemplate,
+            @Value("${PRIM_API_ENDPOINT:https://prim.iledefrance-mobilites.fr/marketplace/v2/navitia}") String apiEndpoint,
+            @Value("${PRIM_API_KEY}") String apiKey,
+            @Value("${PRIM_API_TIMEZONE:Europe/Paris}") String navitiaTimezoneId,
+            @Value("${prim.parser.streaming:true}") boolean streamingJourneyParser,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PrimApiClientImpl(restTemplate, apiEndpoint, apiKey, navitiaTimezoneId, streamingJourneyParser,
+                new OutboundCallMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new)));
+    }
+
+    @Bean
+    public PrimQuotaScheduler primQuotaScheduler(
+            @Value("${prim.quota.permits-per-second:5}") double permitsPerSecond,
+            @Value("${prim.quota.burst:10}") int burst,
+            @Value("${prim.quota.interactive.max-queue:50}") int interactiveMaxQueue,
+            @Value("${prim.quota.interactive.max-wait:5s}") Duration interactiveMaxWait,
+            @Value("${prim.quota.rerouting.max-queue:20}") int reroutingMaxQueue,
+            @Value("${prim.quota.rerouting.max-wait:3s}") Duration reroutingMaxWait,
+            @Value("${prim.quota.background.max-queue:10}") int backgroundMaxQueue,
+            @Value("${prim.quota.background.max-wait:1s}") Duration backgroundMaxWait,
+            @Value("${prim.quota.background.reserved-tokens:3}") int backgroundReservedTokens,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<PrimRequestPriority, PrimQuotaScheduler.LaneSettings> lanes = new EnumMap<>(PrimRequestPriority.class);
+        lanes.put(PrimRequestPriority.INTERACTIVE,
+                new PrimQuotaScheduler.LaneSettings(interactiveMaxQueue, interactiveMaxWait, 0));
+        lanes.put(PrimRequestPriority.REROUTING,
+                new PrimQuotaScheduler.LaneSettings(reroutingMaxQueue, reroutingMaxWait, 0));
+        lanes.put(PrimRequestPriority.BACKGROUND,
+                new PrimQuotaScheduler.LaneSettings(backgroundMaxQueue, backgroundMaxWait, backgroundReservedTokens));
+        return new PrimQuotaScheduler(permitsPerSecond, burst, lanes,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primHedgingApiClient(
+            @Qualifier("primHttpApiClient") PrimApiClient delegate,
+            @Value("${prim.hedge.enabled:true}") boolean enabled,
+            @Value("${prim.hedge.quantile:0.95}") double hedgeQuantile,
+            @Value("${prim.hedge.min-delay:100ms}") Duration minHedgeDelay,
+            @Value("${prim.hedge.budget-ratio:0.1}") double budgetRatio,
+            @Value("${prim.hedge.budget-max:5}") double budgetMax,
+            @Value("${prim.hedge.window-size:200}") int windowSize,
+            @Value("${prim.hedge.minimum-samples:20}") int minimumSamples,
+            @Value("${prim.hedge.timeout-quantile:0.99}") double timeoutQuantile,
+            @Value("${prim.hedge.timeout-multiplier:2.0}") double timeoutMultiplier,
+            @Value("${prim.hedge.min-timeout:2s}") Duration minTimeout,
+            @Value("${prim.hedge.max-timeout:10s}") Duration maxTimeout,
+            @Value("${prim.quota.enabled:true}") boolean quotaEnabled,
+            PrimQuotaScheduler scheduler,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        if (!enabled) {
+            return delegate;
+        }
+        return new HedgingPrimApiClient(
+                delegate,
+                new PrimLatencyTracker(windowSize, minimumSamples),
+                new PrimHedgeBudget(budgetRatio, budgetMax),
+                new HedgingPrimApiClient.Settings(hedgeQuantile, minHedgeDelay, timeoutQuantile, timeoutMultiplier,
+                        minTimeout, maxTimeout),
+                quotaEnabled ? () -> scheduler.acquire(PrimRequestPriority.BACKGROUND) : null,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primQuotaApiClient(
+            @Qualifier("primHedgingApiClient") PrimApiClient delegate,
+            @Value("${prim.quota.enabled:true}") boolean enabled,
+            PrimQuotaScheduler scheduler) {
+        if (!enabled) {
+            return delegate;
+        }
+        return new QuotaLimitedPrimApiClient(delegate, scheduler);
+    }
+
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primCoalescingApiClient(
+            @Qualifier("primQuotaApiClient") PrimApiClient delegate,
+            @Value("${prim.coalescing.enabled:true}") boolean enabled,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        if (!enabled) {
+            return delegate;
+        }
+        return new CoalescingPrimApiClient(delegate, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public PrimCircuitBreaker primCircuitBreaker(
+            @Value("${prim.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${prim.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${prim.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${prim.circuit-breaker.slow-call-threshold:4s}") Duration slowCallThreshold,
+            @Value("${prim.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${prim.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${prim.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+        return new PrimCircuitBreaker(
+                new PrimCircuitBreaker.Settings(windowSize, minimumCalls, failureRateThreshold, slowCallThreshold,
+                        slowCallRateThreshold, openDuration, halfOpenProbes),
+                Clock.systemUTC());
+    }
+
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primCircuitBreakingApiClient(
+            @Qualifier("primCoalescingApiClient") PrimApiClient delegate,
+            @Value("${prim.circuit-breaker.enabled:true}") boolean enabled,
+            PrimCircuitBreaker circuitBreaker) {
+        if (!enabled) {
+            return delegate;
+        }
+        return new CircuitBreakingPrimApiClient(delegate, circuitBreaker);
     }
-}
 
+    @Bean(defaultCandidate = false)
+    public PrimApiClient primCachingApiClient(
+            @Qualifier("primCircuitBreakingApiClient") PrimApiClient delegate,
+            @Value("${prim.cache.journeys.enabled:true}") boolean journeyCacheEnabled,
+            @Value("${prim.cache.journeys.ttl:60s}") Duration journeyCacheTtl,
+            @Value("${prim.cache.journeys.time-bucket:2m}") Duration journeyTimeBucket,
+            @Value("${prim.cache.journeys.max-entries:500}") int journeyMaxEntries,
+            @Value("${prim.cache.journeys.max-weight-bytes:8388608}") long journeyMaxWeight,
+            @Value("${prim.cache.journeys.stale-retention:30m}") Duration journeyStaleRetention,
+            @Value("${prim.cache.places.enabled:true}") boolean placeCacheEnabled,
+            @Value("${prim.cache.places.ttl:30m}") Duration placeCacheTtl,
+            @Value("${prim.cache.places.negative-ttl:2m}") Duration placeNegativeTtl,
+            @Value("${prim.cache.places.max-entries:2000}") int placeMaxEntries,
+            @Value("${prim.cache.places.max-weight-bytes:16777216}") long placeMaxWeight,
+            @Value("${prim.cache.places.grid-degrees:0.0005}") double placeGridDegrees,
+            @Value("${prim.cache.places.stale-retention:6h}") Duration placeStaleRetention,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CachingPrimApiClient(
+                delegate,
+                new CachingPrimApiClient.JourneyCacheSettings(
+                        journeyCacheEnabled, journeyCacheTtl, journeyTimeBucket, journeyMaxEntries, journeyMaxWeight,
+                        journeyStaleRetention),
+                new CachingPrimApiClient.PlaceCacheSettings(
+                        placeCacheEnabled, placeCacheTtl, placeNegativeTtl, placeMaxEntries, placeMaxWeight,
+                        placeGridDegrees, placeStaleRetention),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    public PrimApiClient primApiClient(
+            @Qualifier("primCachingApiClient") PrimApiClient delegate,
+            @Value("${prim.batch.max-concurrency:4}") int maxConcurrency) {
+        return new ConcurrentBatchPrimApiClient(delegate, maxConcurrency);
+    }
+}
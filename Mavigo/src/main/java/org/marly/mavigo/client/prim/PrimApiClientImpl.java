@@ -1,5 +1,7 @@
 package org.marly.mavigo.client.prim;
 
+import org.marly.mavigo.client.http.OutboundCallMetrics;
+import org.marly.mavigo.client.prim.deserializer.PrimJourneyStreamingReader;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimCoordinates;
 import org.marly.mavigo.client.prim.model.PrimDisplayInformations;
@@ -13,12 +15,11 @@ import org.marly.mavigo.client.prim.model.PrimStopDateTime;
 import org.marly.mavigo.client.prim.model.PrimStopPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -33,9 +34,9 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
-@Component
 public class PrimApiClientImpl implements PrimApiClient {
 
     private static final String PLACES_ENDPOINT = "/places";
@@ -48,16 +49,28 @@ public class PrimApiClientImpl implements PrimApiClient {
     private final String apiEndpoint;
     private final String apiKey;
     private final ZoneId navitiaZone;
-
+    private final PrimJourneyStreamingReader journeyReader;
+    private final OutboundCallMetrics metrics;
+
+    /**
+     * @param streamingJourneyParser when {@code true}, {@code /journeys} bodies are read from the
+     *                               response stream by {@link PrimJourneyStreamingReader} instead of
+     *                               being bound to the {@code Prim*} model records first
+     * @param metrics                receives the {@code no_origin} fallback retries
+     */
     public PrimApiClientImpl(
             RestTemplate restTemplate,
-            @Value("${PRIM_API_ENDPOINT:https://prim.iledefrance-mobilites.fr/marketplace/v2/navitia}") String apiEndpoint,
-            @Value("${PRIM_API_KEY}") String apiKey,
-            @Value("${PRIM_API_TIMEZONE:Europe/Paris}") String navitiaTimezoneId) {
+            String apiEndpoint,
+            String apiKey,
+            String navitiaTimezoneId,
+            boolean streamingJourneyParser,
+            OutboundCallMetrics metrics) {
         this.restTemplate = restTemplate;
         this.apiEndpoint = apiEndpoint;
         this.apiKey = apiKey;
         this.navitiaZone = ZoneId.of(navitiaTimezoneId);
+        this.journeyReader = streamingJourneyParser ? new PrimJourneyStreamingReader(null, navitiaZone) : null;
+        this.metrics = metrics;
     }
 
     @Override
@@ -98,6 +111,8 @@ public class PrimApiClientImpl implements PrimApiClient {
         LOGGER.debug("Searching for places near coordinates {}, {} (radius: {}m, city: {})",
                 latitude, longitude, radiusMeters, cityName);
 
+        // A failed call must not look like "no stop around": the caller would cache the miss
+        RestClientException cityFailure = null;
         if (cityName != null && !cityName.isBlank()) {
             try {
                 String url = apiEndpoint + PLACES_ENDPOINT + "?q="
@@ -120,7 +135,8 @@ public class PrimApiClientImpl implements PrimApiClient {
 
                 LOGGER.debug("PRIM returned {} places for city '{}'", places.size(), cityName);
 
-                List<PrimPlace> validPlaces = new ArrayList<>();
+                // Distances are computed once per place; places without coordinates sort last
+                List<PlaceDistance> ranked = new ArrayList<>();
                 for (PrimPlace place : places) {
                     if (place == null)
                         continue;
@@ -132,28 +148,20 @@ public class PrimApiClientImpl implements PrimApiClient {
                         double distance = calculateDistance(latitude, longitude,
                                 coords.latitude(), coords.longitude());
                         if (radiusMeters >= 5000 || distance <= radiusMeters) {
-                            validPlaces.add(place);
+                            ranked.add(new PlaceDistance(place, distance));
                         }
                     } else {
                         if (radiusMeters >= 5000) {
-                            validPlaces.add(place);
+                            ranked.add(new PlaceDistance(place, Double.POSITIVE_INFINITY));
                         }
                     }
                 }
 
-                validPlaces.sort((p1, p2) -> {
-                    PrimCoordinates c1 = placeCoordinates(p1);
-                    PrimCoordinates c2 = placeCoordinates(p2);
-                    if (c1 == null && c2 == null)
-                        return 0;
-                    if (c1 == null)
-                        return 1;
-                    if (c2 == null)
-                        return -1;
-                    double d1 = calculateDistance(latitude, longitude, c1.latitude(), c1.longitude());
-                    double d2 = calculateDistance(latitude, longitude, c2.latitude(), c2.longitude());
-                    return Double.compare(d1, d2);
-                });
+                ranked.sort(Comparator.comparingDouble(PlaceDistance::distanceMeters));
+                List<PrimPlace> validPlaces = new ArrayList<>(ranked.size());
+                for (PlaceDistance entry : ranked) {
+                    validPlaces.add(entry.place());
+                }
 
                 if (!validPlaces.isEmpty()) {
                     LOGGER.info("Found {} stop areas near coordinates {}, {} (radius: {}m) using city '{}'",
@@ -165,6 +173,7 @@ public class PrimApiClientImpl implements PrimApiClient {
                 }
             } catch (RestClientException e) {
                 LOGGER.warn("City search '{}' failed: {}", cityName, e.getMessage());
+                cityFailure = e;
             }
         }
 
@@ -211,7 +220,10 @@ public class PrimApiClientImpl implements PrimApiClient {
                 return validPlaces;
             }
         } catch (RestClientException e) {
-            LOGGER.debug("Coord query '{}' failed: {}", coordQuery, e.getMessage());
+            throw new PrimApiException("Failed to search places nearby: " + e.getMessage(), e);
+        }
+        if (cityFailure != null) {
+            throw new PrimApiException("Failed to search places nearby: " + cityFailure.getMessage(), cityFailure);
         }
 
         LOGGER.warn("No stop areas found near coordinates {}, {} (radius: {}m)", latitude, longitude, radiusMeters);
@@ -270,6 +282,7 @@ public class PrimApiClientImpl implements PrimApiClient {
         } catch (RestClientException e) {
             if (isNoOriginError(e)) {
                 LOGGER.warn("PRIM returned no_origin. Retrying with direct_path=only and higher walking limit.");
+                metrics.recordRetry("prim", JOURNEYS_ENDPOINT, "no_origin");
                 PrimJourneyRequest fallback = new PrimJourneyRequest(
                         request.getFromStopAreaId(),
                         request.getToStopAreaId(),
@@ -317,16 +330,27 @@ public class PrimApiClientImpl implements PrimApiClient {
         String url = uriBuilder.toUriString();
 
         HttpHeaders headers = createHeaders();
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<PrimJourneyResponse> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                PrimJourneyResponse.class);
-
-        PrimJourneyResponse journeyResponse = response.getBody();
-        List<PrimJourneyPlanDto> plans = toJourneyPlanDtos(journeyResponse);
+        List<PrimJourneyPlanDto> plans;
+        if (journeyReader != null) {
+            plans = restTemplate.execute(
+                    url,
+                    HttpMethod.GET,
+                    httpRequest -> {
+                        httpRequest.getHeaders().putAll(headers);
+                        httpRequest.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    },
+                    httpResponse -> journeyReader.read(httpResponse.getBody()));
+            if (plans == null) {
+                plans = List.of();
+            }
+        } else {
+            ResponseEntity<PrimJourneyResponse> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    PrimJourneyResponse.class);
+            plans = toJourneyPlanDtos(response.getBody());
+        }
         LOGGER.info("Prim journeys API returned {} option(s)", plans.size());
         return plans;
     }
@@ -530,4 +554,7 @@ public class PrimApiClientImpl implements PrimApiClient {
         }
         return stopPoint.coordinates().longitude();
     }
+
+    private record PlaceDistance(PrimPlace place, double distanceMeters) {
+    }
 }
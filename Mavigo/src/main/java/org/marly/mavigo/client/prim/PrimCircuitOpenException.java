@@ -0,0 +1,11 @@
+package org.marly.mavigo.client.prim;
+
+/**
+ * Thrown instead of calling PRIM while its circuit breaker is open.
+ */
+public class PrimCircuitOpenException extends PrimApiException {
+
+    public PrimCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package org.marly.mavigo.client.prim;
+
+import java.util.List;
+
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+
+/**
+ * Outcome of one request of a {@link PrimApiClient#calculateJourneyPlansBatch} call: either the
+ * journey plans or the exception that request failed with, never both.
+ */
+public record PrimJourneyBatchResult(
+        PrimJourneyRequest request,
+        List<PrimJourneyPlanDto> plans,
+        RuntimeException error) {
+
+    public static PrimJourneyBatchResult success(PrimJourneyRequest request, List<PrimJourneyPlanDto> plans) {
+        return new PrimJourneyBatchResult(request, plans != null ? plans : List.of(), null);
+    }
+
+    public static PrimJourneyBatchResult failure(PrimJourneyRequest request, RuntimeException error) {
+        return new PrimJourneyBatchResult(request, List.of(), error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the plans, or rethrows the error this request failed with
+     */
+    public List<PrimJourneyPlanDto> plansOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+        return plans;
+    }
+}
@@ -0,0 +1,12 @@
+package org.marly.mavigo.client.prim;
+
+/**
+ * Thrown when a PRIM call cannot get a quota token in time, either because its priority lane
+ * queue is full or because the maximum wait elapsed.
+ */
+public class PrimQuotaExceededException extends PrimApiException {
+
+    public PrimQuotaExceededException(String message) {
+        super(message);
+    }
+}
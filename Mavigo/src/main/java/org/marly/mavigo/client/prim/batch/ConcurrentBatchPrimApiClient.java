@@ -0,0 +1,127 @@
+package org.marly.mavigo.client.prim.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimJourneyBatchResult;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
+
+/**
+ * {@link PrimApiClient} decorator running {@link #calculateJourneyPlansBatch} requests
+ * concurrently, one virtual thread per request, with at most {@code maxConcurrency} of them
+ * calling the delegate at once.
+ * <p>
+ * Each request runs under the caller's {@link PrimRequestPriorityContext} so the quota lanes still
+ * apply. Failures are isolated per request and results come back in request order. Single calls
+ * are passed through unchanged.
+ */
+public class ConcurrentBatchPrimApiClient implements PrimApiClient {
+
+    private final PrimApiClient delegate;
+    private final int maxConcurrency;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("prim-batch-", 0).factory();
+
+    public ConcurrentBatchPrimApiClient(PrimApiClient delegate, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Batch concurrency must be positive");
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        return delegate.searchPlaces(query);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        return delegate.searchPlacesNearby(latitude, longitude, radiusMeters);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        return delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName);
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        return delegate.calculateJourneyPlans(request);
+    }
+
+    @Override
+    public List<PrimJourneyBatchResult> calculateJourneyPlansBatch(List<PrimJourneyRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        if (requests.size() == 1) {
+            return List.of(calculateOne(requests.get(0)));
+        }
+
+        PrimRequestPriority priority = PrimRequestPriorityContext.current();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<PrimJourneyBatchResult>> futures = new ArrayList<>(requests.size());
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+            for (PrimJourneyRequest request : requests) {
+                futures.add(executor.submit(() -> PrimRequestPriorityContext.callWith(priority,
+                        () -> calculateWithPermit(request, permits))));
+            }
+        }
+
+        List<PrimJourneyBatchResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(resultOf(requests.get(i), futures.get(i)));
+        }
+        return results;
+    }
+
+    private PrimJourneyBatchResult calculateWithPermit(PrimJourneyRequest request, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PrimJourneyBatchResult.failure(request,
+                    new PrimApiException("Interrupted while waiting for a PRIM batch slot", e));
+        }
+        try {
+            return calculateOne(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PrimJourneyBatchResult calculateOne(PrimJourneyRequest request) {
+        try {
+            return PrimJourneyBatchResult.success(request, delegate.calculateJourneyPlans(request));
+        } catch (RuntimeException e) {
+            return PrimJourneyBatchResult.failure(request, e);
+        }
+    }
+
+    private static PrimJourneyBatchResult resultOf(PrimJourneyRequest request, Future<PrimJourneyBatchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return PrimJourneyBatchResult.failure(request,
+                    new PrimApiException("Interrupted while waiting for a PRIM batch result", e));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            RuntimeException error = cause instanceof RuntimeException runtime ? runtime
+                    : new PrimApiException("PRIM batch request failed: " + cause.getMessage(), cause);
+            return PrimJourneyBatchResult.failure(request, error);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.marly.mavigo.client.prim.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.cache.TtlLruCache;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimCircuitOpenException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link PrimApiClient} decorator caching {@code /journeys} and {@code /places} answers.
+ * <p>
+ * Journey entries are keyed on {@link PrimJourneyRequestKey}, so the optimizer, via legs and
+ * reroutes asking for the same origin/destination and comfort parameters within one time bucket
+ * reuse a single PRIM call. Empty journey results and failures are never cached.
+ * <p>
+ * Place entries are keyed on {@link PrimPlaceQueryKey}. Empty place results are cached for the
+ * shorter {@code negativeTtl} so that repeated misses on the same string stop hitting PRIM.
+ * <p>
+ * Expired entries are retained for {@code staleRetention}: when the delegate fails with
+ * {@link PrimCircuitOpenException}, the last good answer is served instead, journeys being
+ * flagged {@link PrimJourneyPlanDto#stale()}.
+ */
+public class CachingPrimApiClient implements PrimApiClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingPrimApiClient.class);
+
+    static final String METRIC_REQUESTS = "prim.client.cache.requests";
+    static final String METRIC_SIZE = "prim.client.cache.size";
+    static final String METRIC_EVICTIONS = "prim.client.cache.evictions";
+
+    /** Rough heap footprint used to enforce the memory budget. */
+    private static final long JOURNEY_BASE_WEIGHT = 512;
+    private static final long LEG_WEIGHT = 1024;
+    private static final long PLACE_BASE_WEIGHT = 64;
+    private static final long PLACE_WEIGHT = 768;
+
+    private final PrimApiClient delegate;
+    private final JourneyCacheSettings journeySettings;
+    private final TtlLruCache<PrimJourneyRequestKey, List<PrimJourneyPlanDto>> journeyCache;
+    private final Counter journeyHits;
+    private final Counter journeyMisses;
+    private final Counter journeyStale;
+    private final PlaceCacheSettings placeSettings;
+    private final TtlLruCache<PrimPlaceQueryKey, List<PrimPlace>> placeCache;
+    private final Counter placeHits;
+    private final Counter placeNegativeHits;
+    private final Counter placeMisses;
+    private final Counter placeStale;
+
+    public CachingPrimApiClient(PrimApiClient delegate, JourneyCacheSettings journeySettings,
+            PlaceCacheSettings placeSettings, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.journeySettings = journeySettings;
+        this.placeSettings = placeSettings;
+        this.journeyCache = new TtlLruCache<>(
+                journeySettings.maxEntries(),
+                journeySettings.maxWeightBytes(),
+                CachingPrimApiClient::weighJourneys,
+                journeySettings.staleRetention(),
+                clock);
+        this.journeyHits = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "journeys").tag("result", "hit")
+                .register(meterRegistry);
+        this.journeyMisses = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "journeys").tag("result", "miss")
+                .register(meterRegistry);
+        this.journeyStale = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "journeys").tag("result", "stale")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, journeyCache, TtlLruCache::size)
+                .tag("cache", "journeys")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_EVICTIONS, journeyCache, TtlLruCache::evictionCount)
+                .tag("cache", "journeys")
+                .register(meterRegistry);
+
+        this.placeCache = new TtlLruCache<>(
+                placeSettings.maxEntries(),
+                placeSettings.maxWeightBytes(),
+                CachingPrimApiClient::weighPlaces,
+                placeSettings.staleRetention(),
+                clock);
+        this.placeHits = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "places").tag("result", "hit")
+                .register(meterRegistry);
+        this.placeNegativeHits = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "places").tag("result", "negative_hit")
+                .register(meterRegistry);
+        this.placeMisses = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "places").tag("result", "miss")
+                .register(meterRegistry);
+        this.placeStale = Counter.builder(METRIC_REQUESTS)
+                .tag("cache", "places").tag("result", "stale")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, placeCache, TtlLruCache::size)
+                .tag("cache", "places")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_EVICTIONS, placeCache, TtlLruCache::evictionCount)
+                .tag("cache", "places")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        if (!placeSettings.enabled() || query == null || query.isBlank()) {
+            return delegate.searchPlaces(query);
+        }
+        PrimPlaceQueryKey key = PrimPlaceQueryKey.search(query, placeSettings.gridDegrees());
+        return cachedPlaces(key, () -> delegate.searchPlaces(query));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        if (!placeSettings.enabled()) {
+            return delegate.searchPlacesNearby(latitude, longitude, radiusMeters);
+        }
+        PrimPlaceQueryKey key = PrimPlaceQueryKey.nearby(latitude, longitude, radiusMeters, null,
+                placeSettings.gridDegrees());
+        return cachedPlaces(key, () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        if (!placeSettings.enabled()) {
+            return delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName);
+        }
+        PrimPlaceQueryKey key = PrimPlaceQueryKey.nearby(latitude, longitude, radiusMeters, cityName,
+                placeSettings.gridDegrees());
+        return cachedPlaces(key, () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName));
+    }
+
+    private List<PrimPlace> cachedPlaces(PrimPlaceQueryKey key, Supplier<List<PrimPlace>> loader) {
+        List<PrimPlace> cached = placeCache.get(key);
+        if (cached != null) {
+            if (cached.isEmpty()) {
+                placeNegativeHits.increment();
+            } else {
+                placeHits.increment();
+            }
+            return cached;
+        }
+
+        placeMisses.increment();
+        List<PrimPlace> result;
+        try {
+            result = loader.get();
+        } catch (PrimCircuitOpenException e) {
+            List<PrimPlace> stale = placeCache.getStale(key);
+            if (stale == null || stale.isEmpty()) {
+                throw e;
+            }
+            placeStale.increment();
+            LOGGER.warn("PRIM unavailable, serving stale places for {}", key);
+            return stale;
+        }
+        if (result == null || result.isEmpty()) {
+            placeCache.put(key, List.of(), placeSettings.negativeTtl());
+            return result;
+        }
+        placeCache.put(key, result, placeSettings.ttl());
+        return result;
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        if (!journeySettings.enabled() || !isCacheable(request)) {
+            return delegate.calculateJourneyPlans(request);
+        }
+
+        PrimJourneyRequestKey key = PrimJourneyRequestKey.of(request, journeySettings.timeBucket());
+        List<PrimJourneyPlanDto> cached = journeyCache.get(key);
+        if (cached != null) {
+            journeyHits.increment();
+            LOGGER.debug("PRIM journey cache hit for {} -> {}", key.from(), key.to());
+            return cached;
+        }
+
+        journeyMisses.increment();
+        List<PrimJourneyPlanDto> result;
+        try {
+            result = delegate.calculateJourneyPlans(request);
+        } catch (PrimCircuitOpenException e) {
+            List<PrimJourneyPlanDto> stale = journeyCache.getStale(key);
+            if (stale == null) {
+                throw e;
+            }
+            journeyStale.increment();
+            LOGGER.warn("PRIM unavailable, serving stale journeys for {} -> {}", key.from(), key.to());
+            return stale.stream().map(PrimJourneyPlanDto::asStale).toList();
+        }
+        if (result != null && !result.isEmpty()) {
+            journeyCache.put(key, result, journeySettings.ttl());
+        }
+        return result;
+    }
+
+    private static boolean isCacheable(PrimJourneyRequest request) {
+        return request != null
+                && request.getFromStopAreaId() != null
+                && request.getToStopAreaId() != null
+                && request.getDatetime() != null;
+    }
+
+    private static long weighJourneys(List<PrimJourneyPlanDto> journeys) {
+        long weight = 0;
+        for (PrimJourneyPlanDto journey : journeys) {
+            int legs = journey.legs() != null ? journey.legs().size() : 0;
+            weight += JOURNEY_BASE_WEIGHT + legs * LEG_WEIGHT;
+        }
+        return weight;
+    }
+
+    private static long weighPlaces(List<PrimPlace> places) {
+        return PLACE_BASE_WEIGHT + places.size() * PLACE_WEIGHT;
+    }
+
+    /**
+     * @param enabled        whether journey answers are cached at all
+     * @param ttl            how long an answer is served from memory
+     * @param timeBucket     departure times are floored to this granularity when building keys
+     * @param maxEntries     max cached requests, least recently used first out
+     * @param maxWeightBytes approximate heap budget for cached answers, {@code 0} for none
+     * @param staleRetention how long an expired answer is kept as a fallback while PRIM is unavailable
+     */
+    public record JourneyCacheSettings(
+            boolean enabled,
+            Duration ttl,
+            Duration timeBucket,
+            int maxEntries,
+            long maxWeightBytes,
+            Duration staleRetention) {
+    }
+
+    /**
+     * @param enabled        whether place lookups are cached at all
+     * @param ttl            how long a non-empty answer is served from memory
+     * @param negativeTtl    how long an empty answer is served from memory
+     * @param maxEntries     max cached lookups, least recently used first out
+     * @param maxWeightBytes approximate heap budget for cached answers, {@code 0} for none
+     * @param gridDegrees    coordinate grid used to snap {@code coord:} and nearby lookups
+     * @param staleRetention how long an expired answer is kept as a fallback while PRIM is unavailable
+     */
+    public record PlaceCacheSettings(
+            boolean enabled,
+            Duration ttl,
+            Duration negativeTtl,
+            int maxEntries,
+            long maxWeightBytes,
+            double gridDegrees,
+            Duration staleRetention) {
+    }
+}
@@ -0,0 +1,130 @@
+package org.marly.mavigo.client.prim.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link PrimApiClient} decorator collapsing identical in-flight requests (single flight).
+ * <p>
+ * The first caller for a given canonical request performs the HTTP call; callers arriving while
+ * it is still running wait for the same outcome, value or exception, instead of issuing their
+ * own call. Nothing is retained once the call completes, caching is left to
+ * {@link CachingPrimApiClient}.
+ */
+public class CoalescingPrimApiClient implements PrimApiClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingPrimApiClient.class);
+
+    static final String METRIC_COLLAPSED = "prim.client.coalesced";
+    static final String METRIC_IN_FLIGHT = "prim.client.in_flight";
+
+    /** Coordinates are only merged when they are identical to the micro-degree. */
+    private static final double EXACT_GRID_DEGREES = 0.000001;
+
+    private final PrimApiClient delegate;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsedJourneys;
+    private final Counter collapsedPlaces;
+
+    public CoalescingPrimApiClient(PrimApiClient delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.collapsedJourneys = Counter.builder(METRIC_COLLAPSED)
+                .description("PRIM calls answered by an identical request already in flight")
+                .tag("endpoint", "journeys")
+                .register(meterRegistry);
+        this.collapsedPlaces = Counter.builder(METRIC_COLLAPSED)
+                .description("PRIM calls answered by an identical request already in flight")
+                .tag("endpoint", "places")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_IN_FLIGHT, inFlight, ConcurrentMap::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        if (query == null || query.isBlank()) {
+            return delegate.searchPlaces(query);
+        }
+        return coalesce(PrimPlaceQueryKey.search(query, EXACT_GRID_DEGREES),
+                () -> delegate.searchPlaces(query), collapsedPlaces);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        return coalesce(PrimPlaceQueryKey.nearby(latitude, longitude, radiusMeters, null, EXACT_GRID_DEGREES),
+                () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters), collapsedPlaces);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        return coalesce(PrimPlaceQueryKey.nearby(latitude, longitude, radiusMeters, cityName, EXACT_GRID_DEGREES),
+                () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName), collapsedPlaces);
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        if (request == null || request.getDatetime() == null) {
+            return delegate.calculateJourneyPlans(request);
+        }
+        return coalesce(PrimJourneyRequestKey.of(request, Duration.ZERO),
+                () -> delegate.calculateJourneyPlans(request), collapsedJourneys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Object key, Supplier<T> call, Counter collapsed) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            collapsed.increment();
+            LOGGER.debug("Joining in-flight PRIM request {}", key);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new PrimApiException("Coalesced PRIM request failed: " + e.getMessage(), cause);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
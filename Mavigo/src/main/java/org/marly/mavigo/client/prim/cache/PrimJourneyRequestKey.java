@@ -0,0 +1,77 @@
+package org.marly.mavigo.client.prim.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+
+/**
+ * Canonical, immutable form of a {@link PrimJourneyRequest}.
+ * <p>
+ * Two requests that PRIM would answer identically map to the same key: list parameters are
+ * de-duplicated and sorted, and the departure time is floored to {@code timeBucket} so that
+ * requests issued a few seconds apart share an entry.
+ */
+public record PrimJourneyRequestKey(
+        String from,
+        String to,
+        LocalDateTime datetimeBucket,
+        String datetimeRepresents,
+        Integer maxDuration,
+        Integer maxNbTransfers,
+        Boolean wheelchair,
+        Boolean realtime,
+        Integer maxWaitingDuration,
+        Integer maxWalkingDurationToPt,
+        String directPath,
+        Boolean equipmentDetails,
+        List<String> firstSectionModes,
+        List<String> lastSectionModes,
+        List<String> excludedLines) {
+
+    public static PrimJourneyRequestKey of(PrimJourneyRequest request, Duration timeBucket) {
+        Objects.requireNonNull(request, "request");
+        return new PrimJourneyRequestKey(
+                request.getFromStopAreaId(),
+                request.getToStopAreaId(),
+                floor(request.getDatetime(), timeBucket),
+                request.getDatetimeRepresents(),
+                request.getMaxDuration().orElse(null),
+                request.getMaxNbTransfers().orElse(null),
+                request.getWheelchair().orElse(null),
+                request.getRealtime().orElse(null),
+                request.getMaxWaitingDuration().orElse(null),
+                request.getMaxWalkingDurationToPt().orElse(null),
+                request.getDirectPath().orElse(null),
+                request.getEquipmentDetails().orElse(null),
+                canonical(request.getFirstSectionModes().orElse(null)),
+                canonical(request.getLastSectionModes().orElse(null)),
+                canonical(request.getExcludedLines()));
+    }
+
+    static LocalDateTime floor(LocalDateTime datetime, Duration bucket) {
+        if (datetime == null || bucket == null || bucket.getSeconds() <= 1) {
+            return datetime == null ? null : datetime.withNano(0);
+        }
+        long bucketSeconds = bucket.getSeconds();
+        long epochSeconds = datetime.toEpochSecond(ZoneOffset.UTC);
+        long floored = Math.floorDiv(epochSeconds, bucketSeconds) * bucketSeconds;
+        return LocalDateTime.ofEpochSecond(floored, 0, ZoneOffset.UTC);
+    }
+
+    private static List<String> canonical(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
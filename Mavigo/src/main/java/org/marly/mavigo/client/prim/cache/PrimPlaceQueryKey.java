@@ -0,0 +1,58 @@
+package org.marly.mavigo.client.prim.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical key for PRIM {@code /places} lookups.
+ * <p>
+ * Free-text queries are accent-folded, lower-cased and whitespace-collapsed, so
+ * {@code "Gare  de Châtelet"} and {@code "gare de chatelet"} share an entry. Coordinates, either
+ * from a {@code coord:lon;lat} query or from a nearby search, are snapped to a grid of
+ * {@code gridDegrees} so that points a few metres apart hit the same entry.
+ *
+ * @param kind      {@code search} or {@code nearby}
+ * @param text      normalized query text, or normalized city name for nearby searches
+ * @param latCell   snapped latitude cell, {@code null} for plain text queries
+ * @param lonCell   snapped longitude cell, {@code null} for plain text queries
+ * @param radius    search radius in metres, {@code 0} for text queries
+ */
+public record PrimPlaceQueryKey(String kind, String text, Long latCell, Long lonCell, int radius) {
+
+    private static final Pattern COORD_QUERY = Pattern.compile(
+            "^coord:\\s*(-?\\d+(?:\\.\\d+)?)\\s*;\\s*(-?\\d+(?:\\.\\d+)?)$");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static PrimPlaceQueryKey search(String query, double gridDegrees) {
+        String normalized = normalize(query);
+        Matcher coord = COORD_QUERY.matcher(normalized);
+        if (coord.matches()) {
+            double lon = Double.parseDouble(coord.group(1));
+            double lat = Double.parseDouble(coord.group(2));
+            return new PrimPlaceQueryKey("search", "coord", snap(lat, gridDegrees), snap(lon, gridDegrees), 0);
+        }
+        return new PrimPlaceQueryKey("search", normalized, null, null, 0);
+    }
+
+    public static PrimPlaceQueryKey nearby(double latitude, double longitude, int radiusMeters, String cityName,
+            double gridDegrees) {
+        return new PrimPlaceQueryKey("nearby", normalize(cityName),
+                snap(latitude, gridDegrees), snap(longitude, gridDegrees), radiusMeters);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static long snap(double value, double gridDegrees) {
+        double grid = gridDegrees > 0 ? gridDegrees : 0.000001;
+        return Math.round(value / grid);
+    }
+}
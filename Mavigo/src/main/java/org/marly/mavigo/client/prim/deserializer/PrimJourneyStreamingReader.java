@@ -0,0 +1,426 @@
+package org.marly.mavigo.client.prim.deserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads a PRIM {@code /journeys} response straight into {@link PrimJourneyPlanDto}s in a single
+ * pass over the token stream.
+ * <p>
+ * Only the fields the DTOs need are decoded; everything else ({@code links}, {@code geojson},
+ * {@code fare}, {@code context}, ...) is skipped at the token level without building a tree or
+ * the intermediate {@code Prim*} model records. The mapping rules are the ones applied by
+ * {@code PrimApiClientImpl} to the model records, so both paths produce equal DTOs.
+ */
+public class PrimJourneyStreamingReader {
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    private static final DateTimeFormatter NAVITIA_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String AIR_CONDITIONING_EQUIPMENT = "has_air_conditioned";
+
+    private final JsonFactory jsonFactory;
+    private final ZoneId navitiaZone;
+
+    public PrimJourneyStreamingReader(JsonFactory jsonFactory, ZoneId navitiaZone) {
+        this.jsonFactory = jsonFactory != null ? jsonFactory : new JsonFactory();
+        this.navitiaZone = navitiaZone;
+    }
+
+    public List<PrimJourneyPlanDto> read(InputStream body) throws IOException {
+        if (body == null) {
+            return List.of();
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return readResponse(parser);
+        }
+    }
+
+    public List<PrimJourneyPlanDto> read(byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            return List.of();
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return readResponse(parser);
+        }
+    }
+
+    private List<PrimJourneyPlanDto> readResponse(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return List.of();
+        }
+        List<PrimJourneyPlanDto> plans = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("journeys".equals(field) && p.currentToken() == JsonToken.START_ARRAY) {
+                plans = new ArrayList<>();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        plans.add(readJourney(p));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (plans == null || plans.isEmpty()) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(plans);
+    }
+
+    private PrimJourneyPlanDto readJourney(JsonParser p) throws IOException {
+        String id = null;
+        Integer duration = null;
+        Integer nbTransfers = null;
+        LocalDateTime departure = null;
+        LocalDateTime arrival = null;
+        List<PrimJourneyPlanDto.LegDto> legs = List.of();
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = readText(p);
+                case "duration" -> duration = readInteger(p);
+                case "nb_transfers" -> nbTransfers = readInteger(p);
+                case "departure_date_time" -> departure = readDateTime(p);
+                case "arrival_date_time" -> arrival = readDateTime(p);
+                case "sections" -> legs = readSections(p);
+                default -> p.skipChildren();
+            }
+        }
+        return new PrimJourneyPlanDto(id, toOffset(departure), toOffset(arrival), duration, nbTransfers, legs);
+    }
+
+    private List<PrimJourneyPlanDto.LegDto> readSections(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return List.of();
+        }
+        List<PrimJourneyPlanDto.LegDto> legs = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            PrimJourneyPlanDto.LegDto leg = readSection(p, legs.size() + 1);
+            if (leg != null) {
+                legs.add(leg);
+            }
+        }
+        return legs.isEmpty() ? List.of() : Collections.unmodifiableList(legs);
+    }
+
+    private PrimJourneyPlanDto.LegDto readSection(JsonParser p, int sequenceOrder) throws IOException {
+        String id = null;
+        String type = null;
+        Integer duration = null;
+        LocalDateTime departure = null;
+        LocalDateTime arrival = null;
+        Point from = null;
+        Point to = null;
+        Display display = null;
+        List<StopTime> stopTimes = null;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = readText(p);
+                case "type" -> type = readText(p);
+                case "duration" -> duration = readInteger(p);
+                case "departure_date_time" -> departure = readDateTime(p);
+                case "arrival_date_time" -> arrival = readDateTime(p);
+                case "from" -> from = readPoint(p);
+                case "to" -> to = readPoint(p);
+                case "display_informations" -> display = readDisplay(p);
+                case "stop_date_times" -> stopTimes = readStopTimes(p);
+                default -> p.skipChildren();
+            }
+        }
+
+        String commercialMode = display != null ? display.commercialMode : null;
+        String lineCode = display != null ? display.code : null;
+        String lineName = display != null ? display.label : null;
+        String lineColor = display != null ? display.color : null;
+        String networkName = display != null ? display.network : null;
+        boolean airConditioning = display != null && display.airConditioning;
+        List<PrimJourneyPlanDto.StopDateTimeDto> stopDateTimeDtos = toStopDateTimeDtos(stopTimes);
+
+        if (stopTimes != null && stopTimes.size() >= 2) {
+            StopTime first = stopTimes.get(0);
+            StopTime last = stopTimes.get(stopTimes.size() - 1);
+            if (first == null || last == null || first.point == null || last.point == null) {
+                return null;
+            }
+            return new PrimJourneyPlanDto.LegDto(
+                    sequenceOrder, id, type, commercialMode, lineCode, lineName, lineColor, networkName,
+                    toOffset(first.departure != null ? first.departure : departure),
+                    toOffset(last.arrival != null ? last.arrival : arrival),
+                    duration,
+                    first.point.id, first.point.name, first.point.latitude, first.point.longitude,
+                    last.point.id, last.point.name, last.point.latitude, last.point.longitude,
+                    lineName, airConditioning, stopDateTimeDtos);
+        }
+
+        return new PrimJourneyPlanDto.LegDto(
+                sequenceOrder, id, type, commercialMode, lineCode, lineName, lineColor, networkName,
+                toOffset(departure), toOffset(arrival), duration,
+                from != null ? from.id : null,
+                from != null ? from.name : null,
+                from != null ? from.latitude : null,
+                from != null ? from.longitude : null,
+                to != null ? to.id : null,
+                to != null ? to.name : null,
+                to != null ? to.latitude : null,
+                to != null ? to.longitude : null,
+                lineName, airConditioning, stopDateTimeDtos);
+    }
+
+    private List<StopTime> readStopTimes(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        List<StopTime> stopTimes = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                stopTimes.add(null);
+                continue;
+            }
+            Point point = null;
+            LocalDateTime arrival = null;
+            LocalDateTime departure = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "stop_point" -> point = readPoint(p);
+                    case "arrival_date_time" -> arrival = readDateTime(p);
+                    case "departure_date_time" -> departure = readDateTime(p);
+                    default -> p.skipChildren();
+                }
+            }
+            stopTimes.add(new StopTime(point, arrival, departure));
+        }
+        return stopTimes;
+    }
+
+    private List<PrimJourneyPlanDto.StopDateTimeDto> toStopDateTimeDtos(List<StopTime> stopTimes) {
+        if (stopTimes == null || stopTimes.isEmpty()) {
+            return null;
+        }
+        List<PrimJourneyPlanDto.StopDateTimeDto> dtos = new ArrayList<>(stopTimes.size());
+        for (StopTime stopTime : stopTimes) {
+            if (stopTime == null || stopTime.point == null) {
+                continue;
+            }
+            Point sp = stopTime.point;
+            dtos.add(new PrimJourneyPlanDto.StopDateTimeDto(
+                    sp.id, sp.name, sp.stopAreaId, sp.latitude, sp.longitude,
+                    toOffset(stopTime.arrival), toOffset(stopTime.departure)));
+        }
+        return dtos.isEmpty() ? null : Collections.unmodifiableList(dtos);
+    }
+
+    private Point readPoint(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        Point point = new Point();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> point.id = readText(p);
+                case "name" -> point.name = readText(p);
+                case "coord" -> readCoordinates(p, point);
+                case "stop_area" -> point.stopAreaId = readId(p);
+                default -> p.skipChildren();
+            }
+        }
+        return point;
+    }
+
+    private String readId(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        String id = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("id".equals(field)) {
+                id = readText(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    private void readCoordinates(JsonParser p, Point point) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "lat" -> point.latitude = readCoordinate(p);
+                case "lon" -> point.longitude = readCoordinate(p);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private Display readDisplay(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        Display display = new Display();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "label" -> display.label = readText(p);
+                case "code" -> display.code = readText(p);
+                case "color" -> display.color = readText(p);
+                case "network" -> display.network = readText(p);
+                case "commercial_mode" -> display.commercialMode = readText(p);
+                case "equipments" -> display.airConditioning = containsEquipment(p, AIR_CONDITIONING_EQUIPMENT);
+                default -> p.skipChildren();
+            }
+        }
+        return display;
+    }
+
+    private static boolean containsEquipment(JsonParser p, String equipment) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return false;
+        }
+        boolean found = false;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                found |= equipment.equals(p.getText());
+            } else {
+                p.skipChildren();
+            }
+        }
+        return found;
+    }
+
+    private static String readText(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getText();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static Integer readInteger(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getValueAsInt();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(text);
+            } catch (NumberFormatException e) {
+                throw new IOException("Unable to parse integer: " + text, e);
+            }
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static Double readCoordinate(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.valueOf(p.getText());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    private static LocalDateTime readDateTime(JsonParser p) throws IOException {
+        String text = readText(p);
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text, ISO_FORMATTER);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(text, NAVITIA_FORMATTER);
+            } catch (DateTimeParseException e2) {
+                throw new IOException("Unable to parse date-time: " + text, e2);
+            }
+        }
+    }
+
+    private OffsetDateTime toOffset(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        return dateTime.atZone(navitiaZone).toOffsetDateTime();
+    }
+
+    private static final class Point {
+        private String id;
+        private String name;
+        private Double latitude;
+        private Double longitude;
+        private String stopAreaId;
+    }
+
+    private static final class Display {
+        private String label;
+        private String code;
+        private String color;
+        private String network;
+        private String commercialMode;
+        private boolean airConditioning;
+    }
+
+    private record StopTime(Point point, LocalDateTime arrival, LocalDateTime departure) {
+    }
+}
@@ -3,13 +3,33 @@ package org.marly.mavigo.client.prim.dto;
 import java.time.OffsetDateTime;
 import java.util.List;
 
+/**
+ * @param stale {@code true} when served from cache while PRIM is unavailable, so times may be outdated
+ */
 public record PrimJourneyPlanDto(
         String journeyId,
         OffsetDateTime departureDateTime,
         OffsetDateTime arrivalDateTime,
         Integer durationSeconds,
         Integer transfers,
-        List<LegDto> legs) {
+        List<LegDto> legs,
+        boolean stale) {
+
+    public PrimJourneyPlanDto(
+            String journeyId,
+            OffsetDateTime departureDateTime,
+            OffsetDateTime arrivalDateTime,
+            Integer durationSeconds,
+            Integer transfers,
+            List<LegDto> legs) {
+        this(journeyId, departureDateTime, arrivalDateTime, durationSeconds, transfers, legs, false);
+    }
+
+    public PrimJourneyPlanDto asStale() {
+        return stale ? this
+                : new PrimJourneyPlanDto(journeyId, departureDateTime, arrivalDateTime, durationSeconds, transfers,
+                        legs, true);
+    }
 
     public record LegDto(
             int sequenceOrder,
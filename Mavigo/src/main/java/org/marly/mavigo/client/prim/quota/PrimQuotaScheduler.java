@@ -0,0 +1,209 @@
+package org.marly.mavigo.client.prim.quota;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.marly.mavigo.client.prim.PrimQuotaExceededException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Token bucket shared by all PRIM calls, with one bounded wait queue per
+ * {@link PrimRequestPriority}.
+ * <p>
+ * A token is only handed to a lane when no higher-priority lane has callers waiting, and a lane
+ * may additionally require a number of tokens to stay in the bucket ({@code reservedTokens}) so
+ * that background work never drains the burst interactive users rely on. Callers that find their
+ * lane queue full, or that wait longer than the lane's {@code maxWait}, are rejected with a
+ * {@link PrimQuotaExceededException} instead of piling up on request threads.
+ */
+public class PrimQuotaScheduler {
+
+    static final String METRIC_QUEUE_DEPTH = "prim.quota.queue.depth";
+    static final String METRIC_WAIT = "prim.quota.wait";
+    static final String METRIC_REJECTED = "prim.quota.rejected";
+    static final String METRIC_TOKENS = "prim.quota.tokens";
+
+    private static final long MIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final Map<PrimRequestPriority, Lane> lanes = new EnumMap<>(PrimRequestPriority.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public PrimQuotaScheduler(double permitsPerSecond, int burst, Map<PrimRequestPriority, LaneSettings> laneSettings,
+            MeterRegistry meterRegistry) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Quota rate and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+
+        for (PrimRequestPriority priority : PrimRequestPriority.values()) {
+            LaneSettings settings = laneSettings.getOrDefault(priority, LaneSettings.DEFAULT);
+            if (settings.reservedTokens() >= burst) {
+                throw new IllegalArgumentException("Reserved tokens for " + priority + " must be below the burst");
+            }
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            Lane lane = new Lane(settings,
+                    Timer.builder(METRIC_WAIT).tag("lane", tag)
+                            .description("Time spent waiting for a PRIM quota token")
+                            .register(meterRegistry),
+                    Counter.builder(METRIC_REJECTED).tag("lane", tag)
+                            .description("PRIM calls rejected by the quota scheduler")
+                            .register(meterRegistry));
+            lanes.put(priority, lane);
+            Gauge.builder(METRIC_QUEUE_DEPTH, lane, l -> l.waiting)
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder(METRIC_TOKENS, this, PrimQuotaScheduler::availableTokens)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until a token is available for {@code priority}.
+     *
+     * @throws PrimQuotaExceededException when the lane is saturated or the wait exceeds the lane budget
+     */
+    public void acquire(PrimRequestPriority requested) {
+        PrimRequestPriority priority = requested != null ? requested : PrimRequestPriority.INTERACTIVE;
+        Lane lane = lanes.get(priority);
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            refill(start);
+            if (lane.waiting == 0 && canTake(priority, lane)) {
+                tokens -= 1;
+                lane.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            }
+            if (lane.waiting >= lane.settings.maxQueue()) {
+                lane.rejected.increment();
+                throw new PrimQuotaExceededException("PRIM quota lane " + priority + " is saturated ("
+                        + lane.waiting + " callers waiting)");
+            }
+
+            lane.waiting++;
+            try {
+                long deadline = start + lane.settings.maxWait().toNanos();
+                while (true) {
+                    long now = System.nanoTime();
+                    refill(now);
+                    if (canTake(priority, lane)) {
+                        tokens -= 1;
+                        lane.waitTimer.record(now - start, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        lane.rejected.increment();
+                        throw new PrimQuotaExceededException("Timed out waiting for a PRIM quota token (lane "
+                                + priority + ")");
+                    }
+                    changed.awaitNanos(Math.min(remaining, nanosUntilTokens(lane)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.rejected.increment();
+                throw new PrimQuotaExceededException("Interrupted while waiting for a PRIM quota token");
+            } finally {
+                lane.waiting--;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueDepth(PrimRequestPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double availableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canTake(PrimRequestPriority priority, Lane lane) {
+        if (tokens < 1 + lane.settings.reservedTokens()) {
+            return false;
+        }
+        for (Map.Entry<PrimRequestPriority, Lane> entry : lanes.entrySet()) {
+            if (entry.getKey().ordinal() < priority.ordinal() && entry.getValue().waiting > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long nanosUntilTokens(Lane lane) {
+        double missing = 1 + lane.settings.reservedTokens() - tokens;
+        if (missing <= 0) {
+            // Blocked behind a higher-priority lane, which signals when it takes or gives up.
+            return TimeUnit.MILLISECONDS.toNanos(50);
+        }
+        return Math.max(MIN_PARK_NANOS, (long) Math.ceil(missing / permitsPerNano));
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * permitsPerNano);
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * @param maxQueue       callers allowed to wait in this lane before new ones are rejected
+     * @param maxWait        longest a caller waits for a token before being rejected
+     * @param reservedTokens tokens this lane must leave in the bucket
+     */
+    public record LaneSettings(int maxQueue, Duration maxWait, int reservedTokens) {
+
+        static final LaneSettings DEFAULT = new LaneSettings(20, Duration.ofSeconds(2), 0);
+
+        public LaneSettings {
+            if (maxQueue < 0 || maxWait == null || maxWait.isNegative() || reservedTokens < 0) {
+                throw new IllegalArgumentException("Invalid PRIM quota lane settings");
+            }
+        }
+    }
+
+    private static final class Lane {
+        private final LaneSettings settings;
+        private final Timer waitTimer;
+        private final Counter rejected;
+        private int waiting;
+
+        private Lane(LaneSettings settings, Timer waitTimer, Counter rejected) {
+            this.settings = settings;
+            this.waitTimer = waitTimer;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.marly.mavigo.client.prim.quota;
+
+/**
+ * Priority lanes sharing the PRIM API quota, highest priority first.
+ */
+public enum PrimRequestPriority {
+
+    /** A user is waiting on a journey or place lookup. */
+    INTERACTIVE,
+
+    /** Recomputing alternatives after a reported disruption. */
+    REROUTING,
+
+    /** Optimizer probes, radius expansion and prefetching. */
+    BACKGROUND
+}
@@ -0,0 +1,43 @@
+package org.marly.mavigo.client.prim.quota;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound priority for the PRIM calls made by the current thread.
+ * <p>
+ * Calls made outside of {@link #callWith} run as {@link PrimRequestPriority#INTERACTIVE}.
+ * Work handed to another thread must capture {@link #current()} and re-apply it there.
+ */
+public final class PrimRequestPriorityContext {
+
+    private static final ThreadLocal<PrimRequestPriority> CURRENT = new ThreadLocal<>();
+
+    private PrimRequestPriorityContext() {
+    }
+
+    public static PrimRequestPriority current() {
+        PrimRequestPriority priority = CURRENT.get();
+        return priority != null ? priority : PrimRequestPriority.INTERACTIVE;
+    }
+
+    public static <T> T callWith(PrimRequestPriority priority, Supplier<T> action) {
+        PrimRequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runWith(PrimRequestPriority priority, Runnable action) {
+        callWith(priority, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package org.marly.mavigo.client.prim.quota;
+
+import java.util.List;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+
+/**
+ * {@link PrimApiClient} decorator taking a {@link PrimQuotaScheduler} token, in the lane of the
+ * calling thread's {@link PrimRequestPriorityContext}, before each outbound call.
+ */
+public class QuotaLimitedPrimApiClient implements PrimApiClient {
+
+    private final PrimApiClient delegate;
+    private final PrimQuotaScheduler scheduler;
+
+    public QuotaLimitedPrimApiClient(PrimApiClient delegate, PrimQuotaScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        scheduler.acquire(PrimRequestPriorityContext.current());
+        return delegate.searchPlaces(query);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        scheduler.acquire(PrimRequestPriorityContext.current());
+        return delegate.searchPlacesNearby(latitude, longitude, radiusMeters);
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        scheduler.acquire(PrimRequestPriorityContext.current());
+        return delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName);
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        scheduler.acquire(PrimRequestPriorityContext.current());
+        return delegate.calculateJourneyPlans(request);
+    }
+}
@@ -0,0 +1,72 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimCircuitOpenException;
+import org.marly.mavigo.client.prim.PrimQuotaExceededException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+
+/**
+ * {@link PrimApiClient} decorator reporting every outbound call to a {@link PrimCircuitBreaker}
+ * and failing fast with {@link PrimCircuitOpenException} while it is open.
+ * <p>
+ * Only {@link PrimApiException}s count as failures; argument validation errors and local quota
+ * rejections release the permission without affecting the breaker.
+ */
+public class CircuitBreakingPrimApiClient implements PrimApiClient {
+
+    private final PrimApiClient delegate;
+    private final PrimCircuitBreaker breaker;
+
+    public CircuitBreakingPrimApiClient(PrimApiClient delegate, PrimCircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        return guarded(() -> delegate.searchPlaces(query));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        return guarded(() -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        return guarded(() -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName));
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        return guarded(() -> delegate.calculateJourneyPlans(request));
+    }
+
+    private <T> T guarded(Supplier<T> call) {
+        if (!breaker.tryAcquirePermission()) {
+            throw new PrimCircuitOpenException("PRIM circuit breaker is open");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            breaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (PrimQuotaExceededException e) {
+            breaker.onIgnored();
+            throw e;
+        } catch (PrimApiException e) {
+            breaker.onFailure(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        } catch (RuntimeException | Error e) {
+            breaker.onIgnored();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link PrimApiClient} decorator hedging slow calls and bounding them with adaptive deadlines.
+ * <p>
+ * Each call runs on its own virtual thread. If it has not answered after the endpoint's rolling
+ * {@code hedgeQuantile} latency (p95 by default), one duplicate is sent, provided the
+ * {@link PrimHedgeBudget} allows it, and the first successful answer wins; the other attempt is
+ * interrupted. The whole call is abandoned with a {@link PrimApiException} after
+ * {@code timeoutQuantile × timeoutMultiplier}, clamped to {@code [minTimeout, maxTimeout]}.
+ * Until the {@link PrimLatencyTracker} has enough samples no hedge is sent and
+ * {@code maxTimeout} applies.
+ * <p>
+ * The decorator sits below the quota layer so latencies and deadlines cover the HTTP call only;
+ * a hedge first runs {@code hedgePermit}, which takes a background-lane quota token, so
+ * duplicates only use spare quota and are dropped when there is none.
+ */
+public class HedgingPrimApiClient implements PrimApiClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgingPrimApiClient.class);
+
+    static final String METRIC_HEDGES = "prim.hedge.requests";
+    static final String METRIC_TIMEOUTS = "prim.hedge.timeouts";
+
+    static final String ENDPOINT_PLACES = "places";
+    static final String ENDPOINT_PLACES_NEARBY = "places_nearby";
+    static final String ENDPOINT_JOURNEYS = "journeys";
+
+    private final PrimApiClient delegate;
+    private final PrimLatencyTracker latencies;
+    private final PrimHedgeBudget budget;
+    private final Settings settings;
+    private final Runnable hedgePermit;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("prim-hedge-", 0).factory();
+
+    public HedgingPrimApiClient(PrimApiClient delegate, PrimLatencyTracker latencies, PrimHedgeBudget budget,
+            Settings settings, Runnable hedgePermit, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.latencies = latencies;
+        this.budget = budget;
+        this.settings = settings;
+        this.hedgePermit = hedgePermit != null ? hedgePermit : () -> {
+        };
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<PrimPlace> searchPlaces(String query) {
+        return hedged(ENDPOINT_PLACES, () -> delegate.searchPlaces(query));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+        return hedged(ENDPOINT_PLACES_NEARBY, () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters));
+    }
+
+    @Override
+    public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters, String cityName) {
+        return hedged(ENDPOINT_PLACES_NEARBY,
+                () -> delegate.searchPlacesNearby(latitude, longitude, radiusMeters, cityName));
+    }
+
+    @Override
+    public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+        return hedged(ENDPOINT_JOURNEYS, () -> delegate.calculateJourneyPlans(request));
+    }
+
+    /**
+     * Current deadline for a call to {@code endpoint}.
+     */
+    Duration deadlineFor(String endpoint) {
+        return latencies.percentile(endpoint, settings.timeoutQuantile())
+                .map(latency -> clamp(multiply(latency, settings.timeoutMultiplier()),
+                        settings.minTimeout(), settings.maxTimeout()))
+                .orElse(settings.maxTimeout());
+    }
+
+    /**
+     * Delay after which a duplicate is sent, empty while the endpoint has too few samples.
+     */
+    Optional<Duration> hedgeDelayFor(String endpoint, Duration deadline) {
+        return latencies.percentile(endpoint, settings.hedgeQuantile())
+                .map(latency -> latency.compareTo(settings.minHedgeDelay()) < 0 ? settings.minHedgeDelay() : latency)
+                .filter(delay -> delay.compareTo(deadline) < 0);
+    }
+
+    private <T> T hedged(String endpoint, Supplier<T> call) {
+        Duration deadline = deadlineFor(endpoint);
+        Optional<Duration> hedgeDelay = hedgeDelayFor(endpoint, deadline);
+        budget.onPrimary();
+
+        long start = System.nanoTime();
+        Race<T> race = new Race<>(endpoint, call, PrimRequestPriorityContext.current());
+        race.launch(false);
+        try {
+            if (hedgeDelay.isEmpty()) {
+                return race.winner.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            try {
+                return race.winner.get(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (budget.tryAcquireHedge()) {
+                    count(endpoint, "sent");
+                    race.launch(true);
+                } else {
+                    count(endpoint, "denied");
+                }
+            }
+            long remaining = deadline.toNanos() - (System.nanoTime() - start);
+            return race.winner.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter(METRIC_TIMEOUTS, "endpoint", endpoint).increment();
+            LOGGER.warn("PRIM {} call abandoned after {} ms", endpoint, deadline.toMillis());
+            throw new PrimApiException("PRIM " + endpoint + " call timed out after " + deadline.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new PrimApiException("PRIM " + endpoint + " call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PrimApiException("Interrupted while waiting for PRIM " + endpoint, e);
+        } finally {
+            race.cancelRemaining();
+        }
+    }
+
+    private void count(String endpoint, String result) {
+        meterRegistry.counter(METRIC_HEDGES, "endpoint", endpoint, "result", result).increment();
+    }
+
+    private static Duration multiply(Duration duration, double factor) {
+        return Duration.ofNanos((long) (duration.toNanos() * factor));
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        if (value.compareTo(min) < 0) {
+            return min;
+        }
+        return value.compareTo(max) > 0 ? max : value;
+    }
+
+    /**
+     * Primary and optional hedge attempts of one call. {@link #winner} completes with the first
+     * successful answer, or with the primary's error once every launched attempt has failed.
+     */
+    private final class Race<T> {
+
+        private final String endpoint;
+        private final Supplier<T> call;
+        private final PrimRequestPriority priority;
+        private final CompletableFuture<T> winner = new CompletableFuture<>();
+        private final List<Attempt> attempts = new ArrayList<>(2);
+        private Throwable primaryError;
+        private Throwable hedgeError;
+
+        Race(String endpoint, Supplier<T> call, PrimRequestPriority priority) {
+            this.endpoint = endpoint;
+            this.call = call;
+            this.priority = priority;
+        }
+
+        synchronized void launch(boolean hedge) {
+            if (winner.isDone()) {
+                return;
+            }
+            Attempt attempt = new Attempt(hedge);
+            attempts.add(attempt);
+            threadFactory.newThread(attempt).start();
+        }
+
+        synchronized void onFailure(Attempt attempt, Throwable error) {
+            if (attempt.hedge) {
+                hedgeError = error;
+            } else {
+                primaryError = error;
+            }
+            boolean allFailed = attempts.stream().allMatch(a -> a.isDone() && !a.isCancelled() && a.failed);
+            if (allFailed) {
+                winner.completeExceptionally(primaryError != null ? primaryError : hedgeError);
+            }
+        }
+
+        /**
+         * Interrupts attempts still in flight. Their elapsed time is recorded as a latency sample,
+         * so calls cut short by a hedge or a deadline still push the percentiles up.
+         */
+        synchronized void cancelRemaining() {
+            for (Attempt attempt : attempts) {
+                if (!attempt.isDone()) {
+                    latencies.record(endpoint, Duration.ofNanos(System.nanoTime() - attempt.start));
+                    attempt.cancel(true);
+                }
+            }
+        }
+
+        private final class Attempt extends FutureTask<T> {
+
+            private final boolean hedge;
+            private final long start = System.nanoTime();
+            private volatile boolean failed;
+
+            Attempt(boolean hedge) {
+                super(() -> PrimRequestPriorityContext.callWith(priority, () -> {
+                    if (hedge) {
+                        hedgePermit.run();
+                    }
+                    return call.get();
+                }));
+                this.hedge = hedge;
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    T value = get();
+                    latencies.record(endpoint, Duration.ofNanos(System.nanoTime() - start));
+                    if (winner.complete(value) && hedge) {
+                        count(endpoint, "won");
+                    }
+                } catch (ExecutionException e) {
+                    failed = true;
+                    onFailure(this, e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param hedgeQuantile     rolling latency percentile after which a duplicate is sent
+     * @param minHedgeDelay     lower bound for the hedge delay
+     * @param timeoutQuantile   rolling latency percentile the deadline is derived from
+     * @param timeoutMultiplier factor applied to {@code timeoutQuantile} to get the deadline
+     * @param minTimeout        lower bound for the deadline
+     * @param maxTimeout        upper bound for the deadline, used until enough samples exist
+     */
+    public record Settings(
+            double hedgeQuantile,
+            Duration minHedgeDelay,
+            double timeoutQuantile,
+            double timeoutMultiplier,
+            Duration minTimeout,
+            Duration maxTimeout) {
+
+        public Settings {
+            if (hedgeQuantile <= 0 || hedgeQuantile > 1 || timeoutQuantile <= 0 || timeoutQuantile > 1) {
+                throw new IllegalArgumentException("Hedge and timeout quantiles must be in (0, 1]");
+            }
+            if (timeoutMultiplier < 1) {
+                throw new IllegalArgumentException("Timeout multiplier must be at least 1");
+            }
+            if (minTimeout.compareTo(maxTimeout) > 0) {
+                throw new IllegalArgumentException("Minimum timeout must not exceed maximum timeout");
+            }
+        }
+    }
+}
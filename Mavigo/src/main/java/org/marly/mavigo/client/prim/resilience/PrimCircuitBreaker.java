@@ -0,0 +1,187 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker guarding the PRIM API.
+ * <p>
+ * The outcome of the last {@code windowSize} calls is kept in a ring buffer. Once at least
+ * {@code minimumCalls} have been recorded, the breaker opens when the failure rate or the slow
+ * call rate (calls longer than {@code slowCallThreshold}) reaches its threshold. After
+ * {@code openDuration} it lets {@code halfOpenProbes} calls through: if they all succeed the
+ * breaker closes again, the first failure re-opens it.
+ */
+public class PrimCircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrimCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Settings settings;
+    private final Clock clock;
+    private final Outcome[] window;
+
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int recorded;
+    private Instant openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public PrimCircuitBreaker(Settings settings, Clock clock) {
+        this.settings = settings;
+        this.clock = clock != null ? clock : Clock.systemUTC();
+        this.window = new Outcome[settings.windowSize()];
+    }
+
+    /**
+     * @return {@code true} if the call may go to PRIM; callers that get {@code true} must report
+     *         the outcome through {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(settings.openDuration()))) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= settings.halfOpenProbes()) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(Duration elapsed) {
+        boolean slow = elapsed.compareTo(settings.slowCallThreshold()) >= 0;
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (slow) {
+                transitionTo(State.OPEN);
+                return;
+            }
+            probeSuccesses++;
+            if (probeSuccesses >= settings.halfOpenProbes()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(slow ? Outcome.SLOW : Outcome.SUCCESS);
+    }
+
+    public synchronized void onFailure(Duration elapsed) {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(Outcome.FAILURE);
+    }
+
+    /**
+     * Releases a permission without counting the call, e.g. when it was rejected locally.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(settings.openDuration()))) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return rate(Outcome.FAILURE);
+    }
+
+    public synchronized double slowCallRate() {
+        return rate(Outcome.SLOW);
+    }
+
+    private void record(Outcome outcome) {
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+        recorded = Math.min(recorded + 1, window.length);
+
+        if (state == State.CLOSED && recorded >= settings.minimumCalls()
+                && (rate(Outcome.FAILURE) >= settings.failureRateThreshold()
+                        || rate(Outcome.SLOW) >= settings.slowCallRateThreshold())) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private double rate(Outcome outcome) {
+        if (recorded == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (window[i] == outcome) {
+                count++;
+            }
+        }
+        return (double) count / recorded;
+    }
+
+    private void transitionTo(State next) {
+        if (next == state) {
+            return;
+        }
+        LOGGER.warn("PRIM circuit breaker {} -> {} (failureRate={}, slowRate={})",
+                state, next, rate(Outcome.FAILURE), rate(Outcome.SLOW));
+        state = next;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.instant();
+        }
+        if (next == State.CLOSED) {
+            Arrays.fill(window, null);
+            windowIndex = 0;
+            recorded = 0;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, FAILURE, SLOW
+    }
+
+    /**
+     * @param windowSize            number of recent calls considered
+     * @param minimumCalls          calls required in the window before the breaker can open
+     * @param failureRateThreshold  failure ratio (0..1) opening the breaker
+     * @param slowCallThreshold     calls at least this long count as slow
+     * @param slowCallRateThreshold slow call ratio (0..1) opening the breaker
+     * @param openDuration          time spent open before probing
+     * @param halfOpenProbes        successful probes required to close again
+     */
+    public record Settings(
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            double slowCallRateThreshold,
+            Duration openDuration,
+            int halfOpenProbes) {
+
+        public Settings {
+            if (windowSize <= 0 || minimumCalls <= 0 || halfOpenProbes <= 0) {
+                throw new IllegalArgumentException("Circuit breaker sizes must be positive");
+            }
+        }
+    }
+}
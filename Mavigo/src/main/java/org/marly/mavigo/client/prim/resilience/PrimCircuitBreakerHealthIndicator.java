@@ -0,0 +1,31 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the PRIM circuit breaker on {@code /actuator/health} (component {@code primCircuitBreaker}).
+ * <p>
+ * An open breaker means PRIM is unavailable, not this instance: the component stays UP so that the
+ * aggregate status keeps answering 200, and the breaker state is reported as a detail.
+ */
+@Component
+public class PrimCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    private final PrimCircuitBreaker circuitBreaker;
+
+    public PrimCircuitBreakerHealthIndicator(PrimCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        PrimCircuitBreaker.State state = circuitBreaker.state();
+        return Health.up()
+                .withDetail("state", state.name())
+                .withDetail("failureRate", circuitBreaker.failureRate())
+                .withDetail("slowCallRate", circuitBreaker.slowCallRate())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package org.marly.mavigo.client.prim.resilience;
+
+/**
+ * Caps hedged PRIM requests to a fraction of the primary traffic.
+ * <p>
+ * Every primary call deposits {@code ratio} tokens, up to {@code maxTokens}; a hedge spends one.
+ * With a ratio of {@code 0.1} at most one call in ten is duplicated over time, while the cap lets
+ * a short burst of slow calls all be hedged.
+ */
+public class PrimHedgeBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public PrimHedgeBudget(double ratio, double maxTokens) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Hedge ratio must be between 0 and 1");
+        }
+        if (maxTokens < 0) {
+            throw new IllegalArgumentException("Hedge budget cap must not be negative");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+    }
+
+    public synchronized void onPrimary() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryAcquireHedge() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double availableTokens() {
+        return tokens;
+    }
+}
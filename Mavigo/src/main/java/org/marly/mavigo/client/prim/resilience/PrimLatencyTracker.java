@@ -0,0 +1,75 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling latency percentiles per PRIM endpoint.
+ * <p>
+ * Each endpoint keeps its last {@code windowSize} samples in a ring buffer; percentiles are
+ * computed on demand over that window and are only reported once {@code minimumSamples} calls
+ * have been seen, so a cold client falls back to its static limits.
+ */
+public class PrimLatencyTracker {
+
+    private final int windowSize;
+    private final int minimumSamples;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public PrimLatencyTracker(int windowSize, int minimumSamples) {
+        if (windowSize <= 0 || minimumSamples <= 0 || minimumSamples > windowSize) {
+            throw new IllegalArgumentException("Latency window must satisfy 0 < minimumSamples <= windowSize");
+        }
+        this.windowSize = windowSize;
+        this.minimumSamples = minimumSamples;
+    }
+
+    public void record(String endpoint, Duration latency) {
+        windows.computeIfAbsent(endpoint, key -> new Window(windowSize)).add(latency.toNanos());
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. {@code 0.95}
+     * @return the percentile over the current window, empty until enough samples were recorded
+     */
+    public Optional<Duration> percentile(String endpoint, double quantile) {
+        if (quantile <= 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1]");
+        }
+        Window window = windows.get(endpoint);
+        if (window == null) {
+            return Optional.empty();
+        }
+        long[] samples = window.snapshot();
+        if (samples.length < minimumSamples) {
+            return Optional.empty();
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(quantile * samples.length) - 1;
+        return Optional.of(Duration.ofNanos(samples[Math.max(0, index)]));
+    }
+
+    private static final class Window {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        Window(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, size);
+        }
+    }
+}
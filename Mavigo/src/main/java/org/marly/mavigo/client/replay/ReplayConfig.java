@@ -0,0 +1,36 @@
+package org.marly.mavigo.client.replay;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replay stub for offline load testing. With {@code replay.enabled=true} the application serves
+ * recorded PRIM and BAN payloads under {@code /replay/prim/**} and {@code /replay/ban/**}; point
+ * {@code PRIM_API_ENDPOINT} and {@code geocoding.ban.base-url} at those paths to use it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replay.enabled", havingValue = "true")
+public class ReplayConfig {
+
+    @Bean
+    public ReplayFixtureStore replayFixtureStore(
+            @Value("${replay.fixtures-dir:replay-fixtures}") Path fixturesDir,
+            @Value("${replay.ignored-params:apikey,datetime}") Set<String> ignoredParameters) {
+        return new ReplayFixtureStore(fixturesDir, ignoredParameters);
+    }
+
+    @Bean
+    public ReplayFaultInjector replayFaultInjector(
+            @Value("${replay.latency.min:20ms}") Duration minLatency,
+            @Value("${replay.latency.max:200ms}") Duration maxLatency,
+            @Value("${replay.error-rate:0.0}") double errorRate,
+            @Value("${replay.error-status:503}") int errorStatus) {
+        return new ReplayFaultInjector(minLatency, maxLatency, errorRate, errorStatus, null);
+    }
+}
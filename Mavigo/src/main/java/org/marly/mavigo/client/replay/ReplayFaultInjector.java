@@ -0,0 +1,44 @@
+package org.marly.mavigo.client.replay;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Latency and error injection applied to replayed responses.
+ *
+ * @param minLatency lower bound of the uniformly drawn response delay
+ * @param maxLatency upper bound of the uniformly drawn response delay
+ * @param errorRate  share (0..1) of responses replaced by {@code errorStatus}
+ * @param errorStatus HTTP status returned for injected errors
+ * @param random      source of randomness, the JDK default when {@code null}
+ */
+public record ReplayFaultInjector(
+        Duration minLatency,
+        Duration maxLatency,
+        double errorRate,
+        int errorStatus,
+        RandomGenerator random) {
+
+    public ReplayFaultInjector {
+        if (minLatency == null || maxLatency == null || minLatency.isNegative()
+                || maxLatency.compareTo(minLatency) < 0) {
+            throw new IllegalArgumentException("Replay latency bounds must satisfy 0 <= min <= max");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Replay error rate must be between 0 and 1");
+        }
+        if (random == null) {
+            random = RandomGenerator.getDefault();
+        }
+    }
+
+    public Duration nextLatency() {
+        long min = minLatency.toMillis();
+        long max = maxLatency.toMillis();
+        return Duration.ofMillis(max > min ? random.nextLong(min, max + 1) : min);
+    }
+
+    public boolean nextIsError() {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+}
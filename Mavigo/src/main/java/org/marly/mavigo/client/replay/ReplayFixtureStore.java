@@ -0,0 +1,115 @@
+package org.marly.mavigo.client.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File-backed store of recorded upstream payloads, laid out as
+ * {@code <root>/<service>/<endpoint>/<hash>.json}.
+ * <p>
+ * The hash is taken over the canonical query: parameter names sorted, values kept in order,
+ * ignored parameters (API keys, the request {@code datetime}, ...) dropped, so that a load test
+ * replaying "now" still hits the fixture recorded earlier. When no fixture matches, an optional
+ * {@code _default.json} in the endpoint directory is served instead.
+ */
+public class ReplayFixtureStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayFixtureStore.class);
+
+    static final String DEFAULT_FIXTURE = "_default.json";
+
+    private final Path root;
+    private final Set<String> ignoredParameters;
+
+    public ReplayFixtureStore(Path root, Set<String> ignoredParameters) {
+        this.root = root;
+        this.ignoredParameters = ignoredParameters.stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Optional<byte[]> find(String service, String endpoint, Map<String, List<String>> query) {
+        Path directory = directory(service, endpoint);
+        Path exact = directory.resolve(hash(canonicalQuery(query)) + ".json");
+        Path fallback = directory.resolve(DEFAULT_FIXTURE);
+        for (Path candidate : List.of(exact, fallback)) {
+            if (Files.isRegularFile(candidate)) {
+                try {
+                    return Optional.of(Files.readAllBytes(candidate));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read replay fixture " + candidate, e);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Path save(String service, String endpoint, Map<String, List<String>> query, byte[] body) {
+        String canonical = canonicalQuery(query);
+        Path directory = directory(service, endpoint);
+        Path target = directory.resolve(hash(canonical) + ".json");
+        try {
+            Files.createDirectories(directory);
+            // Write then move so a concurrent replay never reads a half-written fixture
+            Path temp = Files.createTempFile(directory, "record-", ".tmp");
+            Files.write(temp, body);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write replay fixture " + target, e);
+        }
+        LOGGER.info("Recorded {} {}?{} -> {}", service, endpoint, canonical, target.getFileName());
+        return target;
+    }
+
+    String canonicalQuery(Map<String, List<String>> query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        Map<String, List<String>> sorted = new TreeMap<>();
+        query.forEach((name, values) -> {
+            if (name != null && !ignoredParameters.contains(name.toLowerCase(Locale.ROOT))) {
+                sorted.put(name, values != null ? values : List.of());
+            }
+        });
+        return sorted.entrySet().stream()
+                .flatMap(entry -> entry.getValue().stream().map(value -> entry.getKey() + "=" + value))
+                .collect(Collectors.joining("&"));
+    }
+
+    private Path directory(String service, String endpoint) {
+        return root.resolve(sanitize(service)).resolve(sanitize(endpoint));
+    }
+
+    private static String sanitize(String segment) {
+        String cleaned = segment == null ? "" : segment.replaceAll("[^A-Za-z0-9_-]+", "_").replaceAll("^_+|_+$", "");
+        return cleaned.isEmpty() ? "root" : cleaned;
+    }
+
+    private static String hash(String canonicalQuery) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonicalQuery.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.marly.mavigo.client.replay;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serves recorded PRIM ({@code /replay/prim/...}) and BAN ({@code /replay/ban/...}) payloads.
+ * <p>
+ * In {@code replay} mode responses come from the {@link ReplayFixtureStore}, delayed and
+ * occasionally failed by the {@link ReplayFaultInjector}; a miss answers 404. In {@code record}
+ * mode the request is forwarded to the real upstream, with its {@code apikey} header, and
+ * successful answers are saved as fixtures before being returned.
+ */
+@RestController
+@RequestMapping("/replay")
+@ConditionalOnProperty(name = "replay.enabled", havingValue = "true")
+public class ReplayStubController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplayStubController.class);
+
+    static final String PRIM = "prim";
+    static final String BAN = "ban";
+
+    private final ReplayFixtureStore store;
+    private final ReplayFaultInjector faults;
+    private final boolean recording;
+    private final Map<String, Upstream> upstreams;
+
+    public ReplayStubController(
+            ReplayFixtureStore store,
+            ReplayFaultInjector faults,
+            @Value("${replay.mode:replay}") String mode,
+            @Value("${replay.prim.upstream:https://prim.iledefrance-mobilites.fr/marketplace/v2/navitia}") String primUpstream,
+            @Value("${replay.ban.upstream:https://api-adresse.data.gouv.fr}") String banUpstream,
+            @Qualifier("primRestTemplate") RestTemplate primRestTemplate,
+            @Qualifier("geocodingRestTemplate") RestTemplate geocodingRestTemplate) {
+        this.store = store;
+        this.faults = faults;
+        this.recording = "record".equalsIgnoreCase(mode.trim());
+        this.upstreams = Map.of(
+                PRIM, new Upstream(primUpstream, primRestTemplate),
+                BAN, new Upstream(banUpstream, geocodingRestTemplate));
+        LOGGER.warn("Replay stub enabled in {} mode", recording ? "record" : "replay");
+    }
+
+    @GetMapping("/{service}/{*path}")
+    public ResponseEntity<byte[]> serve(@PathVariable String service, @PathVariable String path,
+            HttpServletRequest request) {
+        String key = service.toLowerCase(Locale.ROOT);
+        Upstream upstream = upstreams.get(key);
+        if (upstream == null) {
+            return error(HttpStatus.NOT_FOUND, "unknown_service", "No replay service '" + service + "'");
+        }
+        Map<String, List<String>> query = queryOf(request);
+        return recording ? record(key, path, query, request, upstream) : replay(key, path, query);
+    }
+
+    private ResponseEntity<byte[]> replay(String service, String path, Map<String, List<String>> query) {
+        sleep(faults.nextLatency());
+        if (faults.nextIsError()) {
+            return error(HttpStatusCode.valueOf(faults.errorStatus()), "replay_injected_error",
+                    "Injected replay error");
+        }
+        Optional<byte[]> fixture = store.find(service, path, query);
+        if (fixture.isEmpty()) {
+            LOGGER.debug("Replay miss for {} {} {}", service, path, query);
+            return error(HttpStatus.NOT_FOUND, "replay_miss", "No fixture recorded for " + service + " " + path);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(fixture.get());
+    }
+
+    private ResponseEntity<byte[]> record(String service, String path, Map<String, List<String>> query,
+            HttpServletRequest request, Upstream upstream) {
+        String rawQuery = request.getQueryString();
+        URI target = URI.create(upstream.baseUrl() + path + (rawQuery != null ? "?" + rawQuery : ""));
+        HttpHeaders headers = new HttpHeaders();
+        String apiKey = request.getHeader("apikey");
+        if (apiKey != null) {
+            headers.set("apikey", apiKey);
+        }
+        try {
+            ResponseEntity<byte[]> response = upstream.restTemplate()
+                    .exchange(target, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+            byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+            store.save(service, path, query, body);
+            return ResponseEntity.status(response.getStatusCode()).contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (HttpStatusCodeException e) {
+            // Upstream errors (e.g. PRIM no_origin) are passed through but never recorded
+            return ResponseEntity.status(e.getStatusCode()).contentType(MediaType.APPLICATION_JSON)
+                    .body(e.getResponseBodyAsByteArray());
+        } catch (RestClientException e) {
+            LOGGER.warn("Replay record: upstream {} failed: {}", service, e.getMessage());
+            return error(HttpStatus.BAD_GATEWAY, "replay_upstream_error", String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static Map<String, List<String>> queryOf(HttpServletRequest request) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        request.getParameterMap().forEach((name, values) -> query.put(name, Arrays.asList(values)));
+        return query;
+    }
+
+    private static ResponseEntity<byte[]> error(HttpStatusCode status, String id, String message) {
+        String body = "{\"error\":{\"id\":\"" + id + "\",\"message\":\"" + message.replace("\"", "'") + "\"}}";
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sleep(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Upstream(String baseUrl, RestTemplate restTemplate) {
+    }
+}
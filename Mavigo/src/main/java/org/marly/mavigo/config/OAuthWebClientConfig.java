@@ -1,5 +1,8 @@
 package org.marly.mavigo.config;
 
+import org.marly.mavigo.client.http.OutboundCallMetrics;
+import org.marly.mavigo.client.http.OutboundMetricsExchangeFilter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
@@ -7,13 +10,17 @@ import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepo
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @Configuration
 public class OAuthWebClientConfig {
 
     @Bean
     WebClient googleApiWebClient(
             ClientRegistrationRepository registrations,
-            OAuth2AuthorizedClientRepository authorizedClients) {
+            OAuth2AuthorizedClientRepository authorizedClients,
+            ObjectProvider<MeterRegistry> meterRegistry) {
 
         var oauth = new ServletOAuth2AuthorizedClientExchangeFilterFunction(registrations, authorizedClients);
         oauth.setDefaultClientRegistrationId("google");
@@ -21,6 +28,8 @@ public class OAuthWebClientConfig {
         return WebClient.builder()
                 .baseUrl("https://tasks.googleapis.com/tasks/v1")
                 .apply(oauth.oauth2Configuration()) // ajoute automatiquement le Bearer token du user
+                .filter(new OutboundMetricsExchangeFilter("google-tasks",
+                        new OutboundCallMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new))))
                 .build();
     }
 }
\ No newline at end of file
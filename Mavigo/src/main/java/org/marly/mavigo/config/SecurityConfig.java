@@ -83,6 +83,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/journeys", "/api/journeys/**", "/api/users",
                                 "/api/users/**", "/api/eco/**", "/api/setup/**")
                         .permitAll()
+                        .requestMatchers("/replay/**").permitAll()
                         .requestMatchers("/api/google/**").authenticated()
                         .anyRequest().authenticated())
                 .oauth2Login(oauth -> oauth
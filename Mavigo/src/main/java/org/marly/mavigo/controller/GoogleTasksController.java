@@ -21,6 +21,7 @@ import org.marly.mavigo.client.prim.model.PrimPlace;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.user.UserService;
 import org.marly.mavigo.service.user.dto.GoogleAccountLink;
 import org.springframework.core.ParameterizedTypeReference;
@@ -67,18 +68,21 @@ public class GoogleTasksController {
     private final UserService userService;
     private final UserTaskRepository userTaskRepository;
     private final PrimApiClient primApiClient;
+    private final GeocodingService geocodingService;
 
     public GoogleTasksController(
             WebClient googleApiWebClient,
             OAuth2AuthorizedClientService authorizedClientService,
             UserService userService,
             UserTaskRepository userTaskRepository,
-            PrimApiClient primApiClient) {
+            PrimApiClient primApiClient,
+            GeocodingService geocodingService) {
         this.googleApiWebClient = googleApiWebClient;
         this.authorizedClientService = authorizedClientService;
         this.userService = userService;
         this.userTaskRepository = userTaskRepository;
         this.primApiClient = primApiClient;
+        this.geocodingService = geocodingService;
     }
 
     // -----------------------------
@@ -273,6 +277,8 @@ public class GoogleTasksController {
     /**
      * Tâches depuis Google uniquement, avec #mavigo: et géocodage, sans stockage en base.
      * Utilisé pour l’optimisation de trajet (les tâches sont envoyées dans taskDetails).
+     * Les lieux sont géocodés en un seul lot ; ceux que le géocodeur ne trouve pas sont
+     * recherchés un par un dans PRIM.
      */
     @GetMapping("/users/{userId}/for-journey")
     public List<Map<String, Object>> tasksForJourney(@PathVariable UUID userId,
@@ -287,16 +293,26 @@ public class GoogleTasksController {
         if (googleTasks == null) {
             return List.of();
         }
-        List<Map<String, Object>> out = new ArrayList<>();
+        List<Map.Entry<TaskDto, String>> located = new ArrayList<>();
         for (TaskDto dto : googleTasks) {
             if (dto == null || dto.id() == null) continue;
             String locationQuery = extractLocationTag(dto);
             if (!StringUtils.hasText(locationQuery)) continue;
+            located.add(Map.entry(dto, locationQuery));
+        }
+        Map<String, GeoPoint> geocoded = geocodingService.geocodeAll(
+                located.stream().map(Map.Entry::getValue).toList());
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map.Entry<TaskDto, String> entry : located) {
+            TaskDto dto = entry.getKey();
+            String locationQuery = entry.getValue();
             boolean completed = Boolean.TRUE.equals(dto.completed());
-            GeoPoint hint = null;
-            try {
-                hint = resolveGeoPointFromQuery(locationQuery);
-            } catch (Exception ignored) {
+            GeoPoint hint = geocoded.get(locationQuery);
+            if (hint == null) {
+                try {
+                    hint = resolveGeoPointFromQuery(locationQuery);
+                } catch (Exception ignored) {
+                }
             }
             if (hint == null || !hint.isComplete()) continue;
             Map<String, Object> m = new LinkedHashMap<>();
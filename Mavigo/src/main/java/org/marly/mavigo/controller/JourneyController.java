@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.marly.mavigo.controller.dto.JourneyPreferencesRequest;
 import org.marly.mavigo.controller.dto.JourneyResponse;
@@ -25,11 +26,14 @@ import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserRepository;
 import org.marly.mavigo.repository.UserTaskRepository;
 import org.marly.mavigo.repository.JourneyRepository;
+import org.marly.mavigo.service.journey.JourneyCandidateStore;
 import org.marly.mavigo.service.journey.JourneyOptimizationService;
+import org.marly.mavigo.service.journey.JourneyOptimizationService.OptimizedJourneyResult;
 import org.marly.mavigo.service.journey.JourneyPlanningService;
 import org.marly.mavigo.service.journey.TaskOnRouteService;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -59,7 +63,12 @@ public class JourneyController {
     private final JourneyManagementService journeyManagementService;
     private final JourneyOptimizationService journeyOptimizationService;
     private final JourneyRepository journeyRepository;
+    private final JourneyCandidateStore candidateStore;
 
+    /**
+     * @param candidateStore keeps planned journeys until one is selected; absent or disabled
+     *                       persists every planned journey right away
+     */
     public JourneyController(
             JourneyPlanningService journeyPlanningService,
             UserTaskRepository userTaskRepository,
@@ -67,7 +76,8 @@ public class JourneyController {
             TaskOnRouteService taskOnRouteService,
             JourneyManagementService journeyManagementService,
             JourneyOptimizationService journeyOptimizationService,
-            JourneyRepository journeyRepository) {
+            JourneyRepository journeyRepository,
+            ObjectProvider<JourneyCandidateStore> candidateStore) {
         this.journeyPlanningService = journeyPlanningService;
         this.userTaskRepository = userTaskRepository;
         this.userRepository = userRepository;
@@ -75,6 +85,7 @@ public class JourneyController {
         this.journeyManagementService = journeyManagementService;
         this.journeyOptimizationService = journeyOptimizationService;
         this.journeyRepository = journeyRepository;
+        this.candidateStore = candidateStore.getIfAvailable();
     }
 
     @PostMapping
@@ -105,11 +116,9 @@ public class JourneyController {
                 viaDeparture = parseDepartureTime(request.intermediateDepartureTime());
             }
             java.util.List<Journey> viaJourneys = planViaJourney(parameters, request.intermediateQuery(), viaDeparture);
-            responses = viaJourneys.stream()
-                    .map(journey -> JourneyResponse.from(journey, calculateTasksOnRoute(journey)))
-                    .toList();
+            responses = respond(viaJourneys, journey -> JourneyResponse.from(journey, calculateTasksOnRoute(journey)));
         } else if (useTaskOptimization) {
-            java.util.List<org.marly.mavigo.service.journey.JourneyOptimizationService.OptimizedJourneyResult> optimizedResults;
+            java.util.List<OptimizedJourneyResult> optimizedResults;
             if (request.taskDetails() != null && !request.taskDetails().isEmpty()) {
                 optimizedResults = journeyOptimizationService.planOptimizedJourneyWithTaskDetails(parameters,
                         request.taskDetails());
@@ -120,11 +129,12 @@ public class JourneyController {
 
             if (optimizedResults.isEmpty()) {
                 LOGGER.warn("Optimization failed, falling back to normal journey");
-                java.util.List<Journey> normalJourneys = journeyPlanningService.planAndPersist(parameters);
-                responses = normalJourneys.stream()
-                        .map(j -> JourneyResponse.from(j, calculateTasksOnRoute(j)))
-                        .toList();
+                java.util.List<Journey> normalJourneys = plan(parameters);
+                responses = respond(normalJourneys, j -> JourneyResponse.from(j, calculateTasksOnRoute(j)));
             } else {
+                if (!candidatesEnabled()) {
+                    optimizedResults = persistOptimized(optimizedResults);
+                }
                 responses = optimizedResults.stream()
                         .map(result -> {
                             List<JourneyResponse.TaskOnRouteResponse> tasksOnRoute = calculateTasksOnRoute(
@@ -139,22 +149,81 @@ public class JourneyController {
                                                     : baseAdd,
                                             t.id()))
                                     .toList();
-                            return JourneyResponse.fromOptimized(
+                            JourneyResponse response = JourneyResponse.fromOptimized(
                                     result.journey(), tasksOnRoute, includedTasks, result.baseDurationSeconds());
+                            return candidatesEnabled()
+                                    ? response.withCandidateId(candidateStore.offer(result.journey()))
+                                    : response;
                         })
                         .toList();
             }
         } else {
             // Trajet normal sans optimisation
-            java.util.List<Journey> journeys = journeyPlanningService.planAndPersist(parameters);
-            responses = journeys.stream()
-                    .map(journey -> JourneyResponse.from(journey, calculateTasksOnRoute(journey)))
-                    .toList();
+            java.util.List<Journey> journeys = plan(parameters);
+            responses = respond(journeys, journey -> JourneyResponse.from(journey, calculateTasksOnRoute(journey)));
         }
 
         return ResponseEntity.status(HttpStatus.CREATED).body(responses);
     }
 
+    /**
+     * Persists a journey offered by {@link #planJourney(PlanJourneyCommand)} under
+     * {@code candidateId}. Candidates can be selected once, until they expire.
+     */
+    @PostMapping("/candidates/{candidateId}/select")
+    public ResponseEntity<JourneyResponse> selectCandidate(@PathVariable java.util.UUID candidateId) {
+        Journey candidate = candidateStore != null ? candidateStore.select(candidateId) : null;
+        if (candidate == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Journey candidate not found or expired: " + candidateId);
+        }
+        Journey saved = journeyPlanningService.persist(List.of(candidate)).get(0);
+        LOGGER.info("Journey candidate {} selected as journey {}", candidateId, saved.getId());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(JourneyResponse.from(saved, calculateTasksOnRoute(saved)));
+    }
+
+    /**
+     * The optimizer only plans: without candidates its journeys are written here, as before.
+     */
+    private List<OptimizedJourneyResult> persistOptimized(List<OptimizedJourneyResult> results) {
+        List<Journey> saved = journeyPlanningService.persist(
+                results.stream().map(OptimizedJourneyResult::journey).toList());
+        List<OptimizedJourneyResult> persisted = new java.util.ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            OptimizedJourneyResult result = results.get(i);
+            persisted.add(new OptimizedJourneyResult(saved.get(i), result.includedTasks(),
+                    result.totalDurationSeconds(), result.baseDurationSeconds()));
+        }
+        return persisted;
+    }
+
+    private boolean candidatesEnabled() {
+        return candidateStore != null && candidateStore.isEnabled();
+    }
+
+    /**
+     * Plans without writing when planned journeys are kept as candidates.
+     */
+    private List<Journey> plan(JourneyPlanningParameters parameters) {
+        return candidatesEnabled()
+                ? journeyPlanningService.plan(parameters)
+                : journeyPlanningService.planAndPersist(parameters);
+    }
+
+    /**
+     * Maps planned journeys to responses, offering each one as a candidate when they were not
+     * persisted.
+     */
+    private List<JourneyResponse> respond(List<Journey> journeys, Function<Journey, JourneyResponse> mapper) {
+        if (!candidatesEnabled()) {
+            return journeys.stream().map(mapper).toList();
+        }
+        return journeys.stream()
+                .map(journey -> mapper.apply(journey).withCandidateId(candidateStore.offer(journey)))
+                .toList();
+    }
+
     private List<Journey> planViaJourney(JourneyPlanningParameters parameters, String intermediateQuery,
             LocalDateTime intermediateDepartureTime) {
         // Step 1: Origin -> Via
@@ -167,7 +236,7 @@ public class JourneyController {
                 parameters.ecoModeEnabled(),
                 parameters.wheelchairAccessible());
 
-        List<Journey> leg1Journeys = journeyPlanningService.planAndPersist(leg1Params);
+        List<Journey> leg1Journeys = plan(leg1Params);
         if (leg1Journeys.isEmpty()) {
             return List.of();
         }
@@ -186,7 +255,7 @@ public class JourneyController {
                 parameters.ecoModeEnabled(),
                 parameters.wheelchairAccessible());
 
-        List<Journey> leg2Journeys = journeyPlanningService.planAndPersist(leg2Params);
+        List<Journey> leg2Journeys = plan(leg2Params);
         if (leg2Journeys.isEmpty()) {
             return List.of();
         }
@@ -242,7 +311,7 @@ public class JourneyController {
         if (intermediateDepartureTime != null) {
             aggregated.setIntermediateDepartureTime(intermediateDepartureTime.atOffset(java.time.ZoneOffset.UTC));
         }
-        return List.of(journeyRepository.save(aggregated));
+        return List.of(candidatesEnabled() ? aggregated : journeyRepository.save(aggregated));
     }
 
     /**
@@ -0,0 +1,31 @@
+package org.marly.mavigo.controller;
+
+import org.marly.mavigo.service.stoparea.gazetteer.GtfsStopsImporter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/gazetteer")
+public class StopAreaGazetteerController {
+
+    private final GtfsStopsImporter importer;
+
+    public StopAreaGazetteerController(GtfsStopsImporter importer) {
+        this.importer = importer;
+    }
+
+    @GetMapping
+    public ResponseEntity<GtfsStopsImporter.ImportResult> status() {
+        return ResponseEntity.ok(importer.lastResult());
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<GtfsStopsImporter.ImportResult> reload(
+            @RequestParam(defaultValue = "false") boolean force) {
+        return ResponseEntity.ok(importer.reload(force));
+    }
+}
@@ -35,7 +35,9 @@ public record JourneyResponse(
                 Long baseDurationSeconds,
                 List<BadgeResponse> newBadges,
                 String intermediateQuery,
-                OffsetDateTime intermediateDepartureTime) {
+                OffsetDateTime intermediateDepartureTime,
+                UUID candidateId,
+                boolean stale) {
 
         public record BadgeResponse(String name, String description, String icon) {
         }
@@ -82,7 +84,9 @@ public record JourneyResponse(
                                 null,
                                 badgeResponses,
                                 journey.getIntermediateQuery(),
-                                journey.getIntermediateDepartureTime());
+                                journey.getIntermediateDepartureTime(),
+                                null,
+                                journey.isStale());
         }
 
         public static JourneyResponse fromOptimized(
@@ -111,7 +115,39 @@ public record JourneyResponse(
                                 baseDurationSeconds,
                                 base.newBadges(),
                                 base.intermediateQuery(),
-                                base.intermediateDepartureTime());
+                                base.intermediateDepartureTime(),
+                                base.candidateId(),
+                                base.stale());
+        }
+
+        /**
+         * Same response for a journey that is not persisted yet: it has no {@code journeyId} and is
+         * started by selecting {@code candidateId} first.
+         */
+        public JourneyResponse withCandidateId(UUID candidateId) {
+                return new JourneyResponse(
+                                journeyId,
+                                userId,
+                                originLabel,
+                                destinationLabel,
+                                plannedDeparture,
+                                plannedArrival,
+                                comfortModeEnabled,
+                                primItineraryId,
+                                status,
+                                actualDeparture,
+                                actualArrival,
+                                disruptionCount,
+                                summary,
+                                segments,
+                                tasksOnRoute,
+                                includedTasks,
+                                baseDurationSeconds,
+                                newBadges,
+                                intermediateQuery,
+                                intermediateDepartureTime,
+                                candidateId,
+                                stale);
         }
 
         private static JourneySummary createSummary(Journey journey) {
@@ -1,5 +1,6 @@
 package org.marly.mavigo.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -15,11 +16,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
-    @ExceptionHandler({ IllegalArgumentException.class, org.marly.mavigo.client.prim.PrimApiException.class })
+    @ExceptionHandler({ IllegalArgumentException.class,
+            org.marly.mavigo.service.journey.NoJourneyOptionsException.class })
     public ResponseEntity<String> handleBadRequestExceptions(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(org.marly.mavigo.client.prim.PrimApiException.class)
+    public ResponseEntity<String> handlePrimFailure(org.marly.mavigo.client.prim.PrimApiException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({ org.marly.mavigo.client.prim.PrimQuotaExceededException.class,
+            org.marly.mavigo.client.prim.PrimCircuitOpenException.class })
+    public ResponseEntity<String> handlePrimUnavailable(org.marly.mavigo.client.prim.PrimApiException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(org.marly.mavigo.service.stoparea.StopAreaResolutionTimeoutException.class)
+    public ResponseEntity<String> handleStopAreaResolutionTimeout(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ex.getMessage());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<String> handleEntityNotFound(EntityNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
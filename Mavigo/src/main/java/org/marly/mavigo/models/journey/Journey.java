@@ -34,6 +34,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
 @Table(name = "journey")
@@ -104,6 +105,10 @@ public class Journey {
     @Column(name = "intermediate_departure_time")
     private OffsetDateTime intermediateDepartureTime;
 
+    // Planned from a cached PRIM answer while PRIM was unavailable; not persisted
+    @Transient
+    private boolean stale;
+
     @OneToMany(mappedBy = "journey", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("sequenceOrder ASC")
     private List<JourneySegment> segments = new ArrayList<>();
@@ -257,6 +262,14 @@ public class Journey {
         return id;
     }
 
+    /**
+     * Ids are generated on persist; only writers bypassing JPA (see
+     * {@code JourneyBulkRepository}) assign them up front, together with segment and point ids.
+     */
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
     public User getUser() {
         return user;
     }
@@ -393,6 +406,14 @@ public class Journey {
         this.intermediateDepartureTime = intermediateDepartureTime;
     }
 
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
     public List<JourneySegment> getSegments() {
         return Collections.unmodifiableList(segments);
     }
@@ -97,6 +97,10 @@ public class JourneyPoint {
         return id;
     }
 
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
     public JourneySegment getSegment() {
         return segment;
     }
@@ -133,6 +133,10 @@ public class JourneySegment {
         return id;
     }
 
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
     public Journey getJourney() {
         return journey;
     }
@@ -0,0 +1,116 @@
+package org.marly.mavigo.models.stoparea;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+
+/**
+ * A query string (stop name, BAN address, coordinates) already resolved to a stop area. The
+ * target name and coordinates are kept so that virtual stop areas built for addresses, which are
+ * not stored in {@code stop_area}, can be rebuilt without resolving the query again.
+ */
+@Entity
+@Table(name = "stop_area_alias", indexes = @Index(name = "idx_stop_area_alias_last_used_at", columnList = "last_used_at"))
+public class StopAreaAlias {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "normalized_query", nullable = false, unique = true, length = 512)
+    private String normalizedQuery;
+
+    @Column(name = "external_id", nullable = false)
+    private String externalId;
+
+    @Column(name = "stop_area_name", nullable = false)
+    private String stopAreaName;
+
+    @Embedded
+    private GeoPoint coordinates;
+
+    @Column(name = "hit_count", nullable = false)
+    private long hitCount;
+
+    @Column(name = "last_used_at", nullable = false)
+    private OffsetDateTime lastUsedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    protected StopAreaAlias() {
+    }
+
+    public StopAreaAlias(String normalizedQuery, String externalId, String stopAreaName, GeoPoint coordinates) {
+        this.normalizedQuery = normalizedQuery;
+        this.externalId = externalId;
+        this.stopAreaName = stopAreaName;
+        this.coordinates = coordinates;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getNormalizedQuery() {
+        return normalizedQuery;
+    }
+
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    public String getStopAreaName() {
+        return stopAreaName;
+    }
+
+    public void setStopAreaName(String stopAreaName) {
+        this.stopAreaName = stopAreaName;
+    }
+
+    public GeoPoint getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(GeoPoint coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public OffsetDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(OffsetDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+        if (lastUsedAt == null) {
+            lastUsedAt = createdAt;
+        }
+    }
+}
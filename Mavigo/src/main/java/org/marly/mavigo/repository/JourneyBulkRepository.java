@@ -0,0 +1,274 @@
+package org.marly.mavigo.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.marly.mavigo.models.disruption.Disruption;
+import org.marly.mavigo.models.journey.Journey;
+import org.marly.mavigo.models.journey.JourneyPoint;
+import org.marly.mavigo.models.journey.JourneySegment;
+import org.marly.mavigo.models.poi.PointOfInterest;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts new journeys with their segments and points over JDBC, outside the persistence context.
+ * <p>
+ * Ids are generated here and set on the entities before anything is written, so the whole graph is
+ * known up front: each table is filled with multi-row {@code INSERT ... VALUES (...), (...)}
+ * statements of {@code journey.bulk.rows-per-statement} rows, the full statements of a table being
+ * sent as one JDBC batch. A plan of three journeys with a few dozen points costs a handful of round
+ * trips instead of one {@code INSERT} per entity at flush time.
+ * <p>
+ * The inserted entities are not managed by Hibernate: later changes go through
+ * {@link JourneyRepository} after reloading them. Disruptions and points of interest linked to a
+ * journey must already be stored.
+ */
+@Repository
+public class JourneyBulkRepository {
+
+    private static final String JOURNEY_INSERT = "INSERT INTO journey "
+            + "(id, user_id, origin_label, destination_label, origin_latitude, origin_longitude, "
+            + "destination_latitude, destination_longitude, planned_departure, planned_arrival, "
+            + "actual_departure, actual_arrival, status, comfort_mode_enabled, eco_mode_enabled, "
+            + "named_comfort_setting_id, prim_itinerary_id, disruption_count, intermediate_query, "
+            + "intermediate_departure_time) VALUES ";
+    private static final int JOURNEY_COLUMNS = 20;
+
+    private static final String SEGMENT_INSERT = "INSERT INTO journey_segment "
+            + "(id, journey_id, sequence_order, segment_type, transit_mode, prim_section_id, line_code, "
+            + "line_name, line_color, network_name, scheduled_departure, scheduled_arrival, "
+            + "duration_seconds, distance_meters, has_air_conditioning) VALUES ";
+    private static final int SEGMENT_COLUMNS = 15;
+
+    private static final String POINT_INSERT = "INSERT INTO journey_point "
+            + "(id, segment_id, sequence_in_segment, point_type, prim_stop_point_id, prim_stop_area_id, "
+            + "name, latitude, longitude, scheduled_arrival, scheduled_departure, status) VALUES ";
+    private static final int POINT_COLUMNS = 12;
+
+    private static final String DISRUPTION_LINK_INSERT = "INSERT INTO journey_disruption "
+            + "(journey_id, disruption_id) VALUES ";
+    private static final String POINT_OF_INTEREST_LINK_INSERT = "INSERT INTO journey_point_of_interest "
+            + "(journey_id, point_of_interest_id) VALUES ";
+    private static final int LINK_COLUMNS = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int rowsPerStatement;
+
+    public JourneyBulkRepository(JdbcTemplate jdbcTemplate,
+            @Value("${journey.bulk.enabled:true}") boolean enabled,
+            @Value("${journey.bulk.rows-per-statement:100}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.rowsPerStatement = Math.max(1, rowsPerStatement);
+    }
+
+    /**
+     * @return whether journeys should be written here rather than through {@link JourneyRepository}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inserts journeys that were never persisted, with their segments, points and links.
+     *
+     * @return the number of rows inserted across all tables
+     * @throws IllegalArgumentException if a journey already has an id
+     */
+    public int insertAll(Collection<Journey> journeys) {
+        if (journeys.isEmpty()) {
+            return 0;
+        }
+        List<JourneySegment> segments = new ArrayList<>();
+        List<JourneyPoint> points = new ArrayList<>();
+        List<Object[]> disruptionLinks = new ArrayList<>();
+        List<Object[]> pointOfInterestLinks = new ArrayList<>();
+        for (Journey journey : journeys) {
+            if (journey.getId() != null) {
+                throw new IllegalArgumentException("Journey already persisted: " + journey.getId());
+            }
+            journey.setId(UUID.randomUUID());
+            for (JourneySegment segment : journey.getSegments()) {
+                segment.setId(UUID.randomUUID());
+                segments.add(segment);
+                for (JourneyPoint point : segment.getPoints()) {
+                    point.setId(UUID.randomUUID());
+                    points.add(point);
+                }
+            }
+            for (Disruption disruption : journey.getDisruptions()) {
+                disruptionLinks.add(new Object[] { journey.getId(), disruption.getId() });
+            }
+            for (PointOfInterest pointOfInterest : journey.getPointOfInterests()) {
+                pointOfInterestLinks.add(new Object[] { journey.getId(), pointOfInterest.getId() });
+            }
+        }
+        try {
+            return insertRows(JOURNEY_INSERT, JOURNEY_COLUMNS, List.copyOf(journeys),
+                            JourneyBulkRepository::bindJourney)
+                    + insertRows(SEGMENT_INSERT, SEGMENT_COLUMNS, segments, JourneyBulkRepository::bindSegment)
+                    + insertRows(POINT_INSERT, POINT_COLUMNS, points, JourneyBulkRepository::bindPoint)
+                    + insertRows(DISRUPTION_LINK_INSERT, LINK_COLUMNS, disruptionLinks,
+                            JourneyBulkRepository::bindLink)
+                    + insertRows(POINT_OF_INTEREST_LINK_INSERT, LINK_COLUMNS, pointOfInterestLinks,
+                            JourneyBulkRepository::bindLink);
+        } catch (RuntimeException e) {
+            // The transaction rolls back: leave the journeys new so that they can be written again
+            journeys.forEach(journey -> journey.setId(null));
+            segments.forEach(segment -> segment.setId(null));
+            points.forEach(point -> point.setId(null));
+            throw e;
+        }
+    }
+
+    private <T> int insertRows(String insert, int columns, List<T> rows, RowBinder<T> binder) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int fullStatements = rows.size() / rowsPerStatement;
+        if (fullStatements > 0) {
+            jdbcTemplate.batchUpdate(multiRowInsert(insert, columns, rowsPerStatement),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int statement) throws SQLException {
+                            int from = statement * rowsPerStatement;
+                            bind(ps, rows.subList(from, from + rowsPerStatement), binder);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return fullStatements;
+                        }
+                    });
+        }
+        int remainder = rows.size() - fullStatements * rowsPerStatement;
+        if (remainder > 0) {
+            jdbcTemplate.update(multiRowInsert(insert, columns, remainder),
+                    ps -> bind(ps, rows.subList(rows.size() - remainder, rows.size()), binder));
+        }
+        // Batch update counts are not reliable across drivers: every row is inserted or the call throws
+        return rows.size();
+    }
+
+    private static String multiRowInsert(String insert, int columns, int rows) {
+        StringBuilder row = new StringBuilder(columns * 3).append('(');
+        for (int i = 0; i < columns; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        StringBuilder sql = new StringBuilder(insert.length() + rows * (row.length() + 2)).append(insert);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+
+    private static <T> void bind(PreparedStatement ps, List<T> rows, RowBinder<T> binder) throws SQLException {
+        Parameters parameters = new Parameters(ps);
+        for (T row : rows) {
+            binder.bind(parameters, row);
+        }
+    }
+
+    private static void bindJourney(Parameters p, Journey journey) throws SQLException {
+        p.add(journey.getId(), Types.OTHER);
+        p.add(journey.getUser() != null ? journey.getUser().getId() : null, Types.OTHER);
+        p.add(journey.getOriginLabel(), Types.VARCHAR);
+        p.add(journey.getDestinationLabel(), Types.VARCHAR);
+        p.addCoordinates(journey.getOriginCoordinate());
+        p.addCoordinates(journey.getDestinationCoordinate());
+        p.add(journey.getPlannedDeparture(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(journey.getPlannedArrival(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(journey.getActualDeparture(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(journey.getActualArrival(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(journey.getStatus() != null ? journey.getStatus().name() : null, Types.VARCHAR);
+        p.add(journey.isComfortModeEnabled(), Types.BOOLEAN);
+        p.add(journey.isEcoModeEnabled(), Types.BOOLEAN);
+        p.add(journey.getNamedComfortSettingId(), Types.OTHER);
+        p.add(journey.getPrimItineraryId(), Types.VARCHAR);
+        p.add(journey.getDisruptionCount(), Types.INTEGER);
+        p.add(journey.getIntermediateQuery(), Types.VARCHAR);
+        p.add(journey.getIntermediateDepartureTime(), Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+
+    private static void bindSegment(Parameters p, JourneySegment segment) throws SQLException {
+        p.add(segment.getId(), Types.OTHER);
+        p.add(segment.getJourney().getId(), Types.OTHER);
+        p.add(segment.getSequenceOrder(), Types.INTEGER);
+        p.add(segment.getSegmentType() != null ? segment.getSegmentType().name() : null, Types.VARCHAR);
+        p.add(segment.getTransitMode() != null ? segment.getTransitMode().name() : null, Types.VARCHAR);
+        p.add(segment.getPrimSectionId(), Types.VARCHAR);
+        p.add(segment.getLineCode(), Types.VARCHAR);
+        p.add(segment.getLineName(), Types.VARCHAR);
+        p.add(segment.getLineColor(), Types.VARCHAR);
+        p.add(segment.getNetworkName(), Types.VARCHAR);
+        p.add(segment.getScheduledDeparture(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(segment.getScheduledArrival(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(segment.getDurationSeconds(), Types.INTEGER);
+        p.add(segment.getDistanceMeters(), Types.INTEGER);
+        p.add(segment.getHasAirConditioning(), Types.BOOLEAN);
+    }
+
+    private static void bindPoint(Parameters p, JourneyPoint point) throws SQLException {
+        p.add(point.getId(), Types.OTHER);
+        p.add(point.getSegment().getId(), Types.OTHER);
+        p.add(point.getSequenceInSegment(), Types.INTEGER);
+        p.add(point.getPointType() != null ? point.getPointType().name() : null, Types.VARCHAR);
+        p.add(point.getPrimStopPointId(), Types.VARCHAR);
+        p.add(point.getPrimStopAreaId(), Types.VARCHAR);
+        p.add(point.getName(), Types.VARCHAR);
+        p.addCoordinates(point.getCoordinates());
+        p.add(point.getScheduledArrival(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(point.getScheduledDeparture(), Types.TIMESTAMP_WITH_TIMEZONE);
+        p.add(point.getStatus() != null ? point.getStatus().name() : null, Types.VARCHAR);
+    }
+
+    private static void bindLink(Parameters p, Object[] link) throws SQLException {
+        p.add(link[0], Types.OTHER);
+        p.add(link[1], link[1] instanceof Long ? Types.BIGINT : Types.OTHER);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(Parameters parameters, T row) throws SQLException;
+    }
+
+    /**
+     * Sets the parameters of a multi-row statement in order.
+     */
+    private static final class Parameters {
+
+        private final PreparedStatement ps;
+        private int index = 1;
+
+        Parameters(PreparedStatement ps) {
+            this.ps = ps;
+        }
+
+        void add(Object value, int sqlType) throws SQLException {
+            if (value == null) {
+                ps.setNull(index++, sqlType);
+            } else {
+                ps.setObject(index++, value);
+            }
+        }
+
+        void addCoordinates(GeoPoint coordinates) throws SQLException {
+            add(coordinates != null ? coordinates.getLatitude() : null, Types.DOUBLE);
+            add(coordinates != null ? coordinates.getLongitude() : null, Types.DOUBLE);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.marly.mavigo.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StopAreaAliasRepository extends JpaRepository<StopAreaAlias, UUID> {
+
+    Optional<StopAreaAlias> findByNormalizedQuery(String normalizedQuery);
+
+    @Modifying
+    @Query("UPDATE StopAreaAlias a SET a.hitCount = a.hitCount + 1, a.lastUsedAt = :usedAt WHERE a.id = :id")
+    int recordHit(@Param("id") UUID id, @Param("usedAt") OffsetDateTime usedAt);
+
+    @Modifying
+    @Query("UPDATE StopAreaAlias a SET a.externalId = :externalId, a.stopAreaName = :name, "
+            + "a.coordinates.latitude = :latitude, a.coordinates.longitude = :longitude, a.lastUsedAt = :usedAt "
+            + "WHERE a.normalizedQuery = :query")
+    int updateTarget(@Param("query") String normalizedQuery,
+            @Param("externalId") String externalId,
+            @Param("name") String name,
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("usedAt") OffsetDateTime usedAt);
+
+    /**
+     * Inserts the alias unless another request stored the same query first; never fails on the
+     * unique constraint, so it cannot poison the caller's transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stop_area_alias "
+            + "(id, normalized_query, external_id, stop_area_name, latitude, longitude, hit_count, last_used_at, created_at) "
+            + "VALUES (:id, :query, :externalId, :name, :latitude, :longitude, 0, :usedAt, :usedAt) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+            @Param("query") String normalizedQuery,
+            @Param("externalId") String externalId,
+            @Param("name") String name,
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("usedAt") OffsetDateTime usedAt);
+
+    @Query("SELECT a.id FROM StopAreaAlias a ORDER BY a.lastUsedAt ASC")
+    List<UUID> findLeastRecentlyUsedIds(Pageable pageable);
+}
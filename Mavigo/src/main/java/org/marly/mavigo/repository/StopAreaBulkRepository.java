@@ -0,0 +1,76 @@
+package org.marly.mavigo.repository;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk insert of stop areas over JDBC batches.
+ * <p>
+ * Rows whose {@code external_id} is already stored are skipped by the database
+ * ({@code ON CONFLICT DO NOTHING}), so concurrent writers never fail on the unique constraint and
+ * the caller's transaction stays usable. Each batch of {@code stop-area.bulk.batch-size} rows is
+ * sent in a single round trip instead of one lookup and one insert per stop.
+ */
+@Repository
+public class StopAreaBulkRepository {
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO stop_area "
+            + "(id, external_id, name, latitude, longitude, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public StopAreaBulkRepository(JdbcTemplate jdbcTemplate,
+            @Value("${stop-area.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Inserts the stop areas whose external id is not stored yet.
+     *
+     * @return the number of rows inserted; drivers that do not report batch counts yield 0
+     */
+    public int insertAllIfAbsent(Collection<StopArea> stopAreas) {
+        if (stopAreas.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, stopAreas, batchSize, (ps, stopArea) -> {
+            GeoPoint coordinates = stopArea.getCoordinates();
+            ps.setObject(1, UUID.randomUUID());
+            ps.setString(2, stopArea.getExternalId());
+            ps.setString(3, stopArea.getName());
+            if (coordinates != null && coordinates.getLatitude() != null) {
+                ps.setDouble(4, coordinates.getLatitude());
+            } else {
+                ps.setNull(4, Types.DOUBLE);
+            }
+            if (coordinates != null && coordinates.getLongitude() != null) {
+                ps.setDouble(5, coordinates.getLongitude());
+            } else {
+                ps.setNull(5, Types.DOUBLE);
+            }
+            ps.setObject(6, now);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted += count;
+                }
+            }
+        }
+        return inserted;
+    }
+}
@@ -11,8 +11,11 @@ import java.util.UUID;
 
 import org.hibernate.Hibernate;
 import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimJourneyBatchResult;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
 import org.marly.mavigo.models.disruption.Disruption;
 import org.marly.mavigo.models.journey.Journey;
 import org.marly.mavigo.models.journey.JourneyPoint;
@@ -29,6 +32,7 @@ import org.marly.mavigo.service.disruption.dto.StopInfo;
 import org.marly.mavigo.service.journey.JourneyAssembler;
 import org.marly.mavigo.service.journey.JourneyResultFilter;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
+import org.marly.mavigo.service.stoparea.StopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +51,7 @@ public class DisruptionReportingService {
     private final StopAreaService stopAreaService;
     private final JourneyAssembler journeyAssembler;
     private final JourneyResultFilter journeyResultFilter;
+    private final StopAreaEndpointResolver endpointResolver;
 
     public DisruptionReportingService(
             JourneyRepository journeyRepository,
@@ -54,13 +59,15 @@ public class DisruptionReportingService {
             PrimApiClient primApiClient,
             StopAreaService stopAreaService,
             JourneyAssembler journeyAssembler,
-            JourneyResultFilter journeyResultFilter) {
+            JourneyResultFilter journeyResultFilter,
+            StopAreaEndpointResolver endpointResolver) {
         this.journeyRepository = journeyRepository;
         this.disruptionRepository = disruptionRepository;
         this.primApiClient = primApiClient;
         this.stopAreaService = stopAreaService;
         this.journeyAssembler = journeyAssembler;
         this.journeyResultFilter = journeyResultFilter;
+        this.endpointResolver = endpointResolver;
     }
 
     @Transactional(readOnly = true)
@@ -130,7 +137,8 @@ public class DisruptionReportingService {
         }
 
         JourneyPoint newOrigin = newOriginOpt.get();
-        List<Journey> alternatives = recalculateFrom(journey, newOrigin);
+        List<Journey> alternatives = PrimRequestPriorityContext.callWith(PrimRequestPriority.REROUTING,
+                () -> recalculateFrom(journey, newOrigin));
         return new RerouteResult(disruption, disruptedPoint, newOrigin, alternatives);
     }
 
@@ -143,7 +151,8 @@ public class DisruptionReportingService {
 
         LOG.info("Line disruption on '{}' for journey {}", lineCode, journeyId);
 
-        List<Journey> alternatives = recalculateExcluding(journey, lineCode);
+        List<Journey> alternatives = PrimRequestPriorityContext.callWith(PrimRequestPriority.REROUTING,
+                () -> recalculateExcluding(journey, lineCode));
         return new RerouteResult(disruption, null, null, alternatives);
     }
 
@@ -161,11 +170,12 @@ public class DisruptionReportingService {
             }
         }
 
-        StopArea origin = stopAreaService.findOrCreateByQuery(newOrigin.getName());
+        List<StopArea> endpoints = endpointResolver.resolveAll(newOrigin.getName(), original.getDestinationLabel());
+        StopArea origin = endpoints.get(0);
         if (origin.getCoordinates() == null && newOrigin.getCoordinates() != null) {
             origin.setCoordinates(newOrigin.getCoordinates());
         }
-        StopArea destination = stopAreaService.findOrCreateByQuery(original.getDestinationLabel());
+        StopArea destination = endpoints.get(1);
 
         // Check if there's an intermediate stop and if it's still ahead
         String via = original.getIntermediateQuery();
@@ -188,8 +198,10 @@ public class DisruptionReportingService {
     }
 
     private List<Journey> recalculateExcluding(Journey original, String excludedLine) {
-        StopArea origin = stopAreaService.findOrCreateByQuery(original.getOriginLabel());
-        StopArea destination = stopAreaService.findOrCreateByQuery(original.getDestinationLabel());
+        List<StopArea> endpoints = endpointResolver.resolveAll(original.getOriginLabel(),
+                original.getDestinationLabel());
+        StopArea origin = endpoints.get(0);
+        StopArea destination = endpoints.get(1);
 
         String via = original.getIntermediateQuery();
         if (via != null && !via.isBlank()) {
@@ -207,42 +219,45 @@ public class DisruptionReportingService {
                 // Multistop rerouting logic
                 // Leg 1: Current Origin -> Via
                 StopArea viaStop = stopAreaService.findOrCreateByQuery(viaQuery);
-                var request1 = new PrimJourneyRequest(origin.getExternalId(), viaStop.getExternalId(),
-                        LocalDateTime.now());
-                if (excludedLine != null) {
-                    request1.addExcludedLine(excludedLine);
-                }
-                List<PrimJourneyPlanDto> leg1Options = primApiClient.calculateJourneyPlans(request1);
-                if (excludedLine != null) {
-                    leg1Options = leg1Options.stream()
-                            .filter(plan -> plan.legs() == null
-                                    || plan.legs().stream().noneMatch(leg -> excludedLine.equals(leg.lineCode())))
-                            .toList();
+                var request1 = viaLegRequest(origin, viaStop, LocalDateTime.now(), excludedLine);
+
+                List<PrimJourneyPlanDto> leg1Options;
+                PrimJourneyBatchResult leg2Result = null;
+                if (viaDeparture != null) {
+                    // Leg 2 does not depend on leg 1: plan both at once
+                    var request2 = viaLegRequest(viaStop, destination, viaDeparture.toLocalDateTime(), excludedLine);
+                    List<PrimJourneyBatchResult> legs = primApiClient
+                            .calculateJourneyPlansBatch(List.of(request1, request2));
+                    leg1Options = legs.get(0).plansOrThrow();
+                    leg2Result = legs.get(1);
+                } else {
+                    leg1Options = primApiClient.calculateJourneyPlans(request1);
                 }
+                leg1Options = excludingLine(leg1Options, excludedLine);
 
                 if (leg1Options.isEmpty()) {
                     LOG.warn("Could not find reroute to intermediate stop '{}', falling back to direct", viaQuery);
                     return calculateAlternatives(original, origin, destination, null, null, excludedLine);
                 }
 
-                PrimJourneyPlanDto leg1 = leg1Options.get(0);
-                LocalDateTime leg2Time = viaDeparture != null ? viaDeparture.toLocalDateTime()
-                        : LocalDateTime.now()
-                                .plusSeconds(leg1.durationSeconds() != null ? leg1.durationSeconds() : 3600);
-
-                // Leg 2: Via -> Destination
-                var request2 = new PrimJourneyRequest(viaStop.getExternalId(), destination.getExternalId(), leg2Time);
-                if (excludedLine != null) {
-                    request2.addExcludedLine(excludedLine);
-                }
-                List<PrimJourneyPlanDto> leg2Options = primApiClient.calculateJourneyPlans(request2);
-
-                if (excludedLine != null) {
-                    leg2Options = leg2Options.stream()
-                            .filter(plan -> plan.legs() == null
-                                    || plan.legs().stream().noneMatch(leg -> excludedLine.equals(leg.lineCode())))
-                            .toList();
+                List<PrimJourneyPlanDto> leg2Options;
+                if (leg2Result != null) {
+                    // A failed leg 2 is handled like an empty one: the direct reroute below
+                    if (!leg2Result.isSuccess()) {
+                        LOG.warn("Reroute from intermediate stop '{}' failed: {}", viaQuery,
+                                leg2Result.error().getMessage());
+                    }
+                    leg2Options = leg2Result.plans();
+                } else {
+                    PrimJourneyPlanDto leg1 = leg1Options.get(0);
+                    LocalDateTime leg2Time = LocalDateTime.now()
+                            .plusSeconds(leg1.durationSeconds() != null ? leg1.durationSeconds() : 3600);
+
+                    // Leg 2: Via -> Destination
+                    leg2Options = primApiClient.calculateJourneyPlans(
+                            viaLegRequest(viaStop, destination, leg2Time, excludedLine));
                 }
+                leg2Options = excludingLine(leg2Options, excludedLine);
 
                 if (leg2Options.isEmpty()) {
                     LOG.warn("Could not find reroute from intermediate stop '{}' to destination", viaQuery);
@@ -296,13 +311,7 @@ public class DisruptionReportingService {
                     destination, params);
 
             options = journeyResultFilter.filterByComfortProfile(options, context, original.isComfortModeEnabled());
-
-            if (excludedLine != null) {
-                options = options.stream()
-                        .filter(plan -> plan.legs() == null
-                                || plan.legs().stream().noneMatch(leg -> excludedLine.equals(leg.lineCode())))
-                        .toList();
-            }
+            options = excludingLine(options, excludedLine);
 
             if (options.isEmpty())
                 return List.of();
@@ -334,6 +343,25 @@ public class DisruptionReportingService {
         return journey;
     }
 
+    private static PrimJourneyRequest viaLegRequest(StopArea from, StopArea to, LocalDateTime departure,
+            String excludedLine) {
+        var request = new PrimJourneyRequest(from.getExternalId(), to.getExternalId(), departure);
+        if (excludedLine != null) {
+            request.addExcludedLine(excludedLine);
+        }
+        return request;
+    }
+
+    private static List<PrimJourneyPlanDto> excludingLine(List<PrimJourneyPlanDto> options, String excludedLine) {
+        if (excludedLine == null) {
+            return options;
+        }
+        return options.stream()
+                .filter(plan -> plan.legs() == null
+                        || plan.legs().stream().noneMatch(leg -> excludedLine.equals(leg.lineCode())))
+                .toList();
+    }
+
     private Journey combineJourneys(Journey leg1, Journey leg2) {
         Journey aggregated = new Journey(
                 leg1.getUser(),
@@ -5,30 +5,61 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
-@Primary
 public class BanGeocodingService implements GeocodingService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BanGeocodingService.class);
 
+    /** Columns BAN appends to each row of a batch; everything else it could add is skipped. */
+    private static final List<String> BATCH_RESULT_COLUMNS = List.of(
+            "latitude", "longitude", "result_label", "result_city", "result_status");
+    private static final String STATUS_OK = "ok";
+    private static final String STATUS_NOT_FOUND = "not-found";
+
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final int batchSize;
+
+    public BanGeocodingService(RestTemplate restTemplate, String baseUrl) {
+        this(restTemplate, baseUrl, 1000);
+    }
 
+    @Autowired
     public BanGeocodingService(
-            RestTemplate restTemplate,
-            @Value("${geocoding.ban.base-url:https://api-adresse.data.gouv.fr}") String baseUrl) {
+            @Qualifier("geocodingRestTemplate") RestTemplate restTemplate,
+            @Value("${geocoding.ban.base-url:https://api-adresse.data.gouv.fr}") String baseUrl,
+            @Value("${geocoding.ban.batch-size:1000}") int batchSize) {
         this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     @Override
@@ -63,11 +94,10 @@ public class BanGeocodingService implements GeocodingService {
                     chosen.properties != null ? chosen.properties.city : null);
             return new GeoPoint(lat, lon);
         } catch (RestClientException e) {
-            LOGGER.warn("BAN geocoding failed for '{}': {}", address, e.getMessage());
-            return null;
+            throw new GeocodingException("BAN geocoding failed for '" + address + "': " + e.getMessage(), e);
         } catch (Exception e) {
             LOGGER.error("Unexpected BAN error while geocoding '{}'", address, e);
-            return null;
+            throw new GeocodingException("Unexpected BAN error while geocoding '" + address + "'", e);
         }
     }
 
@@ -98,11 +128,171 @@ public class BanGeocodingService implements GeocodingService {
             }
             return label.trim();
         } catch (RestClientException e) {
-            LOGGER.warn("BAN reverse geocoding failed for {}, {}: {}",
-                    point.getLatitude(), point.getLongitude(), e.getMessage());
-            return null;
+            throw new GeocodingException("BAN reverse geocoding failed for " + point.getLatitude() + ", "
+                    + point.getLongitude() + ": " + e.getMessage(), e);
         } catch (Exception e) {
             LOGGER.error("Unexpected BAN error while reverse geocoding", e);
+            throw new GeocodingException("Unexpected BAN error while reverse geocoding", e);
+        }
+    }
+
+    @Override
+    public boolean hasBatchEndpoint() {
+        return true;
+    }
+
+    /**
+     * Sends the addresses to {@code /search/csv/} by uploads of {@code geocoding.ban.batch-size}
+     * rows and reads the answer as it streams in. Rows are matched back to their address through
+     * an {@code id} column. Rows BAN could not process and rows whose city does not match the city
+     * hint of the address are geocoded again one by one with {@link #geocode(String)}, which can
+     * pick among several candidates. The addresses of an upload that fails as a whole are left out
+     * of the result for the caller to send elsewhere, rather than retried here one request each.
+     *
+     * @throws GeocodingException if no upload went through
+     */
+    @Override
+    public Map<String, GeoPoint> geocodeAll(Collection<String> addresses) {
+        if (addresses == null) {
+            return new LinkedHashMap<>();
+        }
+        List<String> distinct = new ArrayList<>();
+        for (String address : new LinkedHashSet<>(addresses)) {
+            if (address != null && !address.isBlank()) {
+                distinct.add(address);
+            }
+        }
+        if (distinct.size() < 2) {
+            return GeocodingService.super.geocodeAll(distinct);
+        }
+
+        Map<String, GeoPoint> points = new LinkedHashMap<>();
+        GeocodingException uploadFailure = null;
+        boolean uploaded = false;
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            List<String> batch = distinct.subList(from, Math.min(distinct.size(), from + batchSize));
+            List<String> failed;
+            try {
+                failed = geocodeBatch(batch, points);
+                uploaded = true;
+            } catch (GeocodingException e) {
+                LOGGER.warn("BAN batch geocoding of {} addresses failed: {}", batch.size(), e.getMessage());
+                uploadFailure = e;
+                continue;
+            }
+            if (!failed.isEmpty()) {
+                LOGGER.debug("BAN: {} of {} batch rows geocoded one by one", failed.size(), batch.size());
+            }
+            for (String address : failed) {
+                try {
+                    GeoPoint point = geocode(address);
+                    if (point != null) {
+                        points.put(address, point);
+                    }
+                } catch (GeocodingException e) {
+                    LOGGER.debug("BAN: single lookup of a batch row failed: {}", e.getMessage());
+                }
+            }
+        }
+        if (!uploaded && uploadFailure != null) {
+            throw uploadFailure;
+        }
+        return points;
+    }
+
+    /**
+     * @return the addresses of the batch that still need a single lookup
+     * @throws GeocodingException if the upload itself failed
+     */
+    private List<String> geocodeBatch(List<String> batch, Map<String, GeoPoint> points) {
+        StringBuilder csv = new StringBuilder("id,q\n");
+        for (int i = 0; i < batch.size(); i++) {
+            csv.append(i).append(',').append(BanCsvReader.quote(batch.get(i))).append('\n');
+        }
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("data", new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "addresses.csv";
+            }
+        });
+        form.add("columns", "q");
+        BATCH_RESULT_COLUMNS.forEach(column -> form.add("result_columns", column));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        try {
+            List<String> failed = restTemplate.execute(baseUrl + "/search/csv/", HttpMethod.POST,
+                    restTemplate.httpEntityCallback(new HttpEntity<>(form, headers)),
+                    response -> readBatch(response, batch, points));
+            return failed != null ? failed : batch;
+        } catch (RestClientException e) {
+            throw new GeocodingException("BAN batch geocoding failed: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> readBatch(ClientHttpResponse response, List<String> batch, Map<String, GeoPoint> points)
+            throws IOException {
+        boolean[] answered = new boolean[batch.size()];
+        List<String> failed = new ArrayList<>();
+        BanCsvReader reader = new BanCsvReader(
+                new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8)), ',');
+        List<String> header = reader.next();
+        if (header != null && !header.isEmpty()) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // Strip a UTF-8 byte order mark from the first column name
+                columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+            }
+            List<String> row;
+            while ((row = reader.next()) != null) {
+                Integer index = parseIndex(field(row, columns, "id"), batch.size());
+                if (index == null || answered[index]) {
+                    continue;
+                }
+                answered[index] = true;
+                String address = batch.get(index);
+                String status = field(row, columns, "result_status");
+                if (STATUS_NOT_FOUND.equals(status)) {
+                    continue;
+                }
+                GeoPoint point = STATUS_OK.equals(status) ? parsePoint(row, columns) : null;
+                String cityHint = extractCityHint(address);
+                if (point == null || (cityHint != null && !cityHint.isBlank() && !matchesCityHint(
+                        field(row, columns, "result_city"), field(row, columns, "result_label"), cityHint))) {
+                    failed.add(address);
+                    continue;
+                }
+                points.put(address, point);
+            }
+        }
+        for (int i = 0; i < answered.length; i++) {
+            if (!answered[i]) {
+                failed.add(batch.get(i));
+            }
+        }
+        return failed;
+    }
+
+    private static String field(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < row.size() ? row.get(index) : null;
+    }
+
+    private static Integer parseIndex(String value, int size) {
+        try {
+            int index = Integer.parseInt(value.trim());
+            return index >= 0 && index < size ? index : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static GeoPoint parsePoint(List<String> row, Map<String, Integer> columns) {
+        try {
+            return new GeoPoint(Double.parseDouble(field(row, columns, "latitude")),
+                    Double.parseDouble(field(row, columns, "longitude")));
+        } catch (RuntimeException e) {
             return null;
         }
     }
@@ -157,6 +347,12 @@ public class BanGeocodingService implements GeocodingService {
         return null;
     }
 
+    private static boolean matchesCityHint(String city, String label, String cityHint) {
+        String hint = cityHint.toLowerCase();
+        return (city != null && city.toLowerCase().contains(hint))
+                || (label != null && label.toLowerCase().contains(hint));
+    }
+
     private BanFeature chooseBestFeature(List<BanFeature> features, String cityHint) {
         if (features == null || features.isEmpty()) {
             return null;
@@ -177,14 +373,7 @@ public class BanGeocodingService implements GeocodingService {
             if (cityHint != null && !cityHint.isBlank()) {
                 String city = f.properties != null ? f.properties.city : null;
                 String label = f.properties != null ? f.properties.label : null;
-                if (city != null && city.toLowerCase().contains(cityHint.toLowerCase())) {
-                    if (score > bestScore) {
-                        best = f;
-                        bestScore = score;
-                    }
-                    continue;
-                }
-                if (label != null && label.toLowerCase().contains(cityHint.toLowerCase())) {
+                if (matchesCityHint(city, label, cityHint)) {
                     if (score > bestScore) {
                         best = f;
                         bestScore = score;
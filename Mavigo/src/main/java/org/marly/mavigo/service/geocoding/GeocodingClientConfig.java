@@ -0,0 +1,128 @@
+package org.marly.mavigo.service.geocoding;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.marly.mavigo.client.http.PooledHttpClientSettings;
+import org.marly.mavigo.client.http.PooledRestTemplateFactory;
+import org.marly.mavigo.service.geocoding.cache.CachingGeocodingService;
+import org.marly.mavigo.service.geocoding.offline.OfflineGeocodingService;
+import org.marly.mavigo.service.geocoding.routing.CompositeGeocodingService;
+import org.marly.mavigo.service.geocoding.routing.PacedGeocodingService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+public class GeocodingClientConfig {
+
+    @Bean
+    public RestTemplate geocodingRestTemplate(
+            @Value("${geocoding.http.connect-timeout:3s}") Duration connectTimeout,
+            @Value("${geocoding.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${geocoding.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${geocoding.http.max-total:10}") int maxTotal,
+            @Value("${geocoding.http.max-per-route:5}") int maxPerRoute,
+            @Value("${geocoding.http.max-per-host:https://nominatim.openstreetmap.org=1}") String maxPerHost,
+            @Value("${geocoding.http.idle-eviction:30s}") Duration idleEviction,
+            @Value("${geocoding.http.time-to-live:5m}") Duration timeToLive,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        PooledHttpClientSettings settings = new PooledHttpClientSettings(
+                "geocoding",
+                connectTimeout,
+                readTimeout,
+                connectionRequestTimeout,
+                maxTotal,
+                maxPerRoute,
+                PooledRestTemplateFactory.parseHostLimits(maxPerHost),
+                idleEviction,
+                timeToLive);
+        return PooledRestTemplateFactory.create(settings, meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * Nominatim behind a paced queue honouring its usage policy of one request per second.
+     */
+    @Bean(defaultCandidate = false)
+    public GeocodingService pacedNominatimGeocodingService(
+            NominatimGeocodingService nominatimGeocodingService,
+            @Value("${geocoding.nominatim.interval:1s}") Duration interval,
+            @Value("${geocoding.nominatim.max-queue:20}") int maxQueue,
+            @Value("${geocoding.nominatim.max-wait:10s}") Duration maxWait,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PacedGeocodingService(
+                nominatimGeocodingService,
+                "nominatim",
+                new PacedGeocodingService.Settings(interval, maxQueue, maxWait),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * The provider selected by {@code geocoding.provider}: {@code ban}, {@code nominatim},
+     * {@code offline}, or {@code composite} to route each call across them. The offline index
+     * joins the composite, ahead of the online providers, when {@code geocoding.offline.index}
+     * is set.
+     */
+    @Bean(defaultCandidate = false)
+    public GeocodingService routedGeocodingService(
+            BanGeocodingService banGeocodingService,
+            @Qualifier("pacedNominatimGeocodingService") GeocodingService nominatimGeocodingService,
+            OfflineGeocodingService offlineGeocodingService,
+            @Value("${geocoding.provider:composite}") String provider,
+            @Value("${geocoding.composite.hedge-after:1500ms}") Duration hedgeAfter,
+            @Value("${geocoding.composite.timeout:6s}") Duration timeout,
+            @Value("${geocoding.composite.smoothing:0.2}") double smoothing,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return switch (provider.trim().toLowerCase(Locale.ROOT)) {
+            case "ban" -> banGeocodingService;
+            case "nominatim" -> nominatimGeocodingService;
+            case "offline" -> offlineGeocodingService;
+            case "composite" -> {
+                Map<String, GeocodingService> providers = new LinkedHashMap<>();
+                if (offlineGeocodingService.isEnabled()) {
+                    providers.put("offline", offlineGeocodingService);
+                }
+                providers.put("ban", banGeocodingService);
+                providers.put("nominatim", nominatimGeocodingService);
+                yield new CompositeGeocodingService(
+                        providers,
+                        new CompositeGeocodingService.Settings(hedgeAfter, timeout, smoothing),
+                        meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+            }
+            default -> throw new IllegalStateException("Unknown geocoding.provider: " + provider);
+        };
+    }
+
+    /**
+     * The geocoder injected everywhere: the routed provider behind the lookup cache.
+     */
+    @Bean
+    @Primary
+    public GeocodingService geocodingService(
+            @Qualifier("routedGeocodingService") GeocodingService delegate,
+            @Value("${geocoding.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${geocoding.cache.ttl:24h}") Duration cacheTtl,
+            @Value("${geocoding.cache.reverse-ttl:24h}") Duration reverseTtl,
+            @Value("${geocoding.cache.negative-ttl:5m}") Duration negativeTtl,
+            @Value("${geocoding.cache.max-entries:5000}") int maxEntries,
+            @Value("${geocoding.cache.max-weight-bytes:4194304}") long maxWeight,
+            @Value("${geocoding.cache.grid-meters:50}") double gridMeters,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CachingGeocodingService(
+                delegate,
+                new CachingGeocodingService.CacheSettings(
+                        cacheEnabled, cacheTtl, reverseTtl, negativeTtl, maxEntries, maxWeight, gridMeters),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                Clock.systemUTC());
+    }
+}
@@ -0,0 +1,17 @@
+package org.marly.mavigo.service.geocoding;
+
+/**
+ * Thrown by a geocoding provider that could not answer: transport error, unreadable answer, or a
+ * request refused or abandoned by a {@link org.marly.mavigo.service.geocoding.routing.PacedGeocodingService}.
+ * An address the provider does not know is not a failure and yields {@code null} instead.
+ */
+public class GeocodingException extends RuntimeException {
+
+    public GeocodingException(String message) {
+        super(message);
+    }
+
+    public GeocodingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,10 @@
 package org.marly.mavigo.service.geocoding;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
 import org.marly.mavigo.models.shared.GeoPoint;
 
 public interface GeocodingService {
@@ -7,7 +12,9 @@ public interface GeocodingService {
      * Convertit une adresse en coordonnées GPS.
      * 
      * @param address L'adresse à géocoder (ex: "21 place jean charcot, nanterre")
-     * @return Les coordonnées GPS, ou null si l'adresse n'a pas pu être géocodée
+     * @return Les coordonnées GPS, ou null si l'adresse est introuvable
+     * @throws GeocodingException si le fournisseur n'a pas pu répondre ; le service injecté
+     *         dans l'application rend alors null
      */
     GeoPoint geocode(String address);
     
@@ -15,7 +22,43 @@ public interface GeocodingService {
      * Effectue un géocodage inversé pour obtenir le nom du lieu depuis des coordonnées.
      * 
      * @param point Les coordonnées GPS
-     * @return Le nom du lieu (quartier, ville, etc.), ou null si le géocodage inversé a échoué
+     * @return Le nom du lieu (quartier, ville, etc.), ou null si aucun lieu n'est connu à ce point
+     * @throws GeocodingException si le fournisseur n'a pas pu répondre ; le service injecté
+     *         dans l'application rend alors null
      */
     String reverseGeocode(GeoPoint point);
+
+    /**
+     * Géocode plusieurs adresses en une fois.
+     * Par défaut, chaque adresse distincte est géocodée séparément ; les fournisseurs disposant
+     * d'un traitement par lot le surchargent.
+     *
+     * @param addresses Les adresses à géocoder, doublons et adresses vides acceptés
+     * @return Les coordonnées de chaque adresse géocodée, indexées par l'adresse telle que fournie ;
+     *         les adresses non géocodées sont absentes
+     */
+    default Map<String, GeoPoint> geocodeAll(Collection<String> addresses) {
+        Map<String, GeoPoint> points = new LinkedHashMap<>();
+        if (addresses == null) {
+            return points;
+        }
+        for (String address : new LinkedHashSet<>(addresses)) {
+            if (address == null || address.isBlank()) {
+                continue;
+            }
+            GeoPoint point = geocode(address);
+            if (point != null) {
+                points.put(address, point);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Indique si {@link #geocodeAll} envoie les adresses en une seule requête au fournisseur
+     * plutôt qu'une par une.
+     */
+    default boolean hasBatchEndpoint() {
+        return false;
+    }
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
@@ -25,7 +26,7 @@ public class NominatimGeocodingService implements GeocodingService {
     private final boolean bounded;
 
     public NominatimGeocodingService(
-            RestTemplate restTemplate,
+            @Qualifier("geocodingRestTemplate") RestTemplate restTemplate,
             @Value("${geocoding.nominatim.viewbox:1.446,49.259,3.559,48.120}") String viewbox,
             @Value("${geocoding.nominatim.bounded:true}") boolean bounded) {
         this.restTemplate = restTemplate;
@@ -84,11 +85,10 @@ public class NominatimGeocodingService implements GeocodingService {
 
             return null;
         } catch (RestClientException e) {
-            LOGGER.warn("Failed to geocode address '{}': {}", address, e.getMessage());
-            return null;
+            throw new GeocodingException("Nominatim geocoding failed for '" + address + "': " + e.getMessage(), e);
         } catch (Exception e) {
             LOGGER.error("Unexpected error while geocoding '{}'", address, e);
-            return null;
+            throw new GeocodingException("Unexpected Nominatim error while geocoding '" + address + "'", e);
         }
     }
 
@@ -138,12 +138,11 @@ public class NominatimGeocodingService implements GeocodingService {
 
             return name != null ? name.trim() : null;
         } catch (RestClientException e) {
-            LOGGER.warn("Failed to reverse geocode coordinates {}, {}: {}", 
-                    point.getLatitude(), point.getLongitude(), e.getMessage());
-            return null;
+            throw new GeocodingException("Nominatim reverse geocoding failed for " + point.getLatitude() + ", "
+                    + point.getLongitude() + ": " + e.getMessage(), e);
         } catch (Exception e) {
             LOGGER.error("Unexpected error while reverse geocoding", e);
-            return null;
+            throw new GeocodingException("Unexpected Nominatim error while reverse geocoding", e);
         }
     }
 
@@ -0,0 +1,242 @@
+package org.marly.mavigo.service.geocoding.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.cache.TtlLruCache;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingException;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link GeocodingService} decorator caching forward and reverse lookups of any provider.
+ * <p>
+ * Forward entries are keyed on the normalized address, reverse entries on the point snapped to a
+ * grid of {@code gridMeters} (see {@link GeocodingCacheKey}), so the two or three reverse lookups
+ * of one stop-area resolution around the same geocoded point cost a single remote call.
+ * <p>
+ * "Not found" answers ({@code null}) are cached for the shorter {@code negativeTtl} only. A provider
+ * failure ({@link GeocodingException}) is answered as {@code null} to the caller and not cached at
+ * all, so an outage does not hide an address once the provider is back. Cached
+ * coordinates are copied into a fresh {@link GeoPoint} on every hit since callers may embed it
+ * into entities.
+ */
+public class CachingGeocodingService implements GeocodingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingGeocodingService.class);
+
+    static final String METRIC_REQUESTS = "geocoding.cache.requests";
+    static final String METRIC_HIT_RATIO = "geocoding.cache.hit.ratio";
+    static final String METRIC_SIZE = "geocoding.cache.size";
+    static final String METRIC_EVICTIONS = "geocoding.cache.evictions";
+
+    /** Rough heap footprint used to enforce the memory budget. */
+    private static final long ENTRY_BASE_WEIGHT = 160;
+    private static final long CHAR_WEIGHT = 2;
+
+    private final GeocodingService delegate;
+    private final CacheSettings settings;
+    private final CacheMetrics forwardMetrics;
+    private final CacheMetrics reverseMetrics;
+    private final TtlLruCache<GeocodingCacheKey, Optional<Coordinates>> forwardCache;
+    private final TtlLruCache<GeocodingCacheKey, Optional<String>> reverseCache;
+
+    public CachingGeocodingService(GeocodingService delegate, CacheSettings settings, MeterRegistry meterRegistry,
+            Clock clock) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.forwardCache = new TtlLruCache<>(
+                settings.maxEntries(),
+                settings.maxWeightBytes(),
+                coordinates -> ENTRY_BASE_WEIGHT,
+                Duration.ZERO,
+                clock);
+        this.reverseCache = new TtlLruCache<>(
+                settings.maxEntries(),
+                settings.maxWeightBytes(),
+                name -> ENTRY_BASE_WEIGHT + name.map(String::length).orElse(0) * CHAR_WEIGHT,
+                Duration.ZERO,
+                clock);
+        this.forwardMetrics = new CacheMetrics("forward", forwardCache, meterRegistry);
+        this.reverseMetrics = new CacheMetrics("reverse", reverseCache, meterRegistry);
+    }
+
+    @Override
+    public GeoPoint geocode(String address) {
+        try {
+            if (!settings.enabled() || address == null || address.isBlank()) {
+                return delegate.geocode(address);
+            }
+            Optional<Coordinates> coordinates = cached(forwardCache, forwardMetrics,
+                    GeocodingCacheKey.forward(address), settings.ttl(),
+                    () -> Optional.ofNullable(Coordinates.of(delegate.geocode(address))));
+            return coordinates.map(Coordinates::toGeoPoint).orElse(null);
+        } catch (GeocodingException e) {
+            LOGGER.warn("Geocoding failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serves the cached addresses and hands only the others to the delegate's batch lookup.
+     */
+    @Override
+    public Map<String, GeoPoint> geocodeAll(Collection<String> addresses) {
+        if (!settings.enabled() || addresses == null) {
+            try {
+                return delegate.geocodeAll(addresses);
+            } catch (GeocodingException e) {
+                LOGGER.warn("Batch geocoding failed: {}", e.getMessage());
+                return new LinkedHashMap<>();
+            }
+        }
+        Map<String, GeoPoint> points = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String address : new LinkedHashSet<>(addresses)) {
+            if (address == null || address.isBlank()) {
+                continue;
+            }
+            Optional<Coordinates> cached = forwardCache.get(GeocodingCacheKey.forward(address));
+            if (cached == null) {
+                forwardMetrics.misses.increment();
+                misses.add(address);
+                continue;
+            }
+            (cached.isPresent() ? forwardMetrics.hits : forwardMetrics.negativeHits).increment();
+            cached.ifPresent(coordinates -> points.put(address, coordinates.toGeoPoint()));
+        }
+        if (misses.isEmpty()) {
+            return points;
+        }
+
+        Map<String, GeoPoint> loaded;
+        try {
+            loaded = delegate.geocodeAll(misses);
+        } catch (GeocodingException e) {
+            LOGGER.warn("Batch geocoding of {} addresses failed: {}", misses.size(), e.getMessage());
+            return points;
+        }
+        for (String address : misses) {
+            Coordinates coordinates = Coordinates.of(loaded.get(address));
+            forwardCache.put(GeocodingCacheKey.forward(address), Optional.ofNullable(coordinates),
+                    coordinates != null ? settings.ttl() : settings.negativeTtl());
+            if (coordinates != null) {
+                points.put(address, coordinates.toGeoPoint());
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public String reverseGeocode(GeoPoint point) {
+        try {
+            if (!settings.enabled() || point == null || point.getLatitude() == null
+                    || point.getLongitude() == null) {
+                return delegate.reverseGeocode(point);
+            }
+            GeocodingCacheKey key = GeocodingCacheKey.reverse(point.getLatitude(), point.getLongitude(),
+                    settings.gridMeters());
+            return cached(reverseCache, reverseMetrics, key, settings.reverseTtl(),
+                    () -> Optional.ofNullable(delegate.reverseGeocode(point)))
+                    .orElse(null);
+        } catch (GeocodingException e) {
+            LOGGER.warn("Reverse geocoding failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <V> Optional<V> cached(TtlLruCache<GeocodingCacheKey, Optional<V>> cache, CacheMetrics metrics,
+            GeocodingCacheKey key, Duration ttl, Supplier<Optional<V>> loader) {
+        Optional<V> cached = cache.get(key);
+        if (cached != null) {
+            (cached.isPresent() ? metrics.hits : metrics.negativeHits).increment();
+            return cached;
+        }
+
+        metrics.misses.increment();
+        Optional<V> result = loader.get();
+        cache.put(key, result, result.isPresent() ? ttl : settings.negativeTtl());
+        return result;
+    }
+
+    private record Coordinates(double latitude, double longitude) {
+
+        static Coordinates of(GeoPoint point) {
+            if (point == null || point.getLatitude() == null || point.getLongitude() == null) {
+                return null;
+            }
+            return new Coordinates(point.getLatitude(), point.getLongitude());
+        }
+
+        GeoPoint toGeoPoint() {
+            return new GeoPoint(latitude, longitude);
+        }
+    }
+
+    private static final class CacheMetrics {
+
+        private final Counter hits;
+        private final Counter negativeHits;
+        private final Counter misses;
+
+        CacheMetrics(String cache, TtlLruCache<?, ?> store, MeterRegistry meterRegistry) {
+            this.hits = Counter.builder(METRIC_REQUESTS)
+                    .tag("cache", cache).tag("result", "hit")
+                    .register(meterRegistry);
+            this.negativeHits = Counter.builder(METRIC_REQUESTS)
+                    .tag("cache", cache).tag("result", "negative_hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder(METRIC_REQUESTS)
+                    .tag("cache", cache).tag("result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_HIT_RATIO, this, CacheMetrics::hitRatio)
+                    .tag("cache", cache)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_SIZE, store, TtlLruCache::size)
+                    .tag("cache", cache)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_EVICTIONS, store, TtlLruCache::evictionCount)
+                    .tag("cache", cache)
+                    .register(meterRegistry);
+        }
+
+        double hitRatio() {
+            double served = hits.count() + negativeHits.count();
+            double total = served + misses.count();
+            return total == 0 ? 0.0 : served / total;
+        }
+    }
+
+    /**
+     * @param enabled        whether lookups are cached at all
+     * @param ttl            how long a found address is served from memory
+     * @param reverseTtl     how long a found place name is served from memory
+     * @param negativeTtl    how long a {@code null} answer (not found) is served from memory
+     * @param maxEntries     max cached lookups per direction, least recently used first out
+     * @param maxWeightBytes approximate heap budget per direction, {@code 0} for none
+     * @param gridMeters     cell size used to snap reverse lookups
+     */
+    public record CacheSettings(
+            boolean enabled,
+            Duration ttl,
+            Duration reverseTtl,
+            Duration negativeTtl,
+            int maxEntries,
+            long maxWeightBytes,
+            double gridMeters) {
+    }
+}
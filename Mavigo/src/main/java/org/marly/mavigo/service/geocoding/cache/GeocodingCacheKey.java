@@ -0,0 +1,47 @@
+package org.marly.mavigo.service.geocoding.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical key for geocoding lookups.
+ * <p>
+ * Addresses are accent-folded, lower-cased and whitespace-collapsed, so
+ * {@code "21 Place  Jean Charcot"} and {@code "21 place jean charcot"} share an entry. Reverse
+ * lookups are snapped to a grid of roughly {@code gridMeters} on both axes: the longitude step
+ * is widened with the latitude so that cells stay square at the latitude of Île-de-France.
+ *
+ * @param address normalized address, {@code null} for reverse lookups
+ * @param latCell snapped latitude cell, {@code null} for forward lookups
+ * @param lonCell snapped longitude cell, {@code null} for forward lookups
+ */
+public record GeocodingCacheKey(String address, Long latCell, Long lonCell) {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static GeocodingCacheKey forward(String address) {
+        return new GeocodingCacheKey(normalize(address), null, null);
+    }
+
+    public static GeocodingCacheKey reverse(double latitude, double longitude, double gridMeters) {
+        double meters = gridMeters > 0 ? gridMeters : 1.0;
+        double latStep = meters / METERS_PER_DEGREE;
+        long latCell = Math.round(latitude / latStep);
+        // Longitude degrees shrink with cos(latitude); derive the step from the cell centre so
+        // that every point of one latitude band uses the same longitude grid
+        double cos = Math.max(0.01, Math.cos(Math.toRadians(latCell * latStep)));
+        long lonCell = Math.round(longitude / (latStep / cos));
+        return new GeocodingCacheKey(null, latCell, lonCell);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
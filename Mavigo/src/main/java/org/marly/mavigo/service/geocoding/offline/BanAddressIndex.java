@@ -0,0 +1,422 @@
+package org.marly.mavigo.service.geocoding.offline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only view of a BAN address index written by {@link BanAddressIndexWriter}.
+ * <p>
+ * The file is memory-mapped rather than loaded: opening it only reads the header, and lookups
+ * touch the few pages they need, so a departmental index is usable within milliseconds of
+ * startup and shares the OS page cache instead of the heap. The index is immutable, and
+ * lookups only use absolute reads, so a single instance serves concurrent callers.
+ * <p>
+ * Layout, big-endian, offsets in bytes from the start of the file:
+ * <pre>
+ * header      16 ints: magic, version, addressCount, streetCount, tokenCount, cellCount,
+ *             then the offsets of the sections below
+ * addresses   per address: latitude and longitude in micro-degrees, number (0 for none),
+ *             string offset of the repetition index (-1 for none), street id;
+ *             grouped by street, by number within a street
+ * streets     per street: string offsets of the name and of "postcode commune",
+ *             first address, address count, number of tokens in the name
+ * tokens      per token, sorted: string offset, first posting; plus an end sentinel
+ * postings    street ids containing a token, ascending, shifted left by one with the low bit
+ *             set when the token is part of the street name rather than of its commune
+ * cells       per grid cell, sorted: long cell key, first cell address; plus an end sentinel
+ * cell addresses address ids grouped by cell
+ * strings     unsigned short UTF-8 length followed by the bytes
+ * </pre>
+ */
+public final class BanAddressIndex {
+
+    static final int MAGIC = 0x4D424149;
+    static final int VERSION = 1;
+    static final int HEADER_INTS = 16;
+    static final int ADDRESS_BYTES = 20;
+    static final int STREET_BYTES = 20;
+    static final int TOKEN_BYTES = 8;
+    static final int CELL_BYTES = 12;
+
+    /** Side of a reverse-lookup grid cell, about 550 m of latitude. */
+    static final double CELL_DEGREES = 0.005;
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    /** Cap on the street postings scanned for one query, to bound the cost of vague queries. */
+    private static final int MAX_CANDIDATES = 50_000;
+
+    private static final Pattern HOUSE_NUMBER = Pattern.compile("(\\d{1,4})([a-z]*)");
+    private static final Pattern POSTCODE = Pattern.compile("\\d{5}");
+
+    private final ByteBuffer buffer;
+    private final int addressCount;
+    private final int streetCount;
+    private final int tokenCount;
+    private final int cellCount;
+    private final int addressesOffset;
+    private final int streetsOffset;
+    private final int tokensOffset;
+    private final int postingsOffset;
+    private final int cellsOffset;
+    private final int cellAddressesOffset;
+    private final int stringsOffset;
+
+    BanAddressIndex(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a BAN address index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported BAN address index version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.addressCount = buffer.getInt(8);
+        this.streetCount = buffer.getInt(12);
+        this.tokenCount = buffer.getInt(16);
+        this.cellCount = buffer.getInt(20);
+        this.addressesOffset = buffer.getInt(24);
+        this.streetsOffset = buffer.getInt(28);
+        this.tokensOffset = buffer.getInt(32);
+        this.postingsOffset = buffer.getInt(36);
+        this.cellsOffset = buffer.getInt(40);
+        this.cellAddressesOffset = buffer.getInt(44);
+        this.stringsOffset = buffer.getInt(48);
+    }
+
+    /**
+     * Maps {@code file} read-only. The mapping stays valid after the channel is closed.
+     */
+    public static BanAddressIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("BAN address index too large: " + channel.size() + " bytes");
+            }
+            return new BanAddressIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int addressCount() {
+        return addressCount;
+    }
+
+    public int streetCount() {
+        return streetCount;
+    }
+
+    /**
+     * Finds the street best matching {@code query}, then the address with the requested number
+     * or the closest one on the same side of the street. Without a number the street's mean
+     * position is returned.
+     * <p>
+     * A street is scored on the share of query words it contains (0.7) and the share of its name
+     * covered by the query (0.3); at least one word must come from the street name. A postcode or
+     * commune word of the query must be held by the street, and words the index has never seen
+     * scale the score down by their share of the query, so an address outside the imported
+     * départements is not answered with a namesake street from another commune.
+     *
+     * @return the best match scoring at least {@code minScore}, or {@code null}
+     */
+    public Match geocode(String query, double minScore) {
+        List<String> words = BanAddressTokens.tokens(query);
+        int number = 0;
+        String repetition = null;
+        if (words.size() > 1) {
+            Matcher house = HOUSE_NUMBER.matcher(words.get(0));
+            if (house.matches() && (house.group(2).isEmpty()
+                    || BanAddressTokens.REPETITIONS.contains(house.group(2)))) {
+                number = Integer.parseInt(house.group(1));
+                repetition = house.group(2).isEmpty() ? null : house.group(2);
+                words.remove(0);
+                if (repetition == null && words.size() > 1 && BanAddressTokens.REPETITIONS.contains(words.get(0))) {
+                    repetition = words.remove(0);
+                }
+            }
+        }
+        Set<String> queryTokens = new LinkedHashSet<>(words);
+        if (queryTokens.isEmpty()) {
+            return null;
+        }
+
+        // Per known word: posting range, then 1 when the candidate street must hold it
+        List<int[]> postings = new ArrayList<>();
+        for (String token : queryTokens) {
+            int slot = findToken(token);
+            boolean postcode = POSTCODE.matcher(token).matches();
+            if (slot < 0) {
+                if (postcode) {
+                    return null;
+                }
+                continue;
+            }
+            int[] range = { postingStart(slot), postingStart(slot + 1), 0 };
+            range[2] = postcode || namesCommune(range) ? 1 : 0;
+            postings.add(range);
+        }
+        if (postings.isEmpty()) {
+            return null;
+        }
+        postings.sort((a, b) -> Integer.compare(a[1] - a[0], b[1] - b[0]));
+
+        // Every candidate contains the rarest known word; the other words are looked up per street
+        int[] rarest = postings.get(0);
+        int bestStreet = -1;
+        double bestScore = -1;
+        int end = Math.min(rarest[1], rarest[0] + MAX_CANDIDATES);
+        for (int i = rarest[0]; i < end; i++) {
+            int street = posting(i) >>> 1;
+            int matched = 0;
+            int matchedInName = 0;
+            boolean missingCommune = false;
+            for (int[] range : postings) {
+                int flags = findPosting(range, street);
+                if (flags >= 0) {
+                    matched++;
+                    matchedInName += flags;
+                } else if (range[2] == 1) {
+                    missingCommune = true;
+                    break;
+                }
+            }
+            if (missingCommune || matchedInName == 0) {
+                continue;
+            }
+            int nameTokens = Math.max(1, streetInt(street, 16));
+            double score = 0.7 * matched / queryTokens.size() + 0.3 * Math.min(1.0, (double) matchedInName / nameTokens);
+            score *= (double) postings.size() / queryTokens.size();
+            if (score > bestScore) {
+                bestScore = score;
+                bestStreet = street;
+            }
+        }
+        if (bestStreet < 0 || bestScore < minScore) {
+            return null;
+        }
+        return number > 0 ? address(bestStreet, number, repetition, bestScore) : street(bestStreet, bestScore);
+    }
+
+    /**
+     * @return the address nearest to the point within {@code maxMeters}, or {@code null}
+     */
+    public Match reverse(double latitude, double longitude, double maxMeters) {
+        double cos = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        int latRing = (int) Math.ceil(maxMeters / (CELL_DEGREES * METERS_PER_DEGREE));
+        int lonRing = (int) Math.ceil(maxMeters / (CELL_DEGREES * METERS_PER_DEGREE * cos));
+        int latCell = cell(latitude);
+        int lonCell = cell(longitude);
+
+        int best = -1;
+        double bestMeters = maxMeters;
+        for (int dLat = -latRing; dLat <= latRing; dLat++) {
+            for (int dLon = -lonRing; dLon <= lonRing; dLon++) {
+                int slot = findCell(cellKey(latCell + dLat, lonCell + dLon));
+                if (slot < 0) {
+                    continue;
+                }
+                int from = cellStart(slot);
+                int to = cellStart(slot + 1);
+                for (int i = from; i < to; i++) {
+                    int address = buffer.getInt(cellAddressesOffset + i * Integer.BYTES);
+                    double north = (addressLatitude(address) - latitude) * METERS_PER_DEGREE;
+                    double east = (addressLongitude(address) - longitude) * METERS_PER_DEGREE * cos;
+                    double meters = Math.sqrt(north * north + east * east);
+                    if (meters <= bestMeters) {
+                        bestMeters = meters;
+                        best = address;
+                    }
+                }
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        double score = maxMeters > 0 ? 1.0 - bestMeters / maxMeters : 1.0;
+        return new Match(addressLatitude(best), addressLongitude(best), label(best), score);
+    }
+
+    private Match address(int street, int number, String repetition, double score) {
+        int first = streetInt(street, 8);
+        int count = streetInt(street, 12);
+        int best = -1;
+        long bestRank = Long.MAX_VALUE;
+        for (int address = first; address < first + count; address++) {
+            int candidate = addressInt(address, 8);
+            if (candidate <= 0) {
+                continue;
+            }
+            String candidateRepetition = string(addressInt(address, 12));
+            boolean sameRepetition = repetition == null
+                    ? candidateRepetition == null
+                    : repetition.equalsIgnoreCase(candidateRepetition);
+            // Same side of the street first, then the closest number, then the same repetition
+            long rank = ((candidate - number) % 2 == 0 ? 0 : 1L << 40)
+                    + (long) Math.abs(candidate - number) * 2
+                    + (sameRepetition ? 0 : 1);
+            if (rank < bestRank) {
+                bestRank = rank;
+                best = address;
+            }
+        }
+        if (best < 0) {
+            return street(street, score);
+        }
+        return new Match(addressLatitude(best), addressLongitude(best), label(best), score);
+    }
+
+    private Match street(int street, double score) {
+        int first = streetInt(street, 8);
+        int count = streetInt(street, 12);
+        double latitude = 0;
+        double longitude = 0;
+        for (int address = first; address < first + count; address++) {
+            latitude += addressLatitude(address);
+            longitude += addressLongitude(address);
+        }
+        String label = string(streetInt(street, 0)) + " " + string(streetInt(street, 4));
+        return new Match(latitude / count, longitude / count, label, score);
+    }
+
+    private String label(int address) {
+        int street = addressInt(address, 16);
+        StringBuilder label = new StringBuilder();
+        int number = addressInt(address, 8);
+        if (number > 0) {
+            label.append(number).append(' ');
+            String repetition = string(addressInt(address, 12));
+            if (repetition != null) {
+                label.append(repetition).append(' ');
+            }
+        }
+        return label.append(string(streetInt(street, 0))).append(' ').append(string(streetInt(street, 4))).toString();
+    }
+
+    private int findToken(String token) {
+        int low = 0;
+        int high = tokenCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = string(buffer.getInt(tokensOffset + mid * TOKEN_BYTES)).compareTo(token);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return whether some street holds the token in its postcode or commune rather than its name
+     */
+    private boolean namesCommune(int[] range) {
+        int end = Math.min(range[1], range[0] + MAX_CANDIDATES);
+        for (int i = range[0]; i < end; i++) {
+            if ((posting(i) & 1) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 1 if {@code street} holds the token in its name, 0 in its commune, -1 not at all
+     */
+    private int findPosting(int[] range, int street) {
+        int low = range[0];
+        int high = range[1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = posting(mid);
+            int cmp = Integer.compare(value >>> 1, street);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return value & 1;
+            }
+        }
+        return -1;
+    }
+
+    private int findCell(long key) {
+        int low = 0;
+        int high = cellCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(cellsOffset + mid * CELL_BYTES);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int postingStart(int tokenSlot) {
+        return buffer.getInt(tokensOffset + tokenSlot * TOKEN_BYTES + 4);
+    }
+
+    private int posting(int index) {
+        return buffer.getInt(postingsOffset + index * Integer.BYTES);
+    }
+
+    private int cellStart(int cellSlot) {
+        return buffer.getInt(cellsOffset + cellSlot * CELL_BYTES + 8);
+    }
+
+    private int addressInt(int address, int field) {
+        return buffer.getInt(addressesOffset + address * ADDRESS_BYTES + field);
+    }
+
+    private double addressLatitude(int address) {
+        return addressInt(address, 0) / 1e6;
+    }
+
+    private double addressLongitude(int address) {
+        return addressInt(address, 4) / 1e6;
+    }
+
+    private int streetInt(int street, int field) {
+        return buffer.getInt(streetsOffset + street * STREET_BYTES + field);
+    }
+
+    private String string(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        int position = stringsOffset + offset;
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+        buffer.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param label BAN-style label: number, repetition, street name, postcode and commune
+     * @param score street match score for lookups, closeness in [0, 1] for reverse lookups
+     */
+    public record Match(double latitude, double longitude, String label, double score) {
+    }
+}
@@ -0,0 +1,363 @@
+package org.marly.mavigo.service.geocoding.offline;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.marly.mavigo.service.geocoding.BanCsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds a {@link BanAddressIndex} file from BAN address exports ({@code adresses-XX.csv}, as
+ * published per département on adresse.data.gouv.fr, optionally gzipped).
+ * <p>
+ * Columns are located by header name; only {@code numero}, {@code rep}, {@code nom_voie},
+ * {@code code_postal}, {@code nom_commune}, {@code lon} and {@code lat} are kept. Rows without a
+ * street name or valid coordinates are skipped. The file is written next to its target and
+ * moved into place once complete, so a reader never maps a partial index.
+ */
+final class BanAddressIndexWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BanAddressIndexWriter.class);
+
+    private static final char SEPARATOR = ';';
+
+    /** BAN numbers place names ({@code lieux-dits}) without a house number 99999. */
+    private static final int NO_NUMBER = 99999;
+
+    private final Map<String, Integer> streetIds = new HashMap<>();
+    private final List<String[]> streets = new ArrayList<>();
+    private final IntList latitudes = new IntList();
+    private final IntList longitudes = new IntList();
+    private final IntList numbers = new IntList();
+    private final List<String> repetitions = new ArrayList<>();
+    private final IntList addressStreets = new IntList();
+    private int skipped;
+
+    private BanAddressIndexWriter() {
+    }
+
+    /**
+     * @return the number of addresses written
+     */
+    static int write(List<Path> sources, Path target) throws IOException {
+        BanAddressIndexWriter writer = new BanAddressIndexWriter();
+        for (Path source : sources) {
+            try (InputStream input = open(source);
+                    Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+                writer.read(reader);
+            }
+        }
+        if (writer.skipped > 0) {
+            LOGGER.info("Skipped {} BAN rows without street name or coordinates", writer.skipped);
+        }
+        return writer.writeTo(target);
+    }
+
+    private static InputStream open(Path source) throws IOException {
+        InputStream input = Files.newInputStream(source);
+        return source.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input, 1 << 16) : input;
+    }
+
+    void read(Reader source) throws IOException {
+        BanCsvReader reader = new BanCsvReader(source, SEPARATOR);
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.put(i == 0 && name.startsWith("\uFEFF") ? name.substring(1) : name, i);
+        }
+        int numberColumn = required(columns, "numero");
+        int streetColumn = required(columns, "nom_voie");
+        int postcodeColumn = required(columns, "code_postal");
+        int communeColumn = required(columns, "nom_commune");
+        int lonColumn = required(columns, "lon");
+        int latColumn = required(columns, "lat");
+        Integer repetitionColumn = columns.get("rep");
+
+        List<String> row;
+        while ((row = reader.next()) != null) {
+            String streetName = field(row, streetColumn);
+            if (streetName.isEmpty()) {
+                skipped++;
+                continue;
+            }
+            int latitude;
+            int longitude;
+            int number;
+            try {
+                latitude = (int) Math.round(Double.parseDouble(field(row, latColumn)) * 1e6);
+                longitude = (int) Math.round(Double.parseDouble(field(row, lonColumn)) * 1e6);
+                String numero = field(row, numberColumn);
+                number = numero.isEmpty() ? 0 : Integer.parseInt(numero);
+            } catch (NumberFormatException e) {
+                skipped++;
+                continue;
+            }
+            String commune = (field(row, postcodeColumn) + " " + field(row, communeColumn)).trim();
+            String key = streetName + '|' + commune;
+            Integer street = streetIds.get(key);
+            if (street == null) {
+                street = streets.size();
+                streetIds.put(key, street);
+                streets.add(new String[] { streetName, commune });
+            }
+            String repetition = repetitionColumn != null ? field(row, repetitionColumn) : "";
+            latitudes.add(latitude);
+            longitudes.add(longitude);
+            numbers.add(number == NO_NUMBER || number < 0 ? 0 : number);
+            repetitions.add(repetition.isEmpty() ? null : repetition.toLowerCase(Locale.ROOT));
+            addressStreets.add(street);
+        }
+    }
+
+    int writeTo(Path target) throws IOException {
+        int addressCount = latitudes.size();
+        int streetCount = streets.size();
+
+        // Group addresses by street, then order each street by number and repetition
+        int[] firstAddress = new int[streetCount + 1];
+        for (int i = 0; i < addressCount; i++) {
+            firstAddress[addressStreets.get(i) + 1]++;
+        }
+        for (int s = 0; s < streetCount; s++) {
+            firstAddress[s + 1] += firstAddress[s];
+        }
+        int[] order = new int[addressCount];
+        int[] fill = Arrays.copyOf(firstAddress, streetCount);
+        for (int i = 0; i < addressCount; i++) {
+            order[fill[addressStreets.get(i)]++] = i;
+        }
+        for (int s = 0; s < streetCount; s++) {
+            sortByNumber(order, firstAddress[s], firstAddress[s + 1]);
+        }
+
+        Strings strings = new Strings();
+        int[] streetName = new int[streetCount];
+        int[] streetCommune = new int[streetCount];
+        int[] streetNameTokens = new int[streetCount];
+        TreeMap<String, IntList> postings = new TreeMap<>();
+        for (int s = 0; s < streetCount; s++) {
+            String[] street = streets.get(s);
+            streetName[s] = strings.offset(street[0]);
+            streetCommune[s] = strings.offset(street[1]);
+            // Low bit of a posting: 1 when the street name holds the token, 0 when only its commune does
+            Map<String, Integer> tokens = new LinkedHashMap<>();
+            for (String token : BanAddressTokens.tokens(street[1])) {
+                tokens.put(token, 0);
+            }
+            Set<String> nameTokens = new HashSet<>(BanAddressTokens.tokens(street[0]));
+            for (String token : nameTokens) {
+                tokens.put(token, 1);
+            }
+            streetNameTokens[s] = nameTokens.size();
+            for (Map.Entry<String, Integer> token : tokens.entrySet()) {
+                postings.computeIfAbsent(token.getKey(), key -> new IntList()).add((s << 1) | token.getValue());
+            }
+        }
+
+        TreeMap<Long, IntList> cells = new TreeMap<>();
+        int[] repetitionOffsets = new int[addressCount];
+        for (int position = 0; position < addressCount; position++) {
+            int i = order[position];
+            long key = BanAddressIndex.cellKey(
+                    BanAddressIndex.cell(latitudes.get(i) / 1e6), BanAddressIndex.cell(longitudes.get(i) / 1e6));
+            cells.computeIfAbsent(key, k -> new IntList()).add(position);
+            repetitionOffsets[position] = repetitions.get(i) != null ? strings.offset(repetitions.get(i)) : -1;
+        }
+        int[] tokenOffsets = new int[postings.size()];
+        int t = 0;
+        int postingCount = 0;
+        for (Map.Entry<String, IntList> entry : postings.entrySet()) {
+            tokenOffsets[t++] = strings.offset(entry.getKey());
+            postingCount += entry.getValue().size();
+        }
+
+        long addressesOffset = BanAddressIndex.HEADER_INTS * Integer.BYTES;
+        long streetsOffset = addressesOffset + (long) addressCount * BanAddressIndex.ADDRESS_BYTES;
+        long tokensOffset = streetsOffset + (long) streetCount * BanAddressIndex.STREET_BYTES;
+        long postingsOffset = tokensOffset + (long) (postings.size() + 1) * BanAddressIndex.TOKEN_BYTES;
+        long cellsOffset = postingsOffset + (long) postingCount * Integer.BYTES;
+        long cellAddressesOffset = cellsOffset + (long) (cells.size() + 1) * BanAddressIndex.CELL_BYTES;
+        long stringsOffset = cellAddressesOffset + (long) addressCount * Integer.BYTES;
+        if (stringsOffset + strings.bytes.size() > Integer.MAX_VALUE) {
+            throw new IOException("BAN address index would exceed 2 GiB, split the sources");
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(BanAddressIndex.MAGIC);
+                out.writeInt(BanAddressIndex.VERSION);
+                out.writeInt(addressCount);
+                out.writeInt(streetCount);
+                out.writeInt(postings.size());
+                out.writeInt(cells.size());
+                for (long offset : new long[] { addressesOffset, streetsOffset, tokensOffset, postingsOffset,
+                        cellsOffset, cellAddressesOffset, stringsOffset }) {
+                    out.writeInt((int) offset);
+                }
+                for (int i = 13; i < BanAddressIndex.HEADER_INTS; i++) {
+                    out.writeInt(0);
+                }
+
+                for (int position = 0; position < addressCount; position++) {
+                    int i = order[position];
+                    out.writeInt(latitudes.get(i));
+                    out.writeInt(longitudes.get(i));
+                    out.writeInt(numbers.get(i));
+                    out.writeInt(repetitionOffsets[position]);
+                    out.writeInt(addressStreets.get(i));
+                }
+                for (int s = 0; s < streetCount; s++) {
+                    out.writeInt(streetName[s]);
+                    out.writeInt(streetCommune[s]);
+                    out.writeInt(firstAddress[s]);
+                    out.writeInt(firstAddress[s + 1] - firstAddress[s]);
+                    out.writeInt(streetNameTokens[s]);
+                }
+                int posting = 0;
+                t = 0;
+                for (IntList streetsOfToken : postings.values()) {
+                    out.writeInt(tokenOffsets[t++]);
+                    out.writeInt(posting);
+                    posting += streetsOfToken.size();
+                }
+                out.writeInt(-1);
+                out.writeInt(posting);
+                for (IntList streetsOfToken : postings.values()) {
+                    for (int i = 0; i < streetsOfToken.size(); i++) {
+                        out.writeInt(streetsOfToken.get(i));
+                    }
+                }
+                int cellAddress = 0;
+                for (Map.Entry<Long, IntList> cell : cells.entrySet()) {
+                    out.writeLong(cell.getKey());
+                    out.writeInt(cellAddress);
+                    cellAddress += cell.getValue().size();
+                }
+                out.writeLong(Long.MAX_VALUE);
+                out.writeInt(cellAddress);
+                for (IntList addresses : cells.values()) {
+                    for (int i = 0; i < addresses.size(); i++) {
+                        out.writeInt(addresses.get(i));
+                    }
+                }
+                strings.bytes.writeTo(out);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return addressCount;
+    }
+
+    private void sortByNumber(int[] order, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        Integer[] slice = new Integer[to - from];
+        for (int i = from; i < to; i++) {
+            slice[i - from] = order[i];
+        }
+        Arrays.sort(slice, (a, b) -> {
+            int cmp = Integer.compare(numbers.get(a), numbers.get(b));
+            if (cmp != 0) {
+                return cmp;
+            }
+            String repA = repetitions.get(a);
+            String repB = repetitions.get(b);
+            if (repA == null || repB == null) {
+                return repA == null ? (repB == null ? 0 : -1) : 1;
+            }
+            return repA.compareTo(repB);
+        });
+        for (int i = from; i < to; i++) {
+            order[i] = slice[i - from];
+        }
+    }
+
+    private static int required(Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("BAN address export has no '" + name + "' column");
+        }
+        return index;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    /** Deduplicated string blob, each string prefixed with its UTF-8 length. */
+    private static final class Strings {
+
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int offset(String value) {
+            Integer existing = offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > 0xFFFF) {
+                utf8 = Arrays.copyOf(utf8, 0xFFFF);
+            }
+            int offset = bytes.size();
+            bytes.write(utf8.length >>> 8);
+            bytes.write(utf8.length & 0xFF);
+            bytes.write(utf8, 0, utf8.length);
+            offsets.put(value, offset);
+            return offset;
+        }
+    }
+
+    /** Growable {@code int} array, to keep millions of addresses out of boxed lists. */
+    private static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
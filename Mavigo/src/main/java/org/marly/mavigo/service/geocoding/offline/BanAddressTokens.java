@@ -0,0 +1,79 @@
+package org.marly.mavigo.service.geocoding.offline;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer shared by the BAN address index and its queries.
+ * <p>
+ * Text is accent-folded and lower-cased, punctuation splits words, short link words
+ * ({@code de}, {@code la}...) are dropped and common street-type abbreviations are expanded, so
+ * {@code "21 bd de l'Hôpital"} and {@code "21 Boulevard de l Hopital"} give the same tokens.
+ */
+final class BanAddressTokens {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les", "sur");
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("all", "allee"),
+            Map.entry("av", "avenue"),
+            Map.entry("ave", "avenue"),
+            Map.entry("bd", "boulevard"),
+            Map.entry("bld", "boulevard"),
+            Map.entry("bvd", "boulevard"),
+            Map.entry("ch", "chemin"),
+            Map.entry("chem", "chemin"),
+            Map.entry("crs", "cours"),
+            Map.entry("fg", "faubourg"),
+            Map.entry("fbg", "faubourg"),
+            Map.entry("imp", "impasse"),
+            Map.entry("pl", "place"),
+            Map.entry("pte", "porte"),
+            Map.entry("qu", "quai"),
+            Map.entry("r", "rue"),
+            Map.entry("rte", "route"),
+            Map.entry("sq", "square"),
+            Map.entry("st", "saint"),
+            Map.entry("ste", "sainte"));
+
+    /** Suffixes of a house number ({@code 3 bis}, {@code 12 b}). */
+    static final Set<String> REPETITIONS = Set.of("bis", "ter", "quater", "a", "b", "c", "d");
+
+    private BanAddressTokens() {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return the searchable words of {@code text}, in order, duplicates kept
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String word : normalized.split(" ")) {
+            if (STOP_WORDS.contains(word)) {
+                continue;
+            }
+            tokens.add(ABBREVIATIONS.getOrDefault(word, word));
+        }
+        return tokens;
+    }
+}
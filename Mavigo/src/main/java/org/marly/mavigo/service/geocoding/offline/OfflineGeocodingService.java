@@ -0,0 +1,151 @@
+package org.marly.mavigo.service.geocoding.offline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link GeocodingService} answering from a local BAN address index, without any network call.
+ * <p>
+ * Once the application is ready the index file ({@code geocoding.offline.index}) is rebuilt from
+ * the BAN exports listed in {@code geocoding.offline.sources} if it is missing or older than one
+ * of them, then memory-mapped. Until then, and for addresses outside the imported départements,
+ * lookups answer {@code null} so that the composite router falls back to the online providers.
+ * An empty index path disables the service.
+ */
+@Service
+public class OfflineGeocodingService implements GeocodingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflineGeocodingService.class);
+
+    private final Path indexFile;
+    private final List<Path> sources;
+    private final double minScore;
+    private final double reverseMaxMeters;
+
+    private volatile BanAddressIndex index;
+
+    public OfflineGeocodingService(
+            @Value("${geocoding.offline.index:}") String indexFile,
+            @Value("${geocoding.offline.sources:}") List<String> sources,
+            @Value("${geocoding.offline.min-score:0.6}") double minScore,
+            @Value("${geocoding.offline.reverse-max-distance:250}") double reverseMaxMeters) {
+        this.indexFile = indexFile == null || indexFile.isBlank() ? null : Path.of(indexFile.trim());
+        this.sources = new ArrayList<>();
+        if (sources != null) {
+            for (String source : sources) {
+                if (source != null && !source.isBlank()) {
+                    this.sources.add(Path.of(source.trim()));
+                }
+            }
+        }
+        this.minScore = minScore;
+        this.reverseMaxMeters = reverseMaxMeters;
+    }
+
+    public boolean isEnabled() {
+        return indexFile != null;
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (indexFile == null) {
+            LOGGER.info("Offline geocoding disabled (geocoding.offline.index is empty)");
+            return;
+        }
+        Thread.ofVirtual().name("offline-geocoding-load").start(this::load);
+    }
+
+    /**
+     * Rebuilds the index if a source is newer than it, then maps it.
+     *
+     * @return whether an index is now available
+     */
+    public synchronized boolean load() {
+        if (indexFile == null) {
+            return false;
+        }
+        try {
+            if (isStale()) {
+                long start = System.nanoTime();
+                int addresses = BanAddressIndexWriter.write(sources, indexFile);
+                LOGGER.info("BAN address index built from {} into {}: {} addresses in {} ms",
+                        sources, indexFile, addresses, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+            if (!Files.exists(indexFile)) {
+                LOGGER.warn("Offline geocoding has no index at {} and no geocoding.offline.sources to build it",
+                        indexFile);
+                return false;
+            }
+            long start = System.nanoTime();
+            BanAddressIndex opened = BanAddressIndex.open(indexFile);
+            index = opened;
+            LOGGER.info("BAN address index mapped from {}: {} addresses, {} streets in {} ms",
+                    indexFile, opened.addressCount(), opened.streetCount(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Offline geocoding index {} could not be loaded: {}", indexFile, e.getMessage());
+            return index != null;
+        }
+    }
+
+    private boolean isStale() throws IOException {
+        if (sources.isEmpty()) {
+            return false;
+        }
+        if (!Files.exists(indexFile)) {
+            return true;
+        }
+        FileTime built = Files.getLastModifiedTime(indexFile);
+        for (Path source : sources) {
+            if (Files.getLastModifiedTime(source).compareTo(built) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public GeoPoint geocode(String address) {
+        BanAddressIndex current = index;
+        if (current == null || address == null || address.isBlank()) {
+            return null;
+        }
+        BanAddressIndex.Match match = current.geocode(address, minScore);
+        if (match == null) {
+            LOGGER.debug("Offline geocoding found nothing for '{}'", address);
+            return null;
+        }
+        LOGGER.debug("Offline geocoded '{}' to {}, {} (label='{}', score={})",
+                address, match.latitude(), match.longitude(), match.label(), match.score());
+        return new GeoPoint(match.latitude(), match.longitude());
+    }
+
+    @Override
+    public String reverseGeocode(GeoPoint point) {
+        BanAddressIndex current = index;
+        if (current == null || point == null || !point.isComplete()) {
+            return null;
+        }
+        BanAddressIndex.Match match = current.reverse(point.getLatitude(), point.getLongitude(), reverseMaxMeters);
+        return match != null ? match.label() : null;
+    }
+}
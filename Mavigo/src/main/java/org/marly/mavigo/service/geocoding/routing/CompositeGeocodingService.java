@@ -0,0 +1,329 @@
+package org.marly.mavigo.service.geocoding.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link GeocodingService} spreading lookups over several providers (BAN, Nominatim...).
+ * <p>
+ * Each call goes first to the provider with the best recent record: the smoothed latency of its
+ * calls divided by its smoothed success rate, a failure being an exception, typically the
+ * {@link org.marly.mavigo.service.geocoding.GeocodingException} of a provider that could not be
+ * reached or of a paced request refused or timed out. An empty answer is a success: "no such
+ * address" is a valid answer and must not push a provider down the ranking. The composite itself
+ * answers {@code null} when no provider could answer.
+ * Providers without history rank after those with one, in the order they were given. If the
+ * first provider has not answered after {@code hedgeAfter}, or answers {@code null} or fails
+ * before that, the next one is asked as well; the first non-{@code null} answer wins and the
+ * other attempts are interrupted. Past {@code timeout} the call yields {@code null}.
+ * <p>
+ * Interrupted attempts count as failures with the time they had run, so a provider that keeps
+ * losing races to a hedge slides down the ranking; a failure counts for at least {@code hedgeAfter},
+ * so a provider that is down cannot lead by failing fast. Batches ({@link #geocodeAll}) go to the best
+ * provider that is not paced, without hedging; the addresses it misses are sent on to the other
+ * providers that are not paced, those with a batch endpoint first. A {@link PacedGeocodingService}
+ * would queue a whole batch at one request per interval and refuse what overflows its queue, so
+ * the addresses still left are geocoded one by one through the paced providers instead.
+ */
+public class CompositeGeocodingService implements GeocodingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompositeGeocodingService.class);
+
+    static final String METRIC_CALLS = "geocoding.composite.calls";
+    static final String METRIC_HEDGES = "geocoding.composite.hedges";
+    static final String METRIC_TIMEOUTS = "geocoding.composite.timeouts";
+    static final String METRIC_SCORE = "geocoding.composite.score";
+
+    /** Floor applied to success rates so that a failing provider keeps a finite score. */
+    private static final double MIN_SUCCESS_RATE = 0.05;
+
+    private final List<Provider> providers;
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("geocoding-composite-", 0).factory();
+
+    /**
+     * @param providers the providers by name, in order of preference while they have no history
+     */
+    public CompositeGeocodingService(Map<String, GeocodingService> providers, Settings settings,
+            MeterRegistry meterRegistry) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one geocoding provider is required");
+        }
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.providers = new ArrayList<>();
+        for (Map.Entry<String, GeocodingService> entry : providers.entrySet()) {
+            Provider provider = new Provider(entry.getKey(), entry.getValue(), this.providers.size());
+            this.providers.add(provider);
+            Gauge.builder(METRIC_SCORE, provider, Provider::score)
+                    .tag("provider", provider.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public GeoPoint geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+        return route("geocode", ranked(), service -> service.geocode(address));
+    }
+
+    @Override
+    public String reverseGeocode(GeoPoint point) {
+        if (point == null || !point.isComplete()) {
+            return null;
+        }
+        return route("reverse", ranked(), service -> service.reverseGeocode(point));
+    }
+
+    @Override
+    public Map<String, GeoPoint> geocodeAll(Collection<String> addresses) {
+        Map<String, GeoPoint> points = new LinkedHashMap<>();
+        if (addresses == null || addresses.isEmpty()) {
+            return points;
+        }
+        List<String> remaining = new ArrayList<>();
+        for (String address : new LinkedHashSet<>(addresses)) {
+            if (address != null && !address.isBlank()) {
+                remaining.add(address);
+            }
+        }
+
+        List<Provider> order = ranked();
+        List<Provider> paced = order.stream().filter(Provider::paced).toList();
+        List<Provider> unpaced = new ArrayList<>(order.stream().filter(provider -> !provider.paced()).toList());
+        if (!unpaced.isEmpty()) {
+            // The best provider first, then a real batch endpoint (BAN) before one-by-one providers
+            Provider best = unpaced.remove(0);
+            unpaced.sort(Comparator.comparing(provider -> !provider.service.hasBatchEndpoint()));
+            remaining = best.batch(remaining, points);
+            for (Provider provider : unpaced) {
+                remaining = provider.batch(remaining, points);
+            }
+        }
+        if (!paced.isEmpty()) {
+            for (String address : remaining) {
+                GeoPoint point = route("geocode", paced, service -> service.geocode(address));
+                if (point != null) {
+                    points.put(address, point);
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Providers in the order the next call will try them.
+     */
+    List<String> ranking() {
+        return ranked().stream().map(provider -> provider.name).toList();
+    }
+
+    private List<Provider> ranked() {
+        List<Provider> ranked = new ArrayList<>(providers);
+        ranked.sort(Comparator.comparingDouble(Provider::score).thenComparingInt(provider -> provider.order));
+        return ranked;
+    }
+
+    private <T> T route(String operation, List<Provider> order, Function<GeocodingService, T> call) {
+        long start = System.nanoTime();
+        long deadline = start + settings.timeout().toNanos();
+        long hedgeAt = start + settings.hedgeAfter().toNanos();
+
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Provider> attempts = new LinkedHashMap<>();
+        int next = 0;
+        try {
+            attempts.put(completion.submit(() -> order.get(0).call(operation, call)), order.get(0));
+            next++;
+            int finished = 0;
+            while (true) {
+                long waitUntil = next < order.size() ? Math.min(hedgeAt, deadline) : deadline;
+                Future<T> done = completion.poll(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        meterRegistry.counter(METRIC_TIMEOUTS, "operation", operation).increment();
+                        LOGGER.warn("Geocoding {} abandoned after {} ms", operation, settings.timeout().toMillis());
+                        return null;
+                    }
+                    Provider hedge = order.get(next++);
+                    meterRegistry.counter(METRIC_HEDGES, "provider", hedge.name, "result", "sent").increment();
+                    attempts.put(completion.submit(() -> hedge.call(operation, call)), hedge);
+                    hedgeAt = System.nanoTime() + settings.hedgeAfter().toNanos();
+                    continue;
+                }
+
+                finished++;
+                T value = valueOf(done);
+                if (value != null) {
+                    Provider winner = attempts.get(done);
+                    if (winner != order.get(0)) {
+                        meterRegistry.counter(METRIC_HEDGES, "provider", winner.name, "result", "won").increment();
+                    }
+                    return value;
+                }
+                if (next < order.size()) {
+                    // Nothing from this provider: ask the next one now rather than at hedge time
+                    Provider fallback = order.get(next++);
+                    attempts.put(completion.submit(() -> fallback.call(operation, call)), fallback);
+                    hedgeAt = System.nanoTime() + settings.hedgeAfter().toNanos();
+                } else if (finished == attempts.size()) {
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T valueOf(Future<T> done) throws InterruptedException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            // Provider failures were recorded by the attempt; treat them as "nothing found"
+            return null;
+        }
+    }
+
+    private final class Provider {
+
+        private final String name;
+        private final GeocodingService service;
+        private final int order;
+        private double latencyNanos = Double.NaN;
+        private double successRate = 1.0;
+
+        Provider(String name, GeocodingService service, int order) {
+            this.name = name;
+            this.service = service;
+            this.order = order;
+        }
+
+        boolean paced() {
+            return service instanceof PacedGeocodingService;
+        }
+
+        /**
+         * Sends the addresses in one {@link GeocodingService#geocodeAll} call. Batches say nothing
+         * of the latency of a single lookup, so they are counted but leave the ranking alone.
+         *
+         * @return the addresses this provider did not geocode
+         */
+        List<String> batch(List<String> addresses, Map<String, GeoPoint> points) {
+            if (addresses.isEmpty()) {
+                return addresses;
+            }
+            Map<String, GeoPoint> found;
+            String result;
+            try {
+                found = service.geocodeAll(addresses);
+                result = found.isEmpty() ? "empty" : "found";
+            } catch (RuntimeException e) {
+                LOGGER.debug("Geocoding batch of {} via {} failed: {}", addresses.size(), name, e.getMessage());
+                found = Map.of();
+                result = "error";
+            }
+            meterRegistry.counter(METRIC_CALLS, "provider", name, "operation", "batch", "result", result)
+                    .increment();
+            List<String> misses = new ArrayList<>();
+            for (String address : addresses) {
+                GeoPoint point = found.get(address);
+                if (point != null) {
+                    points.put(address, point);
+                } else {
+                    misses.add(address);
+                }
+            }
+            return misses;
+        }
+
+        <T> T call(String operation, Function<GeocodingService, T> call) {
+            long start = System.nanoTime();
+            T value = null;
+            String result = "empty";
+            try {
+                value = call.apply(service);
+                if (Thread.currentThread().isInterrupted()) {
+                    result = "interrupted";
+                } else if (value != null) {
+                    result = "found";
+                }
+                return value;
+            } catch (RuntimeException e) {
+                result = "error";
+                LOGGER.debug("Geocoding {} via {} failed: {}", operation, name, e.getMessage());
+                throw e;
+            } finally {
+                // Only errors and lost races count against the provider, not an empty answer. A failure
+                // costs at least the hedge delay, or a provider failing at once would keep the lead
+                long elapsed = System.nanoTime() - start;
+                boolean success = !"error".equals(result) && !"interrupted".equals(result);
+                record(success ? elapsed : Math.max(elapsed, settings.hedgeAfter().toNanos()), success);
+                meterRegistry.counter(METRIC_CALLS, "provider", name, "operation", operation, "result", result)
+                        .increment();
+            }
+        }
+
+        synchronized void record(long elapsedNanos, boolean success) {
+            double alpha = settings.smoothing();
+            latencyNanos = Double.isNaN(latencyNanos) ? elapsedNanos : alpha * elapsedNanos + (1 - alpha) * latencyNanos;
+            successRate = alpha * (success ? 1.0 : 0.0) + (1 - alpha) * successRate;
+        }
+
+        /**
+         * Expected nanoseconds per successful answer, {@code +∞} without history.
+         */
+        synchronized double score() {
+            if (Double.isNaN(latencyNanos)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return latencyNanos / Math.max(MIN_SUCCESS_RATE, successRate);
+        }
+    }
+
+    /**
+     * @param hedgeAfter how long the current provider has before the next one is asked as well
+     * @param timeout    overall budget of a call, after which it yields {@code null}
+     * @param smoothing  weight of the latest call in the moving latency and success averages, in (0, 1]
+     */
+    public record Settings(Duration hedgeAfter, Duration timeout, double smoothing) {
+
+        public Settings {
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("Smoothing must be in (0, 1]");
+            }
+            if (hedgeAfter.compareTo(timeout) > 0) {
+                throw new IllegalArgumentException("Hedge delay must not exceed the timeout");
+            }
+        }
+    }
+}
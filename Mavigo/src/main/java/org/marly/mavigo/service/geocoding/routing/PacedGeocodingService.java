@@ -0,0 +1,229 @@
+package org.marly.mavigo.service.geocoding.routing;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingException;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.marly.mavigo.service.geocoding.cache.GeocodingCacheKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link GeocodingService} decorator sending at most one request per {@code interval} to its
+ * delegate, for providers with a usage policy such as Nominatim's one request per second.
+ * <p>
+ * Calls are queued and run in order by a single drainer thread, started when the first call is
+ * queued and stopped once the queue is empty. A call identical to one still queued or running
+ * (same normalized address, same point) waits for that request instead of queueing another.
+ * Callers give up after {@code maxWait}, and calls beyond {@code maxQueue} pending requests are
+ * refused; both throw a {@link GeocodingException}, like a provider failure. A queued request whose
+ * callers have all given up is dropped rather than sent to the delegate.
+ */
+public class PacedGeocodingService implements GeocodingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacedGeocodingService.class);
+
+    static final String METRIC_REQUESTS = "geocoding.paced.requests";
+    static final String METRIC_QUEUE_DEPTH = "geocoding.paced.queue.depth";
+
+    /** Reverse lookups only share a request for the very same point. */
+    private static final double DEDUPLICATION_GRID_METERS = 1.0;
+
+    private final GeocodingService delegate;
+    private final Settings settings;
+    private final ThreadFactory threadFactory;
+    private final Object lock = new Object();
+    private final ArrayDeque<Request<?>> queue = new ArrayDeque<>();
+    private final Map<Object, Request<?>> pending = new HashMap<>();
+    private final Counter queued;
+    private final Counter deduplicated;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    private boolean draining;
+    private long nextSlotNanos = System.nanoTime();
+
+    public PacedGeocodingService(GeocodingService delegate, String name, Settings settings,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.threadFactory = Thread.ofVirtual().name("geocoding-paced-" + name + "-", 0).factory();
+        this.queued = counter(meterRegistry, name, "queued");
+        this.deduplicated = counter(meterRegistry, name, "deduplicated");
+        this.rejected = counter(meterRegistry, name, "rejected");
+        this.timedOut = counter(meterRegistry, name, "timeout");
+        Gauge.builder(METRIC_QUEUE_DEPTH, this, PacedGeocodingService::queueDepth)
+                .tag("provider", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GeoPoint geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return delegate.geocode(address);
+        }
+        return submit(GeocodingCacheKey.forward(address), () -> delegate.geocode(address));
+    }
+
+    @Override
+    public String reverseGeocode(GeoPoint point) {
+        if (point == null || !point.isComplete()) {
+            return delegate.reverseGeocode(point);
+        }
+        GeocodingCacheKey key = GeocodingCacheKey.reverse(point.getLatitude(), point.getLongitude(),
+                DEDUPLICATION_GRID_METERS);
+        return submit(key, () -> delegate.reverseGeocode(point));
+    }
+
+    int queueDepth() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T submit(Object key, Supplier<T> call) {
+        Request<T> request;
+        synchronized (lock) {
+            request = (Request<T>) pending.get(key);
+            if (request != null) {
+                request.waiters++;
+                deduplicated.increment();
+            } else {
+                if (queue.size() >= settings.maxQueue()) {
+                    rejected.increment();
+                    LOGGER.debug("Paced geocoding queue full, dropping {}", key);
+                    throw new GeocodingException("Paced geocoding queue full (" + settings.maxQueue() + " requests)");
+                }
+                request = new Request<>(key, call);
+                request.waiters++;
+                pending.put(key, request);
+                queue.add(request);
+                queued.increment();
+                if (!draining) {
+                    draining = true;
+                    threadFactory.newThread(this::drain).start();
+                }
+            }
+        }
+
+        try {
+            return request.result.get(settings.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(request);
+            timedOut.increment();
+            LOGGER.debug("Paced geocoding gave up waiting for {} after {} ms", key, settings.maxWait().toMillis());
+            throw new GeocodingException("Paced geocoding gave up after " + settings.maxWait().toMillis() + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Geocoding failed for " + key, e.getCause());
+        } catch (InterruptedException e) {
+            abandon(request);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Called when a caller stops waiting: once nobody waits for a request still queued, it leaves
+     * the queue so that it neither takes a slot nor calls the delegate.
+     */
+    private void abandon(Request<?> request) {
+        synchronized (lock) {
+            request.waiters--;
+            if (request.waiters == 0 && queue.remove(request)) {
+                pending.remove(request.key, request);
+                request.result.cancel(false);
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Request<?> request;
+            synchronized (lock) {
+                request = queue.poll();
+                if (request == null) {
+                    draining = false;
+                    return;
+                }
+                if (request.waiters == 0) {
+                    pending.remove(request.key, request);
+                    continue;
+                }
+            }
+            long wait = nextSlotNanos - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    // Nobody interrupts the drainer on purpose; keep the pace and carry on
+                    Thread.interrupted();
+                }
+            }
+            nextSlotNanos = System.nanoTime() + settings.interval().toNanos();
+            request.run();
+            synchronized (lock) {
+                pending.remove(request.key, request);
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String provider, String result) {
+        return Counter.builder(METRIC_REQUESTS)
+                .tag("provider", provider).tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Request<T> {
+
+        private final Object key;
+        private final Supplier<T> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        /** Callers still waiting for the result, guarded by the service lock. */
+        private int waiters;
+
+        Request(Object key, Supplier<T> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        void run() {
+            try {
+                result.complete(call.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * @param interval minimum delay between the start of two requests to the delegate
+     * @param maxQueue max requests waiting for their slot, further calls are refused
+     * @param maxWait  how long a caller waits for its answer, queueing included
+     */
+    public record Settings(Duration interval, int maxQueue, Duration maxWait) {
+
+        public Settings {
+            if (interval.isNegative() || maxQueue <= 0 || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Pacing interval and wait must not be negative, queue must be positive");
+            }
+        }
+    }
+}
@@ -59,6 +59,7 @@ public class JourneyAssembler {
         journey.setEcoModeEnabled(preferences != null && preferences.ecoModeEnabled());
         journey.setPrimItineraryId(plan.journeyId());
         journey.setStatus(JourneyStatus.PLANNED);
+        journey.setStale(plan.stale());
 
         // Create segments and points
         List<JourneySegment> segments = mapSegments(journey, plan.legs());
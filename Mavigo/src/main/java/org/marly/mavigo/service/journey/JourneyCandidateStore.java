@@ -0,0 +1,121 @@
+package org.marly.mavigo.service.journey;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.marly.mavigo.client.cache.TtlLruCache;
+import org.marly.mavigo.models.journey.Journey;
+import org.marly.mavigo.models.journey.JourneySegment;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Planned journeys kept in memory until the user picks one of them.
+ * <p>
+ * A plan offers several options, sometimes assembled from intermediate plans (via routing, task
+ * optimization), and the user starts at most one. Instead of writing every option, each one is
+ * kept here under a random candidate id for {@code journey.candidates.ttl}; selecting a candidate
+ * hands its journey over exactly once, to be persisted. The store is bounded by
+ * {@code journey.candidates.max-entries} and by {@code journey.candidates.max-points} journey
+ * points, least recently offered or read first out.
+ */
+@Component
+public class JourneyCandidateStore {
+
+    static final String METRIC_REQUESTS = "journey.candidates.requests";
+    static final String METRIC_SIZE = "journey.candidates.size";
+    static final String METRIC_EVICTIONS = "journey.candidates.evictions";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final TtlLruCache<UUID, Journey> candidates;
+    private final Counter offered;
+    private final Counter selected;
+    private final Counter missed;
+
+    @Autowired
+    public JourneyCandidateStore(
+            @Value("${journey.candidates.enabled:true}") boolean enabled,
+            @Value("${journey.candidates.ttl:30m}") Duration ttl,
+            @Value("${journey.candidates.max-entries:2000}") int maxEntries,
+            @Value("${journey.candidates.max-points:200000}") long maxPoints,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(enabled, ttl, maxEntries, maxPoints, meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                Clock.systemUTC());
+    }
+
+    JourneyCandidateStore(boolean enabled, Duration ttl, int maxEntries, long maxPoints,
+            MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.candidates = new TtlLruCache<>(maxEntries, maxPoints, JourneyCandidateStore::pointCount,
+                Duration.ZERO, clock);
+        this.offered = Counter.builder(METRIC_REQUESTS)
+                .tag("result", "offered")
+                .register(meterRegistry);
+        this.selected = Counter.builder(METRIC_REQUESTS)
+                .tag("result", "selected")
+                .register(meterRegistry);
+        this.missed = Counter.builder(METRIC_REQUESTS)
+                .tag("result", "missed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, candidates, TtlLruCache::size)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_EVICTIONS, candidates, TtlLruCache::evictionCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return whether plans should be offered here rather than persisted right away
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Keeps a planned, not yet persisted journey.
+     *
+     * @return the id under which the journey can be selected until it expires
+     */
+    public UUID offer(Journey journey) {
+        UUID candidateId = UUID.randomUUID();
+        candidates.put(candidateId, journey, ttl);
+        offered.increment();
+        return candidateId;
+    }
+
+    /**
+     * Hands over a candidate and forgets it, so that it is persisted at most once.
+     *
+     * @return the candidate journey, or {@code null} if it is unknown, expired or already selected
+     */
+    public Journey select(UUID candidateId) {
+        Journey journey = candidateId != null ? candidates.get(candidateId) : null;
+        if (journey == null || candidates.remove(candidateId) == null) {
+            missed.increment();
+            return null;
+        }
+        selected.increment();
+        return journey;
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    private static long pointCount(Journey journey) {
+        long points = 1;
+        for (JourneySegment segment : journey.getSegments()) {
+            points += 1 + segment.getPoints().size();
+        }
+        return points;
+    }
+}
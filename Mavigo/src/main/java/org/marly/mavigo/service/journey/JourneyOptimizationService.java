@@ -6,9 +6,14 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
 import org.marly.mavigo.controller.dto.TaskDetailDto;
 import org.marly.mavigo.models.journey.Journey;
 import org.marly.mavigo.models.journey.JourneyPoint;
@@ -16,16 +21,19 @@ import org.marly.mavigo.models.journey.JourneySegment;
 import org.marly.mavigo.models.journey.JourneyStatus;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.task.UserTask;
-import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 /**
  * Service pour optimiser les trajets en incluant des tâches comme waypoints.
  * Pour l'instant, on réalise une tâche à la fois (pas plusieurs simultanément).
+ * Rien n'est persisté ici : les segments intermédiaires sont seulement planifiés et les trajets
+ * agrégés sont rendus à l'appelant, qui n'enregistre que celui qui est choisi.
  */
 @Service
 public class JourneyOptimizationService {
@@ -33,16 +41,16 @@ public class JourneyOptimizationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(JourneyOptimizationService.class);
 
     private final JourneyPlanningService journeyPlanningService;
-    private final JourneyRepository journeyRepository;
     private final UserTaskRepository userTaskRepository;
+    private final GeocodingService geocodingService;
 
     public JourneyOptimizationService(
             JourneyPlanningService journeyPlanningService,
-            JourneyRepository journeyRepository,
-            UserTaskRepository userTaskRepository) {
+            UserTaskRepository userTaskRepository,
+            GeocodingService geocodingService) {
         this.journeyPlanningService = journeyPlanningService;
-        this.journeyRepository = journeyRepository;
         this.userTaskRepository = userTaskRepository;
+        this.geocodingService = geocodingService;
     }
 
     /**
@@ -68,16 +76,28 @@ public class JourneyOptimizationService {
         if (taskIds == null || taskIds.isEmpty()) {
             return Collections.emptyList();
         }
-        List<TaskForOptimization> tasks = new ArrayList<>();
+        List<UserTask> userTasks = new ArrayList<>();
+        Set<String> unlocated = new LinkedHashSet<>();
         for (UUID taskId : taskIds) {
             UserTask ut = userTaskRepository.findById(taskId).orElse(null);
-            if (ut == null || ut.getLocationHint() == null || ut.isCompleted())
+            if (ut == null || ut.isCompleted())
+                continue;
+            userTasks.add(ut);
+            if (ut.getLocationHint() == null && StringUtils.hasText(ut.getLocationQuery())) {
+                unlocated.add(ut.getLocationQuery());
+            }
+        }
+        Map<String, GeoPoint> geocoded = geocodeTaskLocations(unlocated);
+        List<TaskForOptimization> tasks = new ArrayList<>();
+        for (UserTask ut : userTasks) {
+            GeoPoint hint = ut.getLocationHint() != null ? ut.getLocationHint() : geocoded.get(ut.getLocationQuery());
+            if (hint == null)
                 continue;
             tasks.add(new TaskForOptimization(
                     ut.getId().toString(),
                     ut.getTitle(),
                     ut.getLocationQuery(),
-                    ut.getLocationHint(),
+                    hint,
                     ut.isCompleted()));
         }
         return planOptimizedJourneyWithTaskList(parameters, tasks);
@@ -92,20 +112,47 @@ public class JourneyOptimizationService {
         if (taskDetails == null || taskDetails.isEmpty()) {
             return Collections.emptyList();
         }
+        Set<String> unlocated = new LinkedHashSet<>();
+        for (TaskDetailDto dto : taskDetails) {
+            if ((dto.lat() == null || dto.lng() == null) && StringUtils.hasText(dto.locationQuery())) {
+                unlocated.add(dto.locationQuery());
+            }
+        }
+        Map<String, GeoPoint> geocoded = geocodeTaskLocations(unlocated);
         List<TaskForOptimization> tasks = new ArrayList<>();
         for (TaskDetailDto dto : taskDetails) {
-            if (dto.id() == null || dto.lat() == null || dto.lng() == null || dto.completed())
+            if (dto.id() == null || dto.completed())
+                continue;
+            GeoPoint hint = dto.lat() != null && dto.lng() != null
+                    ? new GeoPoint(dto.lat(), dto.lng())
+                    : geocoded.get(dto.locationQuery());
+            if (hint == null)
                 continue;
             tasks.add(new TaskForOptimization(
                     dto.id(),
                     dto.title() != null ? dto.title() : "",
                     dto.locationQuery() != null ? dto.locationQuery() : "",
-                    new GeoPoint(dto.lat(), dto.lng()),
+                    hint,
                     dto.completed()));
         }
         return planOptimizedJourneyWithTaskList(parameters, tasks);
     }
 
+    /**
+     * Géocode en un seul lot les lieux (#mavigo:) des tâches arrivées sans coordonnées.
+     */
+    private Map<String, GeoPoint> geocodeTaskLocations(Set<String> locationQueries) {
+        if (locationQueries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return geocodingService.geocodeAll(locationQueries);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to geocode {} task locations: {}", locationQueries.size(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
     private List<OptimizedJourneyResult> planOptimizedJourneyWithTaskList(
             JourneyPlanningParameters parameters,
             List<TaskForOptimization> tasks) {
@@ -118,8 +165,9 @@ public class JourneyOptimizationService {
         List<OptimizedJourneyResult> candidates = new ArrayList<>();
         for (TaskForOptimization task : tasks) {
             try {
-                OptimizedJourneyResult result = calculateJourneyWithTaskOpt(
-                        parameters, task, initialDeparture);
+                // Probing every task is background work: it must not starve interactive planning.
+                OptimizedJourneyResult result = PrimRequestPriorityContext.callWith(PrimRequestPriority.BACKGROUND,
+                        () -> calculateJourneyWithTaskOpt(parameters, task, initialDeparture));
                 if (result != null) {
                     candidates.add(result);
                     LOGGER.debug("Journey with task '{}' (id={}): total {}s",
@@ -186,7 +234,7 @@ public class JourneyOptimizationService {
                     parameters.preferences(),
                     parameters.ecoModeEnabled(),
                     parameters.wheelchairAccessible());
-            List<Journey> segment2Journeys = journeyPlanningService.planAndPersist(segment2Params);
+            List<Journey> segment2Journeys = journeyPlanningService.plan(segment2Params);
             if (segment2Journeys.isEmpty())
                 continue;
 
@@ -219,7 +267,7 @@ public class JourneyOptimizationService {
                 parameters.userId(), taskQuery, parameters.destinationQuery(), taskArrival, parameters.preferences(),
                 parameters.ecoModeEnabled(),
                 parameters.wheelchairAccessible());
-        List<Journey> segment2Journeys = journeyPlanningService.planAndPersist(segment2Params);
+        List<Journey> segment2Journeys = journeyPlanningService.plan(segment2Params);
         if (segment2Journeys.isEmpty())
             return null;
 
@@ -233,7 +281,7 @@ public class JourneyOptimizationService {
                 initialDeparture, parameters.preferences(),
                 parameters.ecoModeEnabled(),
                 parameters.wheelchairAccessible());
-        List<Journey> baseJourneys = journeyPlanningService.planAndPersist(baseParams);
+        List<Journey> baseJourneys = journeyPlanningService.plan(baseParams);
         long baseDuration = baseJourneys.isEmpty() ? totalDuration : getDurationSeconds(baseJourneys.get(0));
 
         return new OptimizedJourneyResult(totalJourney,
@@ -255,7 +303,7 @@ public class JourneyOptimizationService {
                 parameters.userId(), parameters.originQuery(), taskQuery, initialDeparture, parameters.preferences(),
                 parameters.ecoModeEnabled(),
                 parameters.wheelchairAccessible());
-        return journeyPlanningService.planAndPersist(segment1Params);
+        return journeyPlanningService.plan(segment1Params);
     }
 
     /**
@@ -319,8 +367,6 @@ public class JourneyOptimizationService {
 
         aggregated.replaceSegments(allSegments);
         aggregated.setStatus(JourneyStatus.PLANNED);
-        aggregated = journeyRepository.save(aggregated);
-
         return aggregated;
     }
 
@@ -7,6 +7,16 @@ public interface JourneyPlanningService {
 
     java.util.List<Journey> planAndPersist(JourneyPlanningParameters parameters);
 
+    /**
+     * Plans journeys like {@link #planAndPersist(JourneyPlanningParameters)} without writing them:
+     * the returned journeys are transient until handed to {@link #persist(java.util.List)}.
+     */
+    java.util.List<Journey> plan(JourneyPlanningParameters parameters);
+
+    /**
+     * Writes journeys returned by {@link #plan(JourneyPlanningParameters)} in one transaction.
+     */
+    java.util.List<Journey> persist(java.util.List<Journey> journeys);
+
     java.util.List<Journey> updateJourneyWithDisruption(java.util.UUID journeyId, org.marly.mavigo.models.disruption.Disruption disruption, Double userLat, Double userLng, String newOrigin);
 }
-
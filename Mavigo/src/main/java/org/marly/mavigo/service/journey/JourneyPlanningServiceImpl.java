@@ -1,14 +1,16 @@
 package org.marly.mavigo.service.journey;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.hibernate.Hibernate;
 import org.marly.mavigo.client.prim.PrimApiClient;
-import org.marly.mavigo.client.prim.PrimApiException;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
 import org.marly.mavigo.models.disruption.Disruption;
@@ -18,54 +20,150 @@ import org.marly.mavigo.models.journey.JourneyStatus;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.stoparea.StopArea;
 import org.marly.mavigo.models.user.User;
+import org.marly.mavigo.repository.JourneyBulkRepository;
 import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.repository.UserRepository;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningContext;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
-import org.marly.mavigo.service.stoparea.StopAreaService;
+import org.marly.mavigo.service.stoparea.StopAreaEndpointResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Plans journeys in three steps, so that no database connection is held while PRIM or the
+ * geocoders are called:
+ * <ol>
+ * <li>a short read-only transaction loads what the plan starts from (user, disrupted journey);</li>
+ * <li>endpoints are resolved, PRIM is called and its options are assembled into journeys with no
+ * transaction open;</li>
+ * <li>the assembled journeys are written in one short transaction.</li>
+ * </ol>
+ * {@link #plan(JourneyPlanningParameters)} stops before the last step and {@link #persist(List)}
+ * runs it alone, so that callers can keep plans in memory and write only the one that is chosen.
+ * The time spent inside these transactions is recorded per plan in
+ * {@code journey.planning.connection.hold}, tagged with the operation. New journeys are written by
+ * {@link JourneyBulkRepository} in a few multi-row statements when it is enabled, through the
+ * {@link JourneyRepository} cascade otherwise.
+ */
 @Service
-@Transactional
 public class JourneyPlanningServiceImpl implements JourneyPlanningService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JourneyPlanningServiceImpl.class);
 
+    static final String METRIC_CONNECTION_HOLD = "journey.planning.connection.hold";
+
     private final PrimApiClient primApiClient;
-    private final StopAreaService stopAreaService;
     private final JourneyRepository journeyRepository;
     private final UserRepository userRepository;
     private final JourneyAssembler journeyAssembler;
     private final PrimJourneyRequestFactory primJourneyRequestFactory;
     private final JourneyResultFilter journeyResultFilter;
+    private final StopAreaEndpointResolver endpointResolver;
+    private final JourneyBulkRepository journeyBulkRepository;
+    private final TransactionOperations readTransaction;
+    private final TransactionOperations writeTransaction;
+    private final MeterRegistry meterRegistry;
 
+    @Autowired
     public JourneyPlanningServiceImpl(PrimApiClient primApiClient,
-            StopAreaService stopAreaService,
             JourneyRepository journeyRepository,
             UserRepository userRepository,
             JourneyAssembler journeyAssembler,
             PrimJourneyRequestFactory primJourneyRequestFactory,
-            JourneyResultFilter journeyResultFilter) {
+            JourneyResultFilter journeyResultFilter,
+            StopAreaEndpointResolver endpointResolver,
+            JourneyBulkRepository journeyBulkRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(primApiClient, journeyRepository, userRepository, journeyAssembler,
+                primJourneyRequestFactory, journeyResultFilter, endpointResolver, journeyBulkRepository,
+                readOnly(new TransactionTemplate(transactionManager)), new TransactionTemplate(transactionManager),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * @param journeyBulkRepository writes new journeys over JDBC; {@code null} or disabled saves
+     *                              them through {@code journeyRepository}
+     */
+    JourneyPlanningServiceImpl(PrimApiClient primApiClient,
+            JourneyRepository journeyRepository,
+            UserRepository userRepository,
+            JourneyAssembler journeyAssembler,
+            PrimJourneyRequestFactory primJourneyRequestFactory,
+            JourneyResultFilter journeyResultFilter,
+            StopAreaEndpointResolver endpointResolver,
+            JourneyBulkRepository journeyBulkRepository,
+            TransactionOperations readTransaction,
+            TransactionOperations writeTransaction,
+            MeterRegistry meterRegistry) {
         this.primApiClient = primApiClient;
-        this.stopAreaService = stopAreaService;
         this.journeyRepository = journeyRepository;
         this.userRepository = userRepository;
         this.journeyAssembler = journeyAssembler;
         this.primJourneyRequestFactory = primJourneyRequestFactory;
         this.journeyResultFilter = journeyResultFilter;
+        this.endpointResolver = endpointResolver;
+        this.journeyBulkRepository = journeyBulkRepository;
+        this.readTransaction = readTransaction;
+        this.writeTransaction = writeTransaction;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static TransactionTemplate readOnly(TransactionTemplate template) {
+        template.setReadOnly(true);
+        return template;
     }
 
     @Override
     public List<Journey> planAndPersist(JourneyPlanningParameters parameters) {
-        StopArea origin = stopAreaService.findOrCreateByQuery(parameters.originQuery());
-        StopArea destination = stopAreaService.findOrCreateByQuery(parameters.destinationQuery());
+        ConnectionHold hold = new ConnectionHold("plan");
+        try {
+            return persist(plan(parameters, hold), hold);
+        } finally {
+            hold.record();
+        }
+    }
 
-        User user = userRepository.findById(parameters.userId())
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + parameters.userId()));
+    @Override
+    public List<Journey> plan(JourneyPlanningParameters parameters) {
+        ConnectionHold hold = new ConnectionHold("plan");
+        try {
+            return plan(parameters, hold);
+        } finally {
+            hold.record();
+        }
+    }
+
+    @Override
+    public List<Journey> persist(List<Journey> journeys) {
+        ConnectionHold hold = new ConnectionHold("persist");
+        try {
+            return persist(journeys, hold);
+        } finally {
+            hold.record();
+        }
+    }
+
+    private List<Journey> plan(JourneyPlanningParameters parameters, ConnectionHold hold) {
+        List<StopArea> endpoints = endpointResolver.resolveAll(parameters.originQuery(),
+                parameters.destinationQuery());
+        StopArea origin = endpoints.get(0);
+        StopArea destination = endpoints.get(1);
+
+        User user = hold.read(status -> userRepository.findById(parameters.userId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + parameters.userId())));
 
         JourneyPlanningContext context = new JourneyPlanningContext(user, origin, destination, parameters);
 
@@ -83,13 +181,12 @@ public class JourneyPlanningServiceImpl implements JourneyPlanningService {
         options = journeyResultFilter.filterByComfortProfile(options, context, comfortEnabled);
 
         if (options.isEmpty()) {
-            throw new PrimApiException("No journey options match the requested parameters or comfort criteria");
+            throw new NoJourneyOptionsException("No journey options match the requested parameters or comfort criteria");
         }
 
         // Select top 3 options
         List<PrimJourneyPlanDto> topOptions = options.stream().limit(3).toList();
-        List<Journey> savedJourneys = new java.util.ArrayList<>();
-
+        List<Journey> journeys = new ArrayList<>();
         for (PrimJourneyPlanDto selected : topOptions) {
             Journey journey = journeyAssembler.assemble(
                     user,
@@ -97,123 +194,132 @@ public class JourneyPlanningServiceImpl implements JourneyPlanningService {
                     destination,
                     selected,
                     parameters.preferences());
-
             journey.setStatus(JourneyStatus.PLANNED);
-            Journey savedJourney = journeyRepository.save(journey);
-
-            // Initialize lazy collections (entity already has all data from assembly)
-            Hibernate.initialize(savedJourney.getDisruptions());
-            for (JourneySegment segment : savedJourney.getSegments()) {
-                Hibernate.initialize(segment.getPoints());
-            }
+            journeys.add(journey);
+        }
 
-            savedJourneys.add(savedJourney);
+        return journeys;
+    }
 
-            LOGGER.info("Persisted journey {} using Prim itinerary {}", savedJourney.getId(), selected.journeyId());
+    private List<Journey> persist(List<Journey> journeys, ConnectionHold hold) {
+        if (journeys.isEmpty()) {
+            return journeys;
+        }
+        List<Journey> savedJourneys = hold.write(status -> saveAll(journeys));
+        for (Journey saved : savedJourneys) {
+            LOGGER.info("Persisted journey {} using Prim itinerary {}", saved.getId(), saved.getPrimItineraryId());
         }
-
         return savedJourneys;
     }
 
     /**
      * Updates an existing journey when a disruption is reported.
      */
-    @Transactional
     public List<Journey> updateJourneyWithDisruption(UUID journeyId, Disruption disruption,
             Double userLat, Double userLng, String manualOrigin) {
+        ConnectionHold hold = new ConnectionHold("disruption");
+        try {
+            Journey journey = hold.read(status -> {
+                Journey loaded = journeyRepository.findWithSegmentsById(journeyId)
+                        .orElseThrow(() -> new IllegalArgumentException("Journey not found: " + journeyId));
+                // Initialize points separately to avoid MultipleBagFetchException
+                for (JourneySegment segment : loaded.getSegments()) {
+                    Hibernate.initialize(segment.getPoints());
+                }
+                // The journey is used detached from here on; size() loads the wrapped disruptions
+                Hibernate.initialize(loaded.getUser());
+                loaded.getDisruptions().size();
+                return loaded;
+            });
+
+            // Check if journey is impacted by the disruption
+            boolean isGeneric = "General Disruption".equals(disruption.getEffectedLine());
+            boolean impacted = isGeneric || journey.isLineUsed(disruption.getEffectedLine());
+
+            if (!impacted) {
+                return Collections.singletonList(journey);
+            }
 
-        Journey journey = journeyRepository.findWithSegmentsById(journeyId)
-                .orElseThrow(() -> new IllegalArgumentException("Journey not found: " + journeyId));
-        // Initialize points separately to avoid MultipleBagFetchException
-        for (JourneySegment segment : journey.getSegments()) {
-            Hibernate.initialize(segment.getPoints());
-        }
-
-        // Check if journey is impacted by the disruption
-        boolean isGeneric = "General Disruption".equals(disruption.getEffectedLine());
-        boolean impacted = isGeneric || journey.isLineUsed(disruption.getEffectedLine());
-
-        if (!impacted) {
-            return java.util.Collections.singletonList(journey);
-        }
-
-        journey.addDisruption(disruption);
-
-        // Determine new origin: GPS > manual override > original origin
-        StopArea origin;
-        String originQuery;
-
-        if (userLat != null && userLng != null) {
-            originQuery = "Current Location";
-            String tempId = String.format(Locale.ROOT, "coord:%.6f;%.6f", userLng, userLat);
-            GeoPoint location = new GeoPoint(userLat, userLng);
-            origin = new StopArea(tempId, "Current Location", location);
-        } else if (manualOrigin != null && !manualOrigin.isBlank()) {
-            originQuery = manualOrigin;
-            origin = stopAreaService.findOrCreateByQuery(originQuery);
-        } else {
-            originQuery = journey.getOriginLabel();
-            origin = stopAreaService.findOrCreateByQuery(originQuery);
-        }
-
-        StopArea destination = stopAreaService.findOrCreateByQuery(journey.getDestinationLabel());
-
-        JourneyPreferences preferences = new JourneyPreferences(
-                journey.isComfortModeEnabled(),
-                journey.isEcoModeEnabled(),
-                journey.getNamedComfortSettingId());
-
-        JourneyPlanningParameters params = new JourneyPlanningParameters(
-                journey.getUser().getId(),
-                originQuery,
-                journey.getDestinationLabel(),
-                LocalDateTime.now(),
-                preferences,
-                journey.isEcoModeEnabled(),
-                false);
-
-        JourneyPlanningContext context = new JourneyPlanningContext(
-                journey.getUser(),
-                origin,
-                destination,
-                params);
-
-        var request = primJourneyRequestFactory.create(context);
-
-        List<PrimJourneyPlanDto> options = primApiClient.calculateJourneyPlans(request);
+            journey.addDisruption(disruption);
 
-        boolean comfortEnabled = preferences.comfortModeEnabled();
-        options = journeyResultFilter.filterByComfortProfile(options, context, comfortEnabled);
+            // Determine new origin: GPS > manual override > original origin
+            StopArea origin;
+            String originQuery;
 
-        if (options.isEmpty()) {
-            return java.util.Collections.singletonList(journey);
-        }
+            if (userLat != null && userLng != null) {
+                originQuery = "Current Location";
+                String tempId = String.format(Locale.ROOT, "coord:%.6f;%.6f", userLng, userLat);
+                GeoPoint location = new GeoPoint(userLat, userLng);
+                origin = new StopArea(tempId, "Current Location", location);
+            } else {
+                originQuery = manualOrigin != null && !manualOrigin.isBlank() ? manualOrigin : journey.getOriginLabel();
+                origin = null;
+            }
 
-        // Select top 3 options
-        List<PrimJourneyPlanDto> topOptions = options.stream().limit(3).toList();
-        List<Journey> newJourneys = new java.util.ArrayList<>();
+            StopArea destination;
+            if (origin == null) {
+                List<StopArea> endpoints = endpointResolver.resolveAll(originQuery, journey.getDestinationLabel());
+                origin = endpoints.get(0);
+                destination = endpoints.get(1);
+            } else {
+                destination = endpointResolver.resolveAll(journey.getDestinationLabel()).get(0);
+            }
 
-        for (PrimJourneyPlanDto selected : topOptions) {
-            Journey newJourney = journeyAssembler.assemble(
+            JourneyPreferences preferences = new JourneyPreferences(
+                    journey.isComfortModeEnabled(),
+                    journey.isEcoModeEnabled(),
+                    journey.getNamedComfortSettingId());
+
+            JourneyPlanningParameters params = new JourneyPlanningParameters(
+                    journey.getUser().getId(),
+                    originQuery,
+                    journey.getDestinationLabel(),
+                    LocalDateTime.now(),
+                    preferences,
+                    journey.isEcoModeEnabled(),
+                    false);
+
+            JourneyPlanningContext context = new JourneyPlanningContext(
                     journey.getUser(),
                     origin,
                     destination,
-                    selected,
-                    preferences);
+                    params);
 
-            newJourney.setStatus(JourneyStatus.PLANNED);
-            newJourney.addDisruption(disruption);
+            var request = primJourneyRequestFactory.create(context);
 
-            Journey savedJourney = journeyRepository.save(newJourney);
-            // Initialize lazy collections (entity already has all data from assembly)
-            Hibernate.initialize(savedJourney.getDisruptions());
-            for (JourneySegment segment : savedJourney.getSegments()) {
-                Hibernate.initialize(segment.getPoints());
+            List<PrimJourneyPlanDto> options = primApiClient.calculateJourneyPlans(request);
+
+            boolean comfortEnabled = preferences.comfortModeEnabled();
+            options = journeyResultFilter.filterByComfortProfile(options, context, comfortEnabled);
+
+            // Select top 3 options
+            List<Journey> newJourneys = new ArrayList<>();
+            for (PrimJourneyPlanDto selected : options.stream().limit(3).toList()) {
+                Journey newJourney = journeyAssembler.assemble(
+                        journey.getUser(),
+                        origin,
+                        destination,
+                        selected,
+                        preferences);
+
+                newJourney.setStatus(JourneyStatus.PLANNED);
+                newJourney.addDisruption(disruption);
+                newJourneys.add(newJourney);
             }
-            newJourneys.add(savedJourney);
-        }
 
-        return newJourneys;
+            List<Journey> savedJourneys = hold.write(status -> {
+                // The disruption is recorded on the stored journey even when no alternative was found
+                journeyRepository.findById(journeyId).ifPresent(stored -> {
+                    if (!stored.getDisruptions().contains(disruption)) {
+                        stored.addDisruption(disruption);
+                    }
+                });
+                return saveAll(newJourneys);
+            });
+            return savedJourneys.isEmpty() ? Collections.singletonList(journey) : savedJourneys;
+        } finally {
+            hold.record();
+        }
     }
 
     /**
@@ -224,64 +330,115 @@ public class JourneyPlanningServiceImpl implements JourneyPlanningService {
             String newOriginStopAreaId,
             String destinationStopAreaId,
             JourneyPreferences preferences) {
+        ConnectionHold hold = new ConnectionHold("recalculate");
+        try {
+            User user = hold.read(status -> userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId)));
+
+            List<StopArea> endpoints = endpointResolver.resolveAll(newOriginStopAreaId, destinationStopAreaId);
+            StopArea origin = endpoints.get(0);
+            StopArea destination = endpoints.get(1);
+
+            JourneyPreferences prefs = preferences != null ? preferences : JourneyPreferences.disabled();
+            JourneyPlanningParameters params = new JourneyPlanningParameters(
+                    userId,
+                    newOriginStopAreaId,
+                    destinationStopAreaId,
+                    LocalDateTime.now(),
+                    prefs,
+                    preferences != null && preferences.ecoModeEnabled(),
+                    false);
+            JourneyPlanningContext context = new JourneyPlanningContext(user, origin, destination, params);
+
+            PrimJourneyRequest request = new PrimJourneyRequest(
+                    origin.getExternalId(),
+                    destination.getExternalId(),
+                    LocalDateTime.now());
+
+            List<PrimJourneyPlanDto> options = primApiClient.calculateJourneyPlans(request);
+
+            boolean comfortEnabled = preferences != null && preferences.comfortModeEnabled();
+            options = journeyResultFilter.filterByComfortProfile(options, context, comfortEnabled);
+
+            if (options.isEmpty()) {
+                throw new NoJourneyOptionsException("No journey options found from new origin");
+            }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-
-        StopArea origin = stopAreaService.findOrCreateByQuery(newOriginStopAreaId);
-        StopArea destination = stopAreaService.findOrCreateByQuery(destinationStopAreaId);
-
-        JourneyPreferences prefs = preferences != null ? preferences : JourneyPreferences.disabled();
-        JourneyPlanningParameters params = new JourneyPlanningParameters(
-                userId,
-                newOriginStopAreaId,
-                destinationStopAreaId,
-                LocalDateTime.now(),
-                prefs,
-                preferences != null && preferences.ecoModeEnabled(),
-                false);
-        JourneyPlanningContext context = new JourneyPlanningContext(user, origin, destination, params);
-
-        PrimJourneyRequest request = new PrimJourneyRequest(
-                origin.getExternalId(),
-                destination.getExternalId(),
-                LocalDateTime.now());
-
-        List<PrimJourneyPlanDto> options = primApiClient.calculateJourneyPlans(request);
-
-        boolean comfortEnabled = preferences != null && preferences.comfortModeEnabled();
-        options = journeyResultFilter.filterByComfortProfile(options, context, comfortEnabled);
+            List<Journey> journeys = new ArrayList<>();
+            for (PrimJourneyPlanDto selected : options.stream().limit(3).toList()) {
+                Journey journey = journeyAssembler.assemble(user, origin, destination, selected, preferences);
+                journey.setStatus(JourneyStatus.PLANNED);
+                journeys.add(journey);
+            }
 
-        if (options.isEmpty()) {
-            throw new PrimApiException("No journey options found from new origin");
+            return hold.write(status -> saveAll(journeys));
+        } finally {
+            hold.record();
         }
+    }
 
-        List<PrimJourneyPlanDto> topOptions = options.stream().limit(3).toList();
-        List<Journey> savedJourneys = new java.util.ArrayList<>();
-
-        for (PrimJourneyPlanDto selected : topOptions) {
-            Journey journey = journeyAssembler.assemble(user, origin, destination, selected, preferences);
-            journey.setStatus(JourneyStatus.PLANNED);
+    /**
+     * Filters journey results to exclude journeys using a specific line.
+     */
+    public List<Journey> filterJourneysExcludingLine(List<Journey> journeys, String excludedLineCode) {
+        return journeys.stream()
+                .filter(j -> !j.isLineUsed(excludedLineCode))
+                .collect(Collectors.toList());
+    }
 
+    private List<Journey> saveAll(List<Journey> journeys) {
+        if (journeyBulkRepository != null && journeyBulkRepository.isEnabled()) {
+            journeyBulkRepository.insertAll(journeys);
+            return journeys;
+        }
+        List<Journey> savedJourneys = new ArrayList<>(journeys.size());
+        for (Journey journey : journeys) {
             Journey savedJourney = journeyRepository.save(journey);
             // Initialize lazy collections (entity already has all data from assembly)
             Hibernate.initialize(savedJourney.getDisruptions());
             for (JourneySegment segment : savedJourney.getSegments()) {
                 Hibernate.initialize(segment.getPoints());
             }
-
             savedJourneys.add(savedJourney);
         }
-
         return savedJourneys;
     }
 
     /**
-     * Filters journey results to exclude journeys using a specific line.
+     * Time one plan spends inside its own transactions, that is holding a pooled connection.
      */
-    public List<Journey> filterJourneysExcludingLine(List<Journey> journeys, String excludedLineCode) {
-        return journeys.stream()
-                .filter(j -> !j.isLineUsed(excludedLineCode))
-                .collect(Collectors.toList());
+    private final class ConnectionHold {
+
+        private final String operation;
+        private long heldNanos;
+
+        ConnectionHold(String operation) {
+            this.operation = operation;
+        }
+
+        <T> T read(TransactionCallback<T> work) {
+            return run(readTransaction, work);
+        }
+
+        <T> T write(TransactionCallback<T> work) {
+            return run(writeTransaction, work);
+        }
+
+        private <T> T run(TransactionOperations transaction, TransactionCallback<T> work) {
+            long start = System.nanoTime();
+            try {
+                return transaction.execute(work);
+            } finally {
+                heldNanos += System.nanoTime() - start;
+            }
+        }
+
+        void record() {
+            Timer.builder(METRIC_CONNECTION_HOLD)
+                    .tag("operation", operation)
+                    .description("Time a journey plan holds a database connection")
+                    .register(meterRegistry)
+                    .record(heldNanos, TimeUnit.NANOSECONDS);
+        }
     }
 }
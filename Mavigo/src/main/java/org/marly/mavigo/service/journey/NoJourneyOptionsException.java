@@ -0,0 +1,14 @@
+package org.marly.mavigo.service.journey;
+
+import org.marly.mavigo.client.prim.PrimApiException;
+
+/**
+ * Thrown when PRIM answered but no journey option is left for the requested parameters or
+ * comfort criteria: a client error, unlike the upstream failures of its parent type.
+ */
+public class NoJourneyOptionsException extends PrimApiException {
+
+    public NoJourneyOptionsException(String message) {
+        super(message);
+    }
+}
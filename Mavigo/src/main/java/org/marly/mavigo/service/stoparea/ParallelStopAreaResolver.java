@@ -0,0 +1,197 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Races independent stop-area resolution strategies on virtual threads.
+ * <p>
+ * Every strategy declares the best score it can produce. The race ends as soon as a result
+ * reaches the accept score, or beats the best score any still-running strategy could return,
+ * or the deadline passes; the strategies still running are then cancelled. Strategies only
+ * perform remote lookups: the caller turns the winning value into a stop area on its own thread
+ * and transaction.
+ * <p>
+ * {@code stop-area.parallel.budget} bounds the whole resolution of a query, including the
+ * sequential long tail the caller may run when every strategy came back empty.
+ * <p>
+ * A failing strategy is logged at warn at most once per minute, with the number of failures
+ * left unlogged since the previous warning, so an unreachable provider does not flood the log.
+ */
+@Component
+public class ParallelStopAreaResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelStopAreaResolver.class);
+
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final Duration budget;
+    private final double acceptScore;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("stop-area-resolve-", 0).factory();
+    private final AtomicLong lastFailureLog = new AtomicLong(System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS);
+    private final AtomicInteger unloggedFailures = new AtomicInteger();
+
+    public ParallelStopAreaResolver(
+            @Value("${stop-area.parallel.enabled:true}") boolean enabled,
+            @Value("${stop-area.parallel.budget:4s}") Duration budget,
+            @Value("${stop-area.parallel.accept-score:0.9}") double acceptScore) {
+        this.enabled = enabled;
+        this.budget = budget;
+        this.acceptScore = acceptScore;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} deadline of a resolution starting now
+     */
+    public long newDeadline() {
+        return System.nanoTime() + budget.toNanos();
+    }
+
+    public <T> Outcome<T> resolve(List<Strategy<T>> strategies, long deadlineNanos) {
+        PrimRequestPriority priority = PrimRequestPriorityContext.current();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        CompletionService<Optional<Scored<T>>> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<Optional<Scored<T>>>, Strategy<T>> pending = new HashMap<>();
+        for (Strategy<T> strategy : strategies) {
+            pending.put(completion.submit(() -> PrimRequestPriorityContext.callWith(priority, strategy.body())),
+                    strategy);
+        }
+
+        Scored<T> best = null;
+        String winner = null;
+        boolean timedOut = false;
+        try {
+            while (!pending.isEmpty() && !settled(best, pending)) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<Optional<Scored<T>>> done = remaining > 0
+                        ? completion.poll(remaining, TimeUnit.NANOSECONDS)
+                        : null;
+                if (done == null) {
+                    timedOut = true;
+                    break;
+                }
+                Strategy<T> strategy = pending.remove(done);
+                try {
+                    Optional<Scored<T>> result = done.get();
+                    if (result.isPresent() && (best == null || result.get().score() > best.score())) {
+                        best = result.get();
+                        winner = strategy.name();
+                    }
+                } catch (ExecutionException e) {
+                    logFailure(strategy, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        } finally {
+            for (Future<Optional<Scored<T>>> future : pending.keySet()) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+        if (winner != null) {
+            LOGGER.debug("Stop-area strategy '{}' won with score {} ({} cancelled)", winner, best.score(),
+                    pending.size());
+        }
+        return new Outcome<>(Optional.ofNullable(best), winner, timedOut);
+    }
+
+    /**
+     * Runs one remote lookup of the sequential long tail on a virtual thread and waits for it until
+     * the deadline at most, so a single slow call cannot overrun the budget by its own read timeout.
+     *
+     * @throws StopAreaResolutionTimeoutException with {@code timeoutMessage} when the deadline
+     *                                            passes first; the lookup is then cancelled
+     */
+    public <T> T callBefore(Supplier<T> lookup, long deadlineNanos, String timeoutMessage) {
+        PrimRequestPriority priority = PrimRequestPriorityContext.current();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        Future<T> future = executor.submit(() -> PrimRequestPriorityContext.callWith(priority, lookup));
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new StopAreaResolutionTimeoutException(timeoutMessage);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StopAreaResolutionTimeoutException(timeoutMessage);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            future.cancel(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private void logFailure(Strategy<?> strategy, Throwable cause) {
+        long now = System.nanoTime();
+        long last = lastFailureLog.get();
+        if (now - last >= FAILURE_LOG_INTERVAL_NANOS && lastFailureLog.compareAndSet(last, now)) {
+            LOGGER.warn("Stop-area strategy '{}' failed: {} ({} other failures in the last minute)",
+                    strategy.name(), cause.getMessage(), unloggedFailures.getAndSet(0));
+        } else {
+            unloggedFailures.incrementAndGet();
+            LOGGER.debug("Stop-area strategy '{}' failed: {}", strategy.name(), cause.getMessage());
+        }
+    }
+
+    private boolean settled(Scored<?> best, Map<? extends Future<?>, ? extends Strategy<?>> pending) {
+        if (best == null) {
+            return false;
+        }
+        if (best.score() >= acceptScore) {
+            return true;
+        }
+        return pending.values().stream().allMatch(strategy -> strategy.maxScore() <= best.score());
+    }
+
+    /**
+     * @param maxScore best score the strategy can return, used to stop waiting for it once a
+     *                 better result is in
+     */
+    public record Strategy<T>(String name, double maxScore, Supplier<Optional<Scored<T>>> body) {
+    }
+
+    public record Scored<T>(T value, double score) {
+    }
+
+    /**
+     * @param winner   name of the strategy whose result was kept, {@code null} if none
+     * @param timedOut whether the deadline passed before the race was settled
+     */
+    public record Outcome<T>(Optional<Scored<T>> best, String winner, boolean timedOut) {
+    }
+}
@@ -0,0 +1,105 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves all endpoints of a plan (origin, destination...) at once.
+ * <p>
+ * Each distinct query is resolved on its own virtual thread through
+ * {@link StopAreaService#resolveDetached}, so the remote lookups of the endpoints overlap and none
+ * of them holds a transaction; the stop areas they discovered are then written together by
+ * {@link StopAreaService#persistResolutions}. All endpoints share one deadline,
+ * {@code stop-area.endpoints.budget}, past which the plan fails with
+ * {@link StopAreaResolutionTimeoutException}.
+ */
+@Component
+public class StopAreaEndpointResolver {
+
+    private final StopAreaService stopAreaService;
+    private final Duration budget;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("stop-area-endpoint-", 0).factory();
+
+    public StopAreaEndpointResolver(StopAreaService stopAreaService,
+            @Value("${stop-area.endpoints.budget:8s}") Duration budget) {
+        this.stopAreaService = stopAreaService;
+        this.budget = budget;
+    }
+
+    /**
+     * @return the stop area of each query, in the order of the queries
+     */
+    public List<StopArea> resolveAll(String... queries) {
+        // Origin and destination are often the same text when planning round trips
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(queries)));
+        List<StopAreaResolution> resolutions = distinct.size() == 1
+                ? List.of(stopAreaService.resolveDetached(distinct.get(0)))
+                : resolveConcurrently(distinct);
+        List<StopArea> stored = stopAreaService.persistResolutions(resolutions);
+
+        Map<String, StopArea> byQuery = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            byQuery.put(distinct.get(i), stored.get(i));
+        }
+        List<StopArea> stopAreas = new ArrayList<>(queries.length);
+        for (String query : queries) {
+            stopAreas.add(byQuery.get(query));
+        }
+        return stopAreas;
+    }
+
+    private List<StopAreaResolution> resolveConcurrently(List<String> queries) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        PrimRequestPriority priority = PrimRequestPriorityContext.current();
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        Map<String, Future<StopAreaResolution>> futures = new LinkedHashMap<>();
+        try {
+            for (String query : queries) {
+                futures.put(query, executor.submit(() -> PrimRequestPriorityContext.callWith(priority,
+                        () -> stopAreaService.resolveDetached(query))));
+            }
+            List<StopAreaResolution> resolutions = new ArrayList<>(queries.size());
+            for (Map.Entry<String, Future<StopAreaResolution>> future : futures.entrySet()) {
+                long remaining = deadline - System.nanoTime();
+                try {
+                    resolutions.add(future.getValue().get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    throw new StopAreaResolutionTimeoutException(
+                            "Resolving \"" + future.getKey() + "\" took too long. Please try again in a moment.");
+                } catch (ExecutionException e) {
+                    // Surface the failure of the first endpoint as if it had been resolved on this thread
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException("Could not resolve \"" + future.getKey() + "\"", e.getCause());
+                }
+            }
+            return resolutions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StopAreaResolutionTimeoutException("Stop-area resolution was interrupted");
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+    }
+}
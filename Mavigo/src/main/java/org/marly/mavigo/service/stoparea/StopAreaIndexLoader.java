@@ -0,0 +1,80 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.marly.mavigo.repository.StopAreaAliasRepository;
+import org.marly.mavigo.repository.StopAreaRepository;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds the in-memory stop-area indexes ({@link StopAreaSpatialIndex}, {@link StopAreaNameIndex})
+ * with the stop areas already persisted in {@code stop_area}, and the name index with the aliases
+ * of {@code stop_area_alias} that point to them and pass {@link StopAreaNameIndex#isAliasOf}, the
+ * check applied when an alias is learned, so rows recorded before it are not indexed. Stops
+ * resolved later (PRIM places, GTFS gazetteer) are added as they are seen.
+ */
+@Component
+public class StopAreaIndexLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StopAreaIndexLoader.class);
+
+    private final StopAreaRepository stopAreaRepository;
+    private final StopAreaSpatialIndex spatialIndex;
+    private final StopAreaNameIndex nameIndex;
+    private final StopAreaAliasRepository aliasRepository;
+
+    public StopAreaIndexLoader(StopAreaRepository stopAreaRepository, StopAreaSpatialIndex spatialIndex,
+            StopAreaNameIndex nameIndex, StopAreaAliasRepository aliasRepository) {
+        this.stopAreaRepository = stopAreaRepository;
+        this.spatialIndex = spatialIndex;
+        this.nameIndex = nameIndex;
+        this.aliasRepository = aliasRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("stop-area-index-load").start(this::load);
+    }
+
+    int load() {
+        long start = System.nanoTime();
+        int loaded = 0;
+        int aliases = 0;
+        try {
+            Map<String, String> namesById = new HashMap<>();
+            for (StopArea stopArea : stopAreaRepository.findAll()) {
+                namesById.put(stopArea.getExternalId(), stopArea.getName());
+                nameIndex.put(stopArea.getExternalId(), stopArea.getName());
+                GeoPoint coordinates = stopArea.getCoordinates();
+                if (coordinates != null && coordinates.isComplete()) {
+                    spatialIndex.put(stopArea.getExternalId(), stopArea.getName(),
+                            coordinates.getLatitude(), coordinates.getLongitude());
+                }
+                loaded++;
+            }
+            // Aliases of virtual address stop areas have no stop area to point the name index at
+            for (StopAreaAlias alias : aliasRepository.findAll()) {
+                String stopName = namesById.get(alias.getExternalId());
+                if (stopName != null && StopAreaNameIndex.isAliasOf(alias.getNormalizedQuery(), stopName)) {
+                    nameIndex.addAlias(alias.getExternalId(), alias.getNormalizedQuery());
+                    aliases++;
+                }
+            }
+            LOGGER.info("Stop-area indexes loaded {} stop areas and {} aliases from the database in {} ms",
+                    loaded, aliases, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Stop-area index load from the database failed: {}", e.getMessage());
+        }
+        return loaded;
+    }
+}
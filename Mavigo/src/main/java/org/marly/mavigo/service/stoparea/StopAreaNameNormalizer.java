@@ -0,0 +1,27 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes stop-area names and user queries for local lookups: accents are folded, case is
+ * lowered and punctuation (hyphens, apostrophes, parentheses) becomes a single space, so
+ * "Gare-de-Lyon", "gare de lyon" and "GARE DE LYON " compare equal.
+ */
+public final class StopAreaNameNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private StopAreaNameNormalizer() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
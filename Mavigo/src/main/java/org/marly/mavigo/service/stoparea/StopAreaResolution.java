@@ -0,0 +1,25 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.util.List;
+
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+
+/**
+ * Outcome of {@link StopAreaService#resolveDetached}: the stop area a query resolved to, and the
+ * writes the resolution still owes the database until {@link StopAreaService#persistResolutions}.
+ *
+ * @param newStopAreas stop areas seen during the resolution that are not stored yet
+ * @param aliasHits    stored aliases the resolution used, whose hits are not recorded yet
+ * @param remember     whether the query is to be stored as an alias of {@code stopArea}
+ */
+public record StopAreaResolution(String query, StopArea stopArea, List<StopArea> newStopAreas,
+        List<StopAreaAlias> aliasHits, boolean remember) {
+
+    /**
+     * A resolution that has nothing left to write.
+     */
+    public static StopAreaResolution persisted(String query, StopArea stopArea) {
+        return new StopAreaResolution(query, stopArea, List.of(), List.of(), false);
+    }
+}
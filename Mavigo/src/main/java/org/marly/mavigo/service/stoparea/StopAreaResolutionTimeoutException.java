@@ -0,0 +1,11 @@
+package org.marly.mavigo.service.stoparea;
+
+/**
+ * Thrown when a stop-area query could not be resolved within {@code stop-area.parallel.budget}.
+ */
+public class StopAreaResolutionTimeoutException extends RuntimeException {
+
+    public StopAreaResolutionTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package org.marly.mavigo.service.stoparea;
 
+import java.util.List;
+
 import org.marly.mavigo.models.stoparea.StopArea;
 
 public interface StopAreaService {
@@ -7,5 +9,22 @@ public interface StopAreaService {
     StopArea findOrCreateByQuery(String query);
 
     StopArea findByExternalId(String externalId);
-}
 
+    /**
+     * Resolves {@code query} like {@link #findOrCreateByQuery} but only reads from the database,
+     * so the remote lookups can run without holding a transaction; the writes the resolution
+     * needs are returned with it.
+     */
+    default StopAreaResolution resolveDetached(String query) {
+        return StopAreaResolution.persisted(query, findOrCreateByQuery(query));
+    }
+
+    /**
+     * Applies the writes of detached resolutions in one transaction.
+     *
+     * @return the stop area of each resolution, in order, as stored
+     */
+    default List<StopArea> persistResolutions(List<StopAreaResolution> resolutions) {
+        return resolutions.stream().map(StopAreaResolution::stopArea).toList();
+    }
+}
@@ -1,22 +1,38 @@
 package org.marly.mavigo.service.stoparea;
 
 import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimCircuitOpenException;
 import org.marly.mavigo.client.prim.PrimPlaceUtils;
+import org.marly.mavigo.client.prim.PrimQuotaExceededException;
 import org.marly.mavigo.client.prim.model.PrimCoordinates;
 import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.marly.mavigo.repository.StopAreaBulkRepository;
 import org.marly.mavigo.repository.StopAreaRepository;
 import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.marly.mavigo.service.stoparea.alias.StopAreaAliasStore;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.gazetteer.StopAreaGazetteer;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class StopAreaServiceImpl implements StopAreaService {
@@ -26,43 +42,367 @@ public class StopAreaServiceImpl implements StopAreaService {
     private static final int INITIAL_RADIUS_METERS = 2000;
     private static final int SECONDARY_RADIUS_METERS = 5000;
     private static final int MAX_RADIUS_METERS = 20000;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // Scores of the concurrent strategies, in the order the sequential chain prefers them
+    private static final double SCORE_PRIM_EXACT_NAME = 1.0;
+    private static final double SCORE_PRIM_STOP = 0.9;
+    private static final double SCORE_PRIM_SIMPLIFIED_STOP = 0.8;
+    private static final double SCORE_PRIM_PLACE_NEARBY = 0.75;
+    private static final double SCORE_GEOCODED_NEARBY = 0.7;
 
     private final StopAreaRepository stopAreaRepository;
     private final PrimApiClient primApiClient;
     private final GeocodingService geocodingService;
+    private final StopAreaGazetteer gazetteer;
+    private final StopAreaSpatialIndex spatialIndex;
+    private final StopAreaNameIndex nameIndex;
+    private final StopAreaAliasStore aliasStore;
+    private final ParallelStopAreaResolver parallelResolver;
+    private final StopAreaBulkRepository bulkRepository;
+    // Writes owed by the detached resolution running on the current thread, if any
+    private final ThreadLocal<PendingWrites> pendingWrites = new ThreadLocal<>();
 
+    /**
+     * @param parallelResolver races the remote strategies; empty keeps the sequential chain
+     * @param bulkRepository   batches the inserts of {@link #saveStopAreas}; empty saves stop
+     *                         areas one by one through {@code stopAreaRepository}
+     */
+    @Autowired
     public StopAreaServiceImpl(StopAreaRepository stopAreaRepository,
             PrimApiClient primApiClient,
-            GeocodingService geocodingService) {
+            GeocodingService geocodingService,
+            StopAreaGazetteer gazetteer,
+            StopAreaSpatialIndex spatialIndex,
+            StopAreaNameIndex nameIndex,
+            StopAreaAliasStore aliasStore,
+            Optional<ParallelStopAreaResolver> parallelResolver,
+            Optional<StopAreaBulkRepository> bulkRepository) {
         this.stopAreaRepository = stopAreaRepository;
         this.primApiClient = primApiClient;
         this.geocodingService = geocodingService;
+        this.gazetteer = gazetteer;
+        this.spatialIndex = spatialIndex;
+        this.nameIndex = nameIndex;
+        this.aliasStore = aliasStore;
+        this.parallelResolver = parallelResolver.orElse(null);
+        this.bulkRepository = bulkRepository.orElse(null);
     }
 
     @Override
     @Transactional
     public StopArea findOrCreateByQuery(String query) {
+        return findOrCreate(trimQuery(query));
+    }
+
+    /**
+     * Runs the same resolution as {@link #findOrCreateByQuery} outside any transaction: stores
+     * and aliases are read, but every write is collected into the returned resolution.
+     */
+    @Override
+    public StopAreaResolution resolveDetached(String query) {
+        String trimmedQuery = trimQuery(query);
+        PendingWrites pending = new PendingWrites();
+        pendingWrites.set(pending);
+        try {
+            StopArea stopArea = findOrCreate(trimmedQuery);
+            return new StopAreaResolution(trimmedQuery, stopArea, List.copyOf(pending.stopAreas.values()),
+                    List.copyOf(pending.aliasHits), pending.remember);
+        } finally {
+            pendingWrites.remove();
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<StopArea> persistResolutions(List<StopAreaResolution> resolutions) {
+        Map<String, StopArea> newStopAreas = new LinkedHashMap<>();
+        for (StopAreaResolution resolution : resolutions) {
+            for (StopArea stopArea : resolution.newStopAreas()) {
+                newStopAreas.putIfAbsent(stopArea.getExternalId(), stopArea);
+            }
+        }
+        if (!newStopAreas.isEmpty()) {
+            if (bulkRepository != null) {
+                stopAreaRepository.flush();
+                bulkRepository.insertAllIfAbsent(newStopAreas.values());
+            } else {
+                newStopAreas.values().forEach(this::saveIfAbsent);
+            }
+        }
+
+        List<StopArea> stored = new ArrayList<>(resolutions.size());
+        for (StopAreaResolution resolution : resolutions) {
+            resolution.aliasHits().forEach(aliasStore::recordHit);
+            StopArea stopArea = resolution.stopArea();
+            if (newStopAreas.containsKey(stopArea.getExternalId())) {
+                stopArea = stopAreaRepository.findByExternalId(stopArea.getExternalId()).orElse(stopArea);
+            }
+            if (resolution.remember()) {
+                aliasStore.remember(resolution.query(), stopArea);
+            }
+            stored.add(stopArea);
+        }
+        return stored;
+    }
+
+    private static String trimQuery(String query) {
         if (query == null || query.isBlank()) {
             throw new IllegalArgumentException("Query cannot be null or empty");
         }
+        return query.trim();
+    }
 
-        String trimmedQuery = query.trim();
-
+    private StopArea findOrCreate(String trimmedQuery) {
         // Early return if the stop area already exists
         Optional<StopArea> existing = stopAreaRepository.findFirstByNameIgnoreCase(trimmedQuery);
         if (existing.isPresent()) {
             return existing.get();
         }
 
+        // Then queries already resolved before, whatever strategy resolved them
+        Optional<StopArea> remembered = findByAlias(trimmedQuery);
+        if (remembered.isPresent()) {
+            return remembered.get();
+        }
+
+        StopArea resolved = resolve(trimmedQuery);
+        PendingWrites pending = pendingWrites.get();
+        if (pending != null) {
+            pending.remember = true;
+        } else {
+            aliasStore.remember(trimmedQuery, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves a query that matches no stored stop-area name nor alias: local gazetteer and name
+     * index first, then PRIM, then geocoding with nearby-stop validation.
+     */
+    private StopArea resolve(String trimmedQuery) {
+        // Then the local GTFS gazetteer, before any remote call
+        Optional<StopAreaGazetteer.Entry> local = gazetteer.findByName(trimmedQuery);
+        if (local.isPresent()) {
+            LOGGER.debug("Gazetteer resolved '{}' to {}", trimmedQuery, local.get().externalId());
+            return saveGazetteerEntryIfNotExists(local.get());
+        }
+
+        // Then the fuzzy name index: spelling variants and learned aliases of known stop areas
+        Optional<StopAreaNameIndex.Candidate> fuzzy = nameIndex.bestMatch(trimmedQuery);
+        if (fuzzy.isPresent()) {
+            Optional<StopArea> matched = findKnownStopArea(fuzzy.get().externalId());
+            if (matched.isPresent()) {
+                LOGGER.debug("Name index resolved '{}' to {} (matched '{}', score {})", trimmedQuery,
+                        fuzzy.get().externalId(), fuzzy.get().matchedName(), fuzzy.get().score());
+                return matched.get();
+            }
+        }
+
+        if (parallelResolver != null && parallelResolver.isEnabled()) {
+            long deadline = parallelResolver.newDeadline();
+            RaceFindings findings = new RaceFindings();
+            Optional<StopArea> raced = resolveConcurrently(trimmedQuery, deadline, findings);
+            if (raced.isPresent()) {
+                return raced.get();
+            }
+            // Every fast strategy came back empty: only the long tail (radius expansion, area
+            // name search) is left, and it must fit in what remains of the budget. Lookups the
+            // race completed are reused rather than sent again
+            return resolveSequentially(trimmedQuery, deadline, findings);
+        }
+        return resolveSequentially(trimmedQuery, NO_DEADLINE, new RaceFindings());
+    }
+
+    /**
+     * Starts PRIM text search, simplified search and geocoding with nearby-stop validation at
+     * once, and keeps the best-scored answer. The strategies only call remote services; the
+     * winning answer is persisted here, on the caller's transaction.
+     */
+    private Optional<StopArea> resolveConcurrently(String trimmedQuery, long deadline, RaceFindings findings) {
+        List<ParallelStopAreaResolver.Strategy<Supplier<StopArea>>> strategies = new ArrayList<>();
+        strategies.add(new ParallelStopAreaResolver.Strategy<>("prim-text", SCORE_PRIM_EXACT_NAME,
+                () -> primTextStrategy(trimmedQuery, trimmedQuery, SCORE_PRIM_STOP, true, findings)));
+        String simplified = simplifyAddress(trimmedQuery);
+        if (!simplified.equals(trimmedQuery)) {
+            strategies.add(new ParallelStopAreaResolver.Strategy<>("prim-simplified", SCORE_PRIM_SIMPLIFIED_STOP,
+                    () -> primTextStrategy(trimmedQuery, simplified, SCORE_PRIM_SIMPLIFIED_STOP, false, findings)));
+        }
+        strategies.add(new ParallelStopAreaResolver.Strategy<>("geocode-nearby", SCORE_GEOCODED_NEARBY,
+                () -> geocodeNearbyStrategy(trimmedQuery, findings)));
+
+        ParallelStopAreaResolver.Outcome<Supplier<StopArea>> outcome = parallelResolver.resolve(strategies, deadline);
+        if (outcome.best().isPresent()) {
+            return Optional.of(outcome.best().get().value().get());
+        }
+        if (outcome.timedOut()) {
+            throw new StopAreaResolutionTimeoutException(timeoutMessage(trimmedQuery));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ParallelStopAreaResolver.Scored<Supplier<StopArea>>> primTextStrategy(String trimmedQuery,
+            String searchTerm, double stopScore, boolean tryPlaceCoordinates, RaceFindings findings) {
+        List<PrimPlace> places = primApiClient.searchPlaces(searchTerm);
+        logPlaces("searchPlaces(concurrent)", searchTerm, places);
+        if (searchTerm.equals(trimmedQuery)) {
+            findings.places = places;
+        } else {
+            findings.simplifiedPlaces = places;
+        }
+        PrimPlace stop = places.stream().filter(PrimPlaceUtils::hasStopAreaOrPoint).findFirst().orElse(null);
+        if (stop != null) {
+            boolean sameName = StopAreaNameNormalizer.normalize(placeName(stop))
+                    .equals(StopAreaNameNormalizer.normalize(trimmedQuery));
+            double score = sameName ? SCORE_PRIM_EXACT_NAME : stopScore;
+            return Optional.of(new ParallelStopAreaResolver.Scored<>(() -> {
+                learnAlias(stop, trimmedQuery);
+                StopArea saved = saveStopAreaIfNotExists(stop);
+                saveOtherStops(places, stop);
+                return saved;
+            }, score));
+        }
+        if (!tryPlaceCoordinates) {
+            return Optional.empty();
+        }
+        // An address or POI: validate it against the stops around its coordinates
+        for (PrimPlace place : places) {
+            PrimCoordinates coords = PrimPlaceUtils.placeCoordinates(place);
+            if (coords == null || coords.latitude() == null || coords.longitude() == null) {
+                continue;
+            }
+            List<PrimPlace> nearby = primApiClient.searchPlacesNearby(coords.latitude(), coords.longitude(),
+                    SECONDARY_RADIUS_METERS, null);
+            findings.placeNearbySearched = true;
+            PrimPlace nearest = nearby.stream().filter(PrimPlaceUtils::hasStopAreaOrPoint).findFirst().orElse(null);
+            if (nearest == null) {
+                return Optional.empty();
+            }
+            GeoPoint point = new GeoPoint(coords.latitude(), coords.longitude());
+            String name = placeName(place);
+            return Optional.of(new ParallelStopAreaResolver.Scored<>(() -> {
+                saveStopAreaIfNotExists(nearest);
+                saveOtherStops(nearby, nearest);
+                return new StopArea(virtualId(point), name, point);
+            }, SCORE_PRIM_PLACE_NEARBY));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ParallelStopAreaResolver.Scored<Supplier<StopArea>>> geocodeNearbyStrategy(String trimmedQuery,
+            RaceFindings findings) {
+        GeoPoint point = geocodingService.geocode(trimmedQuery);
+        findings.geocodedPoint = point;
+        findings.geocoded = true;
+        if (point == null || !point.isComplete()) {
+            return Optional.empty();
+        }
+        if (spatialIndex.nearest(point.getLatitude(), point.getLongitude(), INITIAL_RADIUS_METERS).isPresent()) {
+            return Optional.of(new ParallelStopAreaResolver.Scored<>(
+                    () -> new StopArea(virtualId(point), trimmedQuery, point), SCORE_GEOCODED_NEARBY));
+        }
+        List<PrimPlace> nearby = primApiClient.searchPlacesNearby(point.getLatitude(), point.getLongitude(),
+                INITIAL_RADIUS_METERS, null);
+        findings.geocodedNearbySearched = true;
+        PrimPlace nearest = nearby.stream().filter(PrimPlaceUtils::hasStopAreaOrPoint).findFirst().orElse(null);
+        if (nearest == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ParallelStopAreaResolver.Scored<>(() -> {
+            saveStopAreaIfNotExists(nearest);
+            saveOtherStops(nearby, nearest);
+            return new StopArea(virtualId(point), trimmedQuery, point);
+        }, SCORE_GEOCODED_NEARBY));
+    }
+
+    private void saveOtherStops(List<PrimPlace> places, PrimPlace alreadySaved) {
+        List<PrimPlace> others = new ArrayList<>(places.size());
+        for (PrimPlace place : places) {
+            if (place != alreadySaved) {
+                others.add(place);
+            }
+        }
+        saveStopAreas(others);
+    }
+
+    private static String virtualId(GeoPoint point) {
+        return String.format(Locale.ROOT, "%.6f;%.6f", point.getLongitude(), point.getLatitude());
+    }
+
+    private static void ensureWithinBudget(long deadline, String trimmedQuery) {
+        if (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+            throw new StopAreaResolutionTimeoutException(timeoutMessage(trimmedQuery));
+        }
+    }
+
+    private static String timeoutMessage(String trimmedQuery) {
+        return "Resolving \"" + trimmedQuery + "\" took too long. Please try again in a moment.";
+    }
+
+    /**
+     * Makes one remote lookup of the sequential chain. With a deadline, the lookup is abandoned
+     * when the budget runs out instead of waiting for the client's own read timeout.
+     */
+    private <T> T withinBudget(long deadline, String trimmedQuery, Supplier<T> lookup) {
+        if (deadline == NO_DEADLINE) {
+            return lookup.get();
+        }
+        ensureWithinBudget(deadline, trimmedQuery);
+        return parallelResolver.callBefore(lookup, deadline, timeoutMessage(trimmedQuery));
+    }
+
+    private GeoPoint geocode(String trimmedQuery, long deadline, RaceFindings findings) {
+        if (findings.geocoded) {
+            return findings.geocodedPoint;
+        }
+        return withinBudget(deadline, trimmedQuery, () -> geocodingService.geocode(trimmedQuery));
+    }
+
+    private String reverseGeocode(GeoPoint point, long deadline, String trimmedQuery) {
+        return withinBudget(deadline, trimmedQuery, () -> geocodingService.reverseGeocode(point));
+    }
+
+    /**
+     * A failed nearby search only rules out this step: the chain moves on to the next strategy.
+     * An exhausted quota or an open circuit is rethrown, since every later PRIM step would fail too.
+     */
+    private List<PrimPlace> searchNearby(GeoPoint point, int radius, String cityName, long deadline,
+            String trimmedQuery) {
+        try {
+            return withinBudget(deadline, trimmedQuery,
+                    () -> primApiClient.searchPlacesNearby(point.getLatitude(), point.getLongitude(), radius,
+                            cityName));
+        } catch (PrimQuotaExceededException | PrimCircuitOpenException e) {
+            throw e;
+        } catch (PrimApiException e) {
+            LOGGER.warn("Nearby search within {}m of {}, {} failed for '{}', trying the next strategy: {}",
+                    radius, point.getLatitude(), point.getLongitude(), trimmedQuery, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * The original fallback chain: PRIM text search, simplified search, geocoding, nearby search,
+     * radius expansion and area-name search, one after the other. With a deadline, every remote
+     * lookup is bounded by what remains of the budget, and lookups the race already completed
+     * are taken from {@code findings} instead of being sent again.
+     */
+    private StopArea resolveSequentially(String trimmedQuery, long deadline, RaceFindings findings) {
+        ensureWithinBudget(deadline, trimmedQuery);
+
         // Try the original query first
-        List<PrimPlace> places = primApiClient.searchPlaces(trimmedQuery);
+        List<PrimPlace> places = findings.places != null
+                ? findings.places
+                : withinBudget(deadline, trimmedQuery, () -> primApiClient.searchPlaces(trimmedQuery));
         logPlaces("searchPlaces(original)", trimmedQuery, places);
 
         // If no results, try simplified versions of the query
         if (places.isEmpty()) {
             String simplified = simplifyAddress(trimmedQuery);
             if (!simplified.equals(trimmedQuery)) {
-                places = primApiClient.searchPlaces(simplified);
+                places = findings.simplifiedPlaces != null
+                        ? findings.simplifiedPlaces
+                        : withinBudget(deadline, trimmedQuery, () -> primApiClient.searchPlaces(simplified));
                 logPlaces("searchPlaces(simplified)", simplified, places);
             }
         }
@@ -70,29 +410,37 @@ public class StopAreaServiceImpl implements StopAreaService {
         // If PRIM didn't find anything, try geocoding the address
         if (places.isEmpty()) {
             LOGGER.info("PRIM found no results for '{}', attempting geocoding...", trimmedQuery);
-            GeoPoint geocodedPoint = geocodingService.geocode(trimmedQuery);
+            GeoPoint geocodedPoint = geocode(trimmedQuery, deadline, findings);
 
             if (geocodedPoint != null && geocodedPoint.isComplete()) {
                 LOGGER.info("Geocoded '{}' to coordinates: {}, {}", trimmedQuery,
                         geocodedPoint.getLatitude(), geocodedPoint.getLongitude());
 
-                // Search for nearest stop areas using coordinates
-                LOGGER.info("Searching PRIM for stop areas near coordinates: {}, {}",
-                        geocodedPoint.getLatitude(), geocodedPoint.getLongitude());
-                // Get city name via reverse geocoding
-                String cityName = null;
-                try {
-                    String areaName = geocodingService.reverseGeocode(geocodedPoint);
-                    cityName = areaName != null ? extractCityName(areaName) : null;
-                } catch (Exception e) {
-                    LOGGER.debug("Reverse geocoding failed, continuing without city name: {}", e.getMessage());
+                // A known stop nearby is enough to validate the address, no PRIM call needed
+                Optional<StopArea> indexed = virtualStopAreaNearIndexedStop(geocodedPoint, trimmedQuery,
+                        INITIAL_RADIUS_METERS);
+                if (indexed.isPresent()) {
+                    return indexed.get();
+                }
+
+                if (findings.geocodedNearbySearched) {
+                    // The race already found no stop within the initial radius of this point
+                    places = List.of();
+                } else {
+                    // Search for nearest stop areas using coordinates
+                    LOGGER.info("Searching PRIM for stop areas near coordinates: {}, {}",
+                            geocodedPoint.getLatitude(), geocodedPoint.getLongitude());
+                    // Get city name via reverse geocoding
+                    String cityName = null;
+                    try {
+                        String areaName = reverseGeocode(geocodedPoint, deadline, trimmedQuery);
+                        cityName = areaName != null ? extractCityName(areaName) : null;
+                    } catch (Exception e) {
+                        LOGGER.debug("Reverse geocoding failed, continuing without city name: {}", e.getMessage());
+                    }
+                    places = searchNearby(geocodedPoint, INITIAL_RADIUS_METERS, cityName, deadline, trimmedQuery);
+                    logPlaces("searchPlacesNearby", trimmedQuery, places);
                 }
-                places = primApiClient.searchPlacesNearby(
-                        geocodedPoint.getLatitude(),
-                        geocodedPoint.getLongitude(),
-                        INITIAL_RADIUS_METERS,
-                        cityName);
-                logPlaces("searchPlacesNearby", trimmedQuery, places);
 
                 // If PRIM found places with stop areas, use the first one
                 PrimPlace nearestPlace = places.stream()
@@ -119,18 +467,14 @@ public class StopAreaServiceImpl implements StopAreaService {
 
                     // Still save/ensure the nearest station exists in our DB for consistency
                     saveStopAreaIfNotExists(nearestPlace);
-                    for (PrimPlace place : places) {
-                        if (place != nearestPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                            saveStopAreaIfNotExists(place);
-                        }
-                    }
+                    saveOtherStops(places, nearestPlace);
 
                     return virtualStopArea;
                 } else {
                     // No stop area found with coordinates search, try reverse geocoding to get area
                     // name
                     LOGGER.info("No stop area found with coordinates search, trying reverse geocoding...");
-                    String areaName = geocodingService.reverseGeocode(geocodedPoint);
+                    String areaName = reverseGeocode(geocodedPoint, deadline, trimmedQuery);
                     LOGGER.debug("Reverse geocoding returned: '{}'", areaName);
 
                     // Last resort: search with increasing radius using city name
@@ -163,13 +507,15 @@ public class StopAreaServiceImpl implements StopAreaService {
                         }
                     }
 
+                    indexed = virtualStopAreaNearIndexedStop(geocodedPoint, trimmedQuery, MAX_RADIUS_METERS);
+                    if (indexed.isPresent()) {
+                        return indexed.get();
+                    }
+
                     for (int radius = SECONDARY_RADIUS_METERS; radius <= MAX_RADIUS_METERS; radius += SECONDARY_RADIUS_METERS) {
                         LOGGER.info("Searching with radius {}m, city: '{}'", radius, cityNameForSearch);
-                        List<PrimPlace> nearbyPlaces = primApiClient.searchPlacesNearby(
-                                geocodedPoint.getLatitude(),
-                                geocodedPoint.getLongitude(),
-                                radius,
-                                cityNameForSearch);
+                        List<PrimPlace> nearbyPlaces = searchNearbyInBackground(geocodedPoint, radius,
+                                cityNameForSearch, deadline, trimmedQuery);
 
                         PrimPlace nearestNearbyPlace = nearbyPlaces.stream()
                                 .filter(PrimPlaceUtils::hasStopAreaOrPoint)
@@ -186,11 +532,7 @@ public class StopAreaServiceImpl implements StopAreaService {
                             StopArea virtualStopArea = new StopArea(virtualId, trimmedQuery, geocodedPoint);
 
                             saveStopAreaIfNotExists(nearestNearbyPlace);
-                            for (PrimPlace place : nearbyPlaces) {
-                                if (place != nearestNearbyPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                                    saveStopAreaIfNotExists(place);
-                                }
-                            }
+                            saveOtherStops(nearbyPlaces, nearestNearbyPlace);
                             return virtualStopArea;
                         }
                     }
@@ -207,9 +549,8 @@ public class StopAreaServiceImpl implements StopAreaService {
                         for (String searchTerm : searchTerms) {
                             if (searchTerm == null || searchTerm.isBlank())
                                 continue;
-
                             LOGGER.info("Trying PRIM search with term: '{}'", searchTerm);
-                            places = primApiClient.searchPlaces(searchTerm);
+                            places = withinBudget(deadline, trimmedQuery, () -> primApiClient.searchPlaces(searchTerm));
                             logPlaces("searchPlaces(areaName)", searchTerm, places);
 
                             // Filter valid places and find the nearest to the geocoded coordinates
@@ -247,11 +588,7 @@ public class StopAreaServiceImpl implements StopAreaService {
                                 StopArea virtualStopArea = new StopArea(virtualId, trimmedQuery, geocodedPoint);
 
                                 saveStopAreaIfNotExists(nearestByDistance);
-                                for (PrimPlace place : places) {
-                                    if (place != nearestByDistance && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                                        saveStopAreaIfNotExists(place);
-                                    }
-                                }
+                                saveOtherStops(places, nearestByDistance);
                                 return virtualStopArea;
                             }
                         }
@@ -286,16 +623,17 @@ public class StopAreaServiceImpl implements StopAreaService {
                     .filter(p -> PrimPlaceUtils.placeCoordinates(p) != null)
                     .findFirst()
                     .orElse(null);
-            if (placeWithCoords != null) {
+            if (placeWithCoords != null && !findings.placeNearbySearched) {
                 PrimCoordinates coords = PrimPlaceUtils.placeCoordinates(placeWithCoords);
                 if (coords != null && coords.latitude() != null && coords.longitude() != null) {
                     // Instead of using coord:lon;lat, search for a stop near these coordinates
                     LOGGER.info("Found coordinates from PRIM place, searching for nearest stop area...");
-                    List<PrimPlace> coordPlaces = primApiClient.searchPlacesNearby(
-                            coords.latitude(),
-                            coords.longitude(),
+                    List<PrimPlace> coordPlaces = searchNearby(
+                            new GeoPoint(coords.latitude(), coords.longitude()),
                             SECONDARY_RADIUS_METERS,
-                            null); // No city name available
+                            null, // No city name available
+                            deadline,
+                            trimmedQuery);
 
                     PrimPlace nearestCoordPlace = coordPlaces.stream()
                             .filter(PrimPlaceUtils::hasStopAreaOrPoint)
@@ -316,11 +654,7 @@ public class StopAreaServiceImpl implements StopAreaService {
                                 new GeoPoint(coords.latitude(), coords.longitude()));
 
                         saveStopAreaIfNotExists(nearestCoordPlace);
-                        for (PrimPlace place : coordPlaces) {
-                            if (place != nearestCoordPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                                saveStopAreaIfNotExists(place);
-                            }
-                        }
+                        saveOtherStops(coordPlaces, nearestCoordPlace);
                         return virtualStopArea;
                     }
                 }
@@ -328,17 +662,23 @@ public class StopAreaServiceImpl implements StopAreaService {
 
             // Try geocoding and searching nearby as last resort
             LOGGER.info("No stop area in PRIM results for '{}', trying geocoding...", trimmedQuery);
-            GeoPoint geocodedPoint = geocodingService.geocode(trimmedQuery);
+            GeoPoint geocodedPoint = geocode(trimmedQuery, deadline, findings);
 
             if (geocodedPoint != null && geocodedPoint.isComplete()) {
                 LOGGER.info("Geocoded '{}' to coordinates: {}, {}", trimmedQuery,
                         geocodedPoint.getLatitude(), geocodedPoint.getLongitude());
 
+                Optional<StopArea> indexed = virtualStopAreaNearIndexedStop(geocodedPoint, trimmedQuery,
+                        SECONDARY_RADIUS_METERS);
+                if (indexed.isPresent()) {
+                    return indexed.get();
+                }
+
                 // Get city name via reverse geocoding AVANT toute recherche
                 String cityName = null;
                 try {
                     LOGGER.info("Getting city name via reverse geocoding...");
-                    String areaName = geocodingService.reverseGeocode(geocodedPoint);
+                    String areaName = reverseGeocode(geocodedPoint, deadline, trimmedQuery);
                     LOGGER.debug("Reverse geocoding returned: '{}'", areaName);
                     if (areaName != null) {
                         cityName = extractCityName(areaName);
@@ -358,11 +698,8 @@ public class StopAreaServiceImpl implements StopAreaService {
                 }
 
                 // Search for nearest stop areas with a larger initial radius
-                List<PrimPlace> nearbyPlaces = primApiClient.searchPlacesNearby(
-                        geocodedPoint.getLatitude(),
-                        geocodedPoint.getLongitude(),
-                        SECONDARY_RADIUS_METERS,
-                        cityName);
+                List<PrimPlace> nearbyPlaces = searchNearby(geocodedPoint, SECONDARY_RADIUS_METERS, cityName,
+                        deadline, trimmedQuery);
                 logPlaces("searchPlacesNearby(secondary)", trimmedQuery, nearbyPlaces);
 
                 PrimPlace nearestSecondaryPlace = nearbyPlaces.stream()
@@ -380,23 +717,20 @@ public class StopAreaServiceImpl implements StopAreaService {
                     StopArea virtualStopArea = new StopArea(virtualId, trimmedQuery, geocodedPoint);
 
                     saveStopAreaIfNotExists(nearestSecondaryPlace);
-                    for (PrimPlace place : nearbyPlaces) {
-                        if (place != nearestSecondaryPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                            saveStopAreaIfNotExists(place);
-                        }
-                    }
+                    saveOtherStops(nearbyPlaces, nearestSecondaryPlace);
                     return virtualStopArea;
                 }
+                indexed = virtualStopAreaNearIndexedStop(geocodedPoint, trimmedQuery, MAX_RADIUS_METERS);
+                if (indexed.isPresent()) {
+                    return indexed.get();
+                }
                 // If still nothing: search with increasing radius
                 LOGGER.info("Trying iterative search with increasing radius (city: '{}')...", cityName);
                 for (int radius = 2
                         * SECONDARY_RADIUS_METERS; radius <= MAX_RADIUS_METERS; radius += SECONDARY_RADIUS_METERS) {
                     LOGGER.info("Searching with radius {}m, city: '{}'", radius, cityName);
-                    List<PrimPlace> radiusPlaces = primApiClient.searchPlacesNearby(
-                            geocodedPoint.getLatitude(),
-                            geocodedPoint.getLongitude(),
-                            radius,
-                            cityName);
+                    List<PrimPlace> radiusPlaces = searchNearbyInBackground(geocodedPoint, radius, cityName,
+                            deadline, trimmedQuery);
 
                     PrimPlace nearestRadiusPlace = radiusPlaces.stream()
                             .filter(PrimPlaceUtils::hasStopAreaOrPoint)
@@ -413,11 +747,7 @@ public class StopAreaServiceImpl implements StopAreaService {
                         StopArea virtualStopArea = new StopArea(virtualId, trimmedQuery, geocodedPoint);
 
                         saveStopAreaIfNotExists(nearestRadiusPlace);
-                        for (PrimPlace place : radiusPlaces) {
-                            if (place != nearestRadiusPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                                saveStopAreaIfNotExists(place);
-                            }
-                        }
+                        saveOtherStops(radiusPlaces, nearestRadiusPlace);
                         return virtualStopArea;
                     }
                 }
@@ -436,6 +766,8 @@ public class StopAreaServiceImpl implements StopAreaService {
         }
 
         String stopAreaId = placeId(firstPlace);
+        // Remember how the user spelled it, so the next identical or close query stays local
+        learnAlias(firstPlace, trimmedQuery);
 
         // Check if the stop area already exists by id
         Optional<StopArea> existingById = stopAreaRepository.findByExternalId(stopAreaId);
@@ -446,15 +778,78 @@ public class StopAreaServiceImpl implements StopAreaService {
         // Save the first place we need and return it, then save the rest
         StopArea saved = saveStopAreaIfNotExists(firstPlace);
         // Save remaining places (skip first since it's already saved)
-        for (int i = 1; i < places.size(); i++) {
-            PrimPlace place = places.get(i);
-            if (PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                saveStopAreaIfNotExists(place);
-            }
-        }
+        saveOtherStops(places.subList(1, places.size()), null);
         return saved;
     }
 
+    /**
+     * Adds the query to the name index as an alias of the stop it resolved to, unless it is an
+     * address rather than a spelling of the stop name ({@link StopAreaNameIndex#isAliasOf}).
+     */
+    private void learnAlias(PrimPlace stop, String trimmedQuery) {
+        if (StopAreaNameIndex.isAliasOf(trimmedQuery, placeName(stop))) {
+            nameIndex.addAlias(placeId(stop), trimmedQuery);
+        }
+    }
+
+    private Optional<StopArea> findByAlias(String trimmedQuery) {
+        PendingWrites pending = pendingWrites.get();
+        // A detached resolution records the hit later, with its other writes
+        Optional<StopAreaAlias> found = pending != null
+                ? aliasStore.find(trimmedQuery)
+                : aliasStore.lookup(trimmedQuery);
+        if (pending != null) {
+            found.ifPresent(pending.aliasHits::add);
+        }
+        return found.map(alias -> {
+            LOGGER.debug("Alias resolved '{}' to {}", trimmedQuery, alias.getExternalId());
+            // Virtual stop areas of geocoded addresses are not persisted, rebuild them from the alias
+            return stopAreaRepository.findByExternalId(alias.getExternalId())
+                    .orElseGet(() -> new StopArea(alias.getExternalId(), alias.getStopAreaName(),
+                            alias.getCoordinates()));
+        });
+    }
+
+    /**
+     * Looks up a stop area known to the local indexes: persisted, or only in the GTFS gazetteer.
+     */
+    private Optional<StopArea> findKnownStopArea(String externalId) {
+        Optional<StopArea> existing = stopAreaRepository.findByExternalId(externalId);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        return gazetteer.findByExternalId(externalId).map(this::saveGazetteerEntryIfNotExists);
+    }
+
+    /**
+     * Answers the nearby-stop validation from the {@link StopAreaSpatialIndex}: when a known stop
+     * lies within {@code radiusMeters}, the address gets its virtual StopArea without any PRIM
+     * nearby search.
+     */
+    private Optional<StopArea> virtualStopAreaNearIndexedStop(GeoPoint point, String name, int radiusMeters) {
+        Optional<StopAreaSpatialIndex.Neighbour> nearest = spatialIndex.nearest(
+                point.getLatitude(), point.getLongitude(), radiusMeters);
+        if (nearest.isEmpty()) {
+            return Optional.empty();
+        }
+        StopAreaSpatialIndex.Neighbour neighbour = nearest.get();
+        LOGGER.info("Spatial index found stop area '{}' (ID: {}) {} m from '{}'",
+                neighbour.stop().name(), neighbour.stop().externalId(),
+                Math.round(neighbour.distanceMeters()), name);
+        String virtualId = String.format(Locale.ROOT, "%.6f;%.6f", point.getLongitude(), point.getLatitude());
+        return Optional.of(new StopArea(virtualId, name, point));
+    }
+
+    /**
+     * Radius-expansion probes run in the background quota lane so they cannot starve
+     * interactive PRIM lookups.
+     */
+    private List<PrimPlace> searchNearbyInBackground(GeoPoint point, int radius, String cityName, long deadline,
+            String trimmedQuery) {
+        return PrimRequestPriorityContext.callWith(PrimRequestPriority.BACKGROUND,
+                () -> searchNearby(point, radius, cityName, deadline, trimmedQuery));
+    }
+
     /**
      * Simplifies an address to improve chances of finding a result in PRIM.
      * Examples:
@@ -590,6 +985,11 @@ public class StopAreaServiceImpl implements StopAreaService {
             return existing.get();
         }
 
+        Optional<StopAreaGazetteer.Entry> local = gazetteer.findByExternalId(externalId);
+        if (local.isPresent()) {
+            return saveGazetteerEntryIfNotExists(local.get());
+        }
+
         List<PrimPlace> places = primApiClient.searchPlaces(externalId);
 
         // Find and save the matching place first, then save the rest
@@ -609,22 +1009,49 @@ public class StopAreaServiceImpl implements StopAreaService {
         StopArea saved = saveStopAreaIfNotExists(matchingPlace);
 
         // Save remaining places
-        for (PrimPlace place : places) {
-            if (place != matchingPlace && PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                saveStopAreaIfNotExists(place);
-            }
-        }
+        saveOtherStops(places, matchingPlace);
 
         return saved;
     }
 
     @Transactional
     public void saveStopAreas(List<PrimPlace> places) {
+        PendingWrites pending = pendingWrites.get();
+        if (pending != null) {
+            for (PrimPlace place : places) {
+                if (PrimPlaceUtils.hasStopAreaOrPoint(place)) {
+                    StopArea stopArea = toStopArea(place);
+                    indexStopArea(stopArea);
+                    pending.defer(stopArea);
+                }
+            }
+            return;
+        }
+        if (bulkRepository == null) {
+            for (PrimPlace place : places) {
+                if (PrimPlaceUtils.hasStopAreaOrPoint(place)) {
+                    saveStopAreaIfNotExists(place);
+                }
+            }
+            return;
+        }
+
+        // One batched insert; stops already stored are skipped by the database
+        Map<String, StopArea> stopAreas = new LinkedHashMap<>();
         for (PrimPlace place : places) {
             if (PrimPlaceUtils.hasStopAreaOrPoint(place)) {
-                saveStopAreaIfNotExists(place);
+                StopArea stopArea = toStopArea(place);
+                indexStopArea(stopArea);
+                stopAreas.putIfAbsent(stopArea.getExternalId(), stopArea);
             }
         }
+        if (stopAreas.isEmpty()) {
+            return;
+        }
+        // Stop areas saved through JPA earlier in this transaction must reach the table first,
+        // otherwise the batch would insert them again and the flush at commit would fail
+        stopAreaRepository.flush();
+        bulkRepository.insertAllIfAbsent(stopAreas.values());
     }
 
     /**
@@ -636,11 +1063,20 @@ public class StopAreaServiceImpl implements StopAreaService {
      * @return The saved or existing StopArea
      */
     private StopArea saveStopAreaIfNotExists(PrimPlace place) {
-        String placeId = placeId(place);
-        if (placeId == null) {
-            throw new IllegalArgumentException("Place must have a valid stop area or stop point ID");
-        }
-        String stopAreaId = placeId;
+        StopArea stopArea = toStopArea(place);
+        indexStopArea(stopArea);
+        return saveIfAbsent(stopArea);
+    }
+
+    private StopArea saveGazetteerEntryIfNotExists(StopAreaGazetteer.Entry entry) {
+        spatialIndex.put(entry.externalId(), entry.name(), entry.latitude(), entry.longitude());
+        nameIndex.put(entry.externalId(), entry.name());
+        return saveIfAbsent(new StopArea(entry.externalId(), entry.name(),
+                new GeoPoint(entry.latitude(), entry.longitude())));
+    }
+
+    private StopArea saveIfAbsent(StopArea stopArea) {
+        String stopAreaId = stopArea.getExternalId();
 
         // Check if it already exists
         Optional<StopArea> existing = stopAreaRepository.findByExternalId(stopAreaId);
@@ -648,9 +1084,14 @@ public class StopAreaServiceImpl implements StopAreaService {
             return existing.get();
         }
 
+        PendingWrites pending = pendingWrites.get();
+        if (pending != null) {
+            return pending.defer(stopArea);
+        }
+
         // Try to save, handling potential concurrent saves
         try {
-            return saveStopArea(place);
+            return stopAreaRepository.save(stopArea);
         } catch (DataIntegrityViolationException e) {
             // Another thread may have inserted it concurrently, fetch it
             return stopAreaRepository.findByExternalId(stopAreaId)
@@ -659,8 +1100,11 @@ public class StopAreaServiceImpl implements StopAreaService {
         }
     }
 
-    private StopArea saveStopArea(PrimPlace place) {
+    private StopArea toStopArea(PrimPlace place) {
         String stopAreaId = placeId(place);
+        if (stopAreaId == null) {
+            throw new IllegalArgumentException("Place must have a valid stop area or stop point ID");
+        }
         String name = placeName(place);
 
         PrimCoordinates coords = PrimPlaceUtils.placeCoordinates(place);
@@ -668,7 +1112,41 @@ public class StopAreaServiceImpl implements StopAreaService {
                 ? new GeoPoint(coords.latitude(), coords.longitude())
                 : null;
 
-        StopArea stopArea = new StopArea(stopAreaId, name, geoPoint);
-        return stopAreaRepository.save(stopArea);
+        return new StopArea(stopAreaId, name, geoPoint);
+    }
+
+    private void indexStopArea(StopArea stopArea) {
+        GeoPoint coordinates = stopArea.getCoordinates();
+        if (coordinates != null) {
+            spatialIndex.put(stopArea.getExternalId(), stopArea.getName(),
+                    coordinates.getLatitude(), coordinates.getLongitude());
+        }
+        nameIndex.put(stopArea.getExternalId(), stopArea.getName());
+    }
+
+    /**
+     * Remote answers obtained by the race, reused by the sequential chain that follows an empty
+     * race. Written by the strategy threads; a lookup that did not complete leaves its field unset.
+     */
+    private static final class RaceFindings {
+
+        private volatile List<PrimPlace> places;
+        private volatile List<PrimPlace> simplifiedPlaces;
+        private volatile boolean placeNearbySearched;
+        private volatile GeoPoint geocodedPoint;
+        private volatile boolean geocoded;
+        private volatile boolean geocodedNearbySearched;
+    }
+
+    private static final class PendingWrites {
+
+        private final Map<String, StopArea> stopAreas = new LinkedHashMap<>();
+        private final List<StopAreaAlias> aliasHits = new ArrayList<>();
+        private boolean remember;
+
+        private StopArea defer(StopArea stopArea) {
+            StopArea previous = stopAreas.putIfAbsent(stopArea.getExternalId(), stopArea);
+            return previous != null ? previous : stopArea;
+        }
     }
 }
@@ -0,0 +1,151 @@
+package org.marly.mavigo.service.stoparea.alias;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.marly.mavigo.repository.StopAreaAliasRepository;
+import org.marly.mavigo.service.stoparea.StopAreaNameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persistent memory of resolved stop-area queries ({@code stop_area_alias}).
+ * <p>
+ * Queries are keyed on their normalized form, so "Gare-de-Lyon" and "gare de lyon" share one
+ * row; coordinate strings ({@code "2.3522;48.8566"}) are keyed on their values rounded to five
+ * decimals instead, since normalization would drop signs and decimal points. Each lookup bumps
+ * the hit count and last-used timestamp, and once more than {@code stop-area.alias.max-entries}
+ * rows exist the least recently used ones are deleted.
+ */
+@Component
+public class StopAreaAliasStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StopAreaAliasStore.class);
+
+    private static final int MAX_KEY_LENGTH = 512;
+    private static final Pattern COORDINATES = Pattern.compile(
+            "^\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*[;,]\\s*(-?\\d{1,3}(?:\\.\\d+)?)\\s*$");
+
+    private final StopAreaAliasRepository repository;
+    private final int maxEntries;
+    private final int pruneEvery;
+    private final AtomicInteger insertsSincePrune = new AtomicInteger();
+
+    @Autowired
+    public StopAreaAliasStore(StopAreaAliasRepository repository,
+            @Value("${stop-area.alias.max-entries:50000}") int maxEntries,
+            @Value("${stop-area.alias.prune-every:500}") int pruneEvery) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+        this.pruneEvery = Math.max(1, pruneEvery);
+    }
+
+    /**
+     * A store that remembers nothing, for services built without persistence.
+     */
+    public static StopAreaAliasStore disabled() {
+        return new StopAreaAliasStore(null, 0, 1);
+    }
+
+    /**
+     * @return the alias stored for {@code query}, after recording the hit
+     */
+    public Optional<StopAreaAlias> lookup(String query) {
+        Optional<StopAreaAlias> alias = find(query);
+        alias.ifPresent(this::recordHit);
+        return alias;
+    }
+
+    /**
+     * @return the alias stored for {@code query}, without recording the hit
+     */
+    public Optional<StopAreaAlias> find(String query) {
+        String key = aliasKey(query);
+        if (repository == null || key == null) {
+            return Optional.empty();
+        }
+        return repository.findByNormalizedQuery(key);
+    }
+
+    /**
+     * Bumps the hit count and last-used timestamp of {@code alias}.
+     */
+    public void recordHit(StopAreaAlias alias) {
+        if (repository != null) {
+            repository.recordHit(alias.getId(), OffsetDateTime.now());
+        }
+    }
+
+    /**
+     * Stores or re-targets the alias of {@code query} to {@code resolved}.
+     */
+    public void remember(String query, StopArea resolved) {
+        String key = aliasKey(query);
+        if (repository == null || key == null || resolved == null || resolved.getExternalId() == null) {
+            return;
+        }
+        String name = resolved.getName() != null ? resolved.getName() : query.trim();
+        GeoPoint coordinates = resolved.getCoordinates();
+        Double latitude = coordinates != null ? coordinates.getLatitude() : null;
+        Double longitude = coordinates != null ? coordinates.getLongitude() : null;
+        OffsetDateTime now = OffsetDateTime.now();
+
+        if (repository.updateTarget(key, resolved.getExternalId(), name, latitude, longitude, now) > 0) {
+            return;
+        }
+        int inserted = repository.insertIfAbsent(UUID.randomUUID(), key, resolved.getExternalId(), name,
+                latitude, longitude, now);
+        if (inserted > 0 && insertsSincePrune.incrementAndGet() >= pruneEvery) {
+            insertsSincePrune.set(0);
+            prune();
+        }
+    }
+
+    /**
+     * Deletes the least recently used aliases beyond {@code stop-area.alias.max-entries}.
+     *
+     * @return the number of aliases deleted
+     */
+    public int prune() {
+        if (repository == null) {
+            return 0;
+        }
+        long excess = repository.count() - maxEntries;
+        if (excess <= 0) {
+            return 0;
+        }
+        List<UUID> ids = repository.findLeastRecentlyUsedIds(PageRequest.of(0, (int) Math.min(excess, 10_000)));
+        repository.deleteAllByIdInBatch(ids);
+        LOGGER.info("Pruned {} least recently used stop-area aliases", ids.size());
+        return ids.size();
+    }
+
+    /**
+     * @return the lookup key of {@code query}, or {@code null} if it cannot be stored
+     */
+    static String aliasKey(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        Matcher coordinates = COORDINATES.matcher(query);
+        if (coordinates.matches()) {
+            return String.format(Locale.ROOT, "coord:%.5f;%.5f",
+                    Double.parseDouble(coordinates.group(1)), Double.parseDouble(coordinates.group(2)));
+        }
+        String normalized = StopAreaNameNormalizer.normalize(query);
+        return normalized.isEmpty() || normalized.length() > MAX_KEY_LENGTH ? null : normalized;
+    }
+}
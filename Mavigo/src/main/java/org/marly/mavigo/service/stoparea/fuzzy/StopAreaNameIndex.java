@@ -0,0 +1,285 @@
+package org.marly.mavigo.service.stoparea.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.marly.mavigo.service.stoparea.StopAreaNameNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accent-folded trigram index over stop-area names and learned aliases.
+ * <p>
+ * Names go through {@link StopAreaNameNormalizer} and are split into word trigrams padded like
+ * PostgreSQL {@code pg_trgm} ({@code "  g", " ga", "gar", "are", "re "}). Candidates are ranked
+ * by the Dice coefficient of their trigram sets, so "Gare-de-Lyon" scores 1.0 against
+ * "Gare de Lyon" and "Paris Gare de Lyon" about 0.8. {@link #bestMatch(String)} only answers
+ * when the best stop area clears the auto-accept score and beats the next distinct stop area by
+ * the configured margin, so a bare "Mairie" stays unresolved.
+ */
+@Component
+public class StopAreaNameIndex {
+
+    /** A query is an alias only when it is a spelling of the stop name it resolved to. */
+    private static final double ALIAS_MIN_SIMILARITY = 0.5;
+
+    private final double minScore;
+    private final double autoAcceptScore;
+    private final double autoAcceptMargin;
+
+    private final Map<String, Set<NameEntry>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, NameEntry>> namesById = new ConcurrentHashMap<>();
+    private final Map<String, String> canonicalById = new ConcurrentHashMap<>();
+
+    public StopAreaNameIndex() {
+        this(0.3, 0.8, 0.1);
+    }
+
+    @Autowired
+    public StopAreaNameIndex(
+            @Value("${stop-area.fuzzy.min-score:0.3}") double minScore,
+            @Value("${stop-area.fuzzy.auto-accept-score:0.8}") double autoAcceptScore,
+            @Value("${stop-area.fuzzy.auto-accept-margin:0.1}") double autoAcceptMargin) {
+        this.minScore = minScore;
+        this.autoAcceptScore = autoAcceptScore;
+        this.autoAcceptMargin = autoAcceptMargin;
+    }
+
+    /**
+     * Indexes the official name of a stop area, replacing the previous one if it changed.
+     */
+    public synchronized void put(String externalId, String name) {
+        String normalized = StopAreaNameNormalizer.normalize(name);
+        if (externalId == null || normalized.isEmpty()) {
+            return;
+        }
+        String previous = canonicalById.put(externalId, name);
+        if (previous != null && !StopAreaNameNormalizer.normalize(previous).equals(normalized)) {
+            Map<String, NameEntry> names = namesById.get(externalId);
+            NameEntry stale = names != null ? names.get(StopAreaNameNormalizer.normalize(previous)) : null;
+            if (stale != null && !stale.alias()) {
+                unindex(stale);
+            }
+        }
+        index(new NameEntry(externalId, name, normalized, trigrams(normalized), false));
+    }
+
+    /**
+     * Indexes an alternative spelling that resolved to {@code externalId}, e.g. a user query.
+     * Callers learning from queries check {@link #isAliasOf} first.
+     */
+    public synchronized void addAlias(String externalId, String alias) {
+        String normalized = StopAreaNameNormalizer.normalize(alias);
+        if (externalId == null || normalized.isEmpty()) {
+            return;
+        }
+        Map<String, NameEntry> names = namesById.get(externalId);
+        if (names != null && names.containsKey(normalized)) {
+            return;
+        }
+        index(new NameEntry(externalId, alias, normalized, trigrams(normalized), true));
+    }
+
+    /**
+     * Tells whether a query that resolved to the stop {@code stopName} may be learned as its alias:
+     * a spelling of the name rather than an address. "12 rue de Lyon" resolved to a nearby stop
+     * would otherwise let "12 rue de Lion" auto-accept that stop from the index.
+     */
+    public static boolean isAliasOf(String query, String stopName) {
+        String normalizedQuery = StopAreaNameNormalizer.normalize(query);
+        String normalizedName = StopAreaNameNormalizer.normalize(stopName);
+        List<String> nameWords = List.of(normalizedName.split(" "));
+        for (String word : normalizedQuery.split(" ")) {
+            // House numbers and postcodes that are not part of the stop name
+            if (word.chars().anyMatch(Character::isDigit) && !nameWords.contains(word)) {
+                return false;
+            }
+        }
+        return similarity(normalizedQuery, normalizedName) >= ALIAS_MIN_SIMILARITY;
+    }
+
+    public synchronized void remove(String externalId) {
+        Map<String, NameEntry> names = namesById.get(externalId);
+        if (names != null) {
+            for (NameEntry entry : List.copyOf(names.values())) {
+                unindex(entry);
+            }
+        }
+        canonicalById.remove(externalId);
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    /**
+     * @return up to {@code limit} stop areas scoring at least {@code stop-area.fuzzy.min-score},
+     *         best first, one candidate per stop area
+     */
+    public List<Candidate> search(String query, int limit) {
+        String normalized = StopAreaNameNormalizer.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryTrigrams = trigrams(normalized);
+        Map<NameEntry, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<NameEntry> posting = postings.get(trigram);
+            if (posting != null) {
+                for (NameEntry entry : posting) {
+                    shared.merge(entry, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<String, Candidate> bestById = new HashMap<>();
+        for (Map.Entry<NameEntry, Integer> hit : shared.entrySet()) {
+            NameEntry entry = hit.getKey();
+            double score = 2.0 * hit.getValue() / (queryTrigrams.size() + entry.trigrams().size());
+            if (score < minScore) {
+                continue;
+            }
+            Candidate current = bestById.get(entry.externalId());
+            if (current == null || score > current.score()) {
+                String name = canonicalById.getOrDefault(entry.externalId(), entry.name());
+                bestById.put(entry.externalId(), new Candidate(entry.externalId(), name, entry.name(), score));
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(bestById.values());
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed()
+                .thenComparing(Candidate::externalId));
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    /**
+     * @return the top candidate when it is confident enough to be used without asking PRIM
+     */
+    public Optional<Candidate> bestMatch(String query) {
+        List<Candidate> candidates = search(query, 2);
+        if (candidates.isEmpty() || candidates.get(0).score() < autoAcceptScore) {
+            return Optional.empty();
+        }
+        if (candidates.size() > 1 && candidates.get(0).score() - candidates.get(1).score() < autoAcceptMargin) {
+            return Optional.empty();
+        }
+        return Optional.of(candidates.get(0));
+    }
+
+    /**
+     * @return the Dice similarity of the trigrams of two names, as {@link #search} scores them
+     */
+    public static double similarity(String first, String second) {
+        Set<String> firstTrigrams = trigrams(StopAreaNameNormalizer.normalize(first));
+        Set<String> secondTrigrams = trigrams(StopAreaNameNormalizer.normalize(second));
+        if (firstTrigrams.isEmpty() || secondTrigrams.isEmpty()) {
+            return 0.0;
+        }
+        int shared = 0;
+        for (String trigram : firstTrigrams) {
+            if (secondTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (firstTrigrams.size() + secondTrigrams.size());
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private void index(NameEntry entry) {
+        NameEntry replaced = namesById.computeIfAbsent(entry.externalId(), key -> new ConcurrentHashMap<>())
+                .put(entry.normalized(), entry);
+        if (replaced != null) {
+            unindex(replaced);
+        }
+        for (String trigram : entry.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    private void unindex(NameEntry entry) {
+        for (String trigram : entry.trigrams()) {
+            Set<NameEntry> posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(entry);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        Map<String, NameEntry> names = namesById.get(entry.externalId());
+        if (names != null) {
+            names.remove(entry.normalized(), entry);
+            if (names.isEmpty()) {
+                namesById.remove(entry.externalId());
+            }
+        }
+    }
+
+    /**
+     * @param name        official stop-area name
+     * @param matchedName name or alias whose trigrams matched the query
+     * @param score       Dice similarity between 0 and 1
+     */
+    public record Candidate(String externalId, String name, String matchedName, double score) {
+    }
+
+    /**
+     * Compared by identity: entries are hashed on every query, their trigram sets must not be.
+     */
+    private static final class NameEntry {
+
+        private final String externalId;
+        private final String name;
+        private final String normalized;
+        private final Set<String> trigrams;
+        private final boolean alias;
+
+        NameEntry(String externalId, String name, String normalized, Set<String> trigrams, boolean alias) {
+            this.externalId = externalId;
+            this.name = name;
+            this.normalized = normalized;
+            this.trigrams = trigrams;
+            this.alias = alias;
+        }
+
+        String externalId() {
+            return externalId;
+        }
+
+        String name() {
+            return name;
+        }
+
+        String normalized() {
+            return normalized;
+        }
+
+        Set<String> trigrams() {
+            return trigrams;
+        }
+
+        boolean alias() {
+            return alias;
+        }
+    }
+}
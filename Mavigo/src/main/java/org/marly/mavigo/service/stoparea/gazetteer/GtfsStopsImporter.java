@@ -0,0 +1,261 @@
+package org.marly.mavigo.service.stoparea.gazetteer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.marly.mavigo.repository.StopAreaRepository;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Loads the stations ({@code location_type=1}) of a local GTFS {@code stops.txt} into the
+ * {@link StopAreaGazetteer}.
+ * <p>
+ * The import runs once the application is ready, then on demand through {@link #reload(boolean)}
+ * and, when {@code gtfs.stops.poll-interval} is positive, periodically. A reload is skipped when
+ * the file size and modification time are unchanged, and only the stop areas that actually
+ * changed are replaced in the gazetteer. Imported stations are also added to the
+ * {@link StopAreaSpatialIndex} and the {@link StopAreaNameIndex} so nearby-stop and fuzzy name
+ * lookups can answer without PRIM; stations dropped from the feed leave both indexes unless they
+ * are persisted in {@code stop_area}, which the indexes are also seeded from.
+ */
+@Component
+public class GtfsStopsImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GtfsStopsImporter.class);
+
+    private static final String STATION_LOCATION_TYPE = "1";
+
+    private final StopAreaGazetteer gazetteer;
+    private final StopAreaRepository stopAreaRepository;
+    private final StopAreaSpatialIndex spatialIndex;
+    private final StopAreaNameIndex nameIndex;
+    private final Path stopsFile;
+    private final String idPrefix;
+    private final Duration pollInterval;
+    private ScheduledExecutorService poller;
+
+    private String fingerprint;
+    private ImportResult lastResult = ImportResult.disabled();
+
+    public GtfsStopsImporter(
+            StopAreaGazetteer gazetteer,
+            StopAreaRepository stopAreaRepository,
+            StopAreaSpatialIndex spatialIndex,
+            StopAreaNameIndex nameIndex,
+            @Value("${gtfs.stops.path:}") String stopsFile,
+            @Value("${gtfs.stops.id-prefix:stop_area:}") String idPrefix,
+            @Value("${gtfs.stops.poll-interval:0s}") Duration pollInterval) {
+        this.gazetteer = gazetteer;
+        this.stopAreaRepository = stopAreaRepository;
+        this.spatialIndex = spatialIndex;
+        this.nameIndex = nameIndex;
+        this.stopsFile = stopsFile == null || stopsFile.isBlank() ? null : Path.of(stopsFile.trim());
+        this.idPrefix = idPrefix != null ? idPrefix : "";
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (stopsFile == null) {
+            LOGGER.info("GTFS stops import disabled (gtfs.stops.path is empty)");
+            return;
+        }
+        Thread.ofVirtual().name("gtfs-stops-import").start(() -> reload(false));
+        if (pollInterval != null && pollInterval.isPositive()) {
+            poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon()
+                    .name("gtfs-stops-poller").factory());
+            poller.scheduleWithFixedDelay(() -> reload(false), pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * @param force re-read the file even if its size and modification time are unchanged
+     */
+    public synchronized ImportResult reload(boolean force) {
+        if (stopsFile == null) {
+            return lastResult;
+        }
+        long start = System.nanoTime();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(stopsFile, BasicFileAttributes.class);
+            String current = attributes.size() + "@" + attributes.lastModifiedTime().toMillis();
+            if (!force && current.equals(fingerprint)) {
+                return lastResult = ImportResult.unchanged(gazetteer.size(), lastResult.importedAt());
+            }
+
+            List<StopAreaGazetteer.Entry> entries;
+            try (BufferedReader reader = Files.newBufferedReader(stopsFile, StandardCharsets.UTF_8)) {
+                entries = parse(reader, idPrefix);
+            }
+            StopAreaGazetteer.Diff diff = gazetteer.replace(entries);
+            for (StopAreaGazetteer.Entry entry : entries) {
+                spatialIndex.put(entry.externalId(), entry.name(), entry.latitude(), entry.longitude());
+                nameIndex.put(entry.externalId(), entry.name());
+            }
+            for (String removedId : diff.removedIds()) {
+                if (stopAreaRepository.findByExternalId(removedId).isEmpty()) {
+                    spatialIndex.remove(removedId);
+                    nameIndex.remove(removedId);
+                }
+            }
+            fingerprint = current;
+            Duration took = Duration.ofNanos(System.nanoTime() - start);
+            LOGGER.info("GTFS stops imported from {}: {} stop areas (+{} ~{} -{}) in {} ms",
+                    stopsFile, diff.total(), diff.added(), diff.updated(), diff.removed(), took.toMillis());
+            return lastResult = new ImportResult(ImportResult.Status.LOADED, diff.added(), diff.updated(),
+                    diff.removed(), diff.total(), Instant.now(), null);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("GTFS stops import from {} failed: {}", stopsFile, e.getMessage());
+            return lastResult = new ImportResult(ImportResult.Status.FAILED, 0, 0, 0, gazetteer.size(),
+                    lastResult.importedAt(), e.getMessage());
+        }
+    }
+
+    public synchronized ImportResult lastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Parses a GTFS {@code stops.txt}, keeping stations with a name and valid coordinates.
+     * Columns are located by header name; quoted fields may contain commas and doubled quotes.
+     */
+    static List<StopAreaGazetteer.Entry> parse(Reader source, String idPrefix) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int idColumn = required(columns, "stop_id");
+        int nameColumn = required(columns, "stop_name");
+        int latColumn = required(columns, "stop_lat");
+        int lonColumn = required(columns, "stop_lon");
+        Integer typeColumn = columns.get("location_type");
+
+        List<StopAreaGazetteer.Entry> entries = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(line);
+            if (typeColumn != null && !STATION_LOCATION_TYPE.equals(field(fields, typeColumn))) {
+                continue;
+            }
+            String id = field(fields, idColumn);
+            String name = field(fields, nameColumn);
+            if (id.isEmpty() || name.isEmpty()) {
+                continue;
+            }
+            try {
+                double latitude = Double.parseDouble(field(fields, latColumn));
+                double longitude = Double.parseDouble(field(fields, lonColumn));
+                entries.add(new StopAreaGazetteer.Entry(idPrefix + id, name, latitude, longitude));
+            } catch (NumberFormatException e) {
+                LOGGER.debug("Skipping GTFS stop {} with invalid coordinates", id);
+            }
+        }
+        return entries;
+    }
+
+    private static int required(Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("GTFS stops.txt has no '" + name + "' column");
+        }
+        return index;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    public record ImportResult(
+            Status status,
+            int added,
+            int updated,
+            int removed,
+            int total,
+            Instant importedAt,
+            String error) {
+
+        public enum Status {
+            DISABLED, LOADED, UNCHANGED, FAILED
+        }
+
+        static ImportResult disabled() {
+            return new ImportResult(Status.DISABLED, 0, 0, 0, 0, null, null);
+        }
+
+        static ImportResult unchanged(int total, Instant importedAt) {
+            return new ImportResult(Status.UNCHANGED, 0, 0, 0, total, importedAt, null);
+        }
+    }
+}
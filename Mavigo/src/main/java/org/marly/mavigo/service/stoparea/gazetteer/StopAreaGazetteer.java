@@ -0,0 +1,116 @@
+package org.marly.mavigo.service.stoparea.gazetteer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.marly.mavigo.service.stoparea.StopAreaNameNormalizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory gazetteer of Île-de-France stop areas (Navitia id, name, coordinates), filled from
+ * the GTFS {@code stops.txt} by {@link GtfsStopsImporter}.
+ * <p>
+ * Readers work on an immutable snapshot that is swapped atomically on reload, so lookups never
+ * block and never see a half-imported file. Name lookups are exact on the normalized name and
+ * only answer when it is unambiguous: "Mairie" exists in dozens of towns and must still go
+ * through PRIM.
+ */
+@Component
+public class StopAreaGazetteer {
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public Optional<Entry> findByName(String name) {
+        List<Entry> matches = snapshot.byName.get(StopAreaNameNormalizer.normalize(name));
+        return matches != null && matches.size() == 1 ? Optional.of(matches.get(0)) : Optional.empty();
+    }
+
+    public Optional<Entry> findByExternalId(String externalId) {
+        return Optional.ofNullable(snapshot.byId.get(externalId));
+    }
+
+    public Collection<Entry> entries() {
+        return snapshot.entries;
+    }
+
+    public int size() {
+        return snapshot.entries.size();
+    }
+
+    /**
+     * Replaces the content with {@code entries}. Entries identical to the current ones are kept
+     * as-is, so a reload of an unchanged feed allocates no new entries.
+     */
+    public synchronized Diff replace(Collection<Entry> entries) {
+        Snapshot previous = snapshot;
+        List<Entry> merged = new ArrayList<>(entries.size());
+        Map<String, Boolean> seen = new HashMap<>(entries.size() * 2);
+        int added = 0;
+        int updated = 0;
+        for (Entry entry : entries) {
+            if (seen.put(entry.externalId(), Boolean.TRUE) != null) {
+                continue;
+            }
+            Entry current = previous.byId.get(entry.externalId());
+            if (current == null) {
+                added++;
+                merged.add(entry);
+            } else if (current.equals(entry)) {
+                merged.add(current);
+            } else {
+                updated++;
+                merged.add(entry);
+            }
+        }
+        List<String> removedIds = previous.entries.stream()
+                .map(Entry::externalId)
+                .filter(externalId -> !seen.containsKey(externalId))
+                .toList();
+        snapshot = new Snapshot(merged);
+        return new Diff(added, updated, removedIds, merged.size());
+    }
+
+    /**
+     * @param externalId Navitia stop area id, e.g. {@code stop_area:IDFM:71517}
+     */
+    public record Entry(String externalId, String name, double latitude, double longitude) {
+
+        public Entry {
+            Objects.requireNonNull(externalId, "externalId");
+            Objects.requireNonNull(name, "name");
+        }
+    }
+
+    /**
+     * @param removedIds ids of the stop areas that were in the gazetteer and are no longer
+     */
+    public record Diff(int added, int updated, List<String> removedIds, int total) {
+
+        public int removed() {
+            return removedIds.size();
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final List<Entry> entries;
+        private final Map<String, Entry> byId;
+        private final Map<String, List<Entry>> byName;
+
+        Snapshot(List<Entry> entries) {
+            this.entries = List.copyOf(entries);
+            this.byId = new HashMap<>(entries.size() * 2);
+            this.byName = new HashMap<>(entries.size() * 2);
+            for (Entry entry : this.entries) {
+                byId.put(entry.externalId(), entry);
+                byName.computeIfAbsent(StopAreaNameNormalizer.normalize(entry.name()), key -> new ArrayList<>(1))
+                        .add(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.marly.mavigo.service.stoparea.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.marly.mavigo.client.prim.PrimPlaceUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory grid index of known stop-area coordinates, answering k-nearest and within-radius
+ * queries without calling PRIM.
+ * <p>
+ * Stops are bucketed in cells of 0.01 degree of latitude by 0.015 degree of longitude
+ * (roughly 1.1 km square around Paris). A nearest query scans rings of cells outwards and stops
+ * as soon as no unscanned cell can hold a closer stop, so a lookup touches a handful of buckets
+ * instead of the whole set. Reads are lock-free; writes are serialized so that moving a stop
+ * between cells is atomic.
+ */
+@Component
+public class StopAreaSpatialIndex {
+
+    private static final double CELL_DEGREES_LAT = 0.01;
+    private static final double CELL_DEGREES_LON = 0.015;
+
+    private static final double METERS_PER_DEGREE_LAT = 111_195.0;
+
+    private final Map<String, IndexedStop> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, IndexedStop>> cells = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or moves a stop. Stops without usable coordinates are ignored.
+     */
+    public synchronized void put(String externalId, String name, Double latitude, Double longitude) {
+        if (externalId == null || latitude == null || longitude == null
+                || !Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return;
+        }
+        IndexedStop stop = new IndexedStop(externalId, name, latitude, longitude);
+        IndexedStop previous = byId.put(externalId, stop);
+        if (previous != null) {
+            Map<String, IndexedStop> previousCell = cells.get(cellKey(previous.latitude(), previous.longitude()));
+            if (previousCell != null) {
+                previousCell.remove(externalId);
+            }
+        }
+        cells.computeIfAbsent(cellKey(latitude, longitude), key -> new ConcurrentHashMap<>()).put(externalId, stop);
+    }
+
+    public synchronized void remove(String externalId) {
+        IndexedStop previous = byId.remove(externalId);
+        if (previous != null) {
+            Map<String, IndexedStop> cell = cells.get(cellKey(previous.latitude(), previous.longitude()));
+            if (cell != null) {
+                cell.remove(externalId);
+            }
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return the closest stop within {@code maxRadiusMeters}, if any
+     */
+    public Optional<Neighbour> nearest(double latitude, double longitude, double maxRadiusMeters) {
+        List<Neighbour> found = nearest(latitude, longitude, 1, maxRadiusMeters);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /**
+     * @return up to {@code k} stops within {@code maxRadiusMeters}, closest first
+     */
+    public List<Neighbour> nearest(double latitude, double longitude, int k, double maxRadiusMeters) {
+        if (k <= 0 || byId.isEmpty()) {
+            return List.of();
+        }
+        int originLat = latCell(latitude);
+        int originLon = lonCell(longitude);
+        double cellMeters = minCellSpanMeters(latitude, maxRadiusMeters);
+        int maxRing = (int) Math.ceil(maxRadiusMeters / cellMeters) + 1;
+
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Neighbour::distanceMeters).reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Any stop in this ring or beyond is at least (ring - 1) full cells away.
+            double ringLowerBound = Math.max(0, ring - 1) * cellMeters;
+            if (ringLowerBound > maxRadiusMeters
+                    || (best.size() == k && best.peek().distanceMeters() <= ringLowerBound)) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                boolean edgeRow = Math.abs(dLat) == ring;
+                for (int dLon = -ring; dLon <= ring; dLon += edgeRow ? 1 : 2 * ring) {
+                    Map<String, IndexedStop> cell = cells.get(cellKey(originLat + dLat, originLon + dLon));
+                    if (cell != null) {
+                        offer(best, k, cell, latitude, longitude, maxRadiusMeters);
+                    }
+                    if (ring == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        List<Neighbour> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Neighbour::distanceMeters));
+        return result;
+    }
+
+    /**
+     * @return every stop within {@code radiusMeters}, closest first
+     */
+    public List<Neighbour> withinRadius(double latitude, double longitude, double radiusMeters) {
+        if (byId.isEmpty()) {
+            return List.of();
+        }
+        int latCells = (int) Math.ceil(radiusMeters / (CELL_DEGREES_LAT * METERS_PER_DEGREE_LAT));
+        int lonCells = (int) Math.ceil(radiusMeters / (CELL_DEGREES_LON * METERS_PER_DEGREE_LAT
+                * Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + radiusMeters / METERS_PER_DEGREE_LAT)))));
+        int originLat = latCell(latitude);
+        int originLon = lonCell(longitude);
+
+        List<Neighbour> result = new ArrayList<>();
+        for (int dLat = -latCells; dLat <= latCells; dLat++) {
+            for (int dLon = -lonCells; dLon <= lonCells; dLon++) {
+                Map<String, IndexedStop> cell = cells.get(cellKey(originLat + dLat, originLon + dLon));
+                if (cell == null) {
+                    continue;
+                }
+                for (IndexedStop stop : cell.values()) {
+                    double distance = PrimPlaceUtils.calculateDistance(latitude, longitude,
+                            stop.latitude(), stop.longitude());
+                    if (distance <= radiusMeters) {
+                        result.add(new Neighbour(stop, distance));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(Neighbour::distanceMeters));
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Neighbour> best, int k, Map<String, IndexedStop> cell,
+            double latitude, double longitude, double maxRadiusMeters) {
+        for (IndexedStop stop : cell.values()) {
+            double distance = PrimPlaceUtils.calculateDistance(latitude, longitude, stop.latitude(), stop.longitude());
+            if (distance > maxRadiusMeters) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Neighbour(stop, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new Neighbour(stop, distance));
+            }
+        }
+    }
+
+    /**
+     * Smallest side of a cell, in meters, over the latitudes a search of {@code radiusMeters}
+     * can reach: longitude cells shrink towards the poles.
+     */
+    private static double minCellSpanMeters(double latitude, double radiusMeters) {
+        double reach = Math.min(89.0, Math.abs(latitude) + radiusMeters / METERS_PER_DEGREE_LAT);
+        double lonSpan = CELL_DEGREES_LON * METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(reach));
+        return Math.min(CELL_DEGREES_LAT * METERS_PER_DEGREE_LAT, lonSpan);
+    }
+
+    private static int latCell(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES_LAT);
+    }
+
+    private static int lonCell(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES_LON);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(latCell(latitude), lonCell(longitude));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+
+    public record IndexedStop(String externalId, String name, double latitude, double longitude) {
+
+        public IndexedStop {
+            Objects.requireNonNull(externalId, "externalId");
+        }
+    }
+
+    public record Neighbour(IndexedStop stop, double distanceMeters) {
+    }
+}
@@ -0,0 +1,13 @@
+-- Query strings already resolved to a stop area, pruned least-recently-used first
+CREATE TABLE IF NOT EXISTS stop_area_alias (
+    id UUID PRIMARY KEY,
+    normalized_query VARCHAR(512) NOT NULL UNIQUE,
+    external_id VARCHAR(255) NOT NULL,
+    stop_area_name VARCHAR(255) NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    hit_count BIGINT NOT NULL DEFAULT 0,
+    last_used_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_stop_area_alias_last_used_at ON stop_area_alias (last_used_at);
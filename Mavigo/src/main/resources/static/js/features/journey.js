@@ -69,12 +69,13 @@ export function setupJourneyActions() {
     const btn = e.target.closest(".start-journey-btn");
     if (!btn) return;
     const journeyId = btn.getAttribute("data-journey-id");
-    if (!journeyId) return;
-    startJourney(journeyId, btn);
+    const candidateId = btn.getAttribute("data-candidate-id");
+    if (!journeyId && !candidateId) return;
+    startJourney(journeyId, btn, candidateId);
   });
 }
 
-async function startJourney(journeyId, btnElement) {
+async function startJourney(journeyId, btnElement, candidateId) {
   if (!state.currentUser) return;
 
   const allButtons = document.querySelectorAll(".start-journey-btn");
@@ -89,10 +90,22 @@ async function startJourney(journeyId, btnElement) {
   });
 
   try {
-    const journey = await api.post(`/api/journeys/${journeyId}/start`);
-    const prev = (state.lastDisplayedJourneys || []).find(
-      (j) => String(j?.journeyId) === String(journeyId)
+    // Planned options are only kept server-side until one is selected, which persists it
+    const prev = (state.lastDisplayedJourneys || []).find((j) =>
+      candidateId
+        ? String(j?.candidateId) === String(candidateId)
+        : String(j?.journeyId) === String(journeyId)
     );
+    if (!journeyId) {
+      const selected = await api.post(
+        `/api/journeys/candidates/${candidateId}/select`
+      );
+      journeyId = selected.journeyId;
+      // Selecting consumes the candidate: a retry after a failed start must reuse this journey
+      btnElement?.setAttribute("data-journey-id", journeyId);
+      if (prev) prev.journeyId = journeyId;
+    }
+    const journey = await api.post(`/api/journeys/${journeyId}/start`);
     const withTasks =
       prev &&
         Array.isArray(prev.includedTasks) &&
@@ -705,10 +718,13 @@ function displayJourneyCard(journey, index, total) {
     journey?.originLabel || "—"
   )} → ${escapeHtml(journey?.destinationLabel || "—")}</h3>
       <p class="journey-meta">Départ: ${departure} • Arrivée: ${arrival}${totalDurationHtml}</p>
+      ${journey.stale
+      ? '<p class="journey-meta journey-stale">Horaires issus du cache : PRIM est momentanément indisponible, ils peuvent être dépassés.</p>'
+      : ""}
       ${ecoHtml}
       <button class="btn btn-primary btn-sm start-journey-btn" data-journey-id="${escapeHtml(
-    journey.journeyId
-  )}">Start Journey</button>
+    journey.journeyId || ""
+  )}" data-candidate-id="${escapeHtml(journey.candidateId || "")}">Start Journey</button>
       <h4>Itinerary Steps:</h4>
       <ul class="journey-legs">
         ${legsHtml}
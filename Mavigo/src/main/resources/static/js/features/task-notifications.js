@@ -7,7 +7,7 @@ export function notifyTasksOnRouteIfAny(journey) {
     journey && Array.isArray(journey.tasksOnRoute) ? journey.tasksOnRoute : [];
   if (!tasks.length) return;
 
-  const journeyId = journey?.id || journey?.journeyId || null;
+  const journeyId = journey?.id || journey?.journeyId || journey?.candidateId || null;
 
   if (journeyId && state.lastNotifiedJourneyId === journeyId) return;
 
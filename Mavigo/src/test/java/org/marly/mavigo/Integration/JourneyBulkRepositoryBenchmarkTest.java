@@ -0,0 +1,103 @@
+package org.marly.mavigo.Integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.marly.mavigo.models.journey.Journey;
+import org.marly.mavigo.models.user.User;
+import org.marly.mavigo.repository.JourneyBulkRepository;
+import org.marly.mavigo.repository.JourneyRepository;
+import org.marly.mavigo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Compares writing a plan of three long RER journeys through the {@code journeyRepository.save}
+ * cascade, flushed, with {@link JourneyBulkRepository#insertAll}. The in-memory H2 of the test
+ * profile has no network round trip, so the gap is smaller than against a remote database. Timings
+ * are logged, not asserted; the test only checks that both paths wrote every journey. Run with
+ * {@code RUN_BENCHMARKS=true ./gradlew test --tests '*Benchmark*'}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JourneyBulkRepository.class)
+@DisplayName("Benchmark - JourneyBulkRepository")
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class JourneyBulkRepositoryBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JourneyBulkRepositoryBenchmarkTest.class);
+
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+    private static final int JOURNEYS_PER_PLAN = 3;
+    private static final int SEGMENTS = 4;
+    private static final int POINTS_PER_SEGMENT = 15;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JourneyRepository journeyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JourneyBulkRepository bulkRepository;
+
+    private double nanosPerPlan(User user, Consumer<List<Journey>> write) {
+        for (int i = 0; i < WARMUP; i++) {
+            write.accept(plan(user));
+            entityManager.clear();
+        }
+        long elapsed = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<Journey> journeys = plan(user);
+            long start = System.nanoTime();
+            write.accept(journeys);
+            elapsed += System.nanoTime() - start;
+            entityManager.clear();
+        }
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private static List<Journey> plan(User user) {
+        List<Journey> journeys = new ArrayList<>(JOURNEYS_PER_PLAN);
+        for (int i = 0; i < JOURNEYS_PER_PLAN; i++) {
+            journeys.add(JourneyBulkRepositoryTest.journeyGraph(user, SEGMENTS, POINTS_PER_SEGMENT));
+        }
+        return journeys;
+    }
+
+    @Test
+    @DisplayName("Mesure l'insertion groupée face à la cascade JPA")
+    void insertAll_comparedWithSaveCascade() {
+        User user = userRepository.save(new User("ext-bench", "bench@example.com", "Bench User"));
+        entityManager.flush();
+
+        double cascade = nanosPerPlan(user, journeys -> {
+            journeys.forEach(journeyRepository::save);
+            entityManager.flush();
+        });
+        double bulk = nanosPerPlan(user, bulkRepository::insertAll);
+
+        long written = (long) (WARMUP + ITERATIONS) * 2 * JOURNEYS_PER_PLAN;
+        assertEquals(written, journeyRepository.count());
+        LOGGER.info("Journey plan write ({} journeys, {} segments, {} points): save cascade {} µs, bulk {} µs",
+                JOURNEYS_PER_PLAN, JOURNEYS_PER_PLAN * SEGMENTS, JOURNEYS_PER_PLAN * SEGMENTS * POINTS_PER_SEGMENT,
+                String.format("%.1f", cascade / 1_000), String.format("%.1f", bulk / 1_000));
+    }
+}
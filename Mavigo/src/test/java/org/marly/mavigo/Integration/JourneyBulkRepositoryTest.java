@@ -0,0 +1,125 @@
+package org.marly.mavigo.Integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.journey.Journey;
+import org.marly.mavigo.models.journey.JourneyPoint;
+import org.marly.mavigo.models.journey.JourneyPointType;
+import org.marly.mavigo.models.journey.JourneySegment;
+import org.marly.mavigo.models.journey.SegmentType;
+import org.marly.mavigo.models.journey.TransitMode;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.user.User;
+import org.marly.mavigo.repository.JourneyBulkRepository;
+import org.marly.mavigo.repository.JourneyRepository;
+import org.marly.mavigo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Small statements so that both the batched and the remainder statements are exercised
+@TestPropertySource(properties = "journey.bulk.rows-per-statement=4")
+@Import(JourneyBulkRepository.class)
+@DisplayName("Tests d'intégration - JourneyBulkRepository")
+class JourneyBulkRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JourneyRepository journeyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JourneyBulkRepository bulkRepository;
+
+    @Test
+    @DisplayName("L'insertion groupée écrit les trajets avec leurs segments et leurs points")
+    void testInsertAll_WritesWholeJourneyGraph() {
+        // Given
+        User user = userRepository.save(new User("ext-bulk", "bulk@example.com", "Bulk User"));
+        entityManager.flush();
+        Journey first = journeyGraph(user, 3, 5);
+        Journey second = journeyGraph(user, 1, 2);
+
+        // When
+        int inserted = bulkRepository.insertAll(List.of(first, second));
+        entityManager.clear();
+
+        // Then
+        // 2 journeys, 4 segments, 3 x 5 + 2 points
+        assertEquals(23, inserted);
+        assertNotNull(first.getId());
+        Journey found = journeyRepository.findWithSegmentsById(first.getId()).orElseThrow();
+        assertEquals(user.getId(), found.getUser().getId());
+        assertEquals("Gare de Lyon", found.getOriginLabel());
+        assertEquals(48.8443, found.getOriginCoordinate().getLatitude());
+        assertEquals(first.getPlannedDeparture().toInstant(), found.getPlannedDeparture().toInstant());
+        assertEquals(3, found.getSegments().size());
+        JourneySegment segment = found.getSegments().get(0);
+        assertEquals(TransitMode.RER, segment.getTransitMode());
+        assertEquals("A", segment.getLineCode());
+        assertEquals(5, segment.getPoints().size());
+        assertEquals(JourneyPointType.INTERMEDIATE_STOP, segment.getPoints().get(2).getPointType());
+        assertNull(segment.getPoints().get(2).getCoordinates());
+        assertEquals(1, journeyRepository.findWithSegmentsById(second.getId()).orElseThrow().getSegments().size());
+    }
+
+    @Test
+    @DisplayName("L'insertion groupée refuse un trajet déjà enregistré")
+    void testInsertAll_RejectsPersistedJourney() {
+        // Given
+        User user = userRepository.save(new User("ext-bulk-2", "bulk2@example.com", "Bulk User 2"));
+        Journey journey = journeyRepository.save(journeyGraph(user, 1, 2));
+        entityManager.flush();
+
+        // When / Then
+        List<Journey> journeys = List.of(journey);
+        assertThrows(IllegalArgumentException.class, () -> bulkRepository.insertAll(journeys));
+    }
+
+    static Journey journeyGraph(User user, int segmentCount, int pointsPerSegment) {
+        OffsetDateTime departure = OffsetDateTime.parse("2025-01-15T08:00:00+01:00");
+        Journey journey = new Journey(user, "Gare de Lyon", "Châtelet", departure,
+                departure.plusMinutes(10L * segmentCount));
+        journey.setOriginCoordinate(new GeoPoint(48.8443, 2.3730));
+        journey.setDestinationCoordinate(new GeoPoint(48.8584, 2.3470));
+        journey.setPrimItineraryId("itinerary-bulk");
+        List<JourneySegment> segments = new ArrayList<>(segmentCount);
+        for (int s = 0; s < segmentCount; s++) {
+            JourneySegment segment = new JourneySegment(journey, s, SegmentType.PUBLIC_TRANSPORT);
+            segment.setTransitMode(TransitMode.RER);
+            segment.setLineCode("A");
+            segment.setLineName("RER A");
+            segment.setScheduledDeparture(departure.plusMinutes(10L * s));
+            segment.setScheduledArrival(departure.plusMinutes(10L * s + 8));
+            segment.setDurationSeconds(480);
+            for (int p = 0; p < pointsPerSegment; p++) {
+                JourneyPoint point = new JourneyPoint(segment, p,
+                        p == 0 ? JourneyPointType.ORIGIN : JourneyPointType.INTERMEDIATE_STOP, "Stop " + s + "-" + p);
+                point.setPrimStopAreaId("stop_area:bulk:" + p);
+                point.setCoordinates(p == 0 ? new GeoPoint(48.8443, 2.3730) : null);
+                point.setScheduledArrival(departure.plusMinutes(10L * s + p));
+                segment.addPoint(point);
+            }
+            segments.add(segment);
+        }
+        journey.replaceSegments(segments);
+        return journey;
+    }
+}
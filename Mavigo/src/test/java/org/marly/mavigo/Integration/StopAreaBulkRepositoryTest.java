@@ -0,0 +1,59 @@
+package org.marly.mavigo.Integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.repository.StopAreaBulkRepository;
+import org.marly.mavigo.repository.StopAreaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+// ON CONFLICT needs the PostgreSQL mode of the H2 database configured for the test profile
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(StopAreaBulkRepository.class)
+@DisplayName("Tests d'intégration - StopAreaBulkRepository")
+class StopAreaBulkRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StopAreaRepository stopAreaRepository;
+
+    @Autowired
+    private StopAreaBulkRepository bulkRepository;
+
+    @Test
+    @DisplayName("L'insertion groupée ignore les zones d'arrêt déjà enregistrées")
+    void testInsertAllIfAbsent_SkipsExistingExternalIds() {
+        // Given
+        stopAreaRepository.save(new StopArea("stop:bulk-existing", "Nom d'origine", new GeoPoint(48.0, 2.0)));
+        entityManager.flush();
+
+        // When
+        int inserted = bulkRepository.insertAllIfAbsent(List.of(
+                new StopArea("stop:bulk-existing", "Nouveau nom", null),
+                new StopArea("stop:bulk-1", "Station 1", new GeoPoint(48.1, 2.1)),
+                new StopArea("stop:bulk-2", "Station 2", null)));
+        entityManager.clear();
+
+        // Then
+        assertEquals(2, inserted);
+        assertEquals("Nom d'origine", stopAreaRepository.findByExternalId("stop:bulk-existing").get().getName());
+        StopArea first = stopAreaRepository.findByExternalId("stop:bulk-1").orElseThrow();
+        assertEquals(48.1, first.getCoordinates().getLatitude());
+        assertNotNull(first.getCreatedAt());
+        assertNull(stopAreaRepository.findByExternalId("stop:bulk-2").get().getCoordinates());
+    }
+}
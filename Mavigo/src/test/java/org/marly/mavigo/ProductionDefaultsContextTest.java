@@ -0,0 +1,40 @@
+package org.marly.mavigo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.marly.mavigo.service.geocoding.routing.CompositeGeocodingService;
+import org.marly.mavigo.service.stoparea.ParallelStopAreaResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The test properties switch off the parallel stop-area resolution and the composite geocoder;
+ * this context puts back the values of the main {@code application.properties}.
+ */
+@SpringBootTest(properties = {
+        "stop-area.parallel.enabled=true",
+        "geocoding.provider=composite"
+})
+@ActiveProfiles("test")
+@DisplayName("Contexte Spring - valeurs de production")
+class ProductionDefaultsContextTest {
+
+    @Autowired
+    private ParallelStopAreaResolver parallelStopAreaResolver;
+
+    @Autowired
+    @Qualifier("routedGeocodingService")
+    private GeocodingService routedGeocodingService;
+
+    @Test
+    @DisplayName("Le contexte démarre avec la résolution parallèle et le géocodeur composite")
+    void contextLoadsWithProductionDefaults() {
+        assertThat(parallelStopAreaResolver.isEnabled()).isTrue();
+        assertThat(routedGeocodingService).isInstanceOf(CompositeGeocodingService.class);
+    }
+}
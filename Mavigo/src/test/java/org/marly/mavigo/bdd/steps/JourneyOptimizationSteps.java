@@ -158,8 +158,8 @@ public class JourneyOptimizationSteps {
         if (optimizedResults != null && !optimizedResults.isEmpty()) {
             OptimizedJourneyResult result = optimizedResults.get(0);
             assertNotNull(result.journey(), "Le trajet optimisé ne devrait pas être null");
-            // The journey should have been created
-            assertNotNull(result.journey().getId());
+            // The journey is only assembled: it is persisted once the user selects it
+            assertFalse(result.journey().getSegments().isEmpty(), "Le trajet optimisé devrait avoir des segments");
         } else {
             // Fallback - at least a journey was planned
             assertNotNull(plannedJourneys, "Au moins un trajet devrait être planifié");
@@ -0,0 +1,72 @@
+package org.marly.mavigo.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TtlLruCacheTest {
+
+    @Test
+    @DisplayName("Une entrée expire après son TTL")
+    void get_returnsNullAfterTtl() {
+        MutableClock clock = new MutableClock();
+        TtlLruCache<String, String> cache = new TtlLruCache<>(10, clock);
+
+        cache.put("a", "A", Duration.ofSeconds(30));
+        assertThat(cache.get("a")).isEqualTo("A");
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("L'entrée la moins récemment utilisée est évincée en premier")
+    void put_evictsLeastRecentlyUsed() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(2, new MutableClock());
+
+        cache.put("a", "A", Duration.ofMinutes(1));
+        cache.put("b", "B", Duration.ofMinutes(1));
+        cache.get("a");
+        cache.put("c", "C", Duration.ofMinutes(1));
+
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Le budget mémoire borne le poids total")
+    void put_respectsWeightBudget() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(100, 10, String::length, new MutableClock());
+
+        cache.put("a", "123456", Duration.ofMinutes(1));
+        cache.put("b", "123456", Duration.ofMinutes(1));
+        cache.put("huge", "12345678901", Duration.ofMinutes(1));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("123456");
+        assertThat(cache.get("huge")).isNull();
+        assertThat(cache.weight()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("getStale sert une entrée expirée pendant la fenêtre de rétention")
+    void getStale_servesExpiredEntryWithinRetention() {
+        MutableClock clock = new MutableClock();
+        TtlLruCache<String, String> cache = new TtlLruCache<>(10, 0, null, Duration.ofMinutes(5), clock);
+
+        cache.put("a", "A", Duration.ofSeconds(10));
+        clock.advance(Duration.ofMinutes(1));
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.getStale("a")).isEqualTo("A");
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(cache.getStale("a")).isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package org.marly.mavigo.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboundCallMetricsTest {
+
+    @Test
+    @DisplayName("L'endpoint garde le dernier segment qui n'est pas un identifiant")
+    void endpointOf_dropsIdentifierSegments() {
+        assertThat(OutboundCallMetrics.endpointOf("/marketplace/v2/navitia/journeys")).isEqualTo("/journeys");
+        assertThat(OutboundCallMetrics.endpointOf("/search/")).isEqualTo("/search");
+        assertThat(OutboundCallMetrics.endpointOf("/v2/navitia/coverage/sandbox/coord/2.35;48.85/places_nearby"))
+                .isEqualTo("/places_nearby");
+        assertThat(OutboundCallMetrics.endpointOf("/tasks/v1/lists/MTIzNDU2/tasks/dGFza0lk"))
+                .isEqualTo("/tasks");
+        assertThat(OutboundCallMetrics.endpointOf("/lines/line:IDFM:C01742")).isEqualTo("/lines");
+        assertThat(OutboundCallMetrics.endpointOf(null)).isEqualTo("/");
+    }
+
+    @Test
+    @DisplayName("Le statut HTTP est classé par famille")
+    void outcomeOf_groupsStatusFamilies() {
+        assertThat(OutboundCallMetrics.outcomeOf(200)).isEqualTo("SUCCESS");
+        assertThat(OutboundCallMetrics.outcomeOf(404)).isEqualTo("CLIENT_ERROR");
+        assertThat(OutboundCallMetrics.outcomeOf(503)).isEqualTo("SERVER_ERROR");
+    }
+
+    @Test
+    @DisplayName("Les appels du RestTemplate poolé sont chronométrés avec la taille de réponse")
+    void pooledRestTemplate_recordsLatencyAndResponseSize() throws IOException {
+        byte[] payload = "{\"features\":[]}".getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        });
+        server.createContext("/reverse/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try {
+            RestTemplate restTemplate = PooledRestTemplateFactory.create(new PooledHttpClientSettings("geocoding",
+                    Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(500),
+                    4, 4, Map.of(), Duration.ofSeconds(30), Duration.ofMinutes(5)), registry);
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+            assertThat(restTemplate.getForObject(base + "/search/?q=rivoli", String.class))
+                    .isEqualTo("{\"features\":[]}");
+            assertThatThrownBy(() -> restTemplate.getForObject(base + "/reverse/?lat=1&lon=2", String.class))
+                    .isInstanceOf(HttpClientErrorException.NotFound.class);
+        } finally {
+            server.stop(0);
+        }
+
+        Timer success = registry.get(OutboundCallMetrics.METRIC_REQUESTS)
+                .tags("client", "geocoding", "host", "127.0.0.1", "endpoint", "/search", "outcome", "SUCCESS")
+                .timer();
+        DistributionSummary size = registry.get(OutboundCallMetrics.METRIC_RESPONSE_SIZE)
+                .tags("client", "geocoding", "endpoint", "/search")
+                .summary();
+        assertThat(success.count()).isEqualTo(1);
+        assertThat(size.totalAmount()).isEqualTo(payload.length);
+        assertThat(registry.get(OutboundCallMetrics.METRIC_REQUESTS)
+                .tags("endpoint", "/reverse", "outcome", "CLIENT_ERROR")
+                .timer().count()).isEqualTo(1);
+    }
+}
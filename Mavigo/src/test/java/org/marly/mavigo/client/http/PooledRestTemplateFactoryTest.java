@@ -0,0 +1,71 @@
+package org.marly.mavigo.client.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PooledRestTemplateFactoryTest {
+
+    private static PooledHttpClientSettings settings(Map<String, Integer> perHost) {
+        return new PooledHttpClientSettings("test",
+                Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(500),
+                10, 4, perHost, Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("parseHostLimits lit la liste host=limite et ignore les entrées invalides")
+    void parseHostLimits_parsesValidEntries() {
+        Map<String, Integer> limits = PooledRestTemplateFactory.parseHostLimits(
+                "https://nominatim.openstreetmap.org=1, https://api-adresse.data.gouv.fr=6,broken,x=abc");
+
+        assertThat(limits).containsExactly(
+                Map.entry("https://nominatim.openstreetmap.org", 1),
+                Map.entry("https://api-adresse.data.gouv.fr", 6));
+        assertThat(PooledRestTemplateFactory.parseHostLimits(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Les limites par hôte s'appliquent à la route normalisée")
+    void connectionManager_appliesPerHostLimits() {
+        PoolingHttpClientConnectionManager manager = PooledRestTemplateFactory.createConnectionManager(
+                settings(Map.of("https://nominatim.openstreetmap.org", 1)));
+
+        HttpRoute nominatim = PooledRestTemplateFactory.toRoute("https://nominatim.openstreetmap.org");
+        HttpRoute other = PooledRestTemplateFactory.toRoute("https://api-adresse.data.gouv.fr");
+
+        assertThat(manager.getMaxTotal()).isEqualTo(10);
+        assertThat(manager.getMaxPerRoute(nominatim)).isEqualTo(1);
+        assertThat(manager.getMaxPerRoute(other)).isEqualTo(4);
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("create retourne un RestTemplate Apache et publie les métriques du pool")
+    void create_usesPooledFactoryAndBindsMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        RestTemplate restTemplate = PooledRestTemplateFactory.create(settings(Map.of()), registry);
+
+        assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        assertThat(registry.find("httpcomponents.httpclient.pool.total.max").tag("httpclient", "test").gauge())
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("Les tailles de pool doivent être positives")
+    void settings_rejectInvalidPoolSizes() {
+        assertThatThrownBy(() -> new PooledHttpClientSettings("x", null, null, null, 0, 1, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.client.http.OutboundCallMetrics;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimCoordinates;
 import org.marly.mavigo.client.prim.model.PrimDisplayInformations;
@@ -44,6 +45,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class PrimApiClientImplAdvancedTest {
 
@@ -54,7 +57,8 @@ class PrimApiClientImplAdvancedTest {
 
     @BeforeEach
     void setUp() {
-        client = new PrimApiClientImpl(restTemplate, "https://example.com", "api-key-123", "Europe/Paris");
+        client = new PrimApiClientImpl(restTemplate, "https://example.com", "api-key-123", "Europe/Paris", false,
+                new OutboundCallMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
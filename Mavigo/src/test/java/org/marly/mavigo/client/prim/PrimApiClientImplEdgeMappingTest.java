@@ -6,8 +6,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -15,25 +19,32 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.marly.mavigo.client.http.OutboundCallMetrics;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimCoordinates;
-import org.marly.mavigo.client.prim.model.PrimJourney;
 import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
 import org.marly.mavigo.client.prim.model.PrimJourneyResponse;
 import org.marly.mavigo.client.prim.model.PrimPlace;
 import org.marly.mavigo.client.prim.model.PrimPlacesResponse;
-import org.marly.mavigo.client.prim.model.PrimSection;
 import org.marly.mavigo.client.prim.model.PrimStopArea;
-import org.marly.mavigo.client.prim.model.PrimStopDateTime;
 import org.marly.mavigo.client.prim.model.PrimStopPoint;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class PrimApiClientImplEdgeMappingTest {
 
@@ -44,7 +55,7 @@ class PrimApiClientImplEdgeMappingTest {
 
     @BeforeEach
     void setUp() {
-        client = new PrimApiClientImpl(restTemplate, "https://example.com", "edge-key", "Europe/Paris");
+        client = client(false);
     }
 
     @Test
@@ -83,18 +94,33 @@ class PrimApiClientImplEdgeMappingTest {
     }
 
     @Test
-    void searchPlacesNearby_returnsEmptyWhenCoordQueryFails() {
+    void searchPlacesNearby_throwsWhenCoordQueryFails() {
         when(restTemplate.exchange(contains("coord%3A2.300000%3B48.800000"), eq(HttpMethod.GET), any(HttpEntity.class),
                 eq(PrimPlacesResponse.class)))
                 .thenThrow(new RestClientException("down"));
 
-        List<PrimPlace> result = client.searchPlacesNearby(48.8, 2.3, 1000, null);
-
-        assertThat(result).isEmpty();
+        assertThatThrownBy(() -> client.searchPlacesNearby(48.8, 2.3, 1000, null))
+                .isInstanceOf(PrimApiException.class)
+                .hasMessageContaining("down");
     }
 
     @Test
-    void calculateJourneyPlans_validatesRequestFields() {
+    void searchPlacesNearby_throwsWhenCityCallFailsAndCoordQueryFindsNothing() {
+        when(restTemplate.exchange(contains("q=Paris"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(PrimPlacesResponse.class)))
+                .thenThrow(new RestClientException("city call failed"));
+        when(restTemplate.exchange(contains("coord%3A2.300000%3B48.800000"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(PrimPlacesResponse.class)))
+                .thenReturn(ResponseEntity.ok(new PrimPlacesResponse(List.of())));
+
+        assertThatThrownBy(() -> client.searchPlacesNearby(48.8, 2.3, 1000, "Paris"))
+                .isInstanceOf(PrimApiException.class);
+    }
+
+    @ParameterizedTest(name = "streaming parser: {0}")
+    @ValueSource(booleans = {false, true})
+    void calculateJourneyPlans_validatesRequestFields(boolean streamingJourneyParser) {
+        PrimApiClientImpl client = client(streamingJourneyParser);
         assertThatThrownBy(() -> client.calculateJourneyPlans(null))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Journey request cannot be null");
@@ -115,35 +141,45 @@ class PrimApiClientImplEdgeMappingTest {
                 .hasMessageContaining("Datetime cannot be null");
     }
 
-    @Test
-    void calculateJourneyPlans_wrapsNonNoOriginRestClientError() {
+    @ParameterizedTest(name = "streaming parser: {0}")
+    @ValueSource(booleans = {false, true})
+    void calculateJourneyPlans_wrapsNonNoOriginRestClientError(boolean streamingJourneyParser) {
+        PrimApiClientImpl client = client(streamingJourneyParser);
         PrimJourneyRequest request = new PrimJourneyRequest("from", "to", LocalDateTime.now());
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(PrimJourneyResponse.class)))
-                .thenThrow(new RestClientException("gateway timeout"));
+        if (streamingJourneyParser) {
+            when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class),
+                    any(ResponseExtractor.class)))
+                    .thenThrow(new RestClientException("gateway timeout"));
+        } else {
+            when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                    eq(PrimJourneyResponse.class)))
+                    .thenThrow(new RestClientException("gateway timeout"));
+        }
 
         assertThatThrownBy(() -> client.calculateJourneyPlans(request))
                 .isInstanceOf(PrimApiException.class)
                 .hasMessageContaining("Failed to calculate journey:");
     }
 
-    @Test
-    void calculateJourneyPlans_mapsFallbackSectionWhenDisplayInfoMissingAndStopTimesInvalid() {
+    @ParameterizedTest(name = "streaming parser: {0}")
+    @ValueSource(booleans = {false, true})
+    void calculateJourneyPlans_mapsFallbackSectionWhenDisplayInfoMissingAndStopTimesInvalid(
+            boolean streamingJourneyParser) throws IOException {
+        PrimApiClientImpl client = client(streamingJourneyParser);
         LocalDateTime now = LocalDateTime.of(2026, 2, 14, 10, 0);
-
-        PrimStopDateTime invalidSdt = new PrimStopDateTime(null, now.plusMinutes(1), now.plusMinutes(2));
-        PrimSection skippedBecauseInvalidSdt = new PrimSection(
-                "sec-skip", "public_transport", 60, now, now.plusMinutes(1),
-                null, null, null, List.of(invalidSdt, invalidSdt));
-
-        PrimSection mappedFallback = new PrimSection(
-                "sec-map", "transfer", 120, null, null,
-                null, null, null, List.of(invalidSdt));
-
-        PrimJourney journey = new PrimJourney("j-edge", 120, 0, now, now.plusMinutes(3),
-                List.of(skippedBecauseInvalidSdt, mappedFallback));
-
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(PrimJourneyResponse.class)))
-                .thenReturn(ResponseEntity.ok(new PrimJourneyResponse(List.of(journey))));
+        // The first section is skipped (stop times without stop point), the second one is mapped without them
+        String invalidStopTime = """
+                {"stop_point": null, "arrival_date_time": "20260214T100100",
+                 "departure_date_time": "20260214T100200"}""";
+        answerJourneys(streamingJourneyParser, """
+                {"journeys": [{"id": "j-edge", "duration": 120, "nb_transfers": 0,
+                  "departure_date_time": "20260214T100000", "arrival_date_time": "20260214T100300",
+                  "sections": [
+                    {"id": "sec-skip", "type": "public_transport", "duration": 60,
+                     "departure_date_time": "20260214T100000", "arrival_date_time": "20260214T100100",
+                     "stop_date_times": [%1$s, %1$s]},
+                    {"id": "sec-map", "type": "transfer", "duration": 120, "stop_date_times": [%1$s]}]}]}
+                """.formatted(invalidStopTime));
 
         List<PrimJourneyPlanDto> result = client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", now));
 
@@ -158,4 +194,31 @@ class PrimApiClientImplEdgeMappingTest {
         assertThat(leg.arrivalDateTime()).isNull();
         assertThat(leg.stopDateTimes()).isNull();
     }
+
+    private PrimApiClientImpl client(boolean streamingJourneyParser) {
+        return new PrimApiClientImpl(restTemplate, "https://example.com", "edge-key", "Europe/Paris",
+                streamingJourneyParser, new OutboundCallMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Serves the same {@code /journeys} body to either parser: streamed to the reader, or bound to
+     * the {@code Prim*} records as {@code RestTemplate} would.
+     */
+    private void answerJourneys(boolean streamingJourneyParser, String json) throws IOException {
+        if (streamingJourneyParser) {
+            when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class),
+                    any(ResponseExtractor.class)))
+                    .thenAnswer(invocation -> {
+                        ResponseExtractor<?> extractor = invocation.getArgument(3);
+                        ClientHttpResponse response = mock(ClientHttpResponse.class);
+                        when(response.getBody())
+                                .thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+                        return extractor.extractData(response);
+                    });
+        } else {
+            when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                    eq(PrimJourneyResponse.class)))
+                    .thenReturn(ResponseEntity.ok(new ObjectMapper().readValue(json, PrimJourneyResponse.class)));
+        }
+    }
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.client.http.OutboundCallMetrics;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.*;
 import org.mockito.ArgumentCaptor;
@@ -17,6 +18,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -39,7 +42,8 @@ class PrimApiClientImplTest {
 
     @BeforeEach
     void setUp() {
-        client = new PrimApiClientImpl(restTemplate, apiEndpoint, apiKey, "Europe/Paris");
+        client = new PrimApiClientImpl(restTemplate, apiEndpoint, apiKey, "Europe/Paris", false,
+                new OutboundCallMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -175,6 +179,26 @@ class PrimApiClientImplTest {
         verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(PrimJourneyResponse.class));
     }
 
+    @Test
+    @DisplayName("calculateJourneyPlans: counts the no_origin retry")
+    void calculateJourneyPlans_shouldCountNoOriginRetry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client = new PrimApiClientImpl(restTemplate, apiEndpoint, apiKey, "Europe/Paris", false,
+                new OutboundCallMetrics(registry));
+        String errorBody = "{\"error\": {\"id\":\"no_origin\"}}";
+        HttpClientErrorException exception = new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Bad Request", errorBody.getBytes(StandardCharsets.UTF_8), null);
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(PrimJourneyResponse.class)))
+                .thenThrow(exception)
+                .thenReturn(new ResponseEntity<>(new PrimJourneyResponse(Collections.emptyList()), HttpStatus.OK));
+
+        client.calculateJourneyPlans(new PrimJourneyRequest("from-id", "to-id", LocalDateTime.now()));
+
+        assertEquals(1.0, registry.get(OutboundCallMetrics.METRIC_RETRIES)
+                .tags("client", "prim", "endpoint", "/journeys", "reason", "no_origin")
+                .counter().count());
+    }
+
     @Test
     @DisplayName("calculateJourneyPlans: maps response to DTOs")
     void calculateJourneyPlans_shouldMapResponse() {
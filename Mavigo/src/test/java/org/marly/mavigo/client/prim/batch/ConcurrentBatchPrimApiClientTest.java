@@ -0,0 +1,151 @@
+package org.marly.mavigo.client.prim.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimJourneyBatchResult;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriority;
+import org.marly.mavigo.client.prim.quota.PrimRequestPriorityContext;
+
+class ConcurrentBatchPrimApiClientTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 1, 15, 8, 30);
+
+    private static PrimJourneyRequest request(String from) {
+        return new PrimJourneyRequest(from, "to", DEPARTURE);
+    }
+
+    private static List<PrimJourneyPlanDto> plansFor(PrimJourneyRequest request) {
+        return List.of(new PrimJourneyPlanDto(request.getFromStopAreaId(), null, null, 600, 0, List.of()));
+    }
+
+    @Test
+    @DisplayName("Les résultats suivent l'ordre des requêtes et un échec reste isolé")
+    void calculateJourneyPlansBatch_keepsOrderAndIsolatesFailures() {
+        ConcurrentBatchPrimApiClient client = new ConcurrentBatchPrimApiClient(new StubClient(request -> {
+            if (request.getFromStopAreaId().equals("b")) {
+                throw new PrimApiException("PRIM down");
+            }
+            if (request.getFromStopAreaId().equals("a")) {
+                Thread.sleep(50);
+            }
+            return plansFor(request);
+        }), 4);
+
+        List<PrimJourneyBatchResult> results = client.calculateJourneyPlansBatch(
+                List.of(request("a"), request("b"), request("c")));
+
+        assertThat(results).extracting(result -> result.request().getFromStopAreaId()).containsExactly("a", "b", "c");
+        assertThat(results.get(0).plans()).extracting(PrimJourneyPlanDto::journeyId).containsExactly("a");
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).error()).isInstanceOf(PrimApiException.class);
+        assertThatThrownBy(() -> results.get(1).plansOrThrow()).hasMessage("PRIM down");
+        assertThat(results.get(2).plans()).extracting(PrimJourneyPlanDto::journeyId).containsExactly("c");
+    }
+
+    @Test
+    @DisplayName("Les requêtes s'exécutent en parallèle sans dépasser le plafond")
+    void calculateJourneyPlansBatch_runsConcurrentlyWithinCap() {
+        int cap = 3;
+        CountDownLatch allCapped = new CountDownLatch(cap);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ConcurrentBatchPrimApiClient client = new ConcurrentBatchPrimApiClient(new StubClient(request -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            allCapped.countDown();
+            try {
+                // Only completes if `cap` calls are in flight together
+                allCapped.await(5, TimeUnit.SECONDS);
+                Thread.sleep(20);
+                return plansFor(request);
+            } finally {
+                running.decrementAndGet();
+            }
+        }), cap);
+
+        List<PrimJourneyRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(request("s" + i));
+        }
+        long start = System.nanoTime();
+        List<PrimJourneyBatchResult> results = client.calculateJourneyPlansBatch(requests);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(results).allMatch(PrimJourneyBatchResult::isSuccess);
+        assertThat(maxRunning.get()).isEqualTo(cap);
+        assertThat(elapsedMillis).isLessThan(5_000);
+    }
+
+    @Test
+    @DisplayName("La priorité de l'appelant est propagée aux threads virtuels")
+    void calculateJourneyPlansBatch_propagatesCallerPriority() {
+        Set<PrimRequestPriority> seen = ConcurrentHashMap.newKeySet();
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        ConcurrentBatchPrimApiClient client = new ConcurrentBatchPrimApiClient(new StubClient(request -> {
+            seen.add(PrimRequestPriorityContext.current());
+            virtual.add(Thread.currentThread().isVirtual());
+            return plansFor(request);
+        }), 2);
+
+        PrimRequestPriorityContext.callWith(PrimRequestPriority.REROUTING,
+                () -> client.calculateJourneyPlansBatch(List.of(request("a"), request("b"))));
+
+        assertThat(seen).containsExactly(PrimRequestPriority.REROUTING);
+        assertThat(virtual).containsExactly(true);
+    }
+
+    private interface JourneyCall {
+        List<PrimJourneyPlanDto> apply(PrimJourneyRequest request) throws InterruptedException;
+    }
+
+    private static final class StubClient implements PrimApiClient {
+
+        private final JourneyCall journeys;
+
+        private StubClient(JourneyCall journeys) {
+            this.journeys = journeys;
+        }
+
+        @Override
+        public List<PrimPlace> searchPlaces(String query) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters,
+                String cityName) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+            try {
+                return journeys.apply(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PrimApiException("interrupted");
+            }
+        }
+    }
+}
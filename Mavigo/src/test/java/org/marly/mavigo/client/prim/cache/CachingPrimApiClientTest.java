@@ -0,0 +1,202 @@
+package org.marly.mavigo.client.prim.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.client.cache.MutableClock;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimCircuitOpenException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPrimApiClientTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 1, 15, 8, 30, 10);
+
+    @Mock
+    private PrimApiClient delegate;
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private CachingPrimApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CachingPrimApiClient(
+                delegate,
+                new CachingPrimApiClient.JourneyCacheSettings(true, Duration.ofMinutes(1), Duration.ofMinutes(2), 100, 0,
+                        Duration.ofMinutes(30)),
+                new CachingPrimApiClient.PlaceCacheSettings(true, Duration.ofMinutes(30), Duration.ofMinutes(2), 100, 0,
+                        0.0005, Duration.ofHours(6)),
+                meterRegistry,
+                clock);
+    }
+
+    private static PrimJourneyPlanDto journey(String id) {
+        OffsetDateTime departure = OffsetDateTime.of(DEPARTURE, ZoneOffset.ofHours(1));
+        return new PrimJourneyPlanDto(id, departure, departure.plusMinutes(30), 1800, 0, List.of());
+    }
+
+    @Test
+    @DisplayName("Deux requêtes équivalentes dans le même créneau ne font qu'un appel PRIM")
+    void calculateJourneyPlans_reusesCachedAnswerWithinBucket() {
+        when(delegate.calculateJourneyPlans(any())).thenReturn(List.of(journey("j1")));
+
+        PrimJourneyRequest first = new PrimJourneyRequest("from", "to", DEPARTURE).withWheelchair(true);
+        first.addExcludedLine("line:B");
+        first.addExcludedLine("line:A");
+        PrimJourneyRequest second = new PrimJourneyRequest("from", "to", DEPARTURE.plusSeconds(40)).withWheelchair(true);
+        second.addExcludedLine("line:A");
+        second.addExcludedLine("line:B");
+
+        List<PrimJourneyPlanDto> firstResult = client.calculateJourneyPlans(first);
+        List<PrimJourneyPlanDto> secondResult = client.calculateJourneyPlans(second);
+
+        assertThat(secondResult).isSameAs(firstResult);
+        verify(delegate, times(1)).calculateJourneyPlans(any());
+        assertThat(meterRegistry.get(CachingPrimApiClient.METRIC_REQUESTS).tag("cache", "journeys").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get(CachingPrimApiClient.METRIC_REQUESTS).tag("cache", "journeys").tag("result", "miss").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Des paramètres de confort différents ne partagent pas l'entrée")
+    void calculateJourneyPlans_distinguishesComfortParameters() {
+        when(delegate.calculateJourneyPlans(any())).thenReturn(List.of(journey("j1")));
+
+        client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE).withMaxNbTransfers(1));
+        client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE).withMaxNbTransfers(2));
+
+        verify(delegate, times(2)).calculateJourneyPlans(any());
+    }
+
+    @Test
+    @DisplayName("Les résultats vides et les erreurs ne sont pas mis en cache")
+    void calculateJourneyPlans_doesNotCacheEmptyOrFailedAnswers() {
+        PrimJourneyRequest request = new PrimJourneyRequest("from", "to", DEPARTURE);
+        when(delegate.calculateJourneyPlans(any()))
+                .thenReturn(List.of())
+                .thenThrow(new PrimApiException("boom"))
+                .thenReturn(List.of(journey("j1")));
+
+        assertThat(client.calculateJourneyPlans(request)).isEmpty();
+        assertThatThrownBy(() -> client.calculateJourneyPlans(request)).isInstanceOf(PrimApiException.class);
+        assertThat(client.calculateJourneyPlans(request)).hasSize(1);
+        verify(delegate, times(3)).calculateJourneyPlans(any());
+    }
+
+    @Test
+    @DisplayName("Le créneau horaire arrondit la date de départ à la borne inférieure")
+    void requestKey_floorsDepartureToBucket() {
+        assertThat(PrimJourneyRequestKey.floor(DEPARTURE, Duration.ofMinutes(5)))
+                .isEqualTo(LocalDateTime.of(2025, 1, 15, 8, 30));
+        assertThat(PrimJourneyRequestKey.floor(DEPARTURE, Duration.ofMinutes(7)))
+                .isEqualTo(LocalDateTime.of(2025, 1, 15, 8, 29));
+    }
+
+    @Test
+    @DisplayName("Les requêtes /places sont normalisées (accents, espaces, casse)")
+    void searchPlaces_sharesEntryForNormalizedQueries() {
+        PrimPlace place = new PrimPlace("stop_area:IDFM:1", "Châtelet", "stop_area", null, null, null);
+        when(delegate.searchPlaces(anyString())).thenReturn(List.of(place));
+
+        client.searchPlaces("Gare de  Châtelet");
+        List<PrimPlace> second = client.searchPlaces("  gare de chatelet ");
+
+        assertThat(second).containsExactly(place);
+        verify(delegate, times(1)).searchPlaces(anyString());
+    }
+
+    @Test
+    @DisplayName("Les requêtes coord: voisines tombent dans la même case de grille")
+    void searchPlaces_snapsCoordQueriesToGrid() {
+        assertThat(PrimPlaceQueryKey.search("coord:2.347010;48.858900", 0.0005))
+                .isEqualTo(PrimPlaceQueryKey.search("coord:2.347050;48.858880", 0.0005));
+        assertThat(PrimPlaceQueryKey.nearby(48.8589, 2.3470, 500, "Paris", 0.0005))
+                .isNotEqualTo(PrimPlaceQueryKey.nearby(48.8589, 2.3470, 1000, "Paris", 0.0005));
+    }
+
+    @Test
+    @DisplayName("Un résultat vide est mis en cache pour la durée négative seulement")
+    void searchPlacesNearby_cachesEmptyResultForNegativeTtl() {
+        when(delegate.searchPlacesNearby(anyDouble(), anyDouble(), anyInt(), isNull())).thenReturn(List.of());
+
+        client.searchPlacesNearby(48.8589, 2.3470, 500, null);
+        client.searchPlacesNearby(48.8589, 2.3470, 500, null);
+        verify(delegate, times(1)).searchPlacesNearby(anyDouble(), anyDouble(), eq(500), isNull());
+
+        clock.advance(Duration.ofMinutes(3));
+        client.searchPlacesNearby(48.8589, 2.3470, 500, null);
+        verify(delegate, times(2)).searchPlacesNearby(anyDouble(), anyDouble(), eq(500), isNull());
+        assertThat(meterRegistry.get(CachingPrimApiClient.METRIC_REQUESTS)
+                .tag("cache", "places").tag("result", "negative_hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Un échec de recherche à proximité n'est pas mis en cache comme résultat vide")
+    void searchPlacesNearby_doesNotCacheFailures() {
+        when(delegate.searchPlacesNearby(anyDouble(), anyDouble(), anyInt(), isNull()))
+                .thenThrow(new PrimApiException("timeout"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> client.searchPlacesNearby(48.8589, 2.3470, 500, null))
+                .isInstanceOf(PrimApiException.class);
+        assertThat(client.searchPlacesNearby(48.8589, 2.3470, 500, null)).isEmpty();
+        verify(delegate, times(2)).searchPlacesNearby(anyDouble(), anyDouble(), eq(500), isNull());
+    }
+
+    @Test
+    @DisplayName("Disjoncteur ouvert : le dernier résultat connu est servi et marqué périmé")
+    void calculateJourneyPlans_servesStaleAnswerWhenCircuitIsOpen() {
+        PrimJourneyRequest request = new PrimJourneyRequest("from", "to", DEPARTURE);
+        when(delegate.calculateJourneyPlans(any()))
+                .thenReturn(List.of(journey("j1")))
+                .thenThrow(new PrimCircuitOpenException("open"));
+
+        client.calculateJourneyPlans(request);
+        clock.advance(Duration.ofMinutes(5));
+        List<PrimJourneyPlanDto> stale = client.calculateJourneyPlans(request);
+
+        assertThat(stale).hasSize(1);
+        assertThat(stale.get(0).stale()).isTrue();
+        assertThat(stale.get(0).journeyId()).isEqualTo("j1");
+    }
+
+    @Test
+    @DisplayName("Disjoncteur ouvert sans résultat connu : l'erreur est propagée")
+    void calculateJourneyPlans_rethrowsWhenNoStaleAnswer() {
+        when(delegate.calculateJourneyPlans(any())).thenThrow(new PrimCircuitOpenException("open"));
+
+        assertThatThrownBy(() -> client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE)))
+                .isInstanceOf(PrimCircuitOpenException.class);
+    }
+}
@@ -0,0 +1,136 @@
+package org.marly.mavigo.client.prim.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingPrimApiClientTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 1, 15, 8, 30);
+    private static final int CALLERS = 5;
+
+    @Mock
+    private PrimApiClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingPrimApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CoalescingPrimApiClient(delegate, meterRegistry);
+    }
+
+    private double collapsed() {
+        return meterRegistry.get(CoalescingPrimApiClient.METRIC_COLLAPSED).tag("endpoint", "journeys").counter().count();
+    }
+
+    private List<Future<List<PrimJourneyPlanDto>>> launchConcurrentCallers(ExecutorService executor,
+            CountDownLatch leaderEntered) throws InterruptedException {
+        List<Future<List<PrimJourneyPlanDto>>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE))));
+        assertThat(leaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE))));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (collapsed() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return futures;
+    }
+
+    @Test
+    @DisplayName("Les appels identiques concurrents partagent un seul appel HTTP")
+    void calculateJourneyPlans_sharesSingleInFlightCall() throws Exception {
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<PrimJourneyPlanDto> answer = List.of(new PrimJourneyPlanDto("j1", null, null, 600, 0, List.of()));
+        when(delegate.calculateJourneyPlans(any())).thenAnswer(invocation -> {
+            leaderEntered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return answer;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<List<PrimJourneyPlanDto>>> futures = launchConcurrentCallers(executor, leaderEntered);
+            release.countDown();
+
+            for (Future<List<PrimJourneyPlanDto>> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(answer);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).calculateJourneyPlans(any());
+        assertThat(collapsed()).isEqualTo(CALLERS - 1);
+        assertThat(client.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("L'erreur de l'appel partagé est propagée à tous les appelants")
+    void calculateJourneyPlans_propagatesSharedFailure() throws Exception {
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.calculateJourneyPlans(any())).thenAnswer(invocation -> {
+            leaderEntered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new PrimApiException("PRIM down");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<List<PrimJourneyPlanDto>>> futures = launchConcurrentCallers(executor, leaderEntered);
+            release.countDown();
+
+            for (Future<List<PrimJourneyPlanDto>> future : futures) {
+                assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(PrimApiException.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(1)).calculateJourneyPlans(any());
+    }
+
+    @Test
+    @DisplayName("Les appels successifs ne sont pas fusionnés")
+    void calculateJourneyPlans_sequentialCallsAreNotCollapsed() {
+        when(delegate.calculateJourneyPlans(any())).thenReturn(List.of());
+
+        client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE));
+        client.calculateJourneyPlans(new PrimJourneyRequest("from", "to", DEPARTURE));
+
+        verify(delegate, times(2)).calculateJourneyPlans(any());
+        assertThat(collapsed()).isZero();
+    }
+}
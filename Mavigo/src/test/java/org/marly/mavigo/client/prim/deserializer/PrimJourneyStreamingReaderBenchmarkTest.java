@@ -0,0 +1,98 @@
+package org.marly.mavigo.client.prim.deserializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.marly.mavigo.client.http.OutboundCallMetrics;
+import org.marly.mavigo.client.prim.PrimApiClientImpl;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares {@code calculateJourneyPlans} with the streaming reader and with data binding to the
+ * {@code Prim*} records followed by the DTO mapping, on the {@code /journeys} fixture served by an
+ * in-memory request factory. Run with {@code RUN_BENCHMARKS=true ./gradlew test --tests '*Benchmark*'}.
+ */
+@DisplayName("Benchmark - PrimJourneyStreamingReader")
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class PrimJourneyStreamingReaderBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrimJourneyStreamingReaderBenchmarkTest.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @FunctionalInterface
+    private interface Parse {
+        Object run() throws Exception;
+    }
+
+    private record Measure(double nanosPerOp, double bytesPerOp) {
+    }
+
+    private static Measure measure(Parse parse) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = parse.run();
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = parse.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertThat(sink).isNotNull();
+        return new Measure((double) elapsed / ITERATIONS, (double) allocated / ITERATIONS);
+    }
+
+    private static RestTemplate inMemory(byte[] body) {
+        return new RestTemplate((uri, method) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(response);
+            return request;
+        });
+    }
+
+    @Test
+    @DisplayName("Le lecteur en flux alloue moins que le binding des records")
+    void streamingReader_allocatesLessThanDataBinding() throws Exception {
+        byte[] body = PrimJourneyStreamingReaderTest.loadJourneysFixture();
+        PrimJourneyRequest request = new PrimJourneyRequest("stop_area:A", "stop_area:B",
+                LocalDateTime.of(2025, 1, 15, 8, 30));
+        PrimApiClientImpl bindingClient = new PrimApiClientImpl(inMemory(body), "https://prim.example", "key",
+                "Europe/Paris", false, new OutboundCallMetrics(new SimpleMeterRegistry()));
+        PrimApiClientImpl streamingClient = new PrimApiClientImpl(inMemory(body), "https://prim.example", "key",
+                "Europe/Paris", true, new OutboundCallMetrics(new SimpleMeterRegistry()));
+
+        Measure binding = measure(() -> bindingClient.calculateJourneyPlans(request));
+        Measure streaming = measure(() -> streamingClient.calculateJourneyPlans(request));
+
+        LOGGER.info("PRIM /journeys parse ({} bytes): binding {} us/op {} B/op, streaming {} us/op {} B/op",
+                body.length,
+                String.format("%.1f", binding.nanosPerOp() / TimeUnit.MICROSECONDS.toNanos(1)),
+                String.format("%.0f", binding.bytesPerOp()),
+                String.format("%.1f", streaming.nanosPerOp() / TimeUnit.MICROSECONDS.toNanos(1)),
+                String.format("%.0f", streaming.bytesPerOp()));
+
+        assertThat(streaming.bytesPerOp()).isLessThan(binding.bytesPerOp());
+    }
+}
@@ -0,0 +1,151 @@
+package org.marly.mavigo.client.prim.deserializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.http.OutboundCallMetrics;
+import org.marly.mavigo.client.prim.PrimApiClientImpl;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests unitaires - PrimJourneyStreamingReader")
+class PrimJourneyStreamingReaderTest {
+
+    private static final String ENDPOINT = "https://prim.example/v2/navitia";
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    static byte[] fixture;
+
+    @BeforeAll
+    static void loadFixture() throws IOException {
+        fixture = loadJourneysFixture();
+    }
+
+    static byte[] loadJourneysFixture() throws IOException {
+        try (InputStream in = PrimJourneyStreamingReaderTest.class.getResourceAsStream("/prim/journeys-response.json")) {
+            assertThat(in).as("fixture /prim/journeys-response.json").isNotNull();
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<PrimJourneyPlanDto> fetchThroughClient(boolean streaming) {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(Matchers.startsWith(ENDPOINT + "/journeys")))
+                .andExpect(header("apikey", "key"))
+                .andRespond(withSuccess(fixture, MediaType.APPLICATION_JSON));
+
+        PrimApiClientImpl client = new PrimApiClientImpl(restTemplate, ENDPOINT, "key", "Europe/Paris", streaming,
+                new OutboundCallMetrics(new SimpleMeterRegistry()));
+        List<PrimJourneyPlanDto> plans = client.calculateJourneyPlans(
+                new PrimJourneyRequest("stop_area:A", "stop_area:B", LocalDateTime.of(2025, 1, 15, 8, 30)));
+        server.verify();
+        return plans;
+    }
+
+    @Test
+    @DisplayName("Le lecteur en flux produit les mêmes DTO que le mapping des records")
+    void read_matchesModelRecordMapping() {
+        List<PrimJourneyPlanDto> legacy = fetchThroughClient(false);
+        List<PrimJourneyPlanDto> streamed = fetchThroughClient(true);
+
+        assertThat(legacy).hasSize(3);
+        assertThat(streamed).isEqualTo(legacy);
+    }
+
+    @Test
+    @DisplayName("Les sections sont mappées avec arrêts, équipements et fuseau Navitia")
+    void read_mapsSectionsFromFixture() throws IOException {
+        List<PrimJourneyPlanDto> plans = new PrimJourneyStreamingReader(null, PARIS).read(fixture);
+
+        PrimJourneyPlanDto first = plans.get(0);
+        assertThat(first.journeyId()).isEqualTo("journey-1");
+        assertThat(first.transfers()).isEqualTo(1);
+        assertThat(first.departureDateTime().toString()).isEqualTo("2025-01-15T08:40+01:00");
+        assertThat(first.legs()).extracting(PrimJourneyPlanDto.LegDto::sectionId)
+                .containsExactly("section_0_0", "section_1_0", "section_2_0", "section_3_0", "section_4_0",
+                        "section_5_0");
+
+        PrimJourneyPlanDto.LegDto rer = first.legs().get(3);
+        assertThat(rer.sequenceOrder()).isEqualTo(4);
+        assertThat(rer.lineCode()).isEqualTo("A");
+        assertThat(rer.hasAirConditioning()).isTrue();
+        assertThat(rer.originLabel()).isEqualTo("Châtelet les Halles");
+        assertThat(rer.originLatitude()).isEqualTo(48.8617);
+        assertThat(rer.destinationStopId()).isEqualTo("stop_point:IDFM:22105");
+        assertThat(rer.stopDateTimes()).hasSize(3);
+        assertThat(rer.stopDateTimes().get(0).stopAreaId()).isEqualTo("stop_area:IDFM:71264");
+
+        PrimJourneyPlanDto.LegDto metro = first.legs().get(4);
+        assertThat(metro.destinationLatitude()).isNull();
+        assertThat(metro.stopDateTimes()).hasSize(2);
+
+        assertThat(plans.get(1).legs()).hasSize(1);
+        assertThat(plans.get(2).legs()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un corps vide ou sans trajets donne une liste vide")
+    void read_returnsEmptyListWithoutJourneys() throws IOException {
+        PrimJourneyStreamingReader reader = new PrimJourneyStreamingReader(null, PARIS);
+
+        assertThat(reader.read(new byte[0])).isEmpty();
+        assertThat(reader.read("{\"journeys\":[],\"links\":[]}".getBytes(StandardCharsets.UTF_8))).isEmpty();
+        assertThat(reader.read("{\"error\":{\"id\":\"date_out_of_bounds\"}}".getBytes(StandardCharsets.UTF_8)))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Une date illisible fait échouer la lecture")
+    void read_failsOnInvalidDateTime() {
+        PrimJourneyStreamingReader reader = new PrimJourneyStreamingReader(null, PARIS);
+        byte[] body = "{\"journeys\":[{\"id\":\"j\",\"departure_date_time\":\"demain\"}]}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> reader.read(body))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("demain");
+    }
+
+    @Test
+    @DisplayName("Le repli no_origin fonctionne aussi avec le lecteur en flux")
+    void calculateJourneyPlans_streamingRetriesOnNoOrigin() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(ExpectedCount.once(), requestTo(Matchers.not(Matchers.containsString("direct_path=only"))))
+                .andRespond(withBadRequest()
+                        .body("{\"error\":{\"id\":\"no_origin\"}}")
+                        .contentType(MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(Matchers.containsString("direct_path=only")))
+                .andRespond(withSuccess(fixture, MediaType.APPLICATION_JSON));
+
+        PrimApiClientImpl client = new PrimApiClientImpl(restTemplate, ENDPOINT, "key", "Europe/Paris", true,
+                new OutboundCallMetrics(new SimpleMeterRegistry()));
+        List<PrimJourneyPlanDto> plans = client.calculateJourneyPlans(
+                new PrimJourneyRequest("stop_area:A", "stop_area:B", LocalDateTime.of(2025, 1, 15, 8, 30)));
+
+        server.verify();
+        assertThat(plans).hasSize(3);
+    }
+}
@@ -0,0 +1,93 @@
+package org.marly.mavigo.client.prim.quota;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.prim.PrimQuotaExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PrimQuotaSchedulerTest {
+
+    /** Slow enough that no token is refilled during a test. */
+    private static final double ALMOST_NO_REFILL = 0.001;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private PrimQuotaScheduler scheduler(double rate, int burst, int backgroundReserve, int maxQueue, Duration maxWait) {
+        return new PrimQuotaScheduler(rate, burst, Map.of(
+                PrimRequestPriority.INTERACTIVE, new PrimQuotaScheduler.LaneSettings(maxQueue, maxWait, 0),
+                PrimRequestPriority.REROUTING, new PrimQuotaScheduler.LaneSettings(maxQueue, maxWait, 0),
+                PrimRequestPriority.BACKGROUND, new PrimQuotaScheduler.LaneSettings(maxQueue, maxWait, backgroundReserve)),
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Le burst est servi immédiatement puis la file pleine rejette sans attendre")
+    void acquire_rejectsFastWhenLaneQueueIsFull() {
+        PrimQuotaScheduler scheduler = scheduler(ALMOST_NO_REFILL, 2, 0, 0, Duration.ofSeconds(5));
+
+        scheduler.acquire(PrimRequestPriority.INTERACTIVE);
+        scheduler.acquire(PrimRequestPriority.INTERACTIVE);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> scheduler.acquire(PrimRequestPriority.INTERACTIVE))
+                .isInstanceOf(PrimQuotaExceededException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        assertThat(meterRegistry.get(PrimQuotaScheduler.METRIC_REJECTED).tag("lane", "interactive").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Le trafic de fond laisse la réserve aux requêtes interactives")
+    void acquire_backgroundLeavesReservedTokens() {
+        PrimQuotaScheduler scheduler = scheduler(ALMOST_NO_REFILL, 3, 2, 5, Duration.ofMillis(50));
+
+        scheduler.acquire(PrimRequestPriority.BACKGROUND);
+        assertThatThrownBy(() -> scheduler.acquire(PrimRequestPriority.BACKGROUND))
+                .isInstanceOf(PrimQuotaExceededException.class);
+
+        scheduler.acquire(PrimRequestPriority.INTERACTIVE);
+        scheduler.acquire(PrimRequestPriority.REROUTING);
+    }
+
+    @Test
+    @DisplayName("Une requête en file obtient un jeton dès qu'il est rechargé")
+    void acquire_waitsForRefillWithinMaxWait() throws Exception {
+        PrimQuotaScheduler scheduler = scheduler(20, 1, 0, 5, Duration.ofSeconds(2));
+        scheduler.acquire(PrimRequestPriority.INTERACTIVE);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(
+                () -> scheduler.acquire(PrimRequestPriority.INTERACTIVE));
+
+        waiting.get(2, TimeUnit.SECONDS);
+        assertThat(scheduler.queueDepth(PrimRequestPriority.INTERACTIVE)).isZero();
+        assertThat(meterRegistry.get(PrimQuotaScheduler.METRIC_WAIT).tag("lane", "interactive").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Le contexte de priorité est restauré après l'appel")
+    void priorityContext_isScopedToTheCall() {
+        assertThat(PrimRequestPriorityContext.current()).isEqualTo(PrimRequestPriority.INTERACTIVE);
+
+        PrimRequestPriority inner = PrimRequestPriorityContext.callWith(PrimRequestPriority.BACKGROUND,
+                PrimRequestPriorityContext::current);
+
+        assertThat(inner).isEqualTo(PrimRequestPriority.BACKGROUND);
+        assertThat(PrimRequestPriorityContext.current()).isEqualTo(PrimRequestPriority.INTERACTIVE);
+    }
+}
@@ -0,0 +1,208 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimQuotaExceededException;
+import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
+import org.marly.mavigo.client.prim.model.PrimPlace;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HedgingPrimApiClientTest {
+
+    private static final PrimJourneyRequest REQUEST =
+            new PrimJourneyRequest("from", "to", LocalDateTime.of(2025, 1, 15, 8, 30));
+
+    private static final HedgingPrimApiClient.Settings SETTINGS = new HedgingPrimApiClient.Settings(
+            0.95, Duration.ofMillis(20), 0.99, 2.0, Duration.ofMillis(200), Duration.ofSeconds(5));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static PrimLatencyTracker warmTracker(Duration latency) {
+        PrimLatencyTracker tracker = new PrimLatencyTracker(50, 10);
+        for (int i = 0; i < 10; i++) {
+            tracker.record(HedgingPrimApiClient.ENDPOINT_JOURNEYS, latency);
+        }
+        return tracker;
+    }
+
+    private static List<PrimJourneyPlanDto> plans(String id) {
+        return List.of(new PrimJourneyPlanDto(id, null, null, 600, 0, List.of()));
+    }
+
+    private double hedges(String result) {
+        return registry.counter(HedgingPrimApiClient.METRIC_HEDGES,
+                "endpoint", HedgingPrimApiClient.ENDPOINT_JOURNEYS, "result", result).count();
+    }
+
+    @Test
+    @DisplayName("Sans historique de latence, l'appel passe sans doublon avec le délai maximal")
+    void coldClient_passesThroughWithMaxDeadline() {
+        AtomicInteger calls = new AtomicInteger();
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            calls.incrementAndGet();
+            return plans("j1");
+        }), new PrimLatencyTracker(50, 10), new PrimHedgeBudget(1.0, 5), SETTINGS, null, registry);
+
+        assertThat(client.calculateJourneyPlans(REQUEST)).extracting(PrimJourneyPlanDto::journeyId)
+                .containsExactly("j1");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(client.deadlineFor(HedgingPrimApiClient.ENDPOINT_JOURNEYS)).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Le délai s'adapte au p99 observé, borné par le minimum configuré")
+    void deadline_followsObservedPercentile() {
+        HedgingPrimApiClient fast = new HedgingPrimApiClient(new StubClient(() -> plans("j")),
+                warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(1.0, 5), SETTINGS, null, registry);
+        HedgingPrimApiClient slow = new HedgingPrimApiClient(new StubClient(() -> plans("j")),
+                warmTracker(Duration.ofMillis(400)), new PrimHedgeBudget(1.0, 5), SETTINGS, null, registry);
+
+        assertThat(fast.deadlineFor(HedgingPrimApiClient.ENDPOINT_JOURNEYS)).isEqualTo(Duration.ofMillis(200));
+        assertThat(slow.deadlineFor(HedgingPrimApiClient.ENDPOINT_JOURNEYS)).isEqualTo(Duration.ofMillis(800));
+    }
+
+    @Test
+    @DisplayName("Un appel lent déclenche un doublon et la première réponse l'emporte")
+    void slowPrimary_isHedgedAndFastestAnswerWins() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+        AtomicInteger permits = new AtomicInteger();
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                    throw e;
+                }
+                return plans("primary");
+            }
+            return plans("hedge");
+        }), warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(1.0, 5), SETTINGS,
+                permits::incrementAndGet, registry);
+
+        assertThat(client.calculateJourneyPlans(REQUEST)).extracting(PrimJourneyPlanDto::journeyId)
+                .containsExactly("hedge");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(permits.get()).isEqualTo(1);
+        assertThat(hedges("sent")).isEqualTo(1);
+        assertThat(hedges("won")).isEqualTo(1);
+        assertThat(primaryInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Budget épuisé : aucun doublon, on attend l'appel initial")
+    void exhaustedBudget_waitsForPrimary() {
+        AtomicInteger calls = new AtomicInteger();
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            calls.incrementAndGet();
+            Thread.sleep(60);
+            return plans("primary");
+        }), warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(0.0, 5), SETTINGS, null, registry);
+
+        assertThat(client.calculateJourneyPlans(REQUEST)).extracting(PrimJourneyPlanDto::journeyId)
+                .containsExactly("primary");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(hedges("denied")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un doublon refusé par le quota n'empêche pas la réponse de l'appel initial")
+    void hedgeRejectedByQuota_keepsPrimaryAnswer() {
+        AtomicInteger calls = new AtomicInteger();
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            calls.incrementAndGet();
+            Thread.sleep(80);
+            return plans("primary");
+        }), warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(1.0, 5), SETTINGS, () -> {
+            throw new PrimQuotaExceededException("no spare quota");
+        }, registry);
+
+        assertThat(client.calculateJourneyPlans(REQUEST)).extracting(PrimJourneyPlanDto::journeyId)
+                .containsExactly("primary");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Au-delà du délai adaptatif l'appel est abandonné avec une PrimApiException")
+    void callBeyondDeadline_isAbandoned() {
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            Thread.sleep(2_000);
+            return plans("late");
+        }), warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(0.0, 5), SETTINGS, null, registry);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.calculateJourneyPlans(REQUEST))
+                .isInstanceOf(PrimApiException.class)
+                .hasMessageContaining("timed out after 200 ms");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_500);
+        assertThat(registry.counter(HedgingPrimApiClient.METRIC_TIMEOUTS,
+                "endpoint", HedgingPrimApiClient.ENDPOINT_JOURNEYS).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Une erreur rapide de l'appel initial est propagée telle quelle")
+    void fastFailure_isPropagated() {
+        HedgingPrimApiClient client = new HedgingPrimApiClient(new StubClient(() -> {
+            throw new PrimApiException("PRIM down");
+        }), warmTracker(Duration.ofMillis(10)), new PrimHedgeBudget(1.0, 5), SETTINGS, null, registry);
+
+        assertThatThrownBy(() -> client.calculateJourneyPlans(REQUEST))
+                .isInstanceOf(PrimApiException.class)
+                .hasMessage("PRIM down");
+        assertThat(hedges("sent")).isZero();
+    }
+
+    private interface JourneyCall {
+        List<PrimJourneyPlanDto> get() throws InterruptedException;
+    }
+
+    private static final class StubClient implements PrimApiClient {
+
+        private final JourneyCall journeys;
+
+        private StubClient(JourneyCall journeys) {
+            this.journeys = journeys;
+        }
+
+        @Override
+        public List<PrimPlace> searchPlaces(String query) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimPlace> searchPlacesNearby(double latitude, double longitude, int radiusMeters,
+                String cityName) {
+            return List.of();
+        }
+
+        @Override
+        public List<PrimJourneyPlanDto> calculateJourneyPlans(PrimJourneyRequest request) {
+            try {
+                return journeys.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PrimApiException("interrupted");
+            }
+        }
+    }
+}
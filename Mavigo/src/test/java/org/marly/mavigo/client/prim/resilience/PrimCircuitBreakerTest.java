@@ -0,0 +1,133 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.cache.MutableClock;
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimCircuitOpenException;
+import org.springframework.boot.actuate.health.Status;
+
+class PrimCircuitBreakerTest {
+
+    private MutableClock clock;
+    private PrimCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        breaker = new PrimCircuitBreaker(new PrimCircuitBreaker.Settings(
+                10, 4, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofSeconds(30), 2), clock);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onFailure(Duration.ofMillis(100));
+        }
+    }
+
+    @Test
+    @DisplayName("Le disjoncteur s'ouvre quand le taux d'erreur atteint le seuil")
+    void opensOnFailureRate() {
+        breaker.tryAcquirePermission();
+        breaker.onSuccess(Duration.ofMillis(100));
+        breaker.tryAcquirePermission();
+        breaker.onSuccess(Duration.ofMillis(100));
+        fail(2);
+
+        assertThat(breaker.state()).isEqualTo(PrimCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Le disjoncteur s'ouvre aussi sur les appels lents")
+    void opensOnSlowCalls() {
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onSuccess(Duration.ofSeconds(3));
+        }
+
+        assertThat(breaker.state()).isEqualTo(PrimCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Après le délai, les sondes réussies referment le disjoncteur")
+    void halfOpenProbesCloseTheBreaker() {
+        fail(4);
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        breaker.onSuccess(Duration.ofMillis(100));
+        breaker.onSuccess(Duration.ofMillis(100));
+
+        assertThat(breaker.state()).isEqualTo(PrimCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Une sonde en échec rouvre le disjoncteur")
+    void failedProbeReopens() {
+        fail(4);
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure(Duration.ofMillis(100));
+
+        assertThat(breaker.state()).isEqualTo(PrimCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Le client échoue vite sans appeler PRIM quand le disjoncteur est ouvert")
+    void client_failsFastWhenOpen() {
+        PrimApiClient delegate = mock(PrimApiClient.class);
+        when(delegate.searchPlaces(anyString())).thenThrow(new PrimApiException("boom"));
+        CircuitBreakingPrimApiClient client = new CircuitBreakingPrimApiClient(delegate, breaker);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> client.searchPlaces("gare")).isInstanceOf(PrimApiException.class);
+        }
+
+        assertThatThrownBy(() -> client.calculateJourneyPlans(null)).isInstanceOf(PrimCircuitOpenException.class);
+        verify(delegate, never()).calculateJourneyPlans(null);
+    }
+
+    @Test
+    @DisplayName("L'indicateur de santé reste UP et signale l'état ouvert en détail")
+    void healthIndicator_reportsState() {
+        PrimCircuitBreakerHealthIndicator indicator = new PrimCircuitBreakerHealthIndicator(breaker);
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+
+        fail(4);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(indicator.health().getDetails()).containsEntry("state", "OPEN");
+    }
+
+    @Test
+    @DisplayName("Les rejets locaux ne comptent pas comme des erreurs PRIM")
+    void client_ignoresValidationErrors() {
+        PrimApiClient delegate = mock(PrimApiClient.class);
+        when(delegate.searchPlaces(anyString())).thenThrow(new IllegalArgumentException("bad"));
+        CircuitBreakingPrimApiClient client = new CircuitBreakingPrimApiClient(delegate, breaker);
+
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> client.searchPlaces("x")).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(breaker.state()).isEqualTo(PrimCircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+}
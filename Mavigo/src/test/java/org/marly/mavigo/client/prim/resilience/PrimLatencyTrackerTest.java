@@ -0,0 +1,40 @@
+package org.marly.mavigo.client.prim.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PrimLatencyTrackerTest {
+
+    @Test
+    @DisplayName("Aucun percentile n'est rapporté avant le nombre minimal d'échantillons")
+    void percentile_requiresMinimumSamples() {
+        PrimLatencyTracker tracker = new PrimLatencyTracker(10, 3);
+        tracker.record("journeys", Duration.ofMillis(100));
+        tracker.record("journeys", Duration.ofMillis(200));
+
+        assertThat(tracker.percentile("journeys", 0.95)).isEmpty();
+        assertThat(tracker.percentile("places", 0.95)).isEmpty();
+
+        tracker.record("journeys", Duration.ofMillis(300));
+        assertThat(tracker.percentile("journeys", 0.5)).contains(Duration.ofMillis(200));
+    }
+
+    @Test
+    @DisplayName("La fenêtre glissante oublie les échantillons les plus anciens")
+    void percentile_usesRollingWindow() {
+        PrimLatencyTracker tracker = new PrimLatencyTracker(20, 5);
+        for (int i = 1; i <= 20; i++) {
+            tracker.record("journeys", Duration.ofMillis(i * 10L));
+        }
+        assertThat(tracker.percentile("journeys", 0.95)).contains(Duration.ofMillis(190));
+
+        for (int i = 0; i < 20; i++) {
+            tracker.record("journeys", Duration.ofMillis(5));
+        }
+        assertThat(tracker.percentile("journeys", 0.95)).contains(Duration.ofMillis(5));
+    }
+}
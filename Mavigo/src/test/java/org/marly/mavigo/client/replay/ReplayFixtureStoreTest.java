@@ -0,0 +1,69 @@
+package org.marly.mavigo.client.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayFixtureStoreTest {
+
+    @TempDir
+    Path root;
+
+    private static Map<String, List<String>> query(String... pairs) {
+        Map<String, List<String>> query = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            query.computeIfAbsent(pairs[i], k -> new ArrayList<>()).add(pairs[i + 1]);
+        }
+        return query;
+    }
+
+    @Test
+    @DisplayName("La requête canonique ignore l'ordre et les paramètres volatils")
+    void canonicalQuery_sortsAndDropsIgnoredParameters() {
+        ReplayFixtureStore store = new ReplayFixtureStore(root, Set.of("datetime", " APIKEY "));
+
+        String canonical = store.canonicalQuery(query(
+                "to", "stop_area:B", "datetime", "20250115T083000", "from", "stop_area:A",
+                "first_section_mode[]", "walking", "first_section_mode[]", "bike", "apikey", "secret"));
+
+        assertThat(canonical)
+                .isEqualTo("first_section_mode[]=walking&first_section_mode[]=bike&from=stop_area:A&to=stop_area:B");
+    }
+
+    @Test
+    @DisplayName("Une fixture enregistrée est rejouée quelle que soit la date demandée")
+    void save_thenFind_matchesAcrossIgnoredParameters() {
+        ReplayFixtureStore store = new ReplayFixtureStore(root, Set.of("datetime"));
+        byte[] body = "{\"journeys\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        Path saved = store.save("prim", "/journeys", query("from", "A", "to", "B", "datetime", "20250115T083000"), body);
+
+        assertThat(saved).startsWith(root.resolve("prim").resolve("journeys"));
+        assertThat(store.find("prim", "/journeys", query("to", "B", "from", "A", "datetime", "20260101T120000")))
+                .hasValueSatisfying(found -> assertThat(found).isEqualTo(body));
+        assertThat(store.find("prim", "/journeys", query("from", "A", "to", "C"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La fixture par défaut de l'endpoint sert les requêtes inconnues")
+    void find_fallsBackToEndpointDefault() throws Exception {
+        ReplayFixtureStore store = new ReplayFixtureStore(root, Set.of());
+        Path directory = Files.createDirectories(root.resolve("ban").resolve("search"));
+        Files.writeString(directory.resolve(ReplayFixtureStore.DEFAULT_FIXTURE), "{\"features\":[]}");
+
+        assertThat(store.find("ban", "/search/", query("q", "10 rue de Rivoli")))
+                .hasValueSatisfying(found -> assertThat(new String(found, StandardCharsets.UTF_8))
+                        .isEqualTo("{\"features\":[]}"));
+    }
+}
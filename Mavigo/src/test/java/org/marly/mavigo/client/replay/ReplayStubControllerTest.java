@@ -0,0 +1,94 @@
+package org.marly.mavigo.client.replay;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+class ReplayStubControllerTest {
+
+    private static final String PRIM_UPSTREAM = "https://prim.example/v2/navitia";
+
+    @TempDir
+    Path root;
+
+    private final RestTemplate primRestTemplate = new RestTemplate();
+    private final RestTemplate banRestTemplate = new RestTemplate();
+
+    private MockMvc mockMvc(ReplayFixtureStore store, String mode, double errorRate) {
+        ReplayFaultInjector faults = new ReplayFaultInjector(Duration.ZERO, Duration.ZERO, errorRate, 503, null);
+        ReplayStubController controller = new ReplayStubController(store, faults, mode, PRIM_UPSTREAM,
+                "https://ban.example", primRestTemplate, banRestTemplate);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Le mode replay sert la fixture enregistrée pour /journeys")
+    void replay_servesRecordedFixture() throws Exception {
+        ReplayFixtureStore store = new ReplayFixtureStore(root, Set.of("datetime"));
+        store.save("prim", "/journeys", Map.of("from", List.of("A"), "to", List.of("B")),
+                "{\"journeys\":[{\"id\":\"j1\"}]}".getBytes());
+
+        mockMvc(store, "replay", 0.0)
+                .perform(get("/replay/prim/journeys").param("from", "A").param("to", "B")
+                        .param("datetime", "20250115T083000"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.journeys[0].id").value("j1"));
+    }
+
+    @Test
+    @DisplayName("Une requête sans fixture répond 404 au format d'erreur Navitia")
+    void replay_missAnswersNotFound() throws Exception {
+        mockMvc(new ReplayFixtureStore(root, Set.of()), "replay", 0.0)
+                .perform(get("/replay/ban/search/").param("q", "inconnu"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.id").value("replay_miss"));
+    }
+
+    @Test
+    @DisplayName("Le taux d'erreur configuré injecte des 503")
+    void replay_injectsConfiguredErrors() throws Exception {
+        mockMvc(new ReplayFixtureStore(root, Set.of()), "replay", 1.0)
+                .perform(get("/replay/prim/places").param("q", "Châtelet"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error.id").value("replay_injected_error"));
+    }
+
+    @Test
+    @DisplayName("Le mode record relaie la réponse réelle et l'enregistre")
+    void record_forwardsAndStoresUpstreamAnswer() throws Exception {
+        ReplayFixtureStore store = new ReplayFixtureStore(root, Set.of("apikey"));
+        MockRestServiceServer upstream = MockRestServiceServer.bindTo(primRestTemplate).build();
+        upstream.expect(requestTo(PRIM_UPSTREAM + "/places?q=Chatelet"))
+                .andExpect(header("apikey", "secret"))
+                .andRespond(withSuccess("{\"places\":[]}", MediaType.APPLICATION_JSON));
+
+        mockMvc(store, "record", 0.0)
+                .perform(get("/replay/prim/places?q=Chatelet").header("apikey", "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.places").isArray());
+
+        upstream.verify();
+        assertThat(store.find("prim", "/places", Map.of("q", List.of("Chatelet")))).isPresent();
+    }
+}
@@ -19,6 +19,7 @@ import org.marly.mavigo.client.prim.PrimApiClient;
 import org.marly.mavigo.client.prim.model.PrimPlace;
 import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.user.UserService;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -51,6 +52,8 @@ class GoogleTasksControllerEdgeCasesTest {
     @Mock
     private PrimApiClient primApiClient;
     @Mock
+    private GeocodingService geocodingService;
+    @Mock
     private OAuth2AuthenticatedPrincipal principal;
 
     private GoogleTasksController controller;
@@ -93,7 +96,8 @@ class GoogleTasksControllerEdgeCasesTest {
                 authorizedClientService,
                 userService,
                 userTaskRepository,
-                primApiClient);
+                primApiClient,
+                geocodingService);
     }
 
     @Test
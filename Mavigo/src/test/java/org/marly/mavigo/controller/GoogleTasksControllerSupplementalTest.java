@@ -20,6 +20,7 @@ import org.marly.mavigo.client.google.dto.TaskListDto;
 import org.marly.mavigo.client.prim.PrimApiClient;
 import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.user.UserService;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -50,6 +51,8 @@ class GoogleTasksControllerSupplementalTest {
     private UserTaskRepository userTaskRepository;
     @Mock
     private PrimApiClient primApiClient;
+    @Mock
+    private GeocodingService geocodingService;
 
     private OAuth2AuthorizedClient authorizedClient;
 
@@ -122,7 +125,8 @@ class GoogleTasksControllerSupplementalTest {
 
     private GoogleTasksController controllerFor(ExchangeFunction exchangeFunction) {
         WebClient webClient = WebClient.builder().exchangeFunction(exchangeFunction).build();
-        return new GoogleTasksController(webClient, authorizedClientService, userService, userTaskRepository, primApiClient);
+        return new GoogleTasksController(webClient, authorizedClientService, userService, userTaskRepository,
+                primApiClient, geocodingService);
     }
 
     private ExchangeFunction exchangeWithListsAndTasks() {
@@ -10,6 +10,7 @@ import org.marly.mavigo.models.task.UserTask;
 import org.marly.mavigo.models.task.TaskSource;
 import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.user.UserService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -42,6 +43,7 @@ class GoogleTasksControllerTest {
     private UserService userService;
     private UserTaskRepository userTaskRepository;
     private PrimApiClient primApiClient;
+    private GeocodingService geocodingService;
 
     private GoogleTasksController controller;
 
@@ -112,13 +114,15 @@ class GoogleTasksControllerTest {
         this.userService = mock(UserService.class);
         this.userTaskRepository = mock(UserTaskRepository.class);
         this.primApiClient = mock(PrimApiClient.class);
+        this.geocodingService = mock(GeocodingService.class);
 
         this.controller = new GoogleTasksController(
                 googleApiWebClient,
                 authorizedClientService,
                 userService,
                 userTaskRepository,
-                primApiClient);
+                primApiClient,
+                geocodingService);
     }
 
     @Test
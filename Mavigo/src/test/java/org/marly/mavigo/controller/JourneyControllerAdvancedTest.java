@@ -26,6 +26,7 @@ import org.marly.mavigo.models.user.User;
 import org.marly.mavigo.repository.UserRepository;
 import org.marly.mavigo.repository.UserTaskRepository;
 import org.marly.mavigo.repository.JourneyRepository;
+import org.marly.mavigo.service.journey.JourneyCandidateStore;
 import org.marly.mavigo.service.journey.JourneyManagementService;
 import org.marly.mavigo.service.journey.JourneyOptimizationService;
 import org.marly.mavigo.service.journey.JourneyOptimizationService.OptimizedJourneyResult;
@@ -40,6 +41,7 @@ import org.springframework.security.oauth2.client.registration.ClientRegistratio
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
 import jakarta.servlet.FilterChain;
@@ -83,6 +85,9 @@ class JourneyControllerAdvancedTest {
     @MockitoBean
     private JourneyRepository journeyRepository;
 
+    @MockitoBean
+    private JourneyCandidateStore candidateStore;
+
     @MockitoBean
     private ClientRegistrationRepository clientRegistrationRepository;
 
@@ -743,6 +748,96 @@ class JourneyControllerAdvancedTest {
         }
     }
 
+    @Nested
+    @DisplayName("Tests des candidats (trajets non persistés)")
+    class CandidateTests {
+
+        @Test
+        @WithMockUser
+        @DisplayName("planJourney propose des candidats sans persister les trajets")
+        void planJourney_offersCandidatesWithoutPersisting() throws Exception {
+            // Given
+            UUID userId = UUID.randomUUID();
+            UUID candidateId = UUID.randomUUID();
+            User user = new User("ext-123", "test@example.com", "Test User");
+            user.setId(userId);
+
+            Journey mockJourney = createMockJourney(user);
+
+            when(candidateStore.isEnabled()).thenReturn(true);
+            when(candidateStore.offer(mockJourney)).thenReturn(candidateId);
+            when(journeyPlanningService.plan(any(JourneyPlanningParameters.class)))
+                    .thenReturn(List.of(mockJourney));
+            when(userTaskRepository.findByUser_Id(userId)).thenReturn(List.of());
+
+            String requestBody = """
+                    {
+                        "journey": {
+                            "userId": "%s",
+                            "originQuery": "Gare de Lyon",
+                            "destinationQuery": "Châtelet",
+                            "departureTime": "2025-12-14T18:00:00"
+                        }
+                    }
+                    """.formatted(userId);
+
+            // When/Then
+            mockMvc.perform(post("/api/journeys")
+                    .with(SecurityMockMvcRequestPostProcessors.csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(requestBody))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$[0].candidateId").value(candidateId.toString()))
+                    .andExpect(jsonPath("$[0].journeyId").doesNotExist());
+
+            verify(journeyPlanningService, never()).planAndPersist(any());
+            verify(journeyPlanningService, never()).persist(anyList());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("selectCandidate persiste uniquement le trajet choisi")
+        void selectCandidate_persistsChosenJourney() throws Exception {
+            // Given
+            UUID candidateId = UUID.randomUUID();
+            UUID journeyId = UUID.randomUUID();
+            User user = new User("ext-123", "test@example.com", "Test User");
+            user.setId(UUID.randomUUID());
+
+            Journey candidate = createMockJourney(user);
+            Journey saved = createMockJourney(user);
+            ReflectionTestUtils.setField(saved, "id", journeyId);
+
+            when(candidateStore.select(candidateId)).thenReturn(candidate);
+            when(journeyPlanningService.persist(List.of(candidate))).thenReturn(List.of(saved));
+            when(userTaskRepository.findByUser_Id(any())).thenReturn(List.of());
+
+            // When/Then
+            mockMvc.perform(post("/api/journeys/candidates/{candidateId}/select", candidateId)
+                    .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.journeyId").value(journeyId.toString()));
+
+            verify(journeyPlanningService).persist(List.of(candidate));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("selectCandidate retourne 404 pour un candidat expiré")
+        void selectCandidate_returnsNotFoundWhenExpired() throws Exception {
+            // Given
+            UUID candidateId = UUID.randomUUID();
+            when(candidateStore.select(candidateId)).thenReturn(null);
+
+            // When/Then
+            mockMvc.perform(post("/api/journeys/candidates/{candidateId}/select", candidateId)
+                    .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                    .andExpect(status().isNotFound());
+
+            verify(journeyPlanningService, never()).persist(anyList());
+        }
+    }
+
     // Helper methods
     private Journey createMockJourney(User user) {
         Journey journey = new Journey(
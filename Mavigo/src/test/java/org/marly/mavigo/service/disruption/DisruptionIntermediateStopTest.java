@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.OffsetDateTime;
@@ -15,6 +17,8 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
+import org.marly.mavigo.client.prim.PrimJourneyBatchResult;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
 import org.marly.mavigo.client.prim.model.PrimJourneyRequest;
 import org.marly.mavigo.models.journey.Journey;
@@ -29,6 +33,7 @@ import org.marly.mavigo.repository.DisruptionRepository;
 import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.service.journey.JourneyAssembler;
 import org.marly.mavigo.service.journey.JourneyResultFilter;
+import org.marly.mavigo.service.stoparea.SequentialStopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
 
 class DisruptionIntermediateStopTest {
@@ -52,7 +57,8 @@ class DisruptionIntermediateStopTest {
 
                 disruptionService = new DisruptionReportingService(
                                 journeyRepository, disruptionRepository, primApiClient,
-                                stopAreaService, journeyAssembler, journeyResultFilter);
+                                stopAreaService, journeyAssembler, journeyResultFilter,
+                                new SequentialStopAreaEndpointResolver(stopAreaService));
 
                 when(journeyRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         }
@@ -196,6 +202,100 @@ class DisruptionIntermediateStopTest {
                 assertEquals("B", rerouted.getIntermediateQuery());
         }
 
+        @Test
+        void testLineDisruptionWithIntermediateDepartureTime_plansBothLegsInOneBatch() {
+                UUID journeyId = UUID.randomUUID();
+                User user = new User("ext-1", "user@example.com", "Test User");
+                user.setId(UUID.randomUUID());
+
+                Journey original = new Journey(user, "A", "C", OffsetDateTime.now(), OffsetDateTime.now().plusHours(2));
+                original.setIntermediateQuery("B");
+                original.setIntermediateDepartureTime(OffsetDateTime.now().plusHours(1));
+
+                JourneySegment seg = new JourneySegment(original, 0, SegmentType.PUBLIC_TRANSPORT);
+                JourneyPoint pA = new JourneyPoint(seg, 0, JourneyPointType.ORIGIN, "A");
+                pA.setPrimStopPointId("SP-A");
+                seg.addPoint(pA);
+                original.addSegment(seg);
+
+                when(journeyRepository.findWithSegmentsById(journeyId)).thenReturn(Optional.of(original));
+                when(disruptionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                when(stopAreaService.findOrCreateByQuery("A")).thenReturn(new StopArea("area-a", "area-a", null));
+                when(stopAreaService.findOrCreateByQuery("B")).thenReturn(new StopArea("area-b", "area-b", null));
+                when(stopAreaService.findOrCreateByQuery("C")).thenReturn(new StopArea("area-c", "area-c", null));
+
+                // Both legs are known up front: one batch call, no sequential PRIM calls
+                when(primApiClient.calculateJourneyPlansBatch(any())).thenAnswer(invocation -> {
+                        List<PrimJourneyRequest> requests = invocation.getArgument(0);
+                        return requests.stream()
+                                        .map(request -> PrimJourneyBatchResult.success(request,
+                                                        List.of(mock(PrimJourneyPlanDto.class))))
+                                        .toList();
+                });
+
+                Journey leg1J = new Journey(user, "A", "B", OffsetDateTime.now(), OffsetDateTime.now().plusMinutes(30));
+                Journey leg2J = new Journey(user, "B", "C", OffsetDateTime.now().plusHours(1),
+                                OffsetDateTime.now().plusHours(2));
+                when(journeyAssembler.assemble(any(), any(), any(), any(), any()))
+                                .thenReturn(leg1J)
+                                .thenReturn(leg2J);
+
+                var result = disruptionService.reportLineDisruption(journeyId, "LINE-M1");
+
+                assertNotNull(result);
+                assertEquals(1, result.alternatives().size());
+                assertEquals("B", result.alternatives().get(0).getIntermediateQuery());
+                verify(primApiClient, never()).calculateJourneyPlans(any());
+        }
+
+        @Test
+        void testLineDisruptionWithIntermediateDepartureTime_fallsBackToDirectWhenSecondLegFails() {
+                UUID journeyId = UUID.randomUUID();
+                User user = new User("ext-1", "user@example.com", "Test User");
+                user.setId(UUID.randomUUID());
+
+                Journey original = new Journey(user, "A", "C", OffsetDateTime.now(), OffsetDateTime.now().plusHours(2));
+                original.setIntermediateQuery("B");
+                original.setIntermediateDepartureTime(OffsetDateTime.now().plusHours(1));
+
+                JourneySegment seg = new JourneySegment(original, 0, SegmentType.PUBLIC_TRANSPORT);
+                JourneyPoint pA = new JourneyPoint(seg, 0, JourneyPointType.ORIGIN, "A");
+                pA.setPrimStopPointId("SP-A");
+                seg.addPoint(pA);
+                original.addSegment(seg);
+
+                when(journeyRepository.findWithSegmentsById(journeyId)).thenReturn(Optional.of(original));
+                when(disruptionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                when(stopAreaService.findOrCreateByQuery("A")).thenReturn(new StopArea("area-a", "area-a", null));
+                when(stopAreaService.findOrCreateByQuery("B")).thenReturn(new StopArea("area-b", "area-b", null));
+                when(stopAreaService.findOrCreateByQuery("C")).thenReturn(new StopArea("area-c", "area-c", null));
+
+                // Leg 1 is found, leg 2 fails: the reroute goes direct instead of giving up
+                when(primApiClient.calculateJourneyPlansBatch(any())).thenAnswer(invocation -> {
+                        List<PrimJourneyRequest> requests = invocation.getArgument(0);
+                        return List.of(
+                                        PrimJourneyBatchResult.success(requests.get(0),
+                                                        List.of(mock(PrimJourneyPlanDto.class))),
+                                        PrimJourneyBatchResult.failure(requests.get(1),
+                                                        new PrimApiException("leg 2 timed out")));
+                });
+                when(primApiClient.calculateJourneyPlans(any())).thenReturn(List.of(mock(PrimJourneyPlanDto.class)));
+                when(journeyResultFilter.filterByComfortProfile(any(), any(), anyBoolean()))
+                                .thenAnswer(inv -> inv.getArgument(0));
+                when(journeyAssembler.assemble(any(), any(), any(), any(), any()))
+                                .thenReturn(new Journey(user, "A", "C", OffsetDateTime.now(),
+                                                OffsetDateTime.now().plusMinutes(50)));
+
+                var result = disruptionService.reportLineDisruption(journeyId, "LINE-M1");
+
+                assertNotNull(result);
+                assertEquals(1, result.alternatives().size());
+                assertEquals(null, result.alternatives().get(0).getIntermediateQuery());
+                verify(primApiClient).calculateJourneyPlans(any());
+        }
+
         @Test
         void testStationDisruption_withoutIntermediateStop_usesDirectRerouting() {
                 UUID journeyId = UUID.randomUUID();
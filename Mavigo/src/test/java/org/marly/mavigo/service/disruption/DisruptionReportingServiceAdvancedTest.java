@@ -34,8 +34,8 @@ import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.service.disruption.dto.RerouteResult;
 import org.marly.mavigo.service.journey.JourneyAssembler;
 import org.marly.mavigo.service.journey.JourneyResultFilter;
+import org.marly.mavigo.service.stoparea.SequentialStopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -64,7 +64,6 @@ class DisruptionReportingServiceAdvancedTest {
     @Mock
     private JourneyResultFilter journeyResultFilter;
 
-    @InjectMocks
     private DisruptionReportingService disruptionReportingService;
 
     private User user;
@@ -72,6 +71,9 @@ class DisruptionReportingServiceAdvancedTest {
 
     @BeforeEach
     void setUp() {
+        disruptionReportingService = new DisruptionReportingService(journeyRepository, disruptionRepository, primApiClient,
+                stopAreaService, journeyAssembler, journeyResultFilter,
+                new SequentialStopAreaEndpointResolver(stopAreaService));
         user = new User("user-1", "test@example.com", "Test User");
         user.setId(UUID.randomUUID());
         journeyId = UUID.randomUUID();
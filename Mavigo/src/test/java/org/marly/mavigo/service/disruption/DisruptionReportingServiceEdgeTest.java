@@ -32,8 +32,8 @@ import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.service.disruption.dto.RerouteResult;
 import org.marly.mavigo.service.journey.JourneyAssembler;
 import org.marly.mavigo.service.journey.JourneyResultFilter;
+import org.marly.mavigo.service.stoparea.SequentialStopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -53,7 +53,6 @@ class DisruptionReportingServiceEdgeTest {
     @Mock
     private JourneyResultFilter journeyResultFilter;
 
-    @InjectMocks
     private DisruptionReportingService service;
 
     private UUID journeyId;
@@ -61,6 +60,9 @@ class DisruptionReportingServiceEdgeTest {
 
     @BeforeEach
     void setUp() {
+        service = new DisruptionReportingService(journeyRepository, disruptionRepository, primApiClient,
+                stopAreaService, journeyAssembler, journeyResultFilter,
+                new SequentialStopAreaEndpointResolver(stopAreaService));
         journeyId = UUID.randomUUID();
         user = new User("ext-user", "user@example.com", "User");
         user.setId(UUID.randomUUID());
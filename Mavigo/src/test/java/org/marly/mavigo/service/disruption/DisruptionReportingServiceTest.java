@@ -28,8 +28,8 @@ import org.marly.mavigo.service.disruption.dto.RerouteResult;
 import org.marly.mavigo.service.disruption.dto.StopInfo;
 import org.marly.mavigo.service.journey.JourneyAssembler;
 import org.marly.mavigo.service.journey.JourneyResultFilter;
+import org.marly.mavigo.service.stoparea.SequentialStopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -49,7 +49,6 @@ class DisruptionReportingServiceTest {
     @Mock
     private JourneyResultFilter journeyResultFilter;
 
-    @InjectMocks
     private DisruptionReportingService disruptionReportingService;
 
     private User user;
@@ -57,6 +56,9 @@ class DisruptionReportingServiceTest {
 
     @BeforeEach
     void setUp() {
+        disruptionReportingService = new DisruptionReportingService(journeyRepository, disruptionRepository, primApiClient,
+                stopAreaService, journeyAssembler, journeyResultFilter,
+                new SequentialStopAreaEndpointResolver(stopAreaService));
         user = new User("user-1", "test@example.com", "Test User");
         journeyId = UUID.randomUUID();
     }
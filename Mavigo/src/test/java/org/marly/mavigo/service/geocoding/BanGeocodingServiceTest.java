@@ -1,11 +1,21 @@
 package org.marly.mavigo.service.geocoding;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,6 +29,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
@@ -64,17 +78,15 @@ class BanGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("geocode avec RestClientException retourne null")
-        void geocode_withRestClientException_returnsNull() {
+        @DisplayName("geocode avec RestClientException lève une GeocodingException")
+        void geocode_withRestClientException_throwsGeocodingException() {
             // Given
             when(restTemplate.getForObject(anyString(), any()))
                     .thenThrow(new RestClientException("Connection refused"));
 
-            // When
-            GeoPoint result = service.geocode("Test");
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.geocode("Test"))
+                    .isInstanceOf(GeocodingException.class);
         }
 
         @Test
@@ -103,17 +115,15 @@ class BanGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("geocode avec RuntimeException retourne null")
-        void geocode_withRuntimeException_returnsNull() {
+        @DisplayName("geocode avec RuntimeException lève une GeocodingException")
+        void geocode_withRuntimeException_throwsGeocodingException() {
             // Given
             when(restTemplate.getForObject(anyString(), any()))
                     .thenThrow(new RuntimeException("Unexpected error"));
 
-            // When
-            GeoPoint result = service.geocode("Test");
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.geocode("Test"))
+                    .isInstanceOf(GeocodingException.class);
         }
     }
 
@@ -195,35 +205,31 @@ class BanGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("reverseGeocode avec RestClientException retourne null")
-        void reverseGeocode_withRestClientException_returnsNull() {
+        @DisplayName("reverseGeocode avec RestClientException lève une GeocodingException")
+        void reverseGeocode_withRestClientException_throwsGeocodingException() {
             // Given
             GeoPoint point = new GeoPoint(48.8443, 2.3730);
 
             when(restTemplate.getForObject(anyString(), any()))
                     .thenThrow(new RestClientException("Connection refused"));
 
-            // When
-            String result = service.reverseGeocode(point);
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.reverseGeocode(point))
+                    .isInstanceOf(GeocodingException.class);
         }
 
         @Test
-        @DisplayName("reverseGeocode avec RuntimeException retourne null")
-        void reverseGeocode_withRuntimeException_returnsNull() {
+        @DisplayName("reverseGeocode avec RuntimeException lève une GeocodingException")
+        void reverseGeocode_withRuntimeException_throwsGeocodingException() {
             // Given
             GeoPoint point = new GeoPoint(48.8443, 2.3730);
 
             when(restTemplate.getForObject(anyString(), any()))
                     .thenThrow(new RuntimeException("Unexpected error"));
 
-            // When
-            String result = service.reverseGeocode(point);
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.reverseGeocode(point))
+                    .isInstanceOf(GeocodingException.class);
         }
     }
 
@@ -281,4 +287,101 @@ class BanGeocodingServiceTest {
             assertThat(result.getLongitude()).isEqualTo(2.3522);
         }
     }
+
+    @Nested
+    @DisplayName("Tests geocodeAll")
+    class GeocodeAllTests {
+
+        @Test
+        @DisplayName("Les lignes CSV sont rattachées à leur adresse, seules les lignes en erreur sont regéocodées")
+        void geocodeAll_mapsCsvRowsAndRetriesFailedRowsOnly() {
+            // Given - rows come back out of order, "Nulle part" is not found and the last row failed
+            String csv = "id,q,latitude,longitude,result_label,result_city,result_status\r\n"
+                    + "1,\"Nulle part\",,,,,not-found\r\n"
+                    + "0,\"21 place Jean Charcot, Nanterre\",48.8966,2.2085,\"21 Place Jean Charcot 92000 Nanterre\",Nanterre,ok\r\n"
+                    + "2,\"5 rue \"\"du Test\"\", Paris\",,,,,error\r\n";
+            answerBatchWith(csv);
+            BanGeocodingService.BanFeature feature = new BanGeocodingService.BanFeature();
+            feature.geometry = new BanGeocodingService.BanGeometry();
+            feature.geometry.coordinates = List.of(2.35, 48.85);
+            BanGeocodingService.BanResponse single = new BanGeocodingService.BanResponse();
+            single.features = List.of(feature);
+            when(restTemplate.getForObject(anyString(), eq(BanGeocodingService.BanResponse.class))).thenReturn(single);
+
+            // When
+            Map<String, GeoPoint> points = service.geocodeAll(List.of(
+                    "21 place Jean Charcot, Nanterre", "Nulle part", "5 rue \"du Test\", Paris",
+                    "21 place Jean Charcot, Nanterre"));
+
+            // Then
+            assertThat(points).containsOnlyKeys("21 place Jean Charcot, Nanterre", "5 rue \"du Test\", Paris");
+            assertThat(points.get("21 place Jean Charcot, Nanterre").getLatitude()).isEqualTo(48.8966);
+            assertThat(points.get("5 rue \"du Test\", Paris").getLatitude()).isEqualTo(48.85);
+            verify(restTemplate).getForObject(anyString(), eq(BanGeocodingService.BanResponse.class));
+        }
+
+        @Test
+        @DisplayName("L'échec de l'envoi groupé est remonté à l'appelant sans appel par adresse")
+        void geocodeAll_throwsWithoutSingleCallsWhenUploadFails() {
+            // Given
+            when(restTemplate.execute(anyString(), eq(HttpMethod.POST), any(),
+                    any(ResponseExtractor.class)))
+                    .thenThrow(new ResourceAccessException("Connection reset"));
+
+            // When / Then
+            assertThatThrownBy(() -> service.geocodeAll(List.of("Adresse 1", "Adresse 2")))
+                    .isInstanceOf(GeocodingException.class);
+            verify(restTemplate, never())
+                    .getForObject(anyString(), eq(BanGeocodingService.BanResponse.class));
+        }
+
+        @Test
+        @DisplayName("Les adresses d'un envoi groupé en échec manquent au résultat, les autres envois sont gardés")
+        void geocodeAll_leavesFailedUploadOutOfResult() {
+            // Given - uploads of two rows, the first one fails
+            BanGeocodingService batched = new BanGeocodingService(restTemplate, "https://api-adresse.data.gouv.fr", 2);
+            String csv = "id,q,latitude,longitude,result_label,result_city,result_status\r\n"
+                    + "0,\"Gare de Lyon\",48.8443,2.3730,\"Gare de Lyon 75012 Paris\",Paris,ok\r\n";
+            when(restTemplate.execute(anyString(), eq(HttpMethod.POST), any(),
+                    any(ResponseExtractor.class)))
+                    .thenThrow(new ResourceAccessException("Connection reset"))
+                    .thenAnswer(invocation -> {
+                        ResponseExtractor<?> extractor = invocation.getArgument(3);
+                        ClientHttpResponse response = mock(ClientHttpResponse.class);
+                        when(response.getBody())
+                                .thenReturn(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+                        return extractor.extractData(response);
+                    });
+
+            // When
+            Map<String, GeoPoint> points = batched.geocodeAll(List.of("Adresse 1", "Adresse 2", "Gare de Lyon"));
+
+            // Then
+            assertThat(points).containsOnlyKeys("Gare de Lyon");
+            verify(restTemplate, never())
+                    .getForObject(anyString(), eq(BanGeocodingService.BanResponse.class));
+        }
+
+        @Test
+        @DisplayName("Une seule adresse n'utilise pas l'envoi groupé")
+        void geocodeAll_singleAddressUsesSearchEndpoint() {
+            service.geocodeAll(List.of("Adresse 1", "  "));
+
+            verify(restTemplate, never()).execute(anyString(), any(HttpMethod.class), any(),
+                    any(ResponseExtractor.class));
+            verify(restTemplate).getForObject(anyString(), eq(BanGeocodingService.BanResponse.class));
+        }
+
+        private void answerBatchWith(String csv) {
+            when(restTemplate.execute(anyString(), eq(HttpMethod.POST), any(),
+                    any(ResponseExtractor.class)))
+                    .thenAnswer(invocation -> {
+                        ResponseExtractor<?> extractor = invocation.getArgument(3);
+                        ClientHttpResponse response = mock(ClientHttpResponse.class);
+                        when(response.getBody())
+                                .thenReturn(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+                        return extractor.extractData(response);
+                    });
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.marly.mavigo.service.geocoding;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -51,9 +52,9 @@ class NominatimGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("geocode avec RestClientException retourne null")
+        @DisplayName("geocode avec RestClientException lève une GeocodingException")
         @SuppressWarnings("unchecked")
-        void geocode_withRestClientException_returnsNull() {
+        void geocode_withRestClientException_throwsGeocodingException() {
             // Given
             when(restTemplate.exchange(
                     anyString(),
@@ -62,11 +63,9 @@ class NominatimGeocodingServiceTest {
                     any(Class.class)))
                     .thenThrow(new RestClientException("Connection refused"));
 
-            // When
-            GeoPoint result = service.geocode("Gare de Lyon");
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.geocode("Gare de Lyon"))
+                    .isInstanceOf(GeocodingException.class);
         }
 
         @Test
@@ -113,9 +112,9 @@ class NominatimGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("geocode avec RuntimeException retourne null")
+        @DisplayName("geocode avec RuntimeException lève une GeocodingException")
         @SuppressWarnings("unchecked")
-        void geocode_withRuntimeException_returnsNull() {
+        void geocode_withRuntimeException_throwsGeocodingException() {
             // Given
             when(restTemplate.exchange(
                     anyString(),
@@ -124,11 +123,9 @@ class NominatimGeocodingServiceTest {
                     any(Class.class)))
                     .thenThrow(new RuntimeException("Unexpected error"));
 
-            // When
-            GeoPoint result = service.geocode("Test");
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.geocode("Test"))
+                    .isInstanceOf(GeocodingException.class);
         }
     }
 
@@ -173,9 +170,9 @@ class NominatimGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("reverseGeocode avec RestClientException retourne null")
+        @DisplayName("reverseGeocode avec RestClientException lève une GeocodingException")
         @SuppressWarnings("unchecked")
-        void reverseGeocode_withRestClientException_returnsNull() {
+        void reverseGeocode_withRestClientException_throwsGeocodingException() {
             // Given
             GeoPoint point = new GeoPoint(48.8443, 2.3730);
 
@@ -186,11 +183,9 @@ class NominatimGeocodingServiceTest {
                     any(Class.class)))
                     .thenThrow(new RestClientException("Connection refused"));
 
-            // When
-            String result = service.reverseGeocode(point);
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.reverseGeocode(point))
+                    .isInstanceOf(GeocodingException.class);
         }
 
         @Test
@@ -216,9 +211,9 @@ class NominatimGeocodingServiceTest {
         }
 
         @Test
-        @DisplayName("reverseGeocode avec RuntimeException retourne null")
+        @DisplayName("reverseGeocode avec RuntimeException lève une GeocodingException")
         @SuppressWarnings("unchecked")
-        void reverseGeocode_withRuntimeException_returnsNull() {
+        void reverseGeocode_withRuntimeException_throwsGeocodingException() {
             // Given
             GeoPoint point = new GeoPoint(48.8443, 2.3730);
 
@@ -229,11 +224,9 @@ class NominatimGeocodingServiceTest {
                     any(Class.class)))
                     .thenThrow(new RuntimeException("Unexpected error"));
 
-            // When
-            String result = service.reverseGeocode(point);
-
-            // Then
-            assertThat(result).isNull();
+            // When / Then
+            assertThatThrownBy(() -> service.reverseGeocode(point))
+                    .isInstanceOf(GeocodingException.class);
         }
     }
 
@@ -0,0 +1,122 @@
+package org.marly.mavigo.service.geocoding.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.client.cache.MutableClock;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingException;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CachingGeocodingServiceTest {
+
+    @Mock
+    private GeocodingService delegate;
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private CachingGeocodingService geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        geocodingService = new CachingGeocodingService(
+                delegate,
+                new CachingGeocodingService.CacheSettings(true, Duration.ofHours(24), Duration.ofHours(24),
+                        Duration.ofMinutes(5), 100, 0, 50),
+                meterRegistry,
+                clock);
+    }
+
+    @Test
+    @DisplayName("Les variantes d'écriture d'une adresse partagent une entrée du cache")
+    void geocode_normalizedAddressesShareOneEntry() {
+        when(delegate.geocode(anyString())).thenReturn(new GeoPoint(48.8966, 2.2085));
+
+        GeoPoint first = geocodingService.geocode("21 Place Jean Charcot, Nanterre");
+        GeoPoint second = geocodingService.geocode("  21 place jean  charcot, nanterre ");
+
+        assertThat(second.getLatitude()).isEqualTo(48.8966);
+        assertThat(second).isNotSameAs(first);
+        verify(delegate, times(1)).geocode(anyString());
+        assertThat(meterRegistry.get(CachingGeocodingService.METRIC_HIT_RATIO).tag("cache", "forward").gauge().value())
+                .isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Les géocodages inversés à quelques mètres d'écart réutilisent le même appel")
+    void reverseGeocode_snapsNearbyPointsToOneCell() {
+        when(delegate.reverseGeocode(any())).thenReturn("Nanterre");
+
+        assertThat(geocodingService.reverseGeocode(new GeoPoint(48.89660, 2.20850))).isEqualTo("Nanterre");
+        assertThat(geocodingService.reverseGeocode(new GeoPoint(48.89662, 2.20853))).isEqualTo("Nanterre");
+        geocodingService.reverseGeocode(new GeoPoint(48.89900, 2.21200));
+
+        verify(delegate, times(2)).reverseGeocode(any());
+        assertThat(meterRegistry.get(CachingGeocodingService.METRIC_REQUESTS)
+                .tag("cache", "reverse").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Une adresse introuvable est mise en cache pour la durée négative seulement")
+    void geocode_nullAnswerIsCachedForNegativeTtl() {
+        when(delegate.geocode("adresse inconnue")).thenReturn(null);
+
+        assertThat(geocodingService.geocode("adresse inconnue")).isNull();
+        assertThat(geocodingService.geocode("adresse inconnue")).isNull();
+        verify(delegate, times(1)).geocode("adresse inconnue");
+
+        clock.advance(Duration.ofMinutes(6));
+        geocodingService.geocode("adresse inconnue");
+
+        verify(delegate, times(2)).geocode("adresse inconnue");
+        assertThat(meterRegistry.get(CachingGeocodingService.METRIC_REQUESTS)
+                .tag("cache", "forward").tag("result", "negative_hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Une panne du fournisseur rend null sans être mise en cache")
+    void geocode_providerFailureIsNotCached() {
+        when(delegate.geocode("Gare de Lyon, Paris"))
+                .thenThrow(new GeocodingException("BAN geocoding failed: Connection refused"))
+                .thenReturn(new GeoPoint(48.8443, 2.3730));
+
+        assertThat(geocodingService.geocode("Gare de Lyon, Paris")).isNull();
+        assertThat(geocodingService.geocode("Gare de Lyon, Paris").getLatitude()).isEqualTo(48.8443);
+        verify(delegate, times(2)).geocode("Gare de Lyon, Paris");
+    }
+
+    @Test
+    @DisplayName("Le géocodage par lot ne transmet au fournisseur que les adresses absentes du cache")
+    void geocodeAll_sendsOnlyMissesToDelegate() {
+        when(delegate.geocode("Gare de Lyon, Paris")).thenReturn(new GeoPoint(48.8443, 2.3730));
+        geocodingService.geocode("Gare de Lyon, Paris");
+        when(delegate.geocodeAll(List.of("Adresse inconnue", "La Défense")))
+                .thenReturn(Map.of("La Défense", new GeoPoint(48.8919, 2.2381)));
+
+        Map<String, GeoPoint> points = geocodingService.geocodeAll(
+                List.of("gare de lyon, paris", "Adresse inconnue", "La Défense"));
+
+        assertThat(points).containsOnlyKeys("gare de lyon, paris", "La Défense");
+        assertThat(geocodingService.geocode("adresse inconnue")).isNull();
+        verify(delegate, times(1)).geocodeAll(any());
+        verify(delegate, times(1)).geocode(anyString());
+    }
+}
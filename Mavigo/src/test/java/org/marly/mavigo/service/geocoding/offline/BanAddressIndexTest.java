@@ -0,0 +1,119 @@
+package org.marly.mavigo.service.geocoding.offline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BanAddressIndexTest {
+
+    static final String EXPORT = """
+            \uFEFFid;id_fantoir;numero;rep;nom_voie;code_postal;code_insee;nom_commune;x;y;lon;lat
+            92050_1234_00019;;19;;Place Jean Charcot;92000;92050;Nanterre;0;0;2.208100;48.896500
+            92050_1234_00021;;21;;Place Jean Charcot;92000;92050;Nanterre;0;0;2.208500;48.896600
+            92050_1234_00021_bis;;21;bis;Place Jean Charcot;92000;92050;Nanterre;0;0;2.208600;48.896700
+            92050_1234_00024;;24;;Place Jean Charcot;92000;92050;Nanterre;0;0;2.209000;48.896900
+            75112_5678_00010;;10;;Boulevard de l'Hôpital;75013;75113;Paris 13e Arrondissement;0;0;2.360000;48.840000
+            75112_5678_00012;;12;;Boulevard de l'Hôpital;75013;75113;Paris 13e Arrondissement;0;0;2.360200;48.839800
+            75112_9999_99999;;99999;;Les Grands Champs;75013;75113;Paris 13e Arrondissement;0;0;2.370000;48.830000
+            invalide;;1;;Rue Sans Coordonnees;75013;75113;Paris;0;0;;
+            """;
+
+    @TempDir
+    Path directory;
+
+    private BanAddressIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path source = directory.resolve("adresses-test.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(source))) {
+            out.write(EXPORT.getBytes(StandardCharsets.UTF_8));
+        }
+        Path file = directory.resolve("ban.idx");
+        assertThat(BanAddressIndexWriter.write(List.of(source), file)).isEqualTo(7);
+        index = BanAddressIndex.open(file);
+    }
+
+    @Test
+    @DisplayName("Le numéro exact de la rue est trouvé, accents et abréviations compris")
+    void geocode_findsExactNumber() {
+        BanAddressIndex.Match match = index.geocode("21 pl Jean-Charcot, 92000 Nanterre", 0.6);
+
+        assertThat(match).isNotNull();
+        assertThat(match.latitude()).isCloseTo(48.8966, within(1e-6));
+        assertThat(match.longitude()).isCloseTo(2.2085, within(1e-6));
+        assertThat(match.label()).isEqualTo("21 Place Jean Charcot 92000 Nanterre");
+        assertThat(index.geocode("12 bd de l'hopital paris", 0.6).label())
+                .isEqualTo("12 Boulevard de l'Hôpital 75013 Paris 13e Arrondissement");
+    }
+
+    @Test
+    @DisplayName("L'indice de répétition et le numéro le plus proche du même côté sont retenus")
+    void geocode_usesRepetitionThenClosestNumberOnSameSide() {
+        assertThat(index.geocode("21 bis place Jean Charcot Nanterre", 0.6).label())
+                .isEqualTo("21 bis Place Jean Charcot 92000 Nanterre");
+        assertThat(index.geocode("23 place Jean Charcot Nanterre", 0.6).label())
+                .isEqualTo("21 Place Jean Charcot 92000 Nanterre");
+    }
+
+    @Test
+    @DisplayName("Sans numéro, la position moyenne de la rue est rendue")
+    void geocode_returnsStreetCentreWithoutNumber() {
+        BanAddressIndex.Match match = index.geocode("Boulevard de l'Hôpital", 0.6);
+
+        assertThat(match.latitude()).isCloseTo(48.8399, within(1e-6));
+        assertThat(match.label()).isEqualTo("Boulevard de l'Hôpital 75013 Paris 13e Arrondissement");
+    }
+
+    @Test
+    @DisplayName("Une requête sans rue correspondante ne rend rien")
+    void geocode_rejectsUnrelatedQueries() {
+        assertThat(index.geocode("Gare de Lyon", 0.6)).isNull();
+        assertThat(index.geocode("Nanterre", 0.6)).isNull();
+        assertThat(index.geocode("", 0.6)).isNull();
+    }
+
+    @Test
+    @DisplayName("Une adresse d'une commune hors de l'index ne rend pas la rue homonyme importée")
+    void geocode_rejectsCommuneOutsideIndex() {
+        assertThat(index.geocode("12 boulevard de l'Hôpital 94000 Créteil", 0.6)).isNull();
+        assertThat(index.geocode("12 boulevard de l'Hôpital Créteil", 0.6)).isNull();
+        assertThat(index.geocode("12 boulevard de l'Hôpital 92000 Nanterre", 0.6)).isNull();
+        assertThat(index.geocode("12 boulevard de l'Hôpital Nanterre", 0.6)).isNull();
+    }
+
+    @Test
+    @DisplayName("Le géocodage inverse rend l'adresse la plus proche dans le rayon")
+    void reverse_returnsNearestAddressWithinRadius() {
+        BanAddressIndex.Match match = index.reverse(48.89691, 2.20899, 250);
+
+        assertThat(match.label()).isEqualTo("24 Place Jean Charcot 92000 Nanterre");
+        assertThat(index.reverse(48.83001, 2.37001, 250).label())
+                .isEqualTo("Les Grands Champs 75013 Paris 13e Arrondissement");
+        assertThat(index.reverse(48.70, 2.10, 250)).isNull();
+    }
+
+    @Test
+    @DisplayName("Les exports sans colonne attendue sont refusés")
+    void write_rejectsExportWithoutRequiredColumn() throws IOException {
+        Path source = directory.resolve("mauvais.csv");
+        Files.writeString(source, "numero;nom_voie;lon;lat\n1;Rue A;2.3;48.8\n");
+
+        assertThatThrownBy(() -> BanAddressIndexWriter.write(List.of(source), directory.resolve("other.idx")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("code_postal");
+    }
+}
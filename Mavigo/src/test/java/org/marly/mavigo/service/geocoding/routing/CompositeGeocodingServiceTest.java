@@ -0,0 +1,204 @@
+package org.marly.mavigo.service.geocoding.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingException;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CompositeGeocodingServiceTest {
+
+    private static final String ADDRESS = "21 place Jean Charcot, Nanterre";
+
+    private GeocodingService ban;
+    private GeocodingService nominatim;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ban = mock(GeocodingService.class);
+        nominatim = mock(GeocodingService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Un fournisseur lent est doublé par l'autre, qui passe ensuite en tête")
+    void geocode_hedgesToOtherProviderAfterDelay() {
+        CompositeGeocodingService composite = composite(Duration.ofMillis(100), Duration.ofSeconds(5));
+        when(ban.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return new GeoPoint(0.0, 0.0);
+        });
+        when(nominatim.geocode(ADDRESS)).thenReturn(new GeoPoint(48.8966, 2.2085));
+
+        long start = System.nanoTime();
+        GeoPoint point = composite.geocode(ADDRESS);
+
+        assertThat(point.getLatitude()).isEqualTo(48.8966);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get(CompositeGeocodingService.METRIC_HEDGES)
+                .tag("provider", "nominatim").tag("result", "won").counter().count()).isEqualTo(1.0);
+        assertThat(composite.ranking()).containsExactly("nominatim", "ban");
+    }
+
+    @Test
+    @DisplayName("Une réponse vide bascule aussitôt sur l'autre fournisseur")
+    void reverseGeocode_fallsBackAtOnceOnEmptyAnswer() {
+        CompositeGeocodingService composite = composite(Duration.ofSeconds(3), Duration.ofSeconds(5));
+        GeoPoint point = new GeoPoint(48.8966, 2.2085);
+        when(ban.reverseGeocode(point)).thenReturn(null);
+        when(nominatim.reverseGeocode(point)).thenReturn("Nanterre");
+
+        long start = System.nanoTime();
+        String name = composite.reverseGeocode(point);
+
+        assertThat(name).isEqualTo("Nanterre");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Sans historique, le premier fournisseur déclaré est seul interrogé")
+    void geocode_prefersDeclaredOrderWithoutHistory() {
+        CompositeGeocodingService composite = composite(Duration.ofSeconds(3), Duration.ofSeconds(5));
+        when(ban.geocode(ADDRESS)).thenReturn(new GeoPoint(48.8966, 2.2085));
+
+        assertThat(composite.ranking()).containsExactly("ban", "nominatim");
+        assertThat(composite.geocode(ADDRESS)).isNotNull();
+        verify(nominatim, never()).geocode(ADDRESS);
+    }
+
+    @Test
+    @DisplayName("Le délai global dépassé rend null")
+    void geocode_returnsNullPastTimeout() {
+        CompositeGeocodingService composite = composite(Duration.ofMillis(50), Duration.ofMillis(200));
+        when(ban.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+        when(nominatim.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        assertThat(composite.geocode(ADDRESS)).isNull();
+        assertThat(meterRegistry.get(CompositeGeocodingService.METRIC_TIMEOUTS).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Une adresse introuvable ne fait pas reculer le fournisseur dans le classement")
+    void geocode_emptyAnswerKeepsProviderRank() {
+        CompositeGeocodingService composite = composite(Duration.ofSeconds(3), Duration.ofSeconds(5));
+        when(ban.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return null;
+        });
+        when(nominatim.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return new GeoPoint(48.8966, 2.2085);
+        });
+
+        assertThat(composite.geocode(ADDRESS)).isNotNull();
+
+        assertThat(composite.ranking()).containsExactly("ban", "nominatim");
+    }
+
+    @Test
+    @DisplayName("Un fournisseur en panne qui échoue aussitôt recule derrière celui qui répond")
+    void geocode_fastFailingProviderIsDemoted() {
+        CompositeGeocodingService composite = composite(Duration.ofSeconds(3), Duration.ofSeconds(5));
+        when(ban.geocode(ADDRESS)).thenThrow(new GeocodingException("BAN geocoding failed: Connection refused"));
+        when(nominatim.geocode(ADDRESS)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return new GeoPoint(48.8966, 2.2085);
+        });
+
+        assertThat(composite.geocode(ADDRESS)).isNotNull();
+        assertThat(composite.ranking()).containsExactly("nominatim", "ban");
+
+        assertThat(composite.geocode(ADDRESS)).isNotNull();
+        verify(ban, times(1)).geocode(ADDRESS);
+        assertThat(meterRegistry.get(CompositeGeocodingService.METRIC_CALLS)
+                .tag("provider", "ban").tag("result", "error").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Un lot n'est jamais confié au fournisseur cadencé, qui ne reçoit que les adresses restantes une à une")
+    void geocodeAll_keepsPacedProviderOutOfBatches() {
+        GeocodingService nominatimDelegate = mock(GeocodingService.class);
+        PacedGeocodingService paced = new PacedGeocodingService(nominatimDelegate, "nominatim",
+                new PacedGeocodingService.Settings(Duration.ZERO, 20, Duration.ofSeconds(5)), meterRegistry);
+        Map<String, GeocodingService> providers = new LinkedHashMap<>();
+        providers.put("nominatim", paced);
+        providers.put("ban", ban);
+        CompositeGeocodingService composite = new CompositeGeocodingService(providers,
+                new CompositeGeocodingService.Settings(Duration.ofSeconds(3), Duration.ofSeconds(5), 0.5),
+                meterRegistry);
+        GeoPoint nanterre = new GeoPoint(48.8966, 2.2085);
+        when(ban.geocodeAll(List.of(ADDRESS, "Adresse inconnue"))).thenReturn(Map.of(ADDRESS, nanterre));
+        when(nominatimDelegate.geocode("Adresse inconnue")).thenReturn(new GeoPoint(48.85, 2.35));
+
+        Map<String, GeoPoint> points = composite.geocodeAll(List.of(ADDRESS, "Adresse inconnue", ADDRESS));
+
+        assertThat(points).containsOnlyKeys(ADDRESS, "Adresse inconnue");
+        assertThat(points.get(ADDRESS)).isSameAs(nanterre);
+        verify(nominatimDelegate, never()).geocodeAll(anyCollection());
+        verify(nominatimDelegate, never()).geocode(ADDRESS);
+    }
+
+    @Test
+    @DisplayName("Les adresses manquées par l'index hors ligne partent en lot vers la BAN avant tout appel unitaire")
+    void geocodeAll_resendsMissesToBatchEndpointBeforeOneByOne() {
+        GeocodingService offline = mock(GeocodingService.class);
+        GeocodingService other = mock(GeocodingService.class);
+        GeocodingService nominatimDelegate = mock(GeocodingService.class);
+        Map<String, GeocodingService> providers = new LinkedHashMap<>();
+        providers.put("offline", offline);
+        providers.put("other", other);
+        providers.put("ban", ban);
+        providers.put("nominatim", new PacedGeocodingService(nominatimDelegate, "nominatim",
+                new PacedGeocodingService.Settings(Duration.ZERO, 20, Duration.ofSeconds(5)), meterRegistry));
+        CompositeGeocodingService composite = new CompositeGeocodingService(providers,
+                new CompositeGeocodingService.Settings(Duration.ofSeconds(3), Duration.ofSeconds(5), 0.5),
+                meterRegistry);
+        GeoPoint nanterre = new GeoPoint(48.8966, 2.2085);
+        GeoPoint lille = new GeoPoint(50.6365, 3.0635);
+        when(ban.hasBatchEndpoint()).thenReturn(true);
+        when(offline.geocodeAll(List.of(ADDRESS, "Grand Place, Lille", "Adresse inconnue")))
+                .thenReturn(Map.of(ADDRESS, nanterre));
+        when(ban.geocodeAll(List.of("Grand Place, Lille", "Adresse inconnue")))
+                .thenReturn(Map.of("Grand Place, Lille", lille));
+        when(other.geocodeAll(List.of("Adresse inconnue"))).thenReturn(Map.of());
+
+        Map<String, GeoPoint> points = composite.geocodeAll(
+                List.of(ADDRESS, "Grand Place, Lille", "Adresse inconnue"));
+
+        assertThat(points).containsOnlyKeys(ADDRESS, "Grand Place, Lille");
+        verify(other).geocodeAll(List.of("Adresse inconnue"));
+        verify(nominatimDelegate).geocode("Adresse inconnue");
+        verify(nominatimDelegate, never()).geocodeAll(anyCollection());
+    }
+
+    private CompositeGeocodingService composite(Duration hedgeAfter, Duration timeout) {
+        Map<String, GeocodingService> providers = new LinkedHashMap<>();
+        providers.put("ban", ban);
+        providers.put("nominatim", nominatim);
+        return new CompositeGeocodingService(providers,
+                new CompositeGeocodingService.Settings(hedgeAfter, timeout, 0.5), meterRegistry);
+    }
+}
@@ -0,0 +1,144 @@
+package org.marly.mavigo.service.geocoding.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.service.geocoding.GeocodingException;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PacedGeocodingServiceTest {
+
+    private GeocodingService delegate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(GeocodingService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Deux requêtes différentes sont espacées d'au moins l'intervalle")
+    void geocode_spacesRequestsByInterval() {
+        PacedGeocodingService paced = paced(Duration.ofMillis(300), 10);
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        when(delegate.geocode(anyString())).thenAnswer(invocation -> {
+            starts.add(System.nanoTime());
+            return new GeoPoint(48.85, 2.35);
+        });
+
+        CompletableFuture<GeoPoint> first = CompletableFuture.supplyAsync(() -> paced.geocode("Adresse 1"));
+        CompletableFuture<GeoPoint> second = CompletableFuture.supplyAsync(() -> paced.geocode("Adresse 2"));
+
+        assertThat(first.join()).isNotNull();
+        assertThat(second.join()).isNotNull();
+        assertThat(starts).hasSize(2);
+        assertThat(Duration.ofNanos(Math.abs(starts.get(1) - starts.get(0))))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(290));
+    }
+
+    @Test
+    @DisplayName("Les requêtes identiques en attente partagent un seul appel")
+    void geocode_deduplicatesPendingRequests() throws InterruptedException {
+        PacedGeocodingService paced = paced(Duration.ZERO, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.geocode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return new GeoPoint(48.85, 2.35);
+        });
+
+        CompletableFuture<GeoPoint> first = CompletableFuture.supplyAsync(() -> paced.geocode("Gare de Lyon, Paris"));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<GeoPoint> second = CompletableFuture.supplyAsync(() -> paced.geocode("gare de lyon,  paris"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(first.join()).isNotNull();
+        assertThat(second.join()).isNotNull();
+        verify(delegate, times(1)).geocode(anyString());
+        assertThat(meterRegistry.get(PacedGeocodingService.METRIC_REQUESTS)
+                .tag("result", "deduplicated").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Une file pleine refuse la requête au lieu de l'attendre")
+    void geocode_rejectsWhenQueueIsFull() throws InterruptedException {
+        PacedGeocodingService paced = paced(Duration.ZERO, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.geocode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return new GeoPoint(48.85, 2.35);
+        });
+
+        CompletableFuture<GeoPoint> running = CompletableFuture.supplyAsync(() -> paced.geocode("Adresse 1"));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<GeoPoint> queued = CompletableFuture.supplyAsync(() -> paced.geocode("Adresse 2"));
+        while (paced.queueDepth() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> paced.geocode("Adresse 3")).isInstanceOf(GeocodingException.class);
+        release.countDown();
+        assertThat(running.join()).isNotNull();
+        assertThat(queued.join()).isNotNull();
+        assertThat(meterRegistry.get(PacedGeocodingService.METRIC_REQUESTS)
+                .tag("result", "rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Une requête en file abandonnée par son appelant n'est jamais envoyée au fournisseur")
+    void geocode_dropsQueuedRequestOnceItsCallerGivesUp() throws InterruptedException {
+        PacedGeocodingService paced = paced(Duration.ZERO, 10, Duration.ofMillis(200));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.geocode(anyString())).thenAnswer(invocation -> {
+            if ("Adresse 1".equals(invocation.getArgument(0))) {
+                started.countDown();
+                release.await(2, TimeUnit.SECONDS);
+            }
+            return new GeoPoint(48.85, 2.35);
+        });
+
+        CompletableFuture.runAsync(() -> paced.geocode("Adresse 1"));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> paced.geocode("Adresse 2")).isInstanceOf(GeocodingException.class);
+        assertThat(paced.queueDepth()).isZero();
+        release.countDown();
+
+        // Requests run in order: had "Adresse 2" stayed queued, it would run before this one
+        assertThat(paced.geocode("Adresse 3")).isNotNull();
+        verify(delegate, never()).geocode("Adresse 2");
+    }
+
+    private PacedGeocodingService paced(Duration interval, int maxQueue) {
+        return paced(interval, maxQueue, Duration.ofSeconds(5));
+    }
+
+    private PacedGeocodingService paced(Duration interval, int maxQueue, Duration maxWait) {
+        return new PacedGeocodingService(delegate, "nominatim",
+                new PacedGeocodingService.Settings(interval, maxQueue, maxWait), meterRegistry);
+    }
+}
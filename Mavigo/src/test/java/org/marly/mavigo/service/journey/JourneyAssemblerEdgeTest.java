@@ -10,6 +10,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.marly.mavigo.client.prim.dto.PrimJourneyPlanDto;
+import org.marly.mavigo.controller.dto.JourneyResponse;
 import org.marly.mavigo.models.journey.Journey;
 import org.marly.mavigo.models.journey.JourneyPointType;
 import org.marly.mavigo.models.journey.JourneySegment;
@@ -49,6 +50,25 @@ class JourneyAssemblerEdgeTest {
         assertThat(journey.getDestinationCoordinate().getLongitude()).isEqualTo(2.4002);
     }
 
+    @Test
+    void assemble_carriesStaleFlagToResponse() {
+        StopArea origin = new StopArea("origin", "Origin", new GeoPoint(48.80, 2.30));
+        StopArea destination = new StopArea("destination", "Destination", new GeoPoint(48.90, 2.40));
+        PrimJourneyPlanDto plan = plan(
+                "plan-stale",
+                OffsetDateTime.now(),
+                OffsetDateTime.now().plusMinutes(20),
+                List.of(leg("section-1", "public_transport", "Metro", "M1",
+                        null, null, 48.8001, 2.3001, 48.9002, 2.4002, 1200, null)));
+
+        Journey fresh = assembler.assemble(user, origin, destination, plan, null);
+        Journey stale = assembler.assemble(user, origin, destination, plan.asStale(), null);
+
+        assertThat(JourneyResponse.from(fresh).stale()).isFalse();
+        assertThat(stale.isStale()).isTrue();
+        assertThat(JourneyResponse.from(stale).stale()).isTrue();
+    }
+
     @Test
     void assemble_setsDistanceToZeroWhenCoordinatesAreMissing() {
         StopArea origin = new StopArea("origin", "Origin", null);
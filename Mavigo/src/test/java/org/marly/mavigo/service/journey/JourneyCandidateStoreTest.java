@@ -0,0 +1,87 @@
+package org.marly.mavigo.service.journey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.cache.MutableClock;
+import org.marly.mavigo.models.journey.Journey;
+import org.marly.mavigo.models.journey.JourneyPoint;
+import org.marly.mavigo.models.journey.JourneyPointType;
+import org.marly.mavigo.models.journey.JourneySegment;
+import org.marly.mavigo.models.journey.SegmentType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JourneyCandidateStoreTest {
+
+    @Test
+    @DisplayName("Un candidat ne peut être sélectionné qu'une fois")
+    void select_handsOverCandidateOnce() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JourneyCandidateStore store = new JourneyCandidateStore(true, Duration.ofMinutes(30), 10, 0,
+                meterRegistry, new MutableClock());
+        Journey journey = journey(2);
+
+        UUID candidateId = store.offer(journey);
+
+        assertThat(store.select(candidateId)).isSameAs(journey);
+        assertThat(store.select(candidateId)).isNull();
+        assertThat(store.size()).isZero();
+        assertThat(meterRegistry.get(JourneyCandidateStore.METRIC_REQUESTS).tag("result", "selected").counter()
+                .count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get(JourneyCandidateStore.METRIC_REQUESTS).tag("result", "missed").counter()
+                .count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Un candidat expiré n'est plus sélectionnable")
+    void select_returnsNullAfterTtl() {
+        MutableClock clock = new MutableClock();
+        JourneyCandidateStore store = new JourneyCandidateStore(true, Duration.ofMinutes(30), 10, 0,
+                new SimpleMeterRegistry(), clock);
+
+        UUID candidateId = store.offer(journey(1));
+        clock.advance(Duration.ofMinutes(31));
+
+        assertThat(store.select(candidateId)).isNull();
+        assertThat(store.select(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    @DisplayName("Le nombre de points borne les candidats gardés en mémoire")
+    void offer_evictsOldestCandidatesBeyondPointBudget() {
+        JourneyCandidateStore store = new JourneyCandidateStore(true, Duration.ofMinutes(30), 10, 20,
+                new SimpleMeterRegistry(), new MutableClock());
+
+        // 1 journey + 2 segments + 2 x 3 points = 9
+        UUID first = store.offer(journey(3));
+        UUID second = store.offer(journey(3));
+        UUID third = store.offer(journey(3));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.select(first)).isNull();
+        assertThat(store.select(second)).isNotNull();
+        assertThat(store.select(third)).isNotNull();
+    }
+
+    private static Journey journey(int pointsPerSegment) {
+        OffsetDateTime departure = OffsetDateTime.parse("2025-01-15T08:00:00Z");
+        Journey journey = new Journey(null, "Gare de Lyon", "Châtelet", departure, departure.plusMinutes(20));
+        List<JourneySegment> segments = List.of(
+                new JourneySegment(journey, 0, SegmentType.PUBLIC_TRANSPORT),
+                new JourneySegment(journey, 1, SegmentType.WALKING));
+        for (JourneySegment segment : segments) {
+            for (int i = 0; i < pointsPerSegment; i++) {
+                segment.addPoint(new JourneyPoint(segment, i, JourneyPointType.INTERMEDIATE_STOP, "Stop " + i));
+            }
+        }
+        journey.replaceSegments(segments);
+        return journey;
+    }
+}
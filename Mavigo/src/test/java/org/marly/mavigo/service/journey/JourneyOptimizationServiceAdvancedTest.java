@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -28,8 +30,8 @@ import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.task.TaskSource;
 import org.marly.mavigo.models.task.UserTask;
 import org.marly.mavigo.models.user.User;
-import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
 import org.mockito.InjectMocks;
@@ -42,9 +44,9 @@ class JourneyOptimizationServiceAdvancedTest {
     @Mock
     private JourneyPlanningService journeyPlanningService;
     @Mock
-    private JourneyRepository journeyRepository;
-    @Mock
     private UserTaskRepository userTaskRepository;
+    @Mock
+    private GeocodingService geocodingService;
 
     @InjectMocks
     private JourneyOptimizationService service;
@@ -98,7 +100,7 @@ class JourneyOptimizationServiceAdvancedTest {
                 .planOptimizedJourneyWithTasks(parameters, List.of(t1, t2));
 
         assertTrue(results.isEmpty());
-        verify(journeyPlanningService, times(0)).planAndPersist(any());
+        verify(journeyPlanningService, times(0)).plan(any());
     }
 
     @Test
@@ -107,9 +109,8 @@ class JourneyOptimizationServiceAdvancedTest {
         Journey seg1 = journeyWithSingleSegment("Origin", "Task Place", 900, 48.8566, 2.3522);
         Journey seg2 = journeyWithSingleSegment("Task Place", "Destination", 1200, 48.8570, 2.3600);
 
-        when(journeyPlanningService.planAndPersist(any()))
+        when(journeyPlanningService.plan(any()))
                 .thenReturn(List.of(seg1), List.of(seg2), List.of(), List.of());
-        when(journeyRepository.save(any(Journey.class))).thenAnswer(inv -> inv.getArgument(0));
 
         List<JourneyOptimizationService.OptimizedJourneyResult> results = service
                 .planOptimizedJourneyWithTaskDetails(parameters, List.of(task));
@@ -124,6 +125,25 @@ class JourneyOptimizationServiceAdvancedTest {
         assertTrue(result.journey().getSegments().stream().allMatch(s -> !s.getPoints().isEmpty()));
     }
 
+    @Test
+    void planOptimizedJourneyWithTaskDetails_geocodesTasksWithoutCoordinatesInOneBatch() {
+        when(geocodingService.geocodeAll(Set.of("Task Place")))
+                .thenReturn(Map.of("Task Place", new GeoPoint(48.8568, 2.3530)));
+        Journey seg1 = journeyWithSingleSegment("Origin", "Task Place", 900, 48.8566, 2.3522);
+        Journey seg2 = journeyWithSingleSegment("Task Place", "Destination", 1200, 48.8570, 2.3600);
+        when(journeyPlanningService.plan(any()))
+                .thenReturn(List.of(seg1), List.of(seg2), List.of(), List.of());
+
+        List<JourneyOptimizationService.OptimizedJourneyResult> results = service
+                .planOptimizedJourneyWithTaskDetails(parameters, List.of(
+                        new TaskDetailDto("task-1", "Groceries", "Task Place", null, null, false),
+                        new TaskDetailDto("task-2", "Unknown", "", null, null, false)));
+
+        assertEquals(1, results.size());
+        assertEquals("task-1", results.get(0).includedTasks().get(0).id());
+        verify(geocodingService, times(1)).geocodeAll(any());
+    }
+
     @Test
     void planOptimizedJourneyWithTaskDetails_capsReturnedPathsToFive() {
         TaskDetailDto task = new TaskDetailDto("task-2", "Pickup", "Task Place", 48.8568, 2.3530, false);
@@ -136,7 +156,7 @@ class JourneyOptimizationServiceAdvancedTest {
             sixOptions.add(journeyWithSingleSegment("Origin", "Task Place", 600 + i, 48.8566, 2.3522));
         }
 
-        when(journeyPlanningService.planAndPersist(any())).thenReturn(
+        when(journeyPlanningService.plan(any())).thenReturn(
                 List.of(seg1),  // calculateJourneyWithTaskOpt segment1
                 List.of(seg2),  // calculateJourneyWithTaskOpt segment2
                 List.of(base),  // base journey
@@ -147,20 +167,20 @@ class JourneyOptimizationServiceAdvancedTest {
                 List.of(seg2),  // path 4 segment2
                 List.of(seg2)); // path 5 segment2
 
-        when(journeyRepository.save(any(Journey.class))).thenAnswer(inv -> inv.getArgument(0));
 
         List<JourneyOptimizationService.OptimizedJourneyResult> results = service
                 .planOptimizedJourneyWithTaskDetails(parameters, List.of(task));
 
         assertEquals(5, results.size());
-        verify(journeyPlanningService, times(9)).planAndPersist(any());
+        verify(journeyPlanningService, times(9)).plan(any());
+        verify(journeyPlanningService, times(0)).persist(any());
     }
 
     @Test
     void planOptimizedJourneyWithTaskDetails_returnsEmptyWhenCandidateComputationFails() {
         TaskDetailDto task = new TaskDetailDto("task-3", "Broken", "Task Place", 48.8568, 2.3530, false);
 
-        when(journeyPlanningService.planAndPersist(any()))
+        when(journeyPlanningService.plan(any()))
                 .thenThrow(new RuntimeException("planner failed"));
 
         List<JourneyOptimizationService.OptimizedJourneyResult> results = service
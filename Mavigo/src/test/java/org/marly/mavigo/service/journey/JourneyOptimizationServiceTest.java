@@ -18,8 +18,8 @@ import org.marly.mavigo.models.journey.Journey;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.task.UserTask;
 import org.marly.mavigo.models.user.User;
-import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.repository.UserTaskRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
 import org.mockito.InjectMocks;
@@ -32,9 +32,9 @@ class JourneyOptimizationServiceTest {
         @Mock
         private JourneyPlanningService journeyPlanningService;
         @Mock
-        private JourneyRepository journeyRepository;
-        @Mock
         private UserTaskRepository userTaskRepository;
+        @Mock
+        private GeocodingService geocodingService;
 
         @InjectMocks
         private JourneyOptimizationService journeyOptimizationService;
@@ -78,12 +78,9 @@ class JourneyOptimizationServiceTest {
 
                 // Mocking journeyPlanningService calls
                 // Segment 1
-                when(journeyPlanningService.planAndPersist(any())).thenReturn(List.of(seg1), List.of(seg2),
+                when(journeyPlanningService.plan(any())).thenReturn(List.of(seg1), List.of(seg2),
                                 List.of(baseJourney));
 
-                // Mocking repo save for aggregated journey
-                when(journeyRepository.save(any(Journey.class))).thenAnswer(i -> i.getArguments()[0]);
-
                 var results = journeyOptimizationService.planOptimizedJourneyWithTasks(params, List.of(taskId));
 
                 assertThat(results).isNotEmpty();
@@ -27,12 +27,18 @@ import org.marly.mavigo.models.journey.SegmentType;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.stoparea.StopArea;
 import org.marly.mavigo.models.user.User;
+import org.marly.mavigo.repository.JourneyBulkRepository;
 import org.marly.mavigo.repository.JourneyRepository;
 import org.marly.mavigo.repository.UserRepository;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningContext;
 import org.marly.mavigo.service.journey.dto.JourneyPlanningParameters;
 import org.marly.mavigo.service.journey.dto.JourneyPreferences;
+import org.marly.mavigo.service.stoparea.SequentialStopAreaEndpointResolver;
 import org.marly.mavigo.service.stoparea.StopAreaService;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @DisplayName("Tests unitaires - JourneyPlanningServiceImpl")
 class JourneyPlanningServiceImplTest {
@@ -62,12 +68,16 @@ class JourneyPlanningServiceImplTest {
 
                 service = new JourneyPlanningServiceImpl(
                                 primApiClient,
-                                stopAreaService,
                                 journeyRepository,
                                 userRepository,
                                 journeyAssembler,
                                 primJourneyRequestFactory,
-                                journeyResultFilter);
+                                journeyResultFilter,
+                                new SequentialStopAreaEndpointResolver(stopAreaService),
+                                null,
+                                TransactionOperations.withoutTransaction(),
+                                TransactionOperations.withoutTransaction(),
+                                new SimpleMeterRegistry());
 
                 testUser = new User("ext-123", "test@example.com", "Test User");
                 testUser.setId(UUID.randomUUID());
@@ -463,6 +473,133 @@ class JourneyPlanningServiceImplTest {
                 assertNotNull(result);
         }
 
+        @Test
+        @DisplayName("planAndPersist appelle PRIM hors transaction puis écrit les trajets dans une transaction courte")
+        void planAndPersist_callsPrimOutsideTransactionAndRecordsHoldTime() {
+                // Given
+                boolean[] inTransaction = { false };
+                TransactionOperations transaction = new TransactionOperations() {
+                        @Override
+                        public <T> T execute(TransactionCallback<T> action) {
+                                inTransaction[0] = true;
+                                try {
+                                        return action.doInTransaction(null);
+                                } finally {
+                                        inTransaction[0] = false;
+                                }
+                        }
+                };
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                JourneyPlanningServiceImpl pipelined = new JourneyPlanningServiceImpl(
+                                primApiClient, journeyRepository, userRepository, journeyAssembler,
+                                primJourneyRequestFactory, journeyResultFilter,
+                                new SequentialStopAreaEndpointResolver(stopAreaService), null,
+                                transaction, transaction, meterRegistry);
+                JourneyPlanningParameters parameters = new JourneyPlanningParameters(
+                                testUser.getId(),
+                                "Gare de Lyon",
+                                "Châtelet",
+                                LocalDateTime.now(),
+                                JourneyPreferences.disabled(),
+                                false,
+                                false);
+                PrimJourneyPlanDto journeyPlan = createMockJourneyPlan("journey-1");
+
+                when(stopAreaService.findOrCreateByQuery("Gare de Lyon")).thenReturn(originStopArea);
+                when(stopAreaService.findOrCreateByQuery("Châtelet")).thenReturn(destinationStopArea);
+                when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+                when(primJourneyRequestFactory.create(any(JourneyPlanningContext.class)))
+                                .thenReturn(new PrimJourneyRequest("stop:origin", "stop:destination",
+                                                LocalDateTime.now()));
+                when(primApiClient.calculateJourneyPlans(any(PrimJourneyRequest.class))).thenAnswer(i -> {
+                        assertFalse(inTransaction[0], "PRIM must not be called inside a transaction");
+                        return List.of(journeyPlan);
+                });
+                when(journeyResultFilter.filterByComfortProfile(anyList(), any(JourneyPlanningContext.class),
+                                anyBoolean()))
+                                .thenReturn(List.of(journeyPlan));
+                when(journeyAssembler.assemble(any(), any(), any(), any(), any())).thenReturn(createMockJourney());
+                when(journeyRepository.save(any(Journey.class))).thenAnswer(i -> {
+                        assertTrue(inTransaction[0], "Journeys must be saved inside a transaction");
+                        return i.getArguments()[0];
+                });
+
+                // When
+                List<Journey> result = pipelined.planAndPersist(parameters);
+
+                // Then
+                assertEquals(1, result.size());
+                verify(primApiClient).calculateJourneyPlans(any(PrimJourneyRequest.class));
+                assertEquals(1, meterRegistry.get(JourneyPlanningServiceImpl.METRIC_CONNECTION_HOLD)
+                                .tag("operation", "plan").timer().count());
+        }
+
+        @Test
+        @DisplayName("plan assemble les trajets sans les écrire, persist écrit seulement ceux qu'on lui donne")
+        void plan_assemblesJourneysWithoutSavingThem() {
+                // Given
+                JourneyPlanningParameters parameters = new JourneyPlanningParameters(
+                                testUser.getId(),
+                                "Gare de Lyon",
+                                "Châtelet",
+                                LocalDateTime.now(),
+                                JourneyPreferences.disabled(),
+                                false,
+                                false);
+                PrimJourneyPlanDto first = createMockJourneyPlan("journey-1");
+                PrimJourneyPlanDto second = createMockJourneyPlan("journey-2");
+
+                when(stopAreaService.findOrCreateByQuery("Gare de Lyon")).thenReturn(originStopArea);
+                when(stopAreaService.findOrCreateByQuery("Châtelet")).thenReturn(destinationStopArea);
+                when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+                when(primJourneyRequestFactory.create(any(JourneyPlanningContext.class)))
+                                .thenReturn(new PrimJourneyRequest("stop:origin", "stop:destination",
+                                                LocalDateTime.now()));
+                when(primApiClient.calculateJourneyPlans(any(PrimJourneyRequest.class)))
+                                .thenReturn(List.of(first, second));
+                when(journeyResultFilter.filterByComfortProfile(anyList(), any(JourneyPlanningContext.class),
+                                anyBoolean()))
+                                .thenReturn(List.of(first, second));
+                when(journeyAssembler.assemble(any(), any(), any(), any(), any()))
+                                .thenAnswer(i -> createMockJourney());
+
+                // When
+                List<Journey> planned = service.plan(parameters);
+
+                // Then
+                assertEquals(2, planned.size());
+                verify(journeyRepository, never()).save(any(Journey.class));
+
+                when(journeyRepository.save(any(Journey.class))).thenAnswer(i -> i.getArguments()[0]);
+                List<Journey> persisted = service.persist(List.of(planned.get(1)));
+
+                assertEquals(List.of(planned.get(1)), persisted);
+                verify(journeyRepository, times(1)).save(planned.get(1));
+        }
+
+        @Test
+        @DisplayName("persist écrit les trajets en JDBC groupé quand l'écriture groupée est activée")
+        void persist_writesJourneysThroughBulkRepositoryWhenEnabled() {
+                // Given
+                JourneyBulkRepository journeyBulkRepository = mock(JourneyBulkRepository.class);
+                when(journeyBulkRepository.isEnabled()).thenReturn(true);
+                JourneyPlanningServiceImpl bulk = new JourneyPlanningServiceImpl(
+                                primApiClient, journeyRepository, userRepository, journeyAssembler,
+                                primJourneyRequestFactory, journeyResultFilter,
+                                new SequentialStopAreaEndpointResolver(stopAreaService), journeyBulkRepository,
+                                TransactionOperations.withoutTransaction(), TransactionOperations.withoutTransaction(),
+                                new SimpleMeterRegistry());
+                List<Journey> journeys = List.of(createMockJourney(), createMockJourney());
+
+                // When
+                List<Journey> persisted = bulk.persist(journeys);
+
+                // Then
+                assertEquals(journeys, persisted);
+                verify(journeyBulkRepository, times(1)).insertAll(journeys);
+                verify(journeyRepository, never()).save(any(Journey.class));
+        }
+
         // Helper methods
 
         private PrimJourneyPlanDto createMockJourneyPlan(String journeyId) {
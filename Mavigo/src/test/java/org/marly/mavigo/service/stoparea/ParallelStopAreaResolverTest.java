@@ -0,0 +1,146 @@
+package org.marly.mavigo.service.stoparea;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.marly.mavigo.service.stoparea.ParallelStopAreaResolver.Outcome;
+import org.marly.mavigo.service.stoparea.ParallelStopAreaResolver.Scored;
+import org.marly.mavigo.service.stoparea.ParallelStopAreaResolver.Strategy;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+class ParallelStopAreaResolverTest {
+
+    private final ParallelStopAreaResolver resolver = new ParallelStopAreaResolver(true, Duration.ofSeconds(5), 0.9);
+
+    @Test
+    @DisplayName("Un résultat au-dessus du seuil d'acceptation interrompt les stratégies lentes")
+    void resolve_acceptedResultCancelsSlowStrategies() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Strategy<String> slow = new Strategy<>("slow", 0.7, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return Optional.empty();
+        });
+        Strategy<String> fast = new Strategy<>("fast", 1.0, () -> {
+            awaitQuietly(started);
+            return Optional.of(new Scored<>("gare", 0.95));
+        });
+
+        Outcome<String> outcome = resolver.resolve(List.of(slow, fast), resolver.newDeadline());
+
+        assertThat(outcome.winner()).isEqualTo("fast");
+        assertThat(outcome.best()).map(Scored::value).contains("gare");
+        assertThat(outcome.timedOut()).isFalse();
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un résultat moyen attend une stratégie capable de faire mieux")
+    void resolve_waitsForStrategyThatCanScoreHigher() {
+        Strategy<String> geocode = new Strategy<>("geocode", 0.7, () -> Optional.of(new Scored<>("adresse", 0.7)));
+        Strategy<String> prim = new Strategy<>("prim", 1.0, () -> {
+            sleep(200);
+            return Optional.of(new Scored<>("arrêt", 0.85));
+        });
+
+        Outcome<String> outcome = resolver.resolve(List.of(geocode, prim), resolver.newDeadline());
+
+        assertThat(outcome.winner()).isEqualTo("prim");
+        assertThat(outcome.best()).map(Scored::score).contains(0.85);
+    }
+
+    @Test
+    @DisplayName("L'échéance dépassée rend le meilleur résultat obtenu jusque-là")
+    void resolve_deadlineReturnsBestSoFar() {
+        Strategy<String> geocode = new Strategy<>("geocode", 0.7, () -> Optional.of(new Scored<>("adresse", 0.7)));
+        Strategy<String> prim = new Strategy<>("prim", 1.0, () -> {
+            sleep(10_000);
+            return Optional.empty();
+        });
+
+        Outcome<String> outcome = resolver.resolve(List.of(geocode, prim),
+                System.nanoTime() + Duration.ofMillis(150).toNanos());
+
+        assertThat(outcome.timedOut()).isTrue();
+        assertThat(outcome.winner()).isEqualTo("geocode");
+    }
+
+    @Test
+    @DisplayName("Un appel isolé est abandonné à l'échéance et interrompu")
+    void callBefore_abandonsLookupAtDeadline() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> resolver.callBefore(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "trop tard";
+        }, System.nanoTime() + Duration.ofMillis(150).toNanos(), "budget dépassé"))
+                .isInstanceOf(StopAreaResolutionTimeoutException.class)
+                .hasMessage("budget dépassé");
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un appel isolé rend sa réponse ou son exception telle quelle")
+    void callBefore_returnsResultOrRethrowsFailure() {
+        assertThat(resolver.callBefore(() -> "gare", resolver.newDeadline(), "budget dépassé")).isEqualTo("gare");
+        assertThat(resolver.<String>callBefore(() -> null, resolver.newDeadline(), "budget dépassé")).isNull();
+        assertThatThrownBy(() -> resolver.callBefore(() -> {
+            throw new IllegalArgumentException("introuvable");
+        }, resolver.newDeadline(), "budget dépassé"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("introuvable");
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    @DisplayName("Les échecs répétés d'une stratégie ne produisent qu'un avertissement par minute")
+    void resolve_warnsAboutFailingStrategiesAtMostOncePerMinute(CapturedOutput output) {
+        Strategy<String> failing = new Strategy<>("prim", 1.0, () -> {
+            throw new IllegalStateException("PRIM indisponible");
+        });
+
+        for (int i = 0; i < 3; i++) {
+            Outcome<String> outcome = resolver.resolve(List.of(failing), resolver.newDeadline());
+            assertThat(outcome.best()).isEmpty();
+        }
+
+        assertThat(output.getAll().lines()
+                .filter(line -> line.contains("WARN") && line.contains("Stop-area strategy 'prim' failed")))
+                .hasSize(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
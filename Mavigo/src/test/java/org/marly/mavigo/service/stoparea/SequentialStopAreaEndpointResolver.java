@@ -0,0 +1,31 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.marly.mavigo.models.stoparea.StopArea;
+
+/**
+ * A {@link StopAreaEndpointResolver} for unit tests of the services planning from endpoints: each
+ * query goes through {@link StopAreaService#findOrCreateByQuery} in turn, on the test thread, so
+ * tests stub that single method.
+ */
+public final class SequentialStopAreaEndpointResolver extends StopAreaEndpointResolver {
+
+    private final StopAreaService stopAreaService;
+
+    public SequentialStopAreaEndpointResolver(StopAreaService stopAreaService) {
+        super(stopAreaService, Duration.ZERO);
+        this.stopAreaService = stopAreaService;
+    }
+
+    @Override
+    public List<StopArea> resolveAll(String... queries) {
+        List<StopArea> stopAreas = new ArrayList<>(queries.length);
+        for (String query : queries) {
+            stopAreas.add(stopAreaService.findOrCreateByQuery(query));
+        }
+        return stopAreas;
+    }
+}
@@ -0,0 +1,84 @@
+package org.marly.mavigo.service.stoparea;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.stoparea.StopArea;
+
+class StopAreaEndpointResolverTest {
+
+    private StopAreaService stopAreaService;
+    private StopAreaEndpointResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        stopAreaService = mock(StopAreaService.class);
+        resolver = new StopAreaEndpointResolver(stopAreaService, Duration.ofSeconds(5));
+        when(stopAreaService.persistResolutions(anyList())).thenAnswer(invocation -> {
+            List<StopAreaResolution> resolutions = invocation.getArgument(0);
+            return resolutions.stream().map(StopAreaResolution::stopArea).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Départ et arrivée sont résolus en même temps puis enregistrés ensemble")
+    void resolveAll_resolvesEndpointsConcurrentlyThenPersistsOnce() {
+        // Each resolution waits for the other: both must be in flight at once
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        when(stopAreaService.resolveDetached(anyString())).thenAnswer(invocation -> {
+            String query = invocation.getArgument(0);
+            bothStarted.await(2, TimeUnit.SECONDS);
+            return StopAreaResolution.persisted(query, new StopArea("id:" + query, query, null));
+        });
+
+        List<StopArea> endpoints = resolver.resolveAll("Gare de Lyon", "Châtelet", "Gare de Lyon");
+
+        assertThat(endpoints).extracting(StopArea::getName).containsExactly("Gare de Lyon", "Châtelet", "Gare de Lyon");
+        verify(stopAreaService, times(2)).resolveDetached(anyString());
+        verify(stopAreaService).persistResolutions(anyList());
+    }
+
+    @Test
+    @DisplayName("L'échec d'une extrémité est remonté tel quel, sans rien enregistrer")
+    void resolveAll_rethrowsEndpointFailure() {
+        when(stopAreaService.resolveDetached("Gare de Lyon"))
+                .thenReturn(StopAreaResolution.persisted("Gare de Lyon", new StopArea("id", "Gare de Lyon", null)));
+        when(stopAreaService.resolveDetached("Nulle part"))
+                .thenThrow(new IllegalArgumentException("No transit stop found for: \"Nulle part\""));
+
+        assertThatThrownBy(() -> resolver.resolveAll("Gare de Lyon", "Nulle part"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Nulle part");
+        verify(stopAreaService, never()).persistResolutions(any());
+    }
+
+    @Test
+    @DisplayName("Le budget commun dépassé interrompt la résolution")
+    void resolveAll_failsWhenSharedBudgetIsSpent() {
+        resolver = new StopAreaEndpointResolver(stopAreaService, Duration.ofMillis(100));
+        when(stopAreaService.resolveDetached(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        assertThatThrownBy(() -> resolver.resolveAll("Gare de Lyon", "Châtelet"))
+                .isInstanceOf(StopAreaResolutionTimeoutException.class);
+        verify(stopAreaService, never()).persistResolutions(any());
+    }
+}
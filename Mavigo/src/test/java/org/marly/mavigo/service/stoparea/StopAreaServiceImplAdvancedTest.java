@@ -9,10 +9,12 @@ import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -26,8 +28,10 @@ import org.marly.mavigo.client.prim.model.PrimStopArea;
 import org.marly.mavigo.client.prim.model.PrimStopPoint;
 import org.marly.mavigo.models.shared.GeoPoint;
 import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.repository.StopAreaBulkRepository;
 import org.marly.mavigo.repository.StopAreaRepository;
 import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataIntegrityViolationException;
 
 class StopAreaServiceImplAdvancedTest {
@@ -42,7 +46,7 @@ class StopAreaServiceImplAdvancedTest {
         stopAreaRepository = org.mockito.Mockito.mock(StopAreaRepository.class);
         primApiClient = org.mockito.Mockito.mock(PrimApiClient.class);
         geocodingService = org.mockito.Mockito.mock(GeocodingService.class);
-        service = new StopAreaServiceImpl(stopAreaRepository, primApiClient, geocodingService);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService).build();
     }
 
     @Test
@@ -143,6 +147,26 @@ class StopAreaServiceImplAdvancedTest {
         assertThrows(IllegalStateException.class, () -> service.saveStopAreas(List.of(place)));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveStopAreas_insertsDistinctStopsInOneBatchWithoutLookups() {
+        StopAreaBulkRepository bulkRepository = org.mockito.Mockito.mock(StopAreaBulkRepository.class);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .bulkRepository(bulkRepository)
+                .build();
+        PrimPlace invalid = new PrimPlace("x", "invalid", "address", null, null, null);
+
+        service.saveStopAreas(List.of(stopAreaPlace("sa-1", "Station A"), invalid,
+                stopPointPlace("sp-1", "Point B"), stopAreaPlace("sa-1", "Station A")));
+
+        ArgumentCaptor<Collection<StopArea>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(bulkRepository).insertAllIfAbsent(batch.capture());
+        assertEquals(List.of("sa-1", "sp-1"),
+                batch.getValue().stream().map(StopArea::getExternalId).toList());
+        verify(stopAreaRepository, never()).findByExternalId(anyString());
+        verify(stopAreaRepository, never()).save(any(StopArea.class));
+    }
+
     private PrimPlace stopAreaPlace(String id, String name) {
         PrimCoordinates coordinates = new PrimCoordinates(48.8566, 2.3522);
         return new PrimPlace(id, name, "stop_area", new PrimStopArea(id, name, coordinates), null, coordinates);
@@ -0,0 +1,72 @@
+package org.marly.mavigo.service.stoparea;
+
+import java.util.Optional;
+
+import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.repository.StopAreaBulkRepository;
+import org.marly.mavigo.repository.StopAreaRepository;
+import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.marly.mavigo.service.stoparea.alias.StopAreaAliasStore;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.gazetteer.StopAreaGazetteer;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
+
+/**
+ * Builds a {@link StopAreaServiceImpl} for unit tests: empty local indexes, no alias store, the
+ * sequential chain and one-by-one saves, unless a test sets its own collaborator.
+ */
+final class StopAreaServiceImplBuilder {
+
+    private final StopAreaRepository stopAreaRepository;
+    private final PrimApiClient primApiClient;
+    private final GeocodingService geocodingService;
+    private StopAreaGazetteer gazetteer = new StopAreaGazetteer();
+    private StopAreaSpatialIndex spatialIndex = new StopAreaSpatialIndex();
+    private StopAreaNameIndex nameIndex = new StopAreaNameIndex();
+    private StopAreaAliasStore aliasStore = StopAreaAliasStore.disabled();
+    private ParallelStopAreaResolver parallelResolver;
+    private StopAreaBulkRepository bulkRepository;
+
+    StopAreaServiceImplBuilder(StopAreaRepository stopAreaRepository, PrimApiClient primApiClient,
+            GeocodingService geocodingService) {
+        this.stopAreaRepository = stopAreaRepository;
+        this.primApiClient = primApiClient;
+        this.geocodingService = geocodingService;
+    }
+
+    StopAreaServiceImplBuilder gazetteer(StopAreaGazetteer gazetteer) {
+        this.gazetteer = gazetteer;
+        return this;
+    }
+
+    StopAreaServiceImplBuilder spatialIndex(StopAreaSpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
+        return this;
+    }
+
+    StopAreaServiceImplBuilder nameIndex(StopAreaNameIndex nameIndex) {
+        this.nameIndex = nameIndex;
+        return this;
+    }
+
+    StopAreaServiceImplBuilder aliasStore(StopAreaAliasStore aliasStore) {
+        this.aliasStore = aliasStore;
+        return this;
+    }
+
+    StopAreaServiceImplBuilder parallelResolver(ParallelStopAreaResolver parallelResolver) {
+        this.parallelResolver = parallelResolver;
+        return this;
+    }
+
+    StopAreaServiceImplBuilder bulkRepository(StopAreaBulkRepository bulkRepository) {
+        this.bulkRepository = bulkRepository;
+        return this;
+    }
+
+    StopAreaServiceImpl build() {
+        return new StopAreaServiceImpl(stopAreaRepository, primApiClient, geocodingService, gazetteer,
+                spatialIndex, nameIndex, aliasStore, Optional.ofNullable(parallelResolver),
+                Optional.ofNullable(bulkRepository));
+    }
+}
@@ -37,7 +37,7 @@ class StopAreaServiceImplDeepCoverageTest {
 
         @BeforeEach
         void setUp() {
-                service = new StopAreaServiceImpl(stopAreaRepository, primApiClient, geocodingService);
+                service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService).build();
                 lenient().when(stopAreaRepository.findByExternalId(anyString())).thenReturn(Optional.empty());
                 lenient().when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(inv -> inv.getArgument(0));
         }
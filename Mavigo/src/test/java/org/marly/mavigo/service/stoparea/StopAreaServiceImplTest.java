@@ -3,13 +3,21 @@ package org.marly.mavigo.service.stoparea;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.marly.mavigo.client.prim.PrimApiClient;
+import org.marly.mavigo.client.prim.PrimApiException;
 import org.marly.mavigo.client.prim.model.PrimCoordinates;
 import org.marly.mavigo.client.prim.model.PrimPlace;
 import org.marly.mavigo.client.prim.model.PrimStopArea;
 import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.marly.mavigo.repository.StopAreaAliasRepository;
 import org.marly.mavigo.repository.StopAreaRepository;
 import org.marly.mavigo.service.geocoding.GeocodingService;
+import org.marly.mavigo.service.stoparea.alias.StopAreaAliasStore;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.gazetteer.StopAreaGazetteer;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -29,7 +37,7 @@ class StopAreaServiceImplTest {
         stopAreaRepository = mock(StopAreaRepository.class);
         primApiClient = mock(PrimApiClient.class);
         geocodingService = mock(GeocodingService.class);
-        service = new StopAreaServiceImpl(stopAreaRepository, primApiClient, geocodingService);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService).build();
     }
 
     @Test
@@ -44,6 +52,25 @@ class StopAreaServiceImplTest {
         verify(primApiClient, never()).searchPlaces(anyString());
     }
 
+    @Test
+    void findOrCreateByQuery_shouldResolveFromGazetteerWithoutPrim() {
+        StopAreaGazetteer gazetteer = new StopAreaGazetteer();
+        gazetteer.replace(List.of(new StopAreaGazetteer.Entry("stop_area:IDFM:71410", "Gare de Lyon", 48.8443, 2.3744)));
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .gazetteer(gazetteer)
+                .build();
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(stopAreaRepository.findByExternalId("stop_area:IDFM:71410")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StopArea result = service.findOrCreateByQuery("gare-de-lyon");
+
+        assertEquals("stop_area:IDFM:71410", result.getExternalId());
+        assertEquals("Gare de Lyon", result.getName());
+        assertEquals(48.8443, result.getCoordinates().getLatitude());
+        verifyNoInteractions(primApiClient, geocodingService);
+    }
+
     @Test
     void findOrCreateByQuery_shouldSimplifyAddressIfNoResults() {
         String query = "123 Rue de Rivoli, Paris";
@@ -89,6 +116,32 @@ class StopAreaServiceImplTest {
         assertEquals(query, result.getName());
     }
 
+    @Test
+    void findOrCreateByQuery_shouldMoveOnWhenNearbySearchFails() {
+        String query = "Some unknown address";
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces(anyString())).thenReturn(Collections.emptyList());
+
+        org.marly.mavigo.models.shared.GeoPoint geoPoint = new org.marly.mavigo.models.shared.GeoPoint(48.8566, 2.3522);
+        when(geocodingService.geocode(query)).thenReturn(geoPoint);
+        when(geocodingService.reverseGeocode(geoPoint)).thenReturn("Paris, France");
+
+        PrimStopArea primStopArea = new PrimStopArea("ext-3", "Paris Central Station", null);
+        PrimPlace place = new PrimPlace("ext-3", "Paris Central", "stop_area", primStopArea, null, null);
+        when(primApiClient.searchPlacesNearby(eq(48.8566), eq(2.3522), eq(2000), any()))
+                .thenThrow(new PrimApiException("Failed to search places nearby: 502 Bad Gateway"));
+        when(primApiClient.searchPlacesNearby(eq(48.8566), eq(2.3522), eq(5000), any()))
+                .thenReturn(List.of(place));
+        when(stopAreaRepository.findByExternalId("ext-3")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StopArea result = service.findOrCreateByQuery(query);
+
+        assertEquals(query, result.getName());
+        assertTrue(result.getExternalId().contains(";"));
+        verify(stopAreaRepository).save(argThat(saved -> "ext-3".equals(saved.getExternalId())));
+    }
+
     @Test
     void findOrCreateByQuery_shouldThrowExceptionIfNothingFound() {
         String query = "Nowhere land";
@@ -297,4 +350,225 @@ class StopAreaServiceImplTest {
         assertNotNull(result);
         assertEquals("sa-gdn", result.getExternalId());
     }
+
+    @Test
+    void findOrCreateByQuery_shouldValidateAddressFromSpatialIndexWithoutNearbySearch() {
+        StopAreaSpatialIndex spatialIndex = new StopAreaSpatialIndex();
+        spatialIndex.put("stop_area:IDFM:71410", "Gare de Lyon", 48.8443, 2.3744);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .spatialIndex(spatialIndex)
+                .build();
+        String query = "20 boulevard Diderot";
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces(anyString())).thenReturn(Collections.emptyList());
+        when(geocodingService.geocode(query)).thenReturn(new org.marly.mavigo.models.shared.GeoPoint(48.8460, 2.3760));
+
+        StopArea result = service.findOrCreateByQuery(query);
+
+        assertEquals("2.376000;48.846000", result.getExternalId());
+        assertEquals(query, result.getName());
+        verify(primApiClient, never()).searchPlacesNearby(anyDouble(), anyDouble(), anyInt(), any());
+        verify(geocodingService, never()).reverseGeocode(any());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldResolveSpellingVariantFromNameIndexWithoutPrim() {
+        StopAreaNameIndex nameIndex = new StopAreaNameIndex();
+        nameIndex.put("stop_area:IDFM:71410", "Gare de Lyon");
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .nameIndex(nameIndex)
+                .build();
+        StopArea existing = new StopArea("stop_area:IDFM:71410", "Gare de Lyon", null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(stopAreaRepository.findByExternalId("stop_area:IDFM:71410")).thenReturn(Optional.of(existing));
+
+        StopArea result = service.findOrCreateByQuery("Paris Gare-de-Lyon");
+
+        assertEquals(existing, result);
+        verify(primApiClient, never()).searchPlaces(anyString());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldLearnStopNameSpellingAsAlias() {
+        StopAreaNameIndex nameIndex = new StopAreaNameIndex();
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .nameIndex(nameIndex)
+                .build();
+        PrimPlace place = new PrimPlace("sa-gdl", "Gare de Lyon", "stop_area",
+                new PrimStopArea("sa-gdl", "Gare de Lyon", null), null, null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces("gare de lyon paris")).thenReturn(List.of(place));
+        when(stopAreaRepository.findByExternalId("sa-gdl")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        service.findOrCreateByQuery("gare de lyon paris");
+
+        assertEquals("gare de lyon paris", nameIndex.search("gare de lyon paris", 1).get(0).matchedName());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldNotLearnAddressAsAlias() {
+        StopAreaNameIndex nameIndex = new StopAreaNameIndex();
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .nameIndex(nameIndex)
+                .build();
+        PrimPlace place = new PrimPlace("sa-gdl", "Gare de Lyon", "stop_area",
+                new PrimStopArea("sa-gdl", "Gare de Lyon", null), null, null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces("12 rue de Lyon")).thenReturn(List.of(place));
+        when(stopAreaRepository.findByExternalId("sa-gdl")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        service.findOrCreateByQuery("12 rue de Lyon");
+
+        assertTrue(nameIndex.bestMatch("12 rue de Lion").isEmpty());
+        assertTrue(nameIndex.search("12 rue de Lyon", 5).stream()
+                .noneMatch(candidate -> candidate.matchedName().equals("12 rue de Lyon")));
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldRebuildRememberedAddressWithoutRemoteCalls() {
+        StopAreaAliasRepository aliasRepository = mock(StopAreaAliasRepository.class);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .aliasStore(new StopAreaAliasStore(aliasRepository, 1000, 100))
+                .build();
+        StopAreaAlias alias = new StopAreaAlias("20 boulevard diderot", "2.376000;48.846000", "20 boulevard Diderot",
+                new org.marly.mavigo.models.shared.GeoPoint(48.846, 2.376));
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(stopAreaRepository.findByExternalId("2.376000;48.846000")).thenReturn(Optional.empty());
+        when(aliasRepository.findByNormalizedQuery("20 boulevard diderot")).thenReturn(Optional.of(alias));
+
+        StopArea result = service.findOrCreateByQuery("20, Boulevard Diderot");
+
+        assertEquals("2.376000;48.846000", result.getExternalId());
+        assertEquals(48.846, result.getCoordinates().getLatitude());
+        verify(primApiClient, never()).searchPlaces(anyString());
+        verify(geocodingService, never()).geocode(anyString());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldRememberPrimResolution() {
+        StopAreaAliasRepository aliasRepository = mock(StopAreaAliasRepository.class);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .aliasStore(new StopAreaAliasStore(aliasRepository, 1000, 100))
+                .build();
+        PrimStopArea primStopArea = new PrimStopArea("sa-gdn", "Gare du Nord", null);
+        PrimPlace place = new PrimPlace("sa-gdn", "Gare du Nord", "stop_area", primStopArea, null, null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(aliasRepository.findByNormalizedQuery(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces("gare du nord paris")).thenReturn(List.of(place));
+        when(stopAreaRepository.findByExternalId("sa-gdn")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        service.findOrCreateByQuery("gare du nord paris");
+
+        verify(aliasRepository).insertIfAbsent(any(), eq("gare du nord paris"), eq("sa-gdn"), eq("Gare du Nord"),
+                any(), any(), any());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldNotWaitForSlowGeocodingWhenPrimFindsTheStop() {
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .parallelResolver(new ParallelStopAreaResolver(true, Duration.ofSeconds(5), 0.9))
+                .build();
+        PrimStopArea primStopArea = new PrimStopArea("sa-gdn", "Gare du Nord", null);
+        PrimPlace place = new PrimPlace("sa-gdn", "Gare du Nord", "stop_area", primStopArea, null, null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces("Gare du Nord")).thenReturn(List.of(place));
+        when(geocodingService.geocode(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+        when(stopAreaRepository.findByExternalId("sa-gdn")).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        long start = System.nanoTime();
+        StopArea result = service.findOrCreateByQuery("Gare du Nord");
+
+        assertEquals("sa-gdn", result.getExternalId());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldFailWithTimeoutWhenBudgetIsSpent() {
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .parallelResolver(new ParallelStopAreaResolver(true, Duration.ofMillis(100), 0.9))
+                .build();
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Collections.emptyList();
+        });
+
+        assertThrows(StopAreaResolutionTimeoutException.class,
+                () -> service.findOrCreateByQuery("Quelque part"));
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldNotRepeatRaceLookupsInSequentialFallback() {
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .parallelResolver(new ParallelStopAreaResolver(true, Duration.ofSeconds(5), 0.9))
+                .build();
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(geocodingService.geocode("Quelque part"))
+                .thenReturn(new org.marly.mavigo.models.shared.GeoPoint(48.8, 2.3));
+
+        assertThrows(IllegalArgumentException.class, () -> service.findOrCreateByQuery("Quelque part"));
+
+        verify(primApiClient, times(1)).searchPlaces("Quelque part");
+        verify(geocodingService, times(1)).geocode("Quelque part");
+        verify(primApiClient, times(1)).searchPlacesNearby(anyDouble(), anyDouble(), eq(2000), any());
+    }
+
+    @Test
+    void findOrCreateByQuery_shouldBoundSlowSequentialLookupByBudget() {
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .parallelResolver(new ParallelStopAreaResolver(true, Duration.ofMillis(500), 0.9))
+                .build();
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(geocodingService.geocode("Quelque part"))
+                .thenReturn(new org.marly.mavigo.models.shared.GeoPoint(48.8, 2.3));
+        when(geocodingService.reverseGeocode(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        long start = System.nanoTime();
+        assertThrows(StopAreaResolutionTimeoutException.class,
+                () -> service.findOrCreateByQuery("Quelque part"));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void resolveDetached_shouldDeferWritesUntilPersistResolutions() {
+        StopAreaAliasRepository aliasRepository = mock(StopAreaAliasRepository.class);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService)
+                .aliasStore(new StopAreaAliasStore(aliasRepository, 1000, 100))
+                .build();
+        PrimPlace gareDuNord = new PrimPlace("sa-gdn", "Gare du Nord", "stop_area",
+                new PrimStopArea("sa-gdn", "Gare du Nord", null), null, null);
+        PrimPlace magenta = new PrimPlace("sa-mag", "Magenta", "stop_area",
+                new PrimStopArea("sa-mag", "Magenta", null), null, null);
+        when(stopAreaRepository.findFirstByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(aliasRepository.findByNormalizedQuery(anyString())).thenReturn(Optional.empty());
+        when(primApiClient.searchPlaces("gare du nord paris")).thenReturn(List.of(gareDuNord, magenta));
+        when(stopAreaRepository.findByExternalId(anyString())).thenReturn(Optional.empty());
+        when(stopAreaRepository.save(any(StopArea.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StopAreaResolution resolution = service.resolveDetached("gare du nord paris");
+
+        assertEquals("sa-gdn", resolution.stopArea().getExternalId());
+        assertEquals(2, resolution.newStopAreas().size());
+        verify(stopAreaRepository, never()).save(any(StopArea.class));
+        verify(aliasRepository, never()).insertIfAbsent(any(), anyString(), anyString(), anyString(), any(), any(),
+                any());
+
+        List<StopArea> stored = service.persistResolutions(List.of(resolution));
+
+        assertEquals("sa-gdn", stored.get(0).getExternalId());
+        verify(stopAreaRepository, times(2)).save(any(StopArea.class));
+        verify(aliasRepository).insertIfAbsent(any(), eq("gare du nord paris"), eq("sa-gdn"), eq("Gare du Nord"),
+                any(), any(), any());
+    }
 }
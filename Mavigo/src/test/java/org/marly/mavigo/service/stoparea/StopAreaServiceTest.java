@@ -36,7 +36,7 @@ class StopAreaServiceTest {
         primApiClient = mock(PrimApiClient.class);
         geocodingService = mock(GeocodingService.class);
 
-        service = new StopAreaServiceImpl(stopAreaRepository, primApiClient, geocodingService);
+        service = new StopAreaServiceImplBuilder(stopAreaRepository, primApiClient, geocodingService).build();
     }
 
     @Test
@@ -0,0 +1,81 @@
+package org.marly.mavigo.service.stoparea.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.models.stoparea.StopAreaAlias;
+import org.marly.mavigo.repository.StopAreaAliasRepository;
+import org.springframework.data.domain.Pageable;
+
+class StopAreaAliasStoreTest {
+
+    private StopAreaAliasRepository repository;
+    private StopAreaAliasStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StopAreaAliasRepository.class);
+        store = new StopAreaAliasStore(repository, 100, 1);
+    }
+
+    @Test
+    @DisplayName("Les requêtes sont normalisées, les coordonnées gardent signe et précision")
+    void aliasKey_normalizesQueriesAndCoordinates() {
+        assertThat(StopAreaAliasStore.aliasKey("Gare-de-Lyon ")).isEqualTo(StopAreaAliasStore.aliasKey("gare de lyon"));
+        assertThat(StopAreaAliasStore.aliasKey("2.3522;48.8566")).isEqualTo("coord:2.35220;48.85660");
+        assertThat(StopAreaAliasStore.aliasKey("-2.3522, 48.8566")).isEqualTo("coord:-2.35220;48.85660");
+        assertThat(StopAreaAliasStore.aliasKey("  ")).isNull();
+    }
+
+    @Test
+    @DisplayName("Une recherche trouvée incrémente le compteur d'utilisation")
+    void lookup_recordsHit() {
+        StopAreaAlias alias = new StopAreaAlias("gare de lyon", "stop_area:IDFM:71410", "Gare de Lyon", null);
+        when(repository.findByNormalizedQuery("gare de lyon")).thenReturn(Optional.of(alias));
+
+        assertThat(store.lookup("Gare de Lyon")).contains(alias);
+        verify(repository).recordHit(eq(alias.getId()), any());
+    }
+
+    @Test
+    @DisplayName("Un nouvel alias est inséré puis les plus anciens sont purgés au-delà du maximum")
+    void remember_insertsAndPrunesLeastRecentlyUsed() {
+        List<UUID> oldest = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(repository.updateTarget(anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(0);
+        when(repository.insertIfAbsent(any(), anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        when(repository.count()).thenReturn(102L);
+        when(repository.findLeastRecentlyUsedIds(any(Pageable.class))).thenReturn(oldest);
+
+        store.remember("20 boulevard Diderot", new StopArea("2.376000;48.846000", "20 boulevard Diderot",
+                new GeoPoint(48.846, 2.376)));
+
+        verify(repository).insertIfAbsent(any(), eq("20 boulevard diderot"), eq("2.376000;48.846000"),
+                eq("20 boulevard Diderot"), eq(48.846), eq(2.376), any());
+        verify(repository).deleteAllByIdInBatch(oldest);
+    }
+
+    @Test
+    @DisplayName("Un alias existant est redirigé sans nouvelle insertion")
+    void remember_updatesExistingAlias() {
+        when(repository.updateTarget(anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        store.remember("Gare de Lyon", new StopArea("stop_area:IDFM:71410", "Gare de Lyon", null));
+
+        verify(repository, never()).insertIfAbsent(any(), anyString(), anyString(), anyString(), any(), any(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package org.marly.mavigo.service.stoparea.fuzzy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StopAreaNameIndexTest {
+
+    private StopAreaNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StopAreaNameIndex();
+        index.put("stop_area:IDFM:71410", "Gare de Lyon");
+        index.put("stop_area:IDFM:71359", "Gare de l'Est");
+        index.put("stop_area:IDFM:71517", "Châtelet");
+        index.put("stop_area:IDFM:1", "Mairie d'Ivry");
+        index.put("stop_area:IDFM:2", "Mairie de Montreuil");
+    }
+
+    @Test
+    @DisplayName("Les variantes d'écriture d'un nom connu sont acceptées automatiquement")
+    void bestMatch_acceptsSpellingVariants() {
+        assertThat(index.bestMatch("Gare-de-Lyon")).map(StopAreaNameIndex.Candidate::externalId)
+                .contains("stop_area:IDFM:71410");
+        assertThat(index.bestMatch("Paris Gare de Lyon")).map(StopAreaNameIndex.Candidate::externalId)
+                .contains("stop_area:IDFM:71410");
+        assertThat(index.bestMatch("CHATELET")).map(StopAreaNameIndex.Candidate::name)
+                .contains("Châtelet");
+    }
+
+    @Test
+    @DisplayName("Les requêtes ambiguës ou trop éloignées ne sont pas acceptées mais restent classées")
+    void bestMatch_rejectsAmbiguousOrDistantQueries() {
+        assertThat(index.bestMatch("Mairie")).isEmpty();
+        assertThat(index.bestMatch("12 rue de Lyon")).isEmpty();
+
+        assertThat(index.search("gare de lion", 5))
+                .extracting(StopAreaNameIndex.Candidate::externalId)
+                .startsWith("stop_area:IDFM:71410", "stop_area:IDFM:71359");
+    }
+
+    @Test
+    @DisplayName("Un alias appris renvoie vers l'arrêt sous son nom officiel")
+    void addAlias_resolvesToCanonicalName() {
+        index.addAlias("stop_area:IDFM:71517", "Les Halles");
+
+        assertThat(index.bestMatch("les halles")).hasValueSatisfying(candidate -> {
+            assertThat(candidate.externalId()).isEqualTo("stop_area:IDFM:71517");
+            assertThat(candidate.name()).isEqualTo("Châtelet");
+            assertThat(candidate.matchedName()).isEqualTo("Les Halles");
+            assertThat(candidate.score()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Seule une écriture du nom de l'arrêt peut devenir un alias, pas une adresse")
+    void isAliasOf_acceptsSpellingsButNotAddresses() {
+        assertThat(StopAreaNameIndex.isAliasOf("gare de lyon paris", "Gare de Lyon")).isTrue();
+        assertThat(StopAreaNameIndex.isAliasOf("Porte de Saint-Cloud", "Porte de St Cloud")).isTrue();
+        assertThat(StopAreaNameIndex.isAliasOf("12 rue de Lyon", "Gare de Lyon")).isFalse();
+        assertThat(StopAreaNameIndex.isAliasOf("Gare de Lyon 75012", "Gare de Lyon")).isFalse();
+        assertThat(StopAreaNameIndex.isAliasOf("Les Halles", "Châtelet")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deux écritures d'un même nom sont plus proches que deux noms différents")
+    void similarity_scoresSpellingsAboveUnrelatedNames() {
+        assertThat(StopAreaNameIndex.similarity("Gare-de-Lyon", "Gare de Lyon")).isEqualTo(1.0);
+        assertThat(StopAreaNameIndex.similarity("gare de lion", "Gare de Lyon")).isGreaterThan(0.5);
+        assertThat(StopAreaNameIndex.similarity("20 boulevard Diderot", "Gare de Lyon")).isLessThan(0.5);
+        assertThat(StopAreaNameIndex.similarity("", "Gare de Lyon")).isZero();
+    }
+
+    @Test
+    @DisplayName("Un renommage remplace l'ancien nom dans l'index")
+    void put_replacesRenamedStop() {
+        index.put("stop_area:IDFM:71410", "Paris Gare de Lyon Hall 1");
+
+        assertThat(index.search("gare de lyon", 5))
+                .noneMatch(candidate -> candidate.matchedName().equals("Gare de Lyon"));
+        assertThat(index.size()).isEqualTo(5);
+    }
+}
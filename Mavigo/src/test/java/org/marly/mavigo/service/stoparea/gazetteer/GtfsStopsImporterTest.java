@@ -0,0 +1,122 @@
+package org.marly.mavigo.service.stoparea.gazetteer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.marly.mavigo.models.shared.GeoPoint;
+import org.marly.mavigo.models.stoparea.StopArea;
+import org.marly.mavigo.repository.StopAreaRepository;
+import org.marly.mavigo.service.stoparea.fuzzy.StopAreaNameIndex;
+import org.marly.mavigo.service.stoparea.spatial.StopAreaSpatialIndex;
+
+class GtfsStopsImporterTest {
+
+    private static final String HEADER =
+            "stop_id,stop_code,stop_name,stop_desc,stop_lon,stop_lat,zone_id,stop_url,location_type,parent_station\n";
+
+    private static final String STOPS = HEADER
+            + "IDFM:71410,,Gare de Lyon,,2.3744,48.8443,1,,1,\n"
+            + "IDFM:22092,,Gare de Lyon,,2.3741,48.8446,1,,0,IDFM:71410\n"
+            + "IDFM:71517,,\"Châtelet, Les Halles\",,2.3470,48.8620,1,,1,\n"
+            + "IDFM:70000,,Broken,,abc,48.0,1,,1,\n";
+
+    @TempDir
+    Path directory;
+
+    private final StopAreaRepository stopAreaRepository = mock(StopAreaRepository.class);
+
+    @Test
+    @DisplayName("Seules les stations (location_type=1) aux coordonnées valides sont importées")
+    void parse_keepsStationsOnly() throws Exception {
+        List<StopAreaGazetteer.Entry> entries = GtfsStopsImporter.parse(new StringReader(STOPS), "stop_area:");
+
+        assertThat(entries).containsExactly(
+                new StopAreaGazetteer.Entry("stop_area:IDFM:71410", "Gare de Lyon", 48.8443, 2.3744),
+                new StopAreaGazetteer.Entry("stop_area:IDFM:71517", "Châtelet, Les Halles", 48.8620, 2.3470));
+    }
+
+    @Test
+    @DisplayName("Un rechargement sans modification du fichier est ignoré, une modification est appliquée en différentiel")
+    void reload_isIncremental() throws Exception {
+        Path stops = Files.writeString(directory.resolve("stops.txt"), STOPS);
+        StopAreaGazetteer gazetteer = new StopAreaGazetteer();
+        GtfsStopsImporter importer = importer(gazetteer, new StopAreaSpatialIndex(), new StopAreaNameIndex(), stops);
+
+        GtfsStopsImporter.ImportResult first = importer.reload(false);
+        assertThat(first.status()).isEqualTo(GtfsStopsImporter.ImportResult.Status.LOADED);
+        assertThat(first.added()).isEqualTo(2);
+        assertThat(importer.reload(false).status()).isEqualTo(GtfsStopsImporter.ImportResult.Status.UNCHANGED);
+
+        Files.writeString(stops, HEADER
+                + "IDFM:71410,,Paris Gare de Lyon,,2.3744,48.8443,1,,1,\n"
+                + "IDFM:73794,,Nation,,2.3958,48.8483,1,,1,\n");
+        Files.setLastModifiedTime(stops, FileTime.from(Instant.now().plusSeconds(5)));
+        GtfsStopsImporter.ImportResult second = importer.reload(false);
+
+        assertThat(second.status()).isEqualTo(GtfsStopsImporter.ImportResult.Status.LOADED);
+        assertThat(second.added()).isEqualTo(1);
+        assertThat(second.updated()).isEqualTo(1);
+        assertThat(second.removed()).isEqualTo(1);
+        assertThat(gazetteer.findByName("paris gare de lyon")).map(StopAreaGazetteer.Entry::externalId)
+                .contains("stop_area:IDFM:71410");
+        assertThat(gazetteer.findByExternalId("stop_area:IDFM:71517")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Une station retirée du fichier quitte les index, sauf si elle est enregistrée en base")
+    void reload_removesDroppedStationsFromIndexes() throws Exception {
+        Path stops = Files.writeString(directory.resolve("stops.txt"), HEADER
+                + "IDFM:71410,,Gare de Lyon,,2.3744,48.8443,1,,1,\n"
+                + "IDFM:71517,,Châtelet,,2.3470,48.8620,1,,1,\n"
+                + "IDFM:73794,,Nation,,2.3958,48.8483,1,,1,\n");
+        StopAreaSpatialIndex spatialIndex = new StopAreaSpatialIndex();
+        StopAreaNameIndex nameIndex = new StopAreaNameIndex();
+        GtfsStopsImporter importer = importer(new StopAreaGazetteer(), spatialIndex, nameIndex, stops);
+        importer.reload(false);
+        when(stopAreaRepository.findByExternalId("stop_area:IDFM:73794")).thenReturn(Optional.of(
+                new StopArea("stop_area:IDFM:73794", "Nation", new GeoPoint(48.8483, 2.3958))));
+
+        Files.writeString(stops, HEADER + "IDFM:71410,,Gare de Lyon,,2.3744,48.8443,1,,1,\n");
+        Files.setLastModifiedTime(stops, FileTime.from(Instant.now().plusSeconds(5)));
+        assertThat(importer.reload(false).removed()).isEqualTo(2);
+
+        assertThat(spatialIndex.nearest(48.8620, 2.3470, 200.0)).isEmpty();
+        assertThat(nameIndex.search("Châtelet", 5)).isEmpty();
+        assertThat(spatialIndex.nearest(48.8483, 2.3958, 200.0)).map(neighbour -> neighbour.stop().externalId())
+                .contains("stop_area:IDFM:73794");
+        assertThat(nameIndex.bestMatch("Nation")).isPresent();
+        assertThat(nameIndex.bestMatch("Gare de Lyon")).isPresent();
+    }
+
+    @Test
+    @DisplayName("La recherche par nom ignore accents et ponctuation mais refuse les noms ambigus")
+    void gazetteer_matchesNormalizedUnambiguousNames() {
+        StopAreaGazetteer gazetteer = new StopAreaGazetteer();
+        gazetteer.replace(List.of(
+                new StopAreaGazetteer.Entry("stop_area:IDFM:71517", "Châtelet", 48.8620, 2.3470),
+                new StopAreaGazetteer.Entry("stop_area:IDFM:1", "Mairie", 48.80, 2.30),
+                new StopAreaGazetteer.Entry("stop_area:IDFM:2", "Mairie", 48.90, 2.40)));
+
+        assertThat(gazetteer.findByName("  CHATELET ")).isPresent();
+        assertThat(gazetteer.findByName("Mairie")).isEmpty();
+    }
+
+    private GtfsStopsImporter importer(StopAreaGazetteer gazetteer, StopAreaSpatialIndex spatialIndex,
+            StopAreaNameIndex nameIndex, Path stops) {
+        return new GtfsStopsImporter(gazetteer, stopAreaRepository, spatialIndex, nameIndex, stops.toString(),
+                "stop_area:", Duration.ZERO);
+    }
+}
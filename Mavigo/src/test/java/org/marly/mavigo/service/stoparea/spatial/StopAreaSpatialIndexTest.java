@@ -0,0 +1,75 @@
+package org.marly.mavigo.service.stoparea.spatial;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.marly.mavigo.client.prim.PrimPlaceUtils;
+
+class StopAreaSpatialIndexTest {
+
+    @Test
+    @DisplayName("Les k plus proches voisins correspondent à un parcours exhaustif")
+    void nearest_matchesBruteForce() {
+        StopAreaSpatialIndex index = new StopAreaSpatialIndex();
+        Random random = new Random(42);
+        List<StopAreaSpatialIndex.IndexedStop> stops = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double latitude = 48.6 + random.nextDouble() * 0.6;
+            double longitude = 2.0 + random.nextDouble() * 0.8;
+            stops.add(new StopAreaSpatialIndex.IndexedStop("stop_area:" + i, "Arrêt " + i, latitude, longitude));
+            index.put("stop_area:" + i, "Arrêt " + i, latitude, longitude);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = 48.6 + random.nextDouble() * 0.6;
+            double longitude = 2.0 + random.nextDouble() * 0.8;
+            List<String> expected = stops.stream()
+                    .filter(stop -> distance(latitude, longitude, stop) <= 3000)
+                    .sorted(Comparator.comparingDouble(stop -> distance(latitude, longitude, stop)))
+                    .limit(5)
+                    .map(StopAreaSpatialIndex.IndexedStop::externalId)
+                    .toList();
+
+            assertThat(index.nearest(latitude, longitude, 5, 3000))
+                    .extracting(neighbour -> neighbour.stop().externalId())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("La recherche par rayon exclut les arrêts hors rayon et trie par distance")
+    void withinRadius_filtersAndSorts() {
+        StopAreaSpatialIndex index = new StopAreaSpatialIndex();
+        index.put("stop_area:IDFM:71410", "Gare de Lyon", 48.8443, 2.3744);
+        index.put("stop_area:IDFM:71517", "Châtelet", 48.8620, 2.3470);
+        index.put("stop_area:IDFM:73794", "Nation", 48.8483, 2.3958);
+        index.put("stop_area:IDFM:no-coords", "Inconnu", null, 2.35);
+
+        assertThat(index.withinRadius(48.8450, 2.3750, 2000))
+                .extracting(neighbour -> neighbour.stop().name())
+                .containsExactly("Gare de Lyon", "Nation");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Un arrêt déplacé n'est plus trouvé à son ancienne position")
+    void put_movesExistingStop() {
+        StopAreaSpatialIndex index = new StopAreaSpatialIndex();
+        index.put("stop_area:1", "Mairie", 48.80, 2.30);
+        index.put("stop_area:1", "Mairie", 48.90, 2.40);
+
+        assertThat(index.nearest(48.80, 2.30, 1000)).isEmpty();
+        assertThat(index.nearest(48.90, 2.40, 1000)).isPresent();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static double distance(double latitude, double longitude, StopAreaSpatialIndex.IndexedStop stop) {
+        return PrimPlaceUtils.calculateDistance(latitude, longitude, stop.latitude(), stop.longitude());
+    }
+}